@@ -0,0 +1,17 @@
+-- Indexes of the lookups of the repositories (CanonicalURIRepository, CanonicalURILanguageRepository and
+-- LocalURIRepository). They are declared on the entities too, so databases whose schema is created or updated by
+-- Hibernate (ddl-auto) get them automatically. Run after add_uri_hash_columns.sql.
+-- The leading column of each composite index also serves the lookups by that column alone (findByEntityName and
+-- findByPropertyName).
+CREATE INDEX IDX_CANONICAL_URI_ENTITY_REFERENCE ON CANONICAL_URI (ENTITY_NAME, REFERENCE);
+CREATE INDEX IDX_CANONICAL_URI_ENTITY_PROPERTY ON CANONICAL_URI (ENTITY_NAME, PROPERTY_NAME);
+CREATE INDEX IDX_CANONICAL_URI_ENTITY_IS_ENTITY ON CANONICAL_URI (ENTITY_NAME, IS_ENTITY);
+CREATE INDEX IDX_CANONICAL_URI_PROPERTY_IS_PROPERTY ON CANONICAL_URI (PROPERTY_NAME, IS_PROPERTY);
+
+CREATE INDEX IDX_CANONICAL_URI_LANGUAGE_ENTITY_REFERENCE ON CANONICAL_URI_LANGUAGE (ENTITY_NAME, REFERENCE);
+CREATE INDEX IDX_CANONICAL_URI_LANGUAGE_ENTITY_PROPERTY ON CANONICAL_URI_LANGUAGE (ENTITY_NAME, PROPERTY_NAME);
+CREATE INDEX IDX_CANONICAL_URI_LANGUAGE_ENTITY_IS_ENTITY ON CANONICAL_URI_LANGUAGE (ENTITY_NAME, IS_ENTITY);
+CREATE INDEX IDX_CANONICAL_URI_LANGUAGE_PROPERTY_IS_PROPERTY ON CANONICAL_URI_LANGUAGE (PROPERTY_NAME, IS_PROPERTY);
+
+CREATE INDEX IDX_LOCAL_URI_LOCAL_URI ON LOCAL_URI (LOCAL_URI);
+CREATE INDEX IDX_LOCAL_URI_STORAGETYPE_CANONICAL_URI_LANGUAGE ON LOCAL_URI (STORAGETYPE_NAME, CANONICAL_URI_LANGUAGE_ID);
@@ -0,0 +1,16 @@
+-- Fixed width lookup keys of the URI columns (64 bit FarmHash fingerprint of the URI, see UriHash).
+-- Databases whose schema is created or updated by Hibernate (ddl-auto) get them automatically. The rows stored before
+-- are filled in background by the application at startup (app.uri-hash.backfill), until then the lookups fall back to
+-- the URI.
+ALTER TABLE CANONICAL_URI ADD COLUMN FULL_URI_HASH BIGINT;
+CREATE INDEX IDX_CANONICAL_URI_FULL_URI_HASH ON CANONICAL_URI (FULL_URI_HASH);
+
+ALTER TABLE CANONICAL_URI_LANGUAGE ADD COLUMN FULL_URI_HASH BIGINT;
+ALTER TABLE CANONICAL_URI_LANGUAGE ADD COLUMN FULL_PARENT_URI_HASH BIGINT;
+CREATE INDEX IDX_CANONICAL_URI_LANGUAGE_FULL_URI_HASH ON CANONICAL_URI_LANGUAGE (FULL_URI_HASH);
+CREATE INDEX IDX_CANONICAL_URI_LANGUAGE_FULL_PARENT_URI_HASH ON CANONICAL_URI_LANGUAGE (FULL_PARENT_URI_HASH);
+
+ALTER TABLE LOCAL_URI ADD COLUMN LOCAL_URI_HASH BIGINT;
+ALTER TABLE LOCAL_URI ADD COLUMN CANONICAL_URI_LANGUAGE_HASH BIGINT;
+CREATE INDEX IDX_LOCAL_URI_LOCAL_URI_HASH ON LOCAL_URI (LOCAL_URI_HASH);
+CREATE INDEX IDX_LOCAL_URI_CANONICAL_URI_LANGUAGE_HASH ON LOCAL_URI (CANONICAL_URI_LANGUAGE_HASH);
@@ -0,0 +1,4 @@
+-- The entity ids are generated in blocks of 50 (pooled-lo optimizer) from hibernate_sequence.
+-- Databases with native sequences (PostgreSQL, MariaDB >= 10.3 with a sequence dialect) must step the sequence by the
+-- same increment. Databases without sequences keep it in the hibernate_sequence table and need no change.
+ALTER SEQUENCE hibernate_sequence INCREMENT BY 50;
@@ -0,0 +1,118 @@
+package es.um.asio.back.config;
+
+import es.um.asio.service.cache.CanonicalURILanguageCache;
+import es.um.asio.service.cache.DiscoveryCache;
+import es.um.asio.service.discovery.DiscoveryBatcher;
+import es.um.asio.service.discovery.DiscoveryExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers application metrics in the actuator registry.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Exposes the hit, miss and eviction counters of the canonical language URI cache.
+     *
+     * @param cache
+     *            the cache
+     * @return the meter binder
+     */
+    @Bean
+    public MeterBinder canonicalURILanguageCacheMetrics(final CanonicalURILanguageCache cache) {
+        return registry -> {
+            FunctionCounter.builder("uris.cache.canonical-uri-language.hits", cache, CanonicalURILanguageCache::getHitCount)
+                    .description("Full URI lookups served from the cache").register(registry);
+            FunctionCounter.builder("uris.cache.canonical-uri-language.misses", cache, CanonicalURILanguageCache::getMissCount)
+                    .description("Full URI lookups that reached the database").register(registry);
+            FunctionCounter.builder("uris.cache.canonical-uri-language.evictions", cache, CanonicalURILanguageCache::getEvictionCount)
+                    .description("Entries evicted by size or expiration").register(registry);
+            Gauge.builder("uris.cache.canonical-uri-language.size", cache, CanonicalURILanguageCache::size)
+                    .description("Cached entries").register(registry);
+        };
+    }
+
+    /**
+     * Exposes the hit ratio and the remote latency saved by the cache of the discovery library answers.
+     *
+     * @param cache
+     *            the cache
+     * @return the meter binder
+     */
+    @Bean
+    public MeterBinder discoveryCacheMetrics(final DiscoveryCache cache) {
+        return registry -> {
+            FunctionCounter.builder("uris.cache.discovery.hits", cache, DiscoveryCache::getHitCount)
+                    .description("Similar entity lookups served from the cache").register(registry);
+            FunctionCounter.builder("uris.cache.discovery.misses", cache, DiscoveryCache::getMissCount)
+                    .description("Similar entity lookups that called the discovery library").register(registry);
+            FunctionCounter.builder("uris.cache.discovery.evictions", cache, DiscoveryCache::getEvictionCount)
+                    .description("Entries evicted by size or expiration").register(registry);
+            FunctionCounter.builder("uris.cache.discovery.saved", cache, DiscoveryCache::getSavedSeconds)
+                    .baseUnit("seconds").description("Latency of the discovery calls saved by the hits").register(registry);
+            Gauge.builder("uris.cache.discovery.hit-ratio", cache, DiscoveryCache::getHitRatio)
+                    .description("Ratio of lookups served from the cache").register(registry);
+            Gauge.builder("uris.cache.discovery.size", cache, DiscoveryCache::size)
+                    .description("Cached entries").register(registry);
+        };
+    }
+
+    /**
+     * Exposes the latency, the outcome of the calls and the circuit state of the discovery library integration.
+     *
+     * @param executor
+     *            the discovery executor
+     * @return the meter binder
+     */
+    @Bean
+    public MeterBinder discoveryMetrics(final DiscoveryExecutor executor) {
+        return registry -> {
+            FunctionTimer.builder("uris.discovery.calls", executor, DiscoveryExecutor::getCallCount,
+                    DiscoveryExecutor::getTotalLatencySeconds, TimeUnit.SECONDS)
+                    .description("Calls made to the discovery library, until answer or deadline").register(registry);
+            FunctionCounter.builder("uris.discovery.failures", executor, DiscoveryExecutor::getFailureCount)
+                    .description("Calls that failed").register(registry);
+            FunctionCounter.builder("uris.discovery.timeouts", executor, DiscoveryExecutor::getTimeoutCount)
+                    .description("Calls that exceeded the deadline").register(registry);
+            FunctionCounter.builder("uris.discovery.saturated", executor, DiscoveryExecutor::getSaturatedCount)
+                    .description("Calls skipped because the pool was full").register(registry);
+            FunctionCounter.builder("uris.discovery.circuit.rejected", executor, e -> e.getCircuitBreaker().getRejectedCount())
+                    .description("Calls skipped because the circuit was open").register(registry);
+            FunctionCounter.builder("uris.discovery.circuit.opened", executor, e -> e.getCircuitBreaker().getOpenCount())
+                    .description("Times the circuit opened").register(registry);
+            Gauge.builder("uris.discovery.circuit.state", executor, e -> e.getCircuitBreaker().getState().ordinal())
+                    .description("Circuit state: 0 closed, 1 half open, 2 open").register(registry);
+            Gauge.builder("uris.discovery.queue", executor, DiscoveryExecutor::getQueueSize)
+                    .description("Calls waiting for a thread").register(registry);
+        };
+    }
+
+    /**
+     * Exposes the batches of similarity requests sent to the discovery library.
+     *
+     * @param batcher
+     *            the discovery batcher
+     * @return the meter binder
+     */
+    @Bean
+    public MeterBinder discoveryBatchMetrics(final DiscoveryBatcher batcher) {
+        return registry -> {
+            FunctionCounter.builder("uris.discovery.batches", batcher, DiscoveryBatcher::getBatchCount)
+                    .description("Batches of requests sent").register(registry);
+            FunctionCounter.builder("uris.discovery.batched-requests", batcher, DiscoveryBatcher::getRequestCount)
+                    .description("Requests sent in batches").register(registry);
+            FunctionCounter.builder("uris.discovery.shared-requests", batcher, DiscoveryBatcher::getSharedCount)
+                    .description("Requests answered by an identical request of the same batch").register(registry);
+            Gauge.builder("uris.discovery.pending", batcher, DiscoveryBatcher::getPendingCount)
+                    .description("Batched requests waiting for an answer").register(registry);
+        };
+    }
+}
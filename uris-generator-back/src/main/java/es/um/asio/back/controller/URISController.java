@@ -1,31 +1,47 @@
 package es.um.asio.back.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import es.um.asio.abstractions.constants.Constants;
 import es.um.asio.back.controller.crud.canonical_language.CanonicalURILanguageController;
 import es.um.asio.back.controller.crud.local.LocalURIController;
 import es.um.asio.back.controller.crud.storage_type.StorageTypeController;
 import es.um.asio.back.controller.error.CustomNotFoundException;
+import es.um.asio.service.dto.CanonicalURILanguageView;
+import es.um.asio.service.dto.InstanceURIRequest;
+import es.um.asio.service.dto.InstanceURIResult;
+import es.um.asio.service.dto.URIComponents;
 import es.um.asio.service.model.*;
 import es.um.asio.service.proxy.LanguageProxy;
 import es.um.asio.service.proxy.LanguageTypeProxy;
 import es.um.asio.service.proxy.LocalURIProxy;
 import es.um.asio.service.proxy.TypeProxy;
 import es.um.asio.service.service.*;
+import es.um.asio.service.util.ContentHash;
+import es.um.asio.service.util.SingleFlight;
 import es.um.asio.service.util.Utils;
 import es.um.asio.service.validation.group.Create;
-import io.cucumber.messages.internal.com.google.gson.internal.LinkedTreeMap;
 import io.swagger.annotations.*;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.configurationprocessor.json.JSONObject;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.NoSuchAlgorithmException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -43,6 +59,7 @@ public class URISController {
 	private static final String STORAGE_NOT_FOUND = "Storage type %s Not Found";
 	private static final String CREATED_INSTANCE = "Created Instance URI: {}";
 	private static final String NOT_VALID_URI_LOCAL_FORMAT = "Not valid format URI Local";
+	private static final String NDJSON = "application/x-ndjson";
 
 	/**
 	 * Controller implementation for {@link CanonicalURILanguage}.
@@ -110,6 +127,35 @@ public class URISController {
 	@Autowired
 	private DiscoveryService discoveryService;
 
+	/**
+	 * Bulk Service
+	 */
+	@Autowired
+	private CanonicalURIBulkService canonicalURIBulkService;
+
+	/**
+	 * Reference Service
+	 */
+	@Autowired
+	private ReferenceService referenceService;
+
+	/**
+	 * JSON mapper, the same used to read the request bodies
+	 */
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Number of instances of a stream processed together
+	 */
+	@Value("${app.bulk.chunk-size:500}")
+	private int chunkSize;
+
+	/**
+	 * Coalesces identical URI creation requests in flight, so concurrent duplicates share the first result.
+	 */
+	private final SingleFlight<String, CanonicalURILanguage> creationsInFlight = new SingleFlight<>();
+
 	@ApiOperation(value = "Check if server is Alive", notes = "Check if server is Alive")
 	@RequestMapping(method={RequestMethod.GET},value={Mappings.HEALTH})
 	public String getHealth() {
@@ -171,50 +217,319 @@ public class URISController {
 			@RequestBody final Object input) {
 		this.logger.info("Creating Instance URI..." );
 
-		try {
-			if (!Arrays.asList(new String[] {"cat","def","kos","res"}).contains(type)) {
-				throw new CustomNotFoundException("Type: " +type +" wrong, the type must be one of this [cat,def,kos,res]" );
-			}
+		if (!Arrays.asList(new String[] {"cat","def","kos","res"}).contains(type)) {
+			throw new CustomNotFoundException("Type: " +type +" wrong, the type must be one of this [cat,def,kos,res]" );
+		}
 /*			final String type = Constants.TYPE_REST;*/
 
-			final HashMap map = (HashMap) input;
-			final String entity = Utils.getClassNameFromPath(String.valueOf(map.get(Constants.CLASS) != null ? map.get(Constants.CLASS): map.get(Constants.CLASS)));
-			if (!Utils.isValidString(entity)) {
-				throw new CustomNotFoundException("Attribute @Class (required) is not present");
-			}
-			final String pEntity = Utils.getClassNameFromPath((String) (map.get(Constants.CANONICAL_CLASS_NAME) != null ? (map.get(Constants.CANONICAL_CLASS_NAME))	: (map.get(Constants.CANONICAL_CLASS))));
-			final String ref = Utils.generateUUIDFromOject(input);
-			String entityId = map.containsKey(Constants.ENTITY_ID)?String.valueOf(map.get(Constants.ENTITY_ID)) :
-					map.containsKey(Constants.ID)?String.valueOf(map.get(Constants.ID)):null;
-			String localId = new String(entityId);
-			if (Utils.isValidString(entityId) && !Utils.isValidUUID(entityId)) {
-				entityId = Utils.getUUIDFromString(entityId);
-			}
+		final HashMap map = (HashMap) input;
+		final String entity = Utils.getClassNameFromPath(String.valueOf(map.get(Constants.CLASS) != null ? map.get(Constants.CLASS): map.get(Constants.CLASS)));
+		if (!Utils.isValidString(entity)) {
+			throw new CustomNotFoundException("Attribute @Class (required) is not present");
+		}
+		final String pEntity = Utils.getClassNameFromPath((String) (map.get(Constants.CANONICAL_CLASS_NAME) != null ? (map.get(Constants.CANONICAL_CLASS_NAME))	: (map.get(Constants.CANONICAL_CLASS))));
+		final String ref = referenceService.generate(domain, type, input);
+		String entityId = map.containsKey(Constants.ENTITY_ID)?String.valueOf(map.get(Constants.ENTITY_ID)) :
+				map.containsKey(Constants.ID)?String.valueOf(map.get(Constants.ID)):null;
+		String localId = new String(entityId);
+		if (Utils.isValidString(entityId) && !Utils.isValidUUID(entityId)) {
+			entityId = Utils.getUUIDFromString(entityId);
+		}
 
+		final String requestEntityId = entityId;
+		// a reference that is not deterministic is new in each request, the key takes the content instead
+		final String contentRef = referenceService.isDeterministic(domain, type) ? ref : ContentHash.uuid(input).toString();
+		final String key = creationKey(Mappings.RESOURCE_ID, domain, subDomain, lang, type, entity, pEntity,
+				(Utils.isValidString(entityId) ? entityId : contentRef), tripleStore, String.valueOf(requestDiscovery));
+		CanonicalURILanguage canonicalURILanguage = creationsInFlight.execute(key, () -> {
+			String id = requestEntityId;
 			if (requestDiscovery) {
-				LinkedTreeMap<String, Object> similarity = discoveryService.findSimilarEntity(subDomain, tripleStore, entity, entityId, map);
+				Map<String, Object> similarity = discoveryService.findSimilarEntity(subDomain, tripleStore, entity, id, map);
 				if (similarity != null) {
 					if (similarity.containsKey("entityId"))
-						entityId = similarity.get("entityId").toString();
+						id = similarity.get("entityId").toString();
 				}
 			}
-			CanonicalURILanguage canonicalURILanguage = canonicalURILanguageControllerController.save(domain, subDomain,
-					lang, type, entity, (Utils.isValidString(entityId) ? entityId : ref),localId, null,
+			return canonicalURILanguageControllerController.save(domain, subDomain,
+					lang, type, entity, (Utils.isValidString(id) ? id : ref),localId, null,
 					(pEntity != null) ? pEntity : entity, null, true);
+		});
 
-			// response
-			final Map<String, String> response = new HashMap<>();
-			response.put(Constants.CANONICAL_URI, canonicalURILanguage.getFullParentURI());
-			response.put(Constants.LANGUAGE, lang);
-			response.put(Constants.CANONICAL_LANGUAGE_URI, canonicalURILanguage.getFullURI());
-			this.logger.info(CREATED_INSTANCE, new JSONObject(response));
-			return response;
+		// response
+		final Map<String, String> response = new HashMap<>();
+		response.put(Constants.CANONICAL_URI, canonicalURILanguage.getFullParentURI());
+		response.put(Constants.LANGUAGE, lang);
+		response.put(Constants.CANONICAL_LANGUAGE_URI, canonicalURILanguage.getFullURI());
+		this.logger.info(CREATED_INSTANCE, new JSONObject(response));
+		return response;
+	}
+
+	/**
+	 * Creates the resourceID URIs of several instances in a single request. Each element of the array has the same
+	 * format as the input of {@link #createResourceID}. The reference data is resolved once for the whole batch, the
+	 * existing URIs are found with set based queries and the missing ones are inserted in a single transaction.
+	 * <p>
+	 * The response has an element for each input, in the same order. An input that can not be created has an
+	 * <code>error</code> attribute instead of the URIs, without failing the rest of the batch.
+	 *
+	 * @param domain
+	 * @param subDomain
+	 * @param lang
+	 * @param inputs
+	 * @return
+	 */
+	@ApiOperation(value = "Create or Get Canonical URIs for several Instances", notes = "Bulk version of canonical/resource, the response keeps the order of the input and reports the errors by element")
+	@PostMapping(URISController.Mappings.RESOURCE_ID_BULK)
+	public List<Map<String, String>> createResourceIDs(
+			@ApiParam(name = "domain", value = "Domain: hercules.org", defaultValue = Constants.DOMAIN_VALUE, required = false)
+			@RequestParam(required = false, defaultValue = "hercules.org") @Validated(Create.class) final String domain,
+			@ApiParam(name = "subDomain", value = "Subdomain: um (universidad de murcia)", defaultValue = Constants.SUBDOMAIN_VALUE, required = false)
+			@RequestParam(required = false, defaultValue = "um") @Validated(Create.class) final String subDomain,
+			@ApiParam(name = "type", value = "Type of URI", defaultValue = Constants.TYPE_REST, required = false)
+			@RequestParam(required = false, defaultValue = Constants.TYPE_REST) @Validated(Create.class) final String type,
+			@ApiParam(name = "lang", value = "Language of data", defaultValue = Constants.SPANISH_LANGUAGE, required = false)
+			@RequestParam(required = false, defaultValue = "es-ES") @Validated(Create.class) final String lang,
+			@ApiParam(name = "tripleStore", value = "Triple Store", defaultValue = Constants.TRELLIS, required = false)
+			@RequestParam(required = false, defaultValue = Constants.TRELLIS) @Validated(Create.class) final String tripleStore,
+			@ApiParam(name = "requestDiscovery", value = "Request in discovery library", defaultValue = "true", required = false)
+			@RequestParam(required = false, defaultValue = "true") @Validated(Create.class) final boolean requestDiscovery,
+			@RequestBody final List<Object> inputs) {
+		this.logger.info("Creating {} Instance URIs...", inputs.size());
 
-		} catch (final NoSuchAlgorithmException e) {
-			this.logger.error(String.format("Error creating resource ID cause: %s",e.getMessage()));
+		if (!Arrays.asList(new String[] {"cat","def","kos","res"}).contains(type)) {
+			throw new CustomNotFoundException("Type: " +type +" wrong, the type must be one of this [cat,def,kos,res]" );
 		}
 
-		return null;
+		// reference data, once for the batch
+		Type t = typeProxy.findOrCreate(type);
+		LanguageType lt = findLanguageType(t, lang);
+
+		final List<Map<String, String>> response = createResourceIDChunk(domain, subDomain, type, lang, tripleStore, requestDiscovery, t, lt, inputs);
+		this.logger.info("Created {} Instance URIs", inputs.size());
+		return response;
+	}
+
+	/**
+	 * Creates the resourceID URIs of a stream of instances. The body is newline delimited JSON, one instance per line
+	 * in the format of {@link #createResourceID}, and it is read incrementally: the instances are processed in chunks
+	 * as in {@link #createResourceIDs} and the results are written back as newline delimited JSON, one line per
+	 * instance in the same order, as soon as each chunk is done. Blank lines are skipped.
+	 *
+	 * @param domain
+	 * @param subDomain
+	 * @param lang
+	 * @param request
+	 * @param response
+	 * @throws IOException
+	 */
+	@ApiOperation(value = "Create or Get Canonical URIs for a stream of Instances", notes = "Streaming version of canonical/resource, the body and the response are newline delimited JSON")
+	@PostMapping(value = URISController.Mappings.RESOURCE_ID_STREAM, consumes = {NDJSON, MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+	public void createResourceIDStream(
+			@ApiParam(name = "domain", value = "Domain: hercules.org", defaultValue = Constants.DOMAIN_VALUE, required = false)
+			@RequestParam(required = false, defaultValue = "hercules.org") @Validated(Create.class) final String domain,
+			@ApiParam(name = "subDomain", value = "Subdomain: um (universidad de murcia)", defaultValue = Constants.SUBDOMAIN_VALUE, required = false)
+			@RequestParam(required = false, defaultValue = "um") @Validated(Create.class) final String subDomain,
+			@ApiParam(name = "type", value = "Type of URI", defaultValue = Constants.TYPE_REST, required = false)
+			@RequestParam(required = false, defaultValue = Constants.TYPE_REST) @Validated(Create.class) final String type,
+			@ApiParam(name = "lang", value = "Language of data", defaultValue = Constants.SPANISH_LANGUAGE, required = false)
+			@RequestParam(required = false, defaultValue = "es-ES") @Validated(Create.class) final String lang,
+			@ApiParam(name = "tripleStore", value = "Triple Store", defaultValue = Constants.TRELLIS, required = false)
+			@RequestParam(required = false, defaultValue = Constants.TRELLIS) @Validated(Create.class) final String tripleStore,
+			@ApiParam(name = "requestDiscovery", value = "Request in discovery library", defaultValue = "true", required = false)
+			@RequestParam(required = false, defaultValue = "true") @Validated(Create.class) final boolean requestDiscovery,
+			final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		this.logger.info("Creating Instance URIs from stream...");
+
+		if (!Arrays.asList(new String[] {"cat","def","kos","res"}).contains(type)) {
+			throw new CustomNotFoundException("Type: " +type +" wrong, the type must be one of this [cat,def,kos,res]" );
+		}
+
+		// reference data, once for the stream
+		Type t = typeProxy.findOrCreate(type);
+		LanguageType lt = findLanguageType(t, lang);
+
+		response.setContentType(NDJSON);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		final BufferedReader reader = request.getReader();
+		final Writer writer = response.getWriter();
+
+		// only one chunk of instances and results is held in memory
+		final List<Object> inputs = new ArrayList<>(this.chunkSize);
+		final List<String> errors = new ArrayList<>(this.chunkSize);
+		long total = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.trim().isEmpty()) {
+				continue;
+			}
+			try {
+				inputs.add(this.objectMapper.readValue(line, HashMap.class));
+				errors.add(null);
+			} catch (JsonProcessingException e) {
+				inputs.add(null);
+				errors.add("Not valid JSON: " + e.getOriginalMessage());
+			}
+			if (inputs.size() >= this.chunkSize) {
+				total += writeResourceIDChunk(writer, domain, subDomain, type, lang, tripleStore, requestDiscovery, t, lt, inputs, errors);
+			}
+		}
+		if (!inputs.isEmpty()) {
+			total += writeResourceIDChunk(writer, domain, subDomain, type, lang, tripleStore, requestDiscovery, t, lt, inputs, errors);
+		}
+		this.logger.info("Created {} Instance URIs from stream", total);
+	}
+
+	/**
+	 * Creates the URIs of a chunk of a stream, writes a line for each instance and empties the chunk.
+	 *
+	 * @return the number of instances written
+	 */
+	private int writeResourceIDChunk(Writer writer, String domain, String subDomain, String type, String lang,
+			String tripleStore, boolean requestDiscovery, Type t, LanguageType lt, List<Object> inputs, List<String> errors) throws IOException {
+		final List<Object> valid = new ArrayList<>();
+		for (int i = 0; i < inputs.size(); i++) {
+			if (errors.get(i) == null) {
+				valid.add(inputs.get(i));
+			}
+		}
+		final Iterator<Map<String, String>> created = createResourceIDChunk(domain, subDomain, type, lang,
+				tripleStore, requestDiscovery, t, lt, valid).iterator();
+		final int written = inputs.size();
+		for (String error : errors) {
+			final Map<String, String> item = error == null ? created.next() : Collections.singletonMap("error", error);
+			writer.write(this.objectMapper.writeValueAsString(item));
+			writer.write('\n');
+		}
+		writer.flush();
+		inputs.clear();
+		errors.clear();
+		return written;
+	}
+
+	/**
+	 * Gets the language type of a type in a language, as {@link CanonicalURILanguageController} does.
+	 *
+	 * @param t the type
+	 * @param lang the language ISO code
+	 * @return the language type, or null if there is none
+	 */
+	private LanguageType findLanguageType(Type t, String lang) {
+		Language l = languageProxy.findOrCreate(lang);
+		List<LanguageType> lts = languageTypeProxy.getByLanguageAndType(l.getIso().trim(), t.getCode().trim());
+		return lts.isEmpty() ? null : lts.get(lts.size() - 1);
+	}
+
+	/**
+	 * Creates the resourceID URIs of a chunk of instances with the reference data already resolved.
+	 *
+	 * @return a response element for each instance, in the same order
+	 */
+	private List<Map<String, String>> createResourceIDChunk(String domain, String subDomain, String type, String lang,
+			String tripleStore, boolean requestDiscovery, Type t, LanguageType lt, List<Object> inputs) {
+		final InstanceURIResult[] results = new InstanceURIResult[inputs.size()];
+		final List<Integer> positions = new ArrayList<>();
+		final List<CompletableFuture<InstanceURIRequest>> pending = new ArrayList<>();
+		final Map<String, String> references = new HashMap<>();
+		// the discovery lookups of the whole chunk are started before waiting for any, so they are batched together
+		for (int i = 0; i < inputs.size(); i++) {
+			try {
+				pending.add(toInstanceURIRequest(domain, subDomain, type, tripleStore, requestDiscovery, inputs.get(i), references));
+				positions.add(i);
+			} catch (Exception e) {
+				results[i] = InstanceURIResult.error(errorMessage(e));
+			}
+		}
+		final List<InstanceURIRequest> requests = new ArrayList<>(pending.size());
+		for (CompletableFuture<InstanceURIRequest> request : pending) {
+			requests.add(request.join());
+		}
+
+		List<InstanceURIResult> created;
+		try {
+			created = canonicalURIBulkService.saveInstances(domain, subDomain, t, lt, requests);
+		} catch (DataAccessException e) {
+			// another request inserted some of the URIs meanwhile, create them one by one
+			this.logger.warn("Bulk creation failed ({}), creating the instances one by one", e.getMessage());
+			created = new ArrayList<>();
+			for (InstanceURIRequest request : requests) {
+				try {
+					CanonicalURILanguage cul = canonicalURILanguageControllerController.save(domain, subDomain, lang, type,
+							request.getEntity(), request.getReference(), request.getLocalId(), null, request.getParentEntity(), null, true);
+					created.add(new InstanceURIResult(cul.getFullParentURI(), cul.getFullURI(), null));
+				} catch (Exception ex) {
+					created.add(InstanceURIResult.error(errorMessage(ex)));
+				}
+			}
+		}
+		for (int i = 0; i < positions.size(); i++) {
+			results[positions.get(i)] = created.get(i);
+		}
+
+		final List<Map<String, String>> response = new ArrayList<>();
+		for (InstanceURIResult result : results) {
+			final Map<String, String> item = new HashMap<>();
+			if (result.getError() != null) {
+				item.put("error", result.getError());
+			} else {
+				item.put(Constants.CANONICAL_URI, result.getCanonicalURI());
+				item.put(Constants.LANGUAGE, lang);
+				item.put(Constants.CANONICAL_LANGUAGE_URI, result.getCanonicalLanguageURI());
+			}
+			response.add(item);
+		}
+		return response;
+	}
+
+	/**
+	 * Reads an instance of a bulk request, with the same rules as {@link #createResourceID}.
+	 *
+	 * @param domain the domain
+	 * @param subDomain the sub domain
+	 * @param type the type code
+	 * @param tripleStore the triple store
+	 * @param requestDiscovery true to request the discovery library
+	 * @param input the instance
+	 * @param references the references minted in the request, by content
+	 * @return the request of the instance, once the discovery library has answered
+	 */
+	private CompletableFuture<InstanceURIRequest> toInstanceURIRequest(String domain, String subDomain, String type, String tripleStore, boolean requestDiscovery, Object input,
+			Map<String, String> references) {
+		if (!(input instanceof Map)) {
+			throw new CustomNotFoundException("Instance must be an object");
+		}
+		final HashMap map = new HashMap((Map) input);
+		final String entity = Utils.getClassNameFromPath(String.valueOf(map.get(Constants.CLASS)));
+		if (map.get(Constants.CLASS) == null || !Utils.isValidString(entity)) {
+			throw new CustomNotFoundException("Attribute @Class (required) is not present");
+		}
+		final String pEntity = Utils.getClassNameFromPath((String) (map.get(Constants.CANONICAL_CLASS_NAME) != null ? (map.get(Constants.CANONICAL_CLASS_NAME))	: (map.get(Constants.CANONICAL_CLASS))));
+		// with a reference that is not deterministic the same content in a request keeps the first one
+		final String ref = referenceService.isDeterministic(domain, type) ? referenceService.generate(domain, type, input)
+				: references.computeIfAbsent(ContentHash.uuid(input).toString(), content -> referenceService.generate(domain, type, input));
+		String entityId = map.containsKey(Constants.ENTITY_ID)?String.valueOf(map.get(Constants.ENTITY_ID)) :
+				map.containsKey(Constants.ID)?String.valueOf(map.get(Constants.ID)):null;
+		String localId = entityId;
+		if (Utils.isValidString(entityId) && !Utils.isValidUUID(entityId)) {
+			entityId = Utils.getUUIDFromString(entityId);
+		}
+		final String parentEntity = (pEntity != null) ? pEntity : entity;
+		final InstanceURIRequest request = new InstanceURIRequest(entity, parentEntity,
+				(Utils.isValidString(entityId) ? entityId : ref), localId);
+		if (!requestDiscovery) {
+			return CompletableFuture.completedFuture(request);
+		}
+		final CompletableFuture<Map<String, Object>> lookup = discoveryService.findSimilarEntityAsync(subDomain, tripleStore, entity, entityId, map);
+		return lookup.thenApply(similarity -> {
+			if (similarity != null && similarity.containsKey("entityId")) {
+				final String similarId = similarity.get("entityId").toString();
+				return new InstanceURIRequest(entity, parentEntity, (Utils.isValidString(similarId) ? similarId : ref), localId);
+			}
+			return request;
+		});
+	}
+
+	private static String errorMessage(Exception e) {
+		return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
 	}
 
 	/**
@@ -278,9 +593,11 @@ public class URISController {
 		final String cProperty = Utils.getClassNameFromPath((String) map.get(Constants.CANONICAL_PROPERTY));
 
 
-		CanonicalURILanguage canonicalURILanguage = canonicalURILanguageControllerController.save(domain, subDomain,
-				lang, type, null, null,null, property, null,
-				(cProperty != null) ? cProperty : property, true);
+		final String key = creationKey(Mappings.PROPERTY_URI, domain, subDomain, lang, type, property, cProperty);
+		CanonicalURILanguage canonicalURILanguage = creationsInFlight.execute(key, () ->
+				canonicalURILanguageControllerController.save(domain, subDomain,
+						lang, type, null, null,null, property, null,
+						(cProperty != null) ? cProperty : property, true));
 
 		// response
 		final Map<String, String> response = new HashMap<>();
@@ -342,8 +659,10 @@ public class URISController {
 				(String) (map.get(Constants.CANONICAL_CLASS_NAME) != null ? (map.get(Constants.CANONICAL_CLASS_NAME))
 						: (map.get(Constants.CANONICAL_CLASS))));
 
-		CanonicalURILanguage canonicalURILanguage = canonicalURILanguageControllerController.save(domain, subDomain,
-				lang, type, entity, null, null, (pEntity != null) ? pEntity : entity,null, null, true);
+		final String key = creationKey(Mappings.RESOURCE_TYPE_URI, domain, subDomain, lang, type, entity, pEntity);
+		CanonicalURILanguage canonicalURILanguage = creationsInFlight.execute(key, () ->
+				canonicalURILanguageControllerController.save(domain, subDomain,
+						lang, type, entity, null, null, (pEntity != null) ? pEntity : entity,null, null, true));
 
 		// response
 		final Map<String, String> response = new HashMap<>();
@@ -379,9 +698,13 @@ public class URISController {
 		if (!Utils.isValidURL(canonicalLanguageURI))
 			throw new CustomNotFoundException("Not valid format in Canonical URI: " + canonicalLanguageURI);
 
-		CanonicalURILanguage cu = canonicalURILanguageControllerController.getFullURI(canonicalLanguageURI);
-		if (cu == null)
-			throw new CustomNotFoundException(String.format(STORAGE_NOT_FOUND,storageName));
+		// A URI that follows the schema is only looked up when a new local URI needs its row
+		CanonicalURILanguage cu = null;
+		if (!schemaService.parseCanonicalLanguage(canonicalLanguageURI).isPresent()) {
+			cu = canonicalURILanguageControllerController.getFullURI(canonicalLanguageURI);
+			if (cu == null)
+				throw new CustomNotFoundException(String.format(STORAGE_NOT_FOUND,storageName));
+		}
 		StorageType storageType = storageTypeController.get(storageName);
 		if (storageType == null)
 			throw new CustomNotFoundException(String.format(STORAGE_NOT_FOUND,storageName));
@@ -398,6 +721,11 @@ public class URISController {
 		List<LocalURI> lrsAux = new ArrayList<>();
 		LocalURI lr;
 		if (lrs.isEmpty()) {
+			if (cu == null) {
+				cu = canonicalURILanguageControllerController.getFullURI(canonicalLanguageURI);
+				if (cu == null)
+					throw new CustomNotFoundException(String.format(STORAGE_NOT_FOUND,storageName));
+			}
 			lr = new LocalURI(localURI, cu, storageType);
 			lrsAux.add(lr);
 			localURIController.save(lr);
@@ -418,6 +746,31 @@ public class URISController {
 			throw  new CustomNotFoundException(message);
 	}
 
+	/**
+	 * Builds the key of a URI creation request. Domain and sub domain are normalized as in the URI, the remaining
+	 * elements are only trimmed, so different requests never share a key.
+	 *
+	 * @param operation the operation
+	 * @param domain the domain
+	 * @param subDomain the sub domain
+	 * @param lang the language
+	 * @param type the type
+	 * @param elements the remaining elements (entity, property, reference...)
+	 * @return the key
+	 */
+	private static String creationKey(String operation, String domain, String subDomain, String lang, String type, String... elements) {
+		StringJoiner key = new StringJoiner("|");
+		key.add(operation);
+		key.add(String.valueOf(Utils.toASIONormalization(domain)));
+		key.add(String.valueOf(Utils.toASIONormalization(subDomain)));
+		key.add(String.valueOf(lang).trim());
+		key.add(String.valueOf(type).trim());
+		for (String element : elements) {
+			key.add(String.valueOf(element).trim());
+		}
+		return key.toString();
+	}
+
 	/**
 	 * Get a local URI from parameters
 	 *
@@ -814,14 +1167,21 @@ public class URISController {
 			throw new CustomNotFoundException(NOT_VALID_URI_LOCAL_FORMAT + localURI);
 		if (!Utils.isValidURL(canonicalLanguageURI))
 			throw new CustomNotFoundException("Not valid format URI Canonical:  " + canonicalLanguageURI);
-		CanonicalURILanguage cu = canonicalURILanguageControllerController.getFullURI(canonicalLanguageURI);
-		if (cu == null)
+		// A URI that follows the schema filters the local URIs as it is, the row is only looked up if none matches
+		boolean parsed = schemaService.parseCanonicalLanguage(canonicalLanguageURI).isPresent();
+		CanonicalURILanguage cu = parsed ? null : canonicalURILanguageControllerController.getFullURI(canonicalLanguageURI);
+		if (!parsed && cu == null)
 			throw new CustomNotFoundException("Canonical Language URI: " + canonicalLanguageURI + " Not Found");
 		StorageType storageType = storageTypeController.get(storageName);
 		if (storageType == null)
 			throw new CustomNotFoundException(String.format(STORAGE_NOT_FOUND,storageName));
 
-		for (LocalURI luAux : localURIProxy.getAllByLocalURI(new LocalURI(localURI, cu, storageType)))
+		LocalURI filter = new LocalURI(localURI, cu, storageType);
+		filter.setCanonicalURILanguageStr(canonicalLanguageURI);
+		List<LocalURI> linked = localURIProxy.getAllByLocalURI(filter);
+		if (linked.isEmpty() && parsed && canonicalURILanguageControllerController.getFullURI(canonicalLanguageURI) == null)
+			throw new CustomNotFoundException("Canonical Language URI: " + canonicalLanguageURI + " Not Found");
+		for (LocalURI luAux : linked)
 			localURIController.deleteURI(luAux.getLocalUri());
 		logger.info("UNLinking complete");
 	}
@@ -1025,16 +1385,14 @@ public class URISController {
 			@ApiParam(name = "languageCode", value = "Language Code", required = true)
 			@RequestParam(required = false) @Validated(Create.class) final String languageCode) {
 		logger.info("Deleting property in language");
-		List<CanonicalURI> cus =  this.canonicalURIService.getAllByFullURI(canonicalUri);
-		if (cus.isEmpty()) {
-			throw new CustomNotFoundException("Canonical Uri not fond");
-		} else if (cus.size() != 1) {
-			throw new CustomNotFoundException("Ambiguous Canonical URI, "+cus.size() + " Canonical URIs found");
-		}
-		List<LocalURI> localURIS = new ArrayList<>();
-		for (CanonicalURILanguage cul: cus.get(0).getCanonicalURILanguages()) {
-			if (cul.getLanguageID().equals(languageCode)) {
-				localURIS.addAll(this.localURIProxy.getAllByCanonicalURILanguageStrAndStorageTypeStr(cul.getFullURI(), storageName));
+		// One joined query (or the cache) for the local URIs of every language variant
+		List<LocalURI> localURIS = this.localURIProxy.getAllByCanonicalURIAndStorageTypeStrAndLanguage(canonicalUri, storageName, languageCode);
+		if (localURIS.isEmpty()) {
+			List<CanonicalURI> cus =  this.canonicalURIService.getAllByFullURI(canonicalUri);
+			if (cus.isEmpty()) {
+				throw new CustomNotFoundException("Canonical Uri not fond");
+			} else if (cus.size() != 1) {
+				throw new CustomNotFoundException("Ambiguous Canonical URI, "+cus.size() + " Canonical URIs found");
 			}
 		}
 		return localURIS;
@@ -1058,16 +1416,42 @@ public class URISController {
 		logger.info("Deleting property in language");
 
 		List<LocalURI> localURIS = new ArrayList<>();
-		CanonicalURILanguage cul = this.canonicalURILanguageControllerService.getAllByFullURI(canonicalLanguageUri);
+		// The language is read from the URI, the row is only looked up if the URI does not follow the schema
+		String languageID = schemaService.parseCanonicalLanguage(canonicalLanguageUri).map(URIComponents::getLanguage)
+				.orElseGet(() -> this.canonicalURILanguageControllerService.getAllByFullURI(canonicalLanguageUri).getLanguageID());
 
-		if (cul.getLanguageID().equals(languageCode)) {
-			localURIS.addAll(this.localURIProxy.getAllByCanonicalURILanguageStrAndStorageTypeStr(cul.getFullURI(), storageName));
+		if (languageID.equals(languageCode)) {
+			localURIS.addAll(this.localURIProxy.getAllByCanonicalURILanguageStrAndStorageTypeStr(canonicalLanguageUri, storageName));
 		}
 
 
 		return localURIS;
 	}
 
+	/**
+	 * Get LocalURIS of several canonical URIs or canonical language URIs in a single request. The URIs are resolved
+	 * with set based queries and the local URIs of the canonical URIs already resolved by
+	 * {@link #getLocalStorageFromCanonicalURI} are taken from its cache.
+	 * <p>
+	 * The response has an entry for each distinct URI, in the order of the input, with an empty list for the URIs
+	 * without local URIs in the storage.
+	 *
+	 * @param String storageName name of storage.
+	 * @param String languageCode Language code in ISO 639-1, of the canonical URIs only.
+	 * @param uris Canonical URIs or canonical language URIs.
+	 */
+	@ApiOperation(value = "Get Local URIs of several Canonical URIs", notes = "Bulk version of local/canonical and local/canonical/language, the response is a map by URI in the order of the input")
+	@PostMapping(Mappings.LOCAL_URI_CANONICAL_BULK)
+	public Map<String, List<LocalURI>> getLocalStorageFromCanonicalURIs(
+			@ApiParam(name = "storageName", value = "Storage Name", required = true)
+			@RequestParam(required = true) @Validated(Create.class) final String storageName,
+			@ApiParam(name = "languageCode", value = "Language Code", required = false)
+			@RequestParam(required = false) @Validated(Create.class) final String languageCode,
+			@RequestBody final List<String> uris) {
+		logger.info("Getting local URIs of {} URIs", uris.size());
+		return this.localURIProxy.getAllByURIsAndStorageTypeStr(uris, storageName, languageCode);
+	}
+
 	/**
 	 * Get Canonical Language URI from localURI
 	 *
@@ -1088,6 +1472,22 @@ public class URISController {
 		return  canonicalURILanguages;
 	}
 
+	/**
+	 * Get Canonical Language URIs of several localURIs in a single request, for example to translate the subjects and
+	 * objects of the triples of a storage. The local URIs are resolved with set based queries that only read the URIs.
+	 * <p>
+	 * The response has an entry for each distinct local URI, in the order of the input, with the full URIs of its
+	 * canonical language URIs, or null if the local URI is not found.
+	 *
+	 * @param localURIs Local URIs.
+	 */
+	@ApiOperation(value = "Get Canonical Language URIs of several Local URIs", notes = "Bulk version of local, the response is a map by local URI in the order of the input, null for the local URIs not found")
+	@PostMapping(Mappings.LOCAL_URI_BULK)
+	public Map<String, List<String>> getCanonicalURILanguagesFromLocalURIs(@RequestBody final List<String> localURIs) {
+		logger.info("Getting canonical language URIs of {} local URIs", localURIs.size());
+		return this.localURIProxy.getCanonicalURILanguageStrsByLocalURIs(localURIs);
+	}
+
 
 	/**
 	 * Get Canonical Language URI from localURI
@@ -1105,31 +1505,35 @@ public class URISController {
 
 		final Map<String, List<Map<String,String>>> response = new HashMap<>();
 
-		List<CanonicalURI> cus = this.canonicalURIService.getAllByFullURI(canonicalURI);
-		for (CanonicalURI cu : cus) {
-			CanonicalURILanguage defaultLanguageCUL = null;
-			List<CanonicalURILanguage> filteredCULs = new ArrayList<>();
-			for (CanonicalURILanguage cul : cu.getCanonicalURILanguages()) {
+		// A single projection query, the canonical URI, its languages and their default flag are not loaded
+		final Map<String, List<CanonicalURILanguageView>> viewsByCanonicalURI = new LinkedHashMap<>();
+		for (CanonicalURILanguageView view : this.canonicalURILanguageControllerService.getViewsByCanonicalURI(canonicalURI)) {
+			viewsByCanonicalURI.computeIfAbsent(view.getCanonicalURI(), k -> new ArrayList<>()).add(view);
+		}
+		for (Map.Entry<String, List<CanonicalURILanguageView>> entry : viewsByCanonicalURI.entrySet()) {
+			CanonicalURILanguageView defaultLanguageCUL = null;
+			List<CanonicalURILanguageView> filteredCULs = new ArrayList<>();
+			for (CanonicalURILanguageView cul : entry.getValue()) {
 				if (Utils.isValidString(language)) {
-					if (cul.getLanguageID().equals(language))
+					if (language.equals(cul.getLanguageIso()))
 						filteredCULs.add(cul);
 				} else {
 					filteredCULs.add(cul);
 				}
 
-				if (cul.getLanguage().getIsDefault())
+				if (cul.isDefault())
 					defaultLanguageCUL = cul;
 			}
 			if (filteredCULs.isEmpty() && defaultLanguageCUL !=null)
 				filteredCULs.add(defaultLanguageCUL);
 			if (!filteredCULs.isEmpty()) {
-				response.put(cu.getFullURI(),new ArrayList<>());
-				for (CanonicalURILanguage filerCul : filteredCULs) {
+				response.put(entry.getKey(),new ArrayList<>());
+				for (CanonicalURILanguageView filerCul : filteredCULs) {
 					Map<String, String> culRes = new HashMap<>();
-					culRes.put("languageIso", filerCul.getLanguageID());
-					culRes.put("isDefaultLanguage", String.valueOf(filerCul.getLanguage().getIsDefault()));
-					culRes.put("canonicalURILanguage", filerCul.getFullURI());
-					response.get(cu.getFullURI()).add(culRes);
+					culRes.put("languageIso", filerCul.getLanguageIso());
+					culRes.put("isDefaultLanguage", String.valueOf(filerCul.isDefault()));
+					culRes.put("canonicalURILanguage", filerCul.getCanonicalURILanguage());
+					response.get(entry.getKey()).add(culRes);
 				}
 
 			}
@@ -1138,6 +1542,27 @@ public class URISController {
 		return response;
 	}
 
+	/**
+	 * Evicts the cached answers of the discovery library for a class, for example after the entities of the class have
+	 * been loaded again in the discovery library. A missing parameter matches any value.
+	 *
+	 * @param subDomain the subdomain (node)
+	 * @param tripleStore the triple store
+	 * @param entity the class name
+	 */
+	@ApiOperation(value = "Evict the cached similar entities found by the discovery library")
+	@DeleteMapping(Mappings.DISCOVERY_CACHE)
+	public void invalidateDiscoveryCache(
+			@ApiParam(name = "subDomain", value = "Subdomain: um (universidad de murcia)", required = false)
+			@RequestParam(required = false) final String subDomain,
+			@ApiParam(name = "tripleStore", value = "Triple Store", required = false)
+			@RequestParam(required = false) final String tripleStore,
+			@ApiParam(name = "entity", value = "Class name", required = false)
+			@RequestParam(required = false) final String entity) {
+		logger.info("Evicting discovery cache of subDomain: {}, tripleStore: {}, entity: {}", subDomain, tripleStore, entity);
+		discoveryService.invalidateSimilarEntities(subDomain, tripleStore, entity);
+	}
+
 	@GetMapping(Mappings.CANONICAL_SCHEMA)
 	public String getCanonicalSchema() {
 		return schemaService.getCanonicalSchema();
@@ -1201,6 +1626,12 @@ public class URISController {
 		/** The Constant RESOURCE_ID. */
 		public static final String RESOURCE_ID = "canonical/resource";
 
+		/** The Constant RESOURCE_ID_BULK. */
+		public static final String RESOURCE_ID_BULK = "canonical/resource/bulk";
+
+		/** The Constant RESOURCE_ID_STREAM. */
+		public static final String RESOURCE_ID_STREAM = "canonical/resource/stream";
+
 		/** The Constant PROPERTY_URI. */
 		public static final String PROPERTY_URI = "canonical/property";
 
@@ -1213,12 +1644,18 @@ public class URISController {
 		/** The Constant LOCAL_RESOURCE. */
 		public static final String LOCAL_URI = "local";
 
+		/** The Constant LOCAL_URI_BULK. */
+		public static final String LOCAL_URI_BULK = "local/bulk";
+
 		/** The Constant LOCAL_URI_CANONICAL. */
 		public static final String LOCAL_URI_CANONICAL = "local/canonical";
 
 		/** The Constant LOCAL_URI_CANONICAL. */
 		public static final String LOCAL_URI_CANONICAL_LANGUAGE = "local/canonical/language";
 
+		/** The Constant LOCAL_URI_CANONICAL_BULK. */
+		public static final String LOCAL_URI_CANONICAL_BULK = "local/canonical/bulk";
+
 
 		/** The Constant LOCAL_RESOURCE. */
 		public static final String LOCAL_ENTITY_URI = "local/entity";
@@ -1232,6 +1669,9 @@ public class URISController {
 		/** The Constant LOCAL_RESOURCE. */
 		public static final String HEALTH = "health";
 
+		/** The Constant DISCOVERY_CACHE. */
+		public static final String DISCOVERY_CACHE = "discovery/cache";
+
 		/**
 		 * Controller request mapping.
 		 */
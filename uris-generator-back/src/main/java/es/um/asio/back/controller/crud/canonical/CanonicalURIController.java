@@ -1,9 +1,14 @@
 package es.um.asio.back.controller.crud.canonical;
 
+import es.um.asio.back.controller.error.CustomNotFoundException;
+import es.um.asio.service.dto.BulkDeleteCriteria;
+import es.um.asio.service.dto.BulkDeleteJob;
+import es.um.asio.service.dto.KeysetSlice;
 import es.um.asio.service.model.CanonicalURI;
 import es.um.asio.service.model.Type;
 import es.um.asio.service.proxy.CanonicalURIProxy;
 import es.um.asio.service.proxy.TypeProxy;
+import es.um.asio.service.service.BulkDeleteService;
 import es.um.asio.service.service.SchemaService;
 import es.um.asio.service.validation.group.Create;
 import io.swagger.annotations.Api;
@@ -39,6 +44,12 @@ public class CanonicalURIController {
     @Autowired
     private SchemaService schemaService;
 
+    /**
+     * Bulk delete service.
+     */
+    @Autowired
+    private BulkDeleteService bulkDeleteService;
+
 
     /**
      * Save.
@@ -89,6 +100,28 @@ public class CanonicalURIController {
         return this.proxy.findAll();
     }
 
+    /**
+     * Lists the canonical URIs in order of id, a slice at a time. Each slice is read after the last id of the previous one,
+     * so deep slices cost the same as the first.
+     *
+     * @param continuationToken the token returned with the previous slice, empty for the first one
+     * @param size the number of rows
+     * @return the slice, with the token of the next one
+     */
+    @GetMapping("page")
+    public KeysetSlice<CanonicalURI> getPage(
+            @ApiParam(name = "continuationToken", value = "Token returned with the previous slice")
+            @RequestParam(required = false) final String continuationToken,
+            @ApiParam(name = "size", value = "Number of rows, at most 1000", defaultValue = "100")
+            @RequestParam(required = false, defaultValue = "100") final int size
+    ) {
+        try {
+            return this.proxy.findSlice(null, continuationToken, size);
+        } catch (IllegalArgumentException e) {
+            throw new CustomNotFoundException(e.getMessage(), e);
+        }
+    }
+
     @GetMapping("property/{propertyName}")
     public List<CanonicalURI> getByProperty(
             @PathVariable(required = true,name = "propertyName") @Validated(Create.class) final String propertyName
@@ -134,38 +167,69 @@ public class CanonicalURIController {
         return this.proxy.getAllByElements(domain, subDomain, typeCode, concept, reference);
     }
 
+    /**
+     * Deletes the canonical URIs of a property, with their canonical URIs in language and local URIs, in chunks of
+     * one transaction each.
+     *
+     * @param propertyName the property name
+     * @param async true to run the delete in background
+     * @return the job, done unless it runs in background
+     */
     @DeleteMapping("property/{propertyName}")
-    public void deleteByProperty(
-            @PathVariable(required = true,name = "propertyName") @Validated(Create.class) final String propertyName
+    public BulkDeleteJob deleteByProperty(
+            @PathVariable(required = true,name = "propertyName") @Validated(Create.class) final String propertyName,
+            @ApiParam(name = "async", value = "Run the delete in background and return the running job", defaultValue = "false")
+            @RequestParam(required = false, defaultValue = "false") final boolean async
     ) {
-        List<CanonicalURI> cus = this.proxy.getAllByPropertyName(propertyName);
-        for (CanonicalURI cu:cus) {
-            if (cu != null)
-                this.proxy.delete(cu);
-        }
+        return this.bulkDeleteService.deleteCanonicalURIs(BulkDeleteCriteria.byPropertyName(propertyName, false), async);
     }
 
+    /**
+     * Deletes the canonical URIs of an instance, with their canonical URIs in language and local URIs.
+     *
+     * @param entityName the entity name
+     * @param referenceId the reference of the instance
+     * @param async true to run the delete in background
+     * @return the job, done unless it runs in background
+     */
     @DeleteMapping("entity/{entityName}/reference/{referenceId}")
-    public void deleteByReference(
+    public BulkDeleteJob deleteByReference(
             @PathVariable(required = true,name = "entityName") @Validated(Create.class) final String entityName,
-            @PathVariable(required = true,name = "referenceId") @Validated(Create.class) final String referenceId
+            @PathVariable(required = true,name = "referenceId") @Validated(Create.class) final String referenceId,
+            @ApiParam(name = "async", value = "Run the delete in background and return the running job", defaultValue = "false")
+            @RequestParam(required = false, defaultValue = "false") final boolean async
     ) {
-        List<CanonicalURI> cus = this.proxy.getAllByEntityNameAndReference(entityName,referenceId);
-        for (CanonicalURI cu:cus) {
-            if (cu != null)
-                this.proxy.delete(cu);
-        }
+        return this.bulkDeleteService.deleteCanonicalURIs(BulkDeleteCriteria.byReference(entityName, referenceId), async);
     }
 
+    /**
+     * Deletes the canonical URIs of an entity, with their canonical URIs in language and local URIs, in chunks of
+     * one transaction each.
+     *
+     * @param entityName the entity name
+     * @param async true to run the delete in background
+     * @return the job, done unless it runs in background
+     */
     @DeleteMapping("entity/{entityName}")
-    public void delete(
-            @PathVariable(required = true,name = "entityName") @Validated(Create.class) final String entityName
+    public BulkDeleteJob delete(
+            @PathVariable(required = true,name = "entityName") @Validated(Create.class) final String entityName,
+            @ApiParam(name = "async", value = "Run the delete in background and return the running job", defaultValue = "false")
+            @RequestParam(required = false, defaultValue = "false") final boolean async
     ) {
-        List<CanonicalURI> cus = this.proxy.getAllByEntityNameFromEntities(entityName);
-        for (CanonicalURI cu:cus) {
-            if (cu != null)
-                this.proxy.delete(cu);
-        }
+        return this.bulkDeleteService.deleteCanonicalURIs(BulkDeleteCriteria.byEntityName(entityName, true), async);
+    }
+
+    /**
+     * Gets the progress of a delete.
+     *
+     * @param jobId the id of the job
+     * @return the job
+     */
+    @GetMapping("delete-job/{jobId}")
+    public BulkDeleteJob getDeleteJob(
+            @PathVariable(required = true,name = "jobId") final String jobId
+    ) {
+        return this.bulkDeleteService.getJob(jobId).orElseThrow(CustomNotFoundException::new);
     }
 
     @DeleteMapping("/uri")
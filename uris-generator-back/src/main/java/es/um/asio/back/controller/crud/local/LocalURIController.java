@@ -1,6 +1,7 @@
 package es.um.asio.back.controller.crud.local;
 
 import es.um.asio.back.controller.error.CustomNotFoundException;
+import es.um.asio.service.dto.KeysetSlice;
 import es.um.asio.service.model.*;
 import es.um.asio.service.proxy.*;
 import es.um.asio.service.util.Utils;
@@ -206,6 +207,28 @@ public class LocalURIController {
         return this.proxy.findAll();
     }
 
+    /**
+     * Lists the local URIs in order of id, a slice at a time. Each slice is read after the last id of the previous one,
+     * so deep slices cost the same as the first.
+     *
+     * @param continuationToken the token returned with the previous slice, empty for the first one
+     * @param size the number of rows
+     * @return the slice, with the token of the next one
+     */
+    @GetMapping("page")
+    public KeysetSlice<LocalURI> getPage(
+            @ApiParam(name = "continuationToken", value = "Token returned with the previous slice")
+            @RequestParam(required = false) final String continuationToken,
+            @ApiParam(name = "size", value = "Number of rows, at most 1000", defaultValue = "100")
+            @RequestParam(required = false, defaultValue = "100") final int size
+    ) {
+        try {
+            return this.proxy.findSlice(null, continuationToken, size);
+        } catch (IllegalArgumentException e) {
+            throw new CustomNotFoundException(e.getMessage(), e);
+        }
+    }
+
 
     @GetMapping("uri/local")
     public List<LocalURI> getFullURI(
@@ -0,0 +1,238 @@
+package es.um.asio.back.controller.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.um.asio.back.controller.error.CustomNotFoundException;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.service.UriExportService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming export of the URI tables. Unlike the <code>all</code> endpoints of the CRUD controllers, the rows are read
+ * with a cursor and written to the response as they are read, so the whole table is never held in memory.
+ * <p>
+ * Each row is written with its own columns only: the collections of canonical URIs in language and local URIs of a
+ * row are exported from their own tables.
+ */
+@RestController
+@RequestMapping(ExportController.Mappings.BASE)
+@Api(value = "Export of URIs", tags = "Streaming export of all the URIs")
+public class ExportController {
+
+    /**
+     * Newline delimited JSON media type.
+     */
+    private static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * N-Triples media type.
+     */
+    private static final String NTRIPLES = "application/n-triples";
+
+    /**
+     * Predicate of the links between URIs in N-Triples.
+     */
+    private static final String SAME_AS = "<http://www.w3.org/2002/07/owl#sameAs>";
+
+    /**
+     * Export service.
+     */
+    @Autowired
+    private UriExportService exportService;
+
+    /**
+     * JSON Object mapper.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * JSON Object mapper of the rows, without the collections.
+     */
+    private ObjectMapper rowMapper;
+
+    /**
+     * Builds the mapper of the rows.
+     */
+    @PostConstruct
+    public void init() {
+        this.rowMapper = this.objectMapper.copy()
+                .addMixIn(CanonicalURI.class, RowMixIn.class)
+                .addMixIn(CanonicalURILanguage.class, RowMixIn.class);
+    }
+
+    /**
+     * Exports all the canonical URIs as newline delimited JSON.
+     *
+     * @param response the response
+     * @throws IOException if the response can not be written
+     */
+    @ApiOperation(value = "Export all the Canonical URIs", notes = "Newline delimited JSON, one canonical URI per line in order of id")
+    @GetMapping(Mappings.CANONICAL_URI)
+    public void exportCanonicalURIs(final HttpServletResponse response) throws IOException {
+        final Writer writer = open(response, NDJSON);
+        this.exportService.exportCanonicalURIs(cu -> writeJson(writer, cu));
+        writer.flush();
+    }
+
+    /**
+     * Exports all the canonical URIs in language as newline delimited JSON, or as N-Triples linking each one with its
+     * canonical URI.
+     *
+     * @param format ndjson or nt
+     * @param response the response
+     * @throws IOException if the response can not be written
+     */
+    @ApiOperation(value = "Export all the Canonical URIs in language", notes = "Newline delimited JSON, one canonical URI in language per line in order of id, or N-Triples <canonical language URI> owl:sameAs <canonical URI>")
+    @GetMapping(Mappings.CANONICAL_URI_LANGUAGE)
+    public void exportCanonicalURILanguages(
+            @ApiParam(name = "format", value = "ndjson or nt", defaultValue = Formats.NDJSON)
+            @RequestParam(required = false, defaultValue = Formats.NDJSON) final String format,
+            final HttpServletResponse response) throws IOException {
+        final boolean triples = isTriples(format);
+        final Writer writer = open(response, triples ? NTRIPLES : NDJSON);
+        this.exportService.exportCanonicalURILanguages(cul -> {
+            if (triples) {
+                writeTriple(writer, cul.getFullURI(), cul.getFullParentURI());
+            } else {
+                writeJson(writer, cul);
+            }
+        });
+        writer.flush();
+    }
+
+    /**
+     * Exports all the local URIs as newline delimited JSON, or as N-Triples linking each one with its canonical URI
+     * in language.
+     *
+     * @param format ndjson or nt
+     * @param response the response
+     * @throws IOException if the response can not be written
+     */
+    @ApiOperation(value = "Export all the Local URIs", notes = "Newline delimited JSON, one local URI per line in order of id, or N-Triples <local URI> owl:sameAs <canonical language URI>")
+    @GetMapping(Mappings.LOCAL_URI)
+    public void exportLocalURIs(
+            @ApiParam(name = "format", value = "ndjson or nt", defaultValue = Formats.NDJSON)
+            @RequestParam(required = false, defaultValue = Formats.NDJSON) final String format,
+            final HttpServletResponse response) throws IOException {
+        final boolean triples = isTriples(format);
+        final Writer writer = open(response, triples ? NTRIPLES : NDJSON);
+        this.exportService.exportLocalURIs(lu -> {
+            if (triples) {
+                writeTriple(writer, lu.getLocalUri(), lu.getCanonicalURILanguageStr());
+            } else {
+                writeJson(writer, lu);
+            }
+        });
+        writer.flush();
+    }
+
+    private static boolean isTriples(final String format) {
+        if (Formats.NTRIPLES.equalsIgnoreCase(format)) {
+            return true;
+        } else if (Formats.NDJSON.equalsIgnoreCase(format)) {
+            return false;
+        }
+        throw new CustomNotFoundException("Format: " + format + " wrong, the format must be one of this [ndjson,nt]");
+    }
+
+    private static Writer open(final HttpServletResponse response, final String contentType) throws IOException {
+        response.setContentType(contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return response.getWriter();
+    }
+
+    private void writeJson(final Writer writer, final Object row) throws IOException {
+        writer.write(this.rowMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+
+    /**
+     * Writes a link between two URIs, if both are set.
+     */
+    private static void writeTriple(final Writer writer, final String subject, final String object)
+            throws IOException {
+        if (subject == null || object == null) {
+            return;
+        }
+        writeIri(writer, subject);
+        writer.write(' ');
+        writer.write(SAME_AS);
+        writer.write(' ');
+        writeIri(writer, object);
+        writer.write(" .\n");
+    }
+
+    /**
+     * Writes an IRI, escaping the characters not allowed in N-Triples IRIs.
+     */
+    private static void writeIri(final Writer writer, final String iri) throws IOException {
+        writer.write('<');
+        for (int i = 0; i < iri.length(); i++) {
+            final char c = iri.charAt(i);
+            if (c <= ' ' || "<>\"{}|^`\\".indexOf(c) >= 0) {
+                writer.write(String.format("\\u%04X", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('>');
+    }
+
+    /**
+     * Leaves the collections out of the JSON of a row.
+     */
+    @JsonIgnoreProperties({ "canonicalURILanguages", "localURIs" })
+    abstract static class RowMixIn {
+    }
+
+    /**
+     * Formats.
+     */
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    static final class Formats {
+
+        /** Newline delimited JSON. */
+        static final String NDJSON = "ndjson";
+
+        /** N-Triples. */
+        static final String NTRIPLES = "nt";
+    }
+
+    /**
+     * Mappgins.
+     */
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    static final class Mappings {
+        /**
+         * Controller request mapping.
+         */
+        protected static final String BASE = "/export";
+
+        /** The Constant CANONICAL_URI. */
+        protected static final String CANONICAL_URI = "canonical-uri";
+
+        /** The Constant CANONICAL_URI_LANGUAGE. */
+        protected static final String CANONICAL_URI_LANGUAGE = "canonical-uri-language";
+
+        /** The Constant LOCAL_URI. */
+        protected static final String LOCAL_URI = "local-uri";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Controllers package.
+ */
+package es.um.asio.back.controller.export;
@@ -6,12 +6,19 @@ import es.um.asio.back.controller.URISController;
 import es.um.asio.back.controller.crud.canonical_language.CanonicalURILanguageController;
 import es.um.asio.back.controller.crud.local.LocalURIController;
 import es.um.asio.back.controller.crud.storage_type.StorageTypeController;
+import es.um.asio.service.dto.CanonicalURILanguageView;
+import es.um.asio.service.dto.URIComponents;
 import es.um.asio.service.model.*;
 import es.um.asio.service.proxy.*;
+import es.um.asio.service.service.BulkDeleteService;
+import es.um.asio.service.service.CanonicalURIBulkService;
 import es.um.asio.service.service.CanonicalURILanguageService;
 import es.um.asio.service.service.CanonicalURIService;
 import es.um.asio.service.service.DiscoveryService;
+import es.um.asio.service.service.ReferenceService;
 import es.um.asio.service.service.SchemaService;
+import es.um.asio.service.util.ContentHash;
+import es.um.asio.service.util.UriTemplate;
 import es.um.asio.service.util.Utils;
 import io.cucumber.java.Before;
 import io.cucumber.java.en.And;
@@ -43,6 +50,7 @@ import org.springframework.web.context.WebApplicationContext;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -176,6 +184,26 @@ public class URIControllerTest extends AbstractStepDefinitionConsumerTest {
     @MockBean
     private DiscoveryService discoveryService;
 
+    /**
+     * CanonicalURIBulkService service
+     */
+    @Autowired
+    @MockBean
+    private CanonicalURIBulkService canonicalURIBulkService;
+
+    /**
+     * ReferenceService service
+     */
+    @Autowired
+    @MockBean
+    private ReferenceService referenceService;
+
+    /**
+     * Bulk delete service
+     */
+    @MockBean
+    private BulkDeleteService bulkDeleteService;
+
     /**
      * JSON Object mapper
      */
@@ -425,6 +453,47 @@ public class URIControllerTest extends AbstractStepDefinitionConsumerTest {
             return response;
         });
 
+        Mockito.when(this.localURIProxy.getAllByCanonicalURIAndStorageTypeStrAndLanguage(anyString(),anyString(),any())).thenAnswer(invocation -> {
+            List<LocalURI> response = new ArrayList<>();
+            for (CanonicalURILanguage cul : canonicalURILanguages) {
+                if (cul.getCanonicalURI() == null || !cul.getCanonicalURI().getFullURI().equals(invocation.getArgument(0))
+                        || !cul.getLanguageID().equals(invocation.getArgument(2)))
+                    continue;
+                for (LocalURI lu : localURIS) {
+                    if (lu.getCanonicalURILanguageStr().equals(cul.getFullURI()) && lu.getStorageTypeStr().equals(invocation.getArgument(1)))
+                        response.add(lu);
+                }
+            }
+            return response;
+        });
+
+        Mockito.when(this.localURIProxy.getCanonicalURILanguageStrsByLocalURIs(anyCollection())).thenAnswer(invocation -> {
+            Map<String, List<String>> response = new LinkedHashMap<>();
+            for (String localURI : (Collection<String>) invocation.getArgument(0)) {
+                response.put(localURI, null);
+                for (LocalURI lu : localURIS) {
+                    if (lu.getLocalUri().equals(localURI))
+                        response.computeIfAbsent(localURI, k -> new ArrayList<>()).add(lu.getCanonicalURILanguageStr());
+                }
+            }
+            return response;
+        });
+
+        Mockito.when(this.localURIProxy.getAllByURIsAndStorageTypeStr(anyCollection(),anyString(),any())).thenAnswer(invocation -> {
+            Map<String, List<LocalURI>> response = new LinkedHashMap<>();
+            for (String uri : (Collection<String>) invocation.getArgument(0)) {
+                List<LocalURI> localURIs = new ArrayList<>();
+                for (LocalURI lu : localURIS) {
+                    CanonicalURILanguage cul = lu.getCanonicalURILanguage();
+                    if (lu.getStorageTypeStr().equals(invocation.getArgument(1)) && (uri.equals(lu.getCanonicalURILanguageStr())
+                            || (uri.equals(cul.getFullParentURI()) && (invocation.getArgument(2) == null || cul.getLanguageID().equals(invocation.getArgument(2))))))
+                        localURIs.add(lu);
+                }
+                response.put(uri, localURIs);
+            }
+            return response;
+        });
+
         // Mock StorageType proxy
         Mockito.when(this.storageTypeProxy.findByName(anyString())).thenAnswer(invocation -> {
             for (StorageType st : storageTypes) {
@@ -444,6 +513,21 @@ public class URIControllerTest extends AbstractStepDefinitionConsumerTest {
             return canonicalSchema;
         });
 
+        // Mock service ReferenceService
+        Mockito.when(this.referenceService.generate(any(), any(), any())).thenAnswer(invocation -> {
+            return ContentHash.uuid(invocation.getArgument(2)).toString();
+        });
+
+        // Mock service SchemaService
+        Mockito.when(this.schemaService.parseCanonicalLanguage(anyString())).thenAnswer(invocation -> {
+            return UriTemplate.compile(canonicalLanguageSchema).parseAll(invocation.getArgument(0)).stream().findFirst().map(URIComponents::of);
+        });
+
+        // Mock service SchemaService
+        Mockito.when(this.schemaService.parseCanonical(anyString())).thenAnswer(invocation -> {
+            return UriTemplate.compile(canonicalSchema).parseAll(invocation.getArgument(0)).stream().findFirst().map(URIComponents::of);
+        });
+
         // Mock service CanonicalURILanguageService AQUI ESTA
         Mockito.when(this.canonicalURILanguageService.getAllByFullURI(anyString())).thenAnswer(invocation -> {
             for (CanonicalURILanguage cul : canonicalURILanguages) {
@@ -473,6 +557,17 @@ public class URIControllerTest extends AbstractStepDefinitionConsumerTest {
             return Arrays.asList(canonicalURISSet.toArray());
         });
 
+        // Mock service CanonicalURILanguageService views
+        Mockito.when(this.canonicalURILanguageService.getViewsByCanonicalURI(anyString())).thenAnswer(invocation -> {
+            List<CanonicalURILanguageView> response = new ArrayList<>();
+            for (CanonicalURILanguage cul : canonicalURILanguages) {
+                if (cul.getCanonicalURI() != null && invocation.getArgument(0).equals(cul.getCanonicalURI().getFullURI()))
+                    response.add(new CanonicalURILanguageView(cul.getCanonicalURI().getFullURI(), cul.getLanguageID(),
+                            cul.getLanguage() != null ? cul.getLanguage().getIsDefault() : null, cul.getFullURI()));
+            }
+            return response;
+        });
+
         // Mock Discovery Service
         Mockito.when(this.discoveryService.findSimilarEntity(anyString(),anyString(),anyString(),anyString(),any())).thenAnswer(invocation -> {
             return null;
@@ -7,12 +7,21 @@ import es.um.asio.back.controller.crud.language.LanguageController;
 import es.um.asio.back.controller.crud.local.LocalURIController;
 import es.um.asio.back.controller.crud.storage_type.StorageTypeController;
 import es.um.asio.back.controller.crud.type.TypeController;
+import es.um.asio.service.dto.CanonicalURILanguageView;
+import es.um.asio.service.dto.InstanceURIRequest;
+import es.um.asio.service.dto.InstanceURIResult;
+import es.um.asio.service.dto.URIComponents;
 import es.um.asio.service.model.*;
 import es.um.asio.service.proxy.*;
+import es.um.asio.service.service.BulkDeleteService;
+import es.um.asio.service.service.CanonicalURIBulkService;
 import es.um.asio.service.service.CanonicalURILanguageService;
 import es.um.asio.service.service.CanonicalURIService;
 import es.um.asio.service.service.DiscoveryService;
+import es.um.asio.service.service.ReferenceService;
 import es.um.asio.service.service.SchemaService;
+import es.um.asio.service.util.ContentHash;
+import es.um.asio.service.util.UriTemplate;
 import es.um.asio.service.util.Utils;
 import org.junit.Assert;
 import org.junit.Before;
@@ -24,12 +33,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -137,6 +149,24 @@ public class URISControllerTest {
     @MockBean
     private DiscoveryService discoveryService;
 
+    /**
+     * CanonicalURIBulkService service
+     */
+    @MockBean
+    private CanonicalURIBulkService canonicalURIBulkService;
+
+    /**
+     * ReferenceService service
+     */
+    @MockBean
+    private ReferenceService referenceService;
+
+    /**
+     * Bulk delete service
+     */
+    @MockBean
+    private BulkDeleteService bulkDeleteService;
+
     /**
      * JSON Object mapper
      */
@@ -383,6 +413,47 @@ public class URISControllerTest {
             return response;
         });
 
+        Mockito.when(this.localURIProxy.getAllByCanonicalURIAndStorageTypeStrAndLanguage(anyString(),anyString(),any())).thenAnswer(invocation -> {
+            List<LocalURI> response = new ArrayList<>();
+            for (CanonicalURILanguage cul : canonicalURILanguages) {
+                if (cul.getCanonicalURI() == null || !cul.getCanonicalURI().getFullURI().equals(invocation.getArgument(0))
+                        || !cul.getLanguageID().equals(invocation.getArgument(2)))
+                    continue;
+                for (LocalURI lu : localURIS) {
+                    if (lu.getCanonicalURILanguageStr().equals(cul.getFullURI()) && lu.getStorageTypeStr().equals(invocation.getArgument(1)))
+                        response.add(lu);
+                }
+            }
+            return response;
+        });
+
+        Mockito.when(this.localURIProxy.getCanonicalURILanguageStrsByLocalURIs(anyCollection())).thenAnswer(invocation -> {
+            Map<String, List<String>> response = new LinkedHashMap<>();
+            for (String localURI : (Collection<String>) invocation.getArgument(0)) {
+                response.put(localURI, null);
+                for (LocalURI lu : localURIS) {
+                    if (lu.getLocalUri().equals(localURI))
+                        response.computeIfAbsent(localURI, k -> new ArrayList<>()).add(lu.getCanonicalURILanguageStr());
+                }
+            }
+            return response;
+        });
+
+        Mockito.when(this.localURIProxy.getAllByURIsAndStorageTypeStr(anyCollection(),anyString(),any())).thenAnswer(invocation -> {
+            Map<String, List<LocalURI>> response = new LinkedHashMap<>();
+            for (String uri : (Collection<String>) invocation.getArgument(0)) {
+                List<LocalURI> localURIs = new ArrayList<>();
+                for (LocalURI lu : localURIS) {
+                    CanonicalURILanguage cul = lu.getCanonicalURILanguage();
+                    if (lu.getStorageTypeStr().equals(invocation.getArgument(1)) && (uri.equals(lu.getCanonicalURILanguageStr())
+                            || (uri.equals(cul.getFullParentURI()) && (invocation.getArgument(2) == null || cul.getLanguageID().equals(invocation.getArgument(2))))))
+                        localURIs.add(lu);
+                }
+                response.put(uri, localURIs);
+            }
+            return response;
+        });
+
         // Mock StorageType proxy
         Mockito.when(this.storageTypeProxy.findByName(anyString())).thenAnswer(invocation -> {
             for (StorageType st : storageTypes) {
@@ -402,6 +473,21 @@ public class URISControllerTest {
             return canonicalSchema;
         });
 
+        // Mock service ReferenceService
+        Mockito.when(this.referenceService.generate(any(), any(), any())).thenAnswer(invocation -> {
+            return ContentHash.uuid(invocation.getArgument(2)).toString();
+        });
+
+        // Mock service SchemaService
+        Mockito.when(this.schemaService.parseCanonicalLanguage(anyString())).thenAnswer(invocation -> {
+            return UriTemplate.compile(canonicalLanguageSchema).parseAll(invocation.getArgument(0)).stream().findFirst().map(URIComponents::of);
+        });
+
+        // Mock service SchemaService
+        Mockito.when(this.schemaService.parseCanonical(anyString())).thenAnswer(invocation -> {
+            return UriTemplate.compile(canonicalSchema).parseAll(invocation.getArgument(0)).stream().findFirst().map(URIComponents::of);
+        });
+
         // Mock service CanonicalURILanguageService
         Mockito.when(this.canonicalURILanguageService.getAllByFullURI(anyString())).thenAnswer(invocation -> {
             for (CanonicalURILanguage cul : canonicalURILanguages) {
@@ -431,10 +517,23 @@ public class URISControllerTest {
             return Arrays.asList(canonicalURISSet.toArray());
         });
 
+        // Mock service CanonicalURILanguageService views
+        Mockito.when(this.canonicalURILanguageService.getViewsByCanonicalURI(anyString())).thenAnswer(invocation -> {
+            List<CanonicalURILanguageView> response = new ArrayList<>();
+            for (CanonicalURILanguage cul : canonicalURILanguages) {
+                if (cul.getCanonicalURI() != null && invocation.getArgument(0).equals(cul.getCanonicalURI().getFullURI()))
+                    response.add(new CanonicalURILanguageView(cul.getCanonicalURI().getFullURI(), cul.getLanguageID(),
+                            cul.getLanguage() != null ? cul.getLanguage().getIsDefault() : null, cul.getFullURI()));
+            }
+            return response;
+        });
+
         // Mock Discovery Service
         Mockito.when(this.discoveryService.findSimilarEntity(anyString(),anyString(),anyString(),anyString(),any())).thenAnswer(invocation -> {
             return null;
         });
+        Mockito.when(this.discoveryService.findSimilarEntityAsync(anyString(),anyString(),anyString(),anyString(),any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
 
     }
@@ -533,6 +632,23 @@ public class URISControllerTest {
 
 
 
+    @Test
+    public void whenLinkAURIOutOfTheSchema_thenItIsLookedUp() throws Exception {
+        Mockito.when(this.schemaService.parseCanonicalLanguage(anyString())).thenReturn(Optional.empty());
+        LocalURI lu = localURIS.get(0);
+
+        this.mvc.perform(post("/uri-factory/local")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("canonicalLanguageURI", lu.getCanonicalURILanguageStr())
+                .param("localURI", lu.getLocalUri())
+                .param("storageName", lu.getStorageTypeStr())
+        )
+                .andExpect(status().isOk());
+
+        Mockito.verify(this.canonicalURILanguageProxy).getAllByFullURI(lu.getCanonicalURILanguageStr());
+    }
+
     @Test
     public void whenLinkAInstanceWithLocalURIByParams_thenNoError() throws Exception {
         for (LocalURI lu : localURIS) {
@@ -719,6 +835,63 @@ public class URISControllerTest {
         }
     }
 
+    @Test
+    public void whenGetLocalURIFromCanonicalURILanguage_thenTheLanguageIsParsed() throws Exception {
+        for (LocalURI lu : localURIS) {
+            CanonicalURILanguage cul = lu.getCanonicalURILanguage();
+            if (cul.getIsProperty()) {
+                this.mvc.perform(get("/uri-factory/local/canonical/language")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("canonicalLanguageUri", cul.getFullURI())
+                        .param("storageName", lu.getStorageTypeStr())
+                        .param("languageCode", "xx-XX")
+                )
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$", hasSize(0)));
+            }
+        }
+
+        Mockito.verify(this.canonicalURILanguageService, Mockito.never()).getAllByFullURI(anyString());
+    }
+
+    @Test
+    public void whenGetLocalURIsFromCanonicalURIs_thenAMapByURI() throws Exception {
+        for (LocalURI lu : localURIS) {
+            CanonicalURILanguage cul = lu.getCanonicalURILanguage();
+            if (cul.getIsProperty()) {
+                this.mvc.perform(post("/uri-factory/local/canonical/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("storageName", lu.getStorageTypeStr())
+                        .param("languageCode", cul.getLanguageID())
+                        .content(asJsonString(Arrays.asList(cul.getFullParentURI(), cul.getFullURI(), "http://hercules.org/um/res/None/1")))
+                )
+                        .andDo(print())
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$['" + cul.getFullParentURI() + "'][0].localUri", is(lu.getLocalUri())))
+                        .andExpect(jsonPath("$['" + cul.getFullURI() + "'][0].localUri", is(lu.getLocalUri())))
+                        .andExpect(jsonPath("$['http://hercules.org/um/res/None/1']", hasSize(0)));
+            }
+
+        }
+    }
+
+    @Test
+    public void whenCanonicalURILanguagesFromLocalURIs_thenAMapByLocalURI() throws Exception {
+        for (LocalURI lu : localURIS) {
+            this.mvc.perform(post("/uri-factory/local/bulk")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(Arrays.asList(lu.getLocalUri(), "http://localhost/none")))
+            )
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$['" + lu.getLocalUri() + "'][0]", is(lu.getCanonicalURILanguageStr())))
+                    .andExpect(jsonPath("$['http://localhost/none']", nullValue()));
+        }
+    }
+
     @Test
     public void whenCanonicalURILanguagesFromLocalURI_thenNoError() throws Exception {
         for (LocalURI lu : localURIS) {
@@ -739,6 +912,162 @@ public class URISControllerTest {
 
 
 
+    @Test
+    public void whenCreateResourcesInBulk_thenAResultPerInputInOrder() throws Exception {
+        Mockito.when(this.canonicalURIBulkService.saveInstances(anyString(), anyString(), any(), any(), anyList())).thenAnswer(invocation -> {
+            List<InstanceURIResult> results = new ArrayList<>();
+            for (InstanceURIRequest request : (List<InstanceURIRequest>) invocation.getArgument(4)) {
+                results.add(new InstanceURIResult("http://hercules.org/um/res/" + request.getParentEntity() + "/" + request.getReference(),
+                        "http://hercules.org/um/es-ES/rec/" + request.getEntity() + "/" + request.getReference(), null));
+            }
+            return results;
+        });
+        String body = "[{\"@class\":\"es.um.asio.Persona\",\"canonicalClassName\":\"Person\",\"entityId\":\"11111111-1111-1111-1111-111111111111\"},"
+                + "{\"entityId\":\"2\"},"
+                + "{\"@class\":\"es.um.asio.Proyecto\",\"entityId\":\"33333333-3333-3333-3333-333333333333\"}]";
+
+        this.mvc.perform(post("/uri-factory/canonical/resource/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("requestDiscovery", "false")
+                .content(body)
+        )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].canonicalURI", is("http://hercules.org/um/res/Person/11111111-1111-1111-1111-111111111111")))
+                .andExpect(jsonPath("$[1].error", is("Attribute @Class (required) is not present")))
+                .andExpect(jsonPath("$[1].canonicalURI").doesNotExist())
+                .andExpect(jsonPath("$[2].canonicalLanguageURI", is("http://hercules.org/um/es-ES/rec/Proyecto/33333333-3333-3333-3333-333333333333")));
+
+        Mockito.verify(this.canonicalURIBulkService).saveInstances(anyString(), anyString(), any(), any(),
+                argThat(requests -> requests.size() == 2));
+    }
+
+    @Test
+    public void whenReferencesAreNotDeterministic_thenTheSameInstanceInABulkGetsOneReference() throws Exception {
+        Mockito.when(this.referenceService.isDeterministic(any(), any())).thenReturn(false);
+        Mockito.when(this.referenceService.generate(any(), any(), any())).thenAnswer(invocation -> UUID.randomUUID().toString());
+        Mockito.when(this.canonicalURIBulkService.saveInstances(anyString(), anyString(), any(), any(), anyList()))
+                .thenReturn(Arrays.asList(new InstanceURIResult("a", "a", null), new InstanceURIResult("a", "a", null),
+                        new InstanceURIResult("b", "b", null)));
+        String body = "[{\"@class\":\"es.um.asio.Persona\",\"name\":\"Ana\"},"
+                + "{\"@class\":\"es.um.asio.Persona\",\"name\":\"Ana\"},"
+                + "{\"@class\":\"es.um.asio.Persona\",\"name\":\"Eva\"}]";
+
+        this.mvc.perform(post("/uri-factory/canonical/resource/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("requestDiscovery", "false")
+                .content(body)
+        )
+                .andExpect(status().isOk());
+
+        Mockito.verify(this.canonicalURIBulkService).saveInstances(anyString(), anyString(), any(), any(),
+                argThat(requests -> requests.size() == 3
+                        && requests.get(0).getReference().equals(requests.get(1).getReference())
+                        && !requests.get(0).getReference().equals(requests.get(2).getReference())));
+    }
+
+    @Test
+    public void whenCreateResourcesInBulk_thenTheDiscoveryLookupsOfTheChunkAreStartedTogether() throws Exception {
+        // the lookups are answered only once all of them have been started, waiting for each one in turn would
+        // leave them unanswered until the timeout
+        final List<CompletableFuture<Map<String, Object>>> lookups = new ArrayList<>();
+        Mockito.when(this.discoveryService.findSimilarEntityAsync(anyString(), anyString(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            final CompletableFuture<Map<String, Object>> lookup = new CompletableFuture<Map<String, Object>>()
+                    .completeOnTimeout(null, 2, TimeUnit.SECONDS);
+            lookups.add(lookup);
+            if (lookups.size() == 3) {
+                for (int i = 0; i < lookups.size(); i++) {
+                    lookups.get(i).complete(Collections.singletonMap("entityId", "similar-" + i));
+                }
+            }
+            return lookup;
+        });
+        Mockito.when(this.canonicalURIBulkService.saveInstances(anyString(), anyString(), any(), any(), anyList()))
+                .thenReturn(Arrays.asList(new InstanceURIResult("a", "a", null), new InstanceURIResult("b", "b", null),
+                        new InstanceURIResult("c", "c", null)));
+        String body = "[{\"@class\":\"es.um.asio.Persona\",\"entityId\":\"1\"},"
+                + "{\"@class\":\"es.um.asio.Persona\",\"entityId\":\"2\"},"
+                + "{\"@class\":\"es.um.asio.Persona\",\"entityId\":\"3\"}]";
+
+        this.mvc.perform(post("/uri-factory/canonical/resource/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body)
+        )
+                .andExpect(status().isOk());
+
+        Mockito.verify(this.discoveryService, Mockito.never()).findSimilarEntity(anyString(), anyString(), anyString(), anyString(), any());
+        Mockito.verify(this.canonicalURIBulkService).saveInstances(anyString(), anyString(), any(), any(),
+                argThat(requests -> requests.size() == 3 && requests.get(0).getReference().equals("similar-0")
+                        && requests.get(1).getReference().equals("similar-1")
+                        && requests.get(2).getReference().equals("similar-2")));
+    }
+
+    @Test
+    public void whenBulkCreationConflicts_thenTheInstancesAreCreatedOneByOne() throws Exception {
+        Mockito.when(this.canonicalURIBulkService.saveInstances(anyString(), anyString(), any(), any(), anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+        String body = "[{\"@class\":\"es.um.asio.Persona\",\"entityId\":\"11111111-1111-1111-1111-111111111111\"},"
+                + "{\"@class\":\"es.um.asio.Persona\",\"entityId\":\"22222222-2222-2222-2222-222222222222\"}]";
+
+        this.mvc.perform(post("/uri-factory/canonical/resource/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("requestDiscovery", "false")
+                .content(body)
+        )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[0].canonicalLanguageURI", is("http://hercules.org/um/es-ES/rec/Persona/11111111-1111-1111-1111-111111111111")))
+                .andExpect(jsonPath("$[1].canonicalLanguageURI", is("http://hercules.org/um/es-ES/rec/Persona/22222222-2222-2222-2222-222222222222")));
+
+        Mockito.verify(this.canonicalURILanguageProxy, Mockito.times(2)).save((CanonicalURILanguage) any());
+    }
+
+    @Test
+    public void whenCreateResourcesFromStream_thenALinePerInstance() throws Exception {
+        Mockito.when(this.canonicalURIBulkService.saveInstances(anyString(), anyString(), any(), any(), anyList())).thenAnswer(invocation -> {
+            List<InstanceURIResult> results = new ArrayList<>();
+            for (InstanceURIRequest request : (List<InstanceURIRequest>) invocation.getArgument(4)) {
+                results.add(new InstanceURIResult("http://hercules.org/um/res/" + request.getParentEntity() + "/" + request.getReference(),
+                        "http://hercules.org/um/es-ES/rec/" + request.getEntity() + "/" + request.getReference(), null));
+            }
+            return results;
+        });
+        String body = "{\"@class\":\"es.um.asio.Persona\",\"canonicalClassName\":\"Person\",\"entityId\":\"11111111-1111-1111-1111-111111111111\"}\n"
+                + "{not json}\n"
+                + "\n"
+                + "{\"entityId\":\"2\"}\n"
+                + "{\"@class\":\"es.um.asio.Persona\",\"entityId\":\"22222222-2222-2222-2222-222222222222\"}\n";
+        String response = this.mvc.perform(post("/uri-factory/canonical/resource/stream")
+                .contentType("application/x-ndjson")
+                .param("requestDiscovery", "false")
+                .content(body)
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.split("\n");
+        Assert.assertEquals(4, lines.length);
+        Map<String, String> first = objectMapper.readValue(lines[0], Map.class);
+        Assert.assertEquals("http://hercules.org/um/res/Person/11111111-1111-1111-1111-111111111111", first.get("canonicalURI"));
+        Assert.assertNotNull(objectMapper.readValue(lines[1], Map.class).get("error"));
+        Assert.assertNotNull(objectMapper.readValue(lines[2], Map.class).get("error"));
+        Map<String, String> last = objectMapper.readValue(lines[3], Map.class);
+        Assert.assertEquals("http://hercules.org/um/es-ES/rec/Persona/22222222-2222-2222-2222-222222222222", last.get("canonicalLanguageURI"));
+    }
+
+    @Test
+    public void whenDeleteDiscoveryCache_thenTheClassIsEvicted() throws Exception {
+        this.mvc.perform(delete("/uri-factory/discovery/cache")
+                .param("subDomain", "um")
+                .param("entity", "Persona")
+        )
+                .andExpect(status().isOk());
+
+        Mockito.verify(this.discoveryService).invalidateSimilarEntities("um", null, "Persona");
+    }
+
     public static String asJsonString(final Object obj) {
         try {
             return new ObjectMapper().writeValueAsString(obj);
@@ -6,6 +6,9 @@ import es.um.asio.service.model.CanonicalURI;
 import es.um.asio.service.model.Type;
 import es.um.asio.service.proxy.CanonicalURIProxy;
 import es.um.asio.service.proxy.TypeProxy;
+import es.um.asio.service.dto.BulkDeleteJob;
+import es.um.asio.service.dto.KeysetSlice;
+import es.um.asio.service.service.BulkDeleteService;
 import es.um.asio.service.service.SchemaService;
 import org.junit.Before;
 import org.junit.Test;
@@ -16,6 +19,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,7 +27,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasSize;
@@ -62,12 +69,23 @@ public class CanonicalURIControllerTest {
     @MockBean
     private SchemaService schemaService;
 
+    /**
+     * Bulk delete service
+     */
+    @MockBean
+    private BulkDeleteService bulkDeleteService;
+
     /**
      * JSON Object mapper
      */
     @Autowired
     private ObjectMapper objectMapper;
 
+    /**
+     * Delete jobs by id
+     */
+    private final Map<String, BulkDeleteJob> deleteJobs = new HashMap<>();
+
     final List<CanonicalURI> canonicalURISSchema1 = new ArrayList<>();
 
 
@@ -89,6 +107,26 @@ public class CanonicalURIControllerTest {
     @Before
     public void beforeTest() {
 
+        Mockito.when(this.canonicalURIProxy.findSlice(isNull(), any(), anyInt())).thenAnswer(invocation -> {
+            String token = invocation.getArgument(1);
+            if ("wrong".equals(token)) {
+                throw new IllegalArgumentException("Invalid continuation token");
+            }
+            List<CanonicalURI> content = canonicalURISSchema1.subList(0, Math.min(2, canonicalURISSchema1.size()));
+            return new KeysetSlice<>(content, PageRequest.of(0, invocation.getArgument(2)), token == null ? "next" : null);
+        });
+
+        Mockito.when(this.bulkDeleteService.deleteCanonicalURIs(any(), anyBoolean())).thenAnswer(invocation -> {
+            BulkDeleteJob job = new BulkDeleteJob("CANONICAL_URI", invocation.getArgument(0));
+            if (!(boolean) invocation.getArgument(1)) {
+                job.done();
+            }
+            deleteJobs.put(job.getId(), job);
+            return job;
+        });
+
+        Mockito.when(this.bulkDeleteService.getJob(anyString())).thenAnswer(invocation -> Optional.ofNullable(deleteJobs.get(invocation.getArgument(0))));
+
         canonicalSchema = generateRandomCanonicalSchema();
         canonicalLanguageSchema = generateRandomCanonicalLanguageSchema();
 
@@ -470,6 +508,52 @@ public class CanonicalURIControllerTest {
         }
     }
 
+    @Test
+    public void whenDeleteEntityInBackground_thenTheJobIsReturned() throws Exception {
+        String response = this.mvc.perform(delete("/canonical-uri/entity/Persona")
+                .param("async", "true")
+                .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("RUNNING")))
+                .andExpect(jsonPath("$.criteria.entityName", is("Persona")))
+                .andExpect(jsonPath("$.criteria.isEntity", is(true)))
+                .andReturn().getResponse().getContentAsString();
+
+        String jobId = objectMapper.readValue(response, Map.class).get("id").toString();
+        this.mvc.perform(get("/canonical-uri/delete-job/" + jobId)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(jobId)));
+        this.mvc.perform(get("/canonical-uri/delete-job/none")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void whenGetPage_thenASliceWithTheContinuationToken() throws Exception {
+        this.mvc.perform(get("/canonical-uri/page")
+                .param("size", "2")
+                .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.continuationToken", is("next")))
+                .andExpect(jsonPath("$.last", is(false)));
+
+        this.mvc.perform(get("/canonical-uri/page")
+                .param("continuationToken", "next")
+                .param("size", "2")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.last", is(true)));
+
+        this.mvc.perform(get("/canonical-uri/page")
+                .param("continuationToken", "wrong")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     public String generateURLFromSchema(CanonicalURI entity, String schema) {
         entity.generateFullURL(schema);
         return entity.getFullURI();
@@ -5,6 +5,8 @@ import es.um.asio.back.controller.crud.canonical.CanonicalURIController;
 import es.um.asio.back.controller.crud.canonical_language.CanonicalURILanguageController;
 import es.um.asio.service.model.*;
 import es.um.asio.service.proxy.*;
+import es.um.asio.service.dto.BulkDeleteJob;
+import es.um.asio.service.service.BulkDeleteService;
 import es.um.asio.service.service.SchemaService;
 import org.junit.Before;
 import org.junit.Test;
@@ -22,12 +24,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.in;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -80,12 +86,23 @@ public class CanonicalURILanguageControllerTest {
     @MockBean
     private SchemaService schemaService;
 
+    /**
+     * Bulk delete service
+     */
+    @MockBean
+    private BulkDeleteService bulkDeleteService;
+
     /**
      * JSON Object mapper
      */
     @Autowired
     private ObjectMapper objectMapper;
 
+    /**
+     * Delete jobs by id
+     */
+    private final Map<String, BulkDeleteJob> deleteJobs = new HashMap<>();
+
     final List<CanonicalURILanguage> canonicalURISSchema1 = new ArrayList<>();
 
 
@@ -103,6 +120,17 @@ public class CanonicalURILanguageControllerTest {
     @Before
     public void beforeTest() {
 
+        Mockito.when(this.bulkDeleteService.deleteCanonicalURILanguages(any(), anyBoolean())).thenAnswer(invocation -> {
+            BulkDeleteJob job = new BulkDeleteJob("CANONICAL_URI_LANGUAGE", invocation.getArgument(0));
+            if (!(boolean) invocation.getArgument(1)) {
+                job.done();
+            }
+            deleteJobs.put(job.getId(), job);
+            return job;
+        });
+
+        Mockito.when(this.bulkDeleteService.getJob(anyString())).thenAnswer(invocation -> Optional.ofNullable(deleteJobs.get(invocation.getArgument(0))));
+
         canonicalSchema = generateRandomCanonicalSchema();
         canonicalLanguageSchema = generateRandomCanonicalLanguageSchema();
 
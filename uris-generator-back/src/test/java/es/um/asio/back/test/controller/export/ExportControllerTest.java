@@ -0,0 +1,139 @@
+package es.um.asio.back.test.controller.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.um.asio.back.controller.export.ExportController;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.service.UriExportService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(ExportController.class)
+public class ExportControllerTest {
+
+    private static final String SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    /**
+     * MVC test support
+     */
+    @Autowired
+    private MockMvc mvc;
+
+    /**
+     * Export service
+     */
+    @MockBean
+    private UriExportService exportService;
+
+    /**
+     * JSON Object mapper
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    final List<CanonicalURI> canonicalURIs = new ArrayList<>();
+
+    final List<LocalURI> localURIs = new ArrayList<>();
+
+    @TestConfiguration
+    static class ExportControllerTestConfiguration {
+        @Bean
+        public ExportController exportController() {
+            return new ExportController();
+        }
+    }
+
+    @Before
+    public void beforeTest() throws Exception {
+        for (String reference : new String[] { "1", "2" }) {
+            CanonicalURI cu = new CanonicalURI("hercules.org", "um", new Type("res", "resource"), "Persona", reference, null, SCHEMA);
+            cu.generateFullURL(SCHEMA);
+            CanonicalURILanguage cul = new CanonicalURILanguage();
+            cul.setFullURI("http://hercules.org/um/es-ES/rec/Persona/" + reference);
+            cul.setCanonicalURI(cu);
+            cu.setCanonicalURILanguages(new HashSet<>(Collections.singletonList(cul)));
+            canonicalURIs.add(cu);
+            LocalURI lu = new LocalURI();
+            lu.setLocalUri("http://trellis/Persona " + reference);
+            lu.setCanonicalURILanguageStr(cul.getFullURI());
+            lu.setStorageTypeStr("trellis");
+            localURIs.add(lu);
+        }
+
+        Mockito.when(this.exportService.exportCanonicalURIs(any())).thenAnswer(invocation -> {
+            UriExportService.Sink<CanonicalURI> sink = invocation.getArgument(0);
+            for (CanonicalURI cu : canonicalURIs) {
+                sink.accept(cu);
+            }
+            return (long) canonicalURIs.size();
+        });
+
+        Mockito.when(this.exportService.exportLocalURIs(any())).thenAnswer(invocation -> {
+            UriExportService.Sink<LocalURI> sink = invocation.getArgument(0);
+            for (LocalURI lu : localURIs) {
+                sink.accept(lu);
+            }
+            return (long) localURIs.size();
+        });
+    }
+
+    @Test
+    public void whenExportCanonicalURIs_thenALinePerRowWithoutCollections() throws Exception {
+        String response = this.mvc.perform(get("/export/canonical-uri"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.split("\n");
+        Assert.assertEquals(canonicalURIs.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            Map<String, Object> row = objectMapper.readValue(lines[i], Map.class);
+            Assert.assertEquals(canonicalURIs.get(i).getFullURI(), row.get("fullURI"));
+            Assert.assertFalse(row.containsKey("canonicalURILanguages"));
+        }
+    }
+
+    @Test
+    public void whenExportLocalURIsAsTriples_thenALinkPerRow() throws Exception {
+        String response = this.mvc.perform(get("/export/local-uri").param("format", "nt"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/n-triples"))
+                .andReturn().getResponse().getContentAsString();
+
+        Assert.assertEquals("<http://trellis/Persona\\u00201> <http://www.w3.org/2002/07/owl#sameAs> <http://hercules.org/um/es-ES/rec/Persona/1> .\n"
+                + "<http://trellis/Persona\\u00202> <http://www.w3.org/2002/07/owl#sameAs> <http://hercules.org/um/es-ES/rec/Persona/2> .\n", response);
+    }
+
+    @Test
+    public void whenExportWithAWrongFormat_thenNotFound() throws Exception {
+        this.mvc.perform(get("/export/local-uri").param("format", "xml"))
+                .andExpect(status().isNotFound());
+    }
+}
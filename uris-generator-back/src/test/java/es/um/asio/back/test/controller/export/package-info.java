@@ -0,0 +1,4 @@
+/**
+ * Package containing export controller tests.
+ */
+package es.um.asio.back.test.controller.export;
@@ -0,0 +1,41 @@
+package es.um.asio.service.cache;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Names of the Hibernate second-level cache regions.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CacheRegions {
+
+    /**
+     * Region of {@link es.um.asio.service.model.CanonicalURI}.
+     */
+    public static final String CANONICAL_URI = "canonical-uri";
+
+    /**
+     * Region of the canonical language URIs collection of a canonical URI.
+     */
+    public static final String CANONICAL_URI_LANGUAGES = "canonical-uri.languages";
+
+    /**
+     * Region of {@link es.um.asio.service.model.CanonicalURILanguage}.
+     */
+    public static final String CANONICAL_URI_LANGUAGE = "canonical-uri-language";
+
+    /**
+     * Region of the local URIs collection of a canonical language URI.
+     */
+    public static final String CANONICAL_URI_LANGUAGE_LOCAL_URIS = "canonical-uri-language.local-uris";
+
+    /**
+     * Region of {@link es.um.asio.service.model.LocalURI}.
+     */
+    public static final String LOCAL_URI = "local-uri";
+
+    /**
+     * Region of the reference entities (type, language, language type and storage type).
+     */
+    public static final String REFERENCE = "reference";
+}
@@ -0,0 +1,206 @@
+package es.um.asio.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import es.um.asio.service.model.CanonicalURILanguage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded read-through cache of {@link CanonicalURILanguage} resolved by full URI.
+ * Entries are evicted by size and by time since write. Only found entities are cached, so a
+ * canonical language URI minted after a miss is visible on the next lookup.
+ * <p>
+ * Only the identifier of the entity is cached, never the instance: each lookup gets its own instance, loaded by
+ * identifier from the second-level cache of the entity, so a caller changing it does not change what the others get.
+ */
+@Component
+public class CanonicalURILanguageCache {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(CanonicalURILanguageCache.class);
+
+    /**
+     * Maximum number of cached entries.
+     */
+    @Value("${app.cache.canonical-uri-language.maximum-size:10000}")
+    private long maximumSize;
+
+    /**
+     * Time to live of each entry, in seconds.
+     */
+    @Value("${app.cache.canonical-uri-language.ttl:3600}")
+    private long ttl;
+
+    /**
+     * The cache, keyed by full URI.
+     */
+    private Cache<String, Entry> cache;
+
+    /**
+     * Builds the cache once the configuration has been injected.
+     */
+    @PostConstruct
+    public void init() {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(this.maximumSize)
+                .expireAfterWrite(this.ttl, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        logger.info("Canonical URI language cache: maximumSize={}, ttl={}s", this.maximumSize, this.ttl);
+    }
+
+    /**
+     * Returns the entity of the full URI, finding it by the cached identifier on a hit and loading it with the given
+     * function on a miss. The caller gets its own instance either way.
+     *
+     * @param fullURI the full URI
+     * @param loader  the loader by full URI, may return null when the entity does not exist
+     * @param finder  the finder by identifier, may return null when the entity does not exist
+     * @return the entity, or null if it does not exist
+     */
+    public CanonicalURILanguage get(final String fullURI, final Function<String, CanonicalURILanguage> loader,
+            final LongFunction<CanonicalURILanguage> finder) {
+        if (fullURI == null) {
+            return loader.apply(null);
+        }
+        final Entry cached = this.cache.getIfPresent(fullURI);
+        if (cached != null) {
+            final CanonicalURILanguage found = finder.apply(cached.id);
+            if (found != null && fullURI.equals(found.getFullURI())) {
+                return found;
+            }
+            // deleted or changed without eviction
+            this.cache.invalidate(fullURI);
+        }
+        final CanonicalURILanguage loaded = loader.apply(fullURI);
+        if (loaded != null) {
+            this.cache.put(fullURI, new Entry(loaded.getId(), loaded.getFullParentURI()));
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts the entry of a full URI.
+     *
+     * @param fullURI the full URI
+     */
+    public void invalidate(final String fullURI) {
+        if (fullURI != null) {
+            this.cache.invalidate(fullURI);
+        }
+    }
+
+    /**
+     * Evicts the entry of an entity, looking it up by identifier if the full URI is unknown.
+     *
+     * @param entity the entity
+     */
+    public void invalidate(final CanonicalURILanguage entity) {
+        if (entity == null) {
+            return;
+        }
+        if (entity.getFullURI() != null) {
+            invalidate(entity.getFullURI());
+        } else if (entity.getId() > 0) {
+            invalidateById(String.valueOf(entity.getId()));
+        }
+    }
+
+    /**
+     * Evicts the entries with the given identifier.
+     *
+     * @param id the identifier
+     */
+    public void invalidateById(final String id) {
+        this.cache.asMap().values().removeIf(entry -> String.valueOf(entry.id).equals(id));
+    }
+
+    /**
+     * Evicts the entries whose parent canonical URI is the given one.
+     *
+     * @param fullParentURI the full URI of the canonical URI
+     */
+    public void invalidateByParent(final String fullParentURI) {
+        if (fullParentURI != null) {
+            this.cache.asMap().values().removeIf(entry -> fullParentURI.equals(entry.fullParentURI));
+        }
+    }
+
+    /**
+     * Evicts all the entries.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Gets the number of lookups served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return this.cache.stats().hitCount();
+    }
+
+    /**
+     * Gets the number of lookups that reached the database.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return this.cache.stats().missCount();
+    }
+
+    /**
+     * Gets the number of entries evicted by size or expiration.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return this.cache.stats().evictionCount();
+    }
+
+    /**
+     * Gets the approximate number of cached entries.
+     *
+     * @return the size
+     */
+    public long size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Gets a snapshot of the cache statistics.
+     *
+     * @return the statistics
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+    /**
+     * Cached identifier of an entity, with the full URI of its parent for the eviction by parent.
+     */
+    private static final class Entry {
+
+        /** The identifier. */
+        private final long id;
+
+        /** The full URI of the canonical URI. */
+        private final String fullParentURI;
+
+        private Entry(final long id, final String fullParentURI) {
+            this.id = id;
+            this.fullParentURI = fullParentURI;
+        }
+    }
+}
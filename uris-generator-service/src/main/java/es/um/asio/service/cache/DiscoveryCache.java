@@ -0,0 +1,306 @@
+package es.um.asio.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import es.um.asio.service.util.ContentHash;
+import lombok.EqualsAndHashCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of the similar entities found by the discovery library. The key is the content hash of
+ * the node, the triple store, the class name, the entity id and the attributes, so the same instance imported again
+ * is answered without a remote call whatever the order of its attributes.
+ * <p>
+ * Entries are evicted by size and by time since write. The absence of a similar entity is cached too, with its own
+ * (usually shorter) time to live, but a failed call is not, so the next lookup asks again. Each hit adds the latency
+ * the remote call took when it was loaded to the saved time.
+ */
+@Component
+public class DiscoveryCache {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(DiscoveryCache.class);
+
+    /**
+     * Maximum number of cached entries.
+     */
+    @Value("${app.cache.discovery.maximum-size:10000}")
+    private long maximumSize;
+
+    /**
+     * Time to live of each entry, in seconds.
+     */
+    @Value("${app.cache.discovery.ttl:3600}")
+    private long ttl;
+
+    /**
+     * Time to live of the entries without similar entity, in seconds.
+     */
+    @Value("${app.cache.discovery.negative-ttl:600}")
+    private long negativeTtl;
+
+    /**
+     * The cache.
+     */
+    private Cache<Key, Entry> cache;
+
+    /**
+     * Lookups served from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Lookups that called the discovery library.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Latency of the remote calls saved by the hits, in nanoseconds.
+     */
+    private final LongAdder savedNanos = new LongAdder();
+
+    /**
+     * Builds the cache once the configuration has been injected.
+     */
+    @PostConstruct
+    public void init() {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(this.maximumSize)
+                .expireAfterWrite(this.ttl, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        logger.info("Discovery cache: maximumSize={}, ttl={}s, negativeTtl={}s", this.maximumSize, this.ttl,
+                this.negativeTtl);
+    }
+
+    /**
+     * Returns the cached similar entity of an instance, loading it with the given function on a miss.
+     *
+     * @param node        the node
+     * @param tripleStore the triple store
+     * @param className   the class name
+     * @param entityId    the entity id
+     * @param attrs       the attributes of the instance
+     * @param loader      the loader, returns an empty optional if there is no similar entity and null if the call
+     *                    failed
+     * @return a copy of the similar entity, or null if there is none or the call failed
+     */
+    public Map<String, Object> get(final String node, final String tripleStore, final String className,
+            final String entityId, final Map<String, Object> attrs,
+            final Supplier<Optional<Map<String, Object>>> loader) {
+        final Key key = new Key(node, tripleStore, className, entityId, attrs);
+        final Entry cached = this.cache.getIfPresent(key);
+        if (isHit(cached)) {
+            return copy(cached.similarEntity);
+        }
+        final long start = System.nanoTime();
+        return store(key, cached, loader.get(), start);
+    }
+
+    /**
+     * Returns the cached similar entity of an instance, starting its load with the given function on a miss without
+     * waiting for it, so the loads of several instances can run together.
+     *
+     * @param node        the node
+     * @param tripleStore the triple store
+     * @param className   the class name
+     * @param entityId    the entity id
+     * @param attrs       the attributes of the instance
+     * @param loader      starts the load, completed with an empty optional if there is no similar entity and with
+     *                    null if the call failed
+     * @return a copy of the similar entity, or null if there is none or the call failed
+     */
+    public CompletableFuture<Map<String, Object>> getAsync(final String node, final String tripleStore,
+            final String className, final String entityId, final Map<String, Object> attrs,
+            final Supplier<CompletableFuture<Optional<Map<String, Object>>>> loader) {
+        final Key key = new Key(node, tripleStore, className, entityId, attrs);
+        final Entry cached = this.cache.getIfPresent(key);
+        if (isHit(cached)) {
+            return CompletableFuture.completedFuture(copy(cached.similarEntity));
+        }
+        final long start = System.nanoTime();
+        return loader.get().thenApply(loaded -> store(key, cached, loaded, start));
+    }
+
+    private boolean isHit(final Entry cached) {
+        if (cached != null && !cached.isExpired(this.negativeTtl)) {
+            this.hits.increment();
+            this.savedNanos.add(cached.latency);
+            return true;
+        }
+        this.misses.increment();
+        return false;
+    }
+
+    private Map<String, Object> store(final Key key, final Entry cached, final Optional<Map<String, Object>> loaded,
+            final long start) {
+        if (loaded == null) {
+            if (cached != null) {
+                this.cache.invalidate(key);
+            }
+            return null;
+        }
+        this.cache.put(key, new Entry(loaded.orElse(null), System.nanoTime() - start));
+        return copy(loaded.orElse(null));
+    }
+
+    /**
+     * Evicts the entry of an instance.
+     *
+     * @param node        the node
+     * @param tripleStore the triple store
+     * @param className   the class name
+     * @param entityId    the entity id
+     * @param attrs       the attributes of the instance
+     */
+    public void invalidate(final String node, final String tripleStore, final String className,
+            final String entityId, final Map<String, Object> attrs) {
+        this.cache.invalidate(new Key(node, tripleStore, className, entityId, attrs));
+    }
+
+    /**
+     * Evicts the entries of a class. A null argument matches any value.
+     *
+     * @param node        the node
+     * @param tripleStore the triple store
+     * @param className   the class name
+     */
+    public void invalidate(final String node, final String tripleStore, final String className) {
+        this.cache.asMap().keySet().removeIf(key -> (node == null || node.equals(key.node))
+                && (tripleStore == null || tripleStore.equals(key.tripleStore))
+                && (className == null || className.equals(key.className)));
+    }
+
+    /**
+     * Evicts all the entries.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Gets the number of lookups served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that called the discovery library.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the ratio of lookups served from the cache.
+     *
+     * @return the hit ratio, 1 if there has been no lookup
+     */
+    public double getHitRatio() {
+        final long hitCount = getHitCount();
+        final long total = hitCount + getMissCount();
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Gets the latency of the remote calls saved by the hits.
+     *
+     * @return the saved time, in seconds
+     */
+    public double getSavedSeconds() {
+        return this.savedNanos.sum() / 1e9;
+    }
+
+    /**
+     * Gets the number of entries evicted by size or expiration.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return this.cache.stats().evictionCount();
+    }
+
+    /**
+     * Gets the approximate number of cached entries.
+     *
+     * @return the size
+     */
+    public long size() {
+        return this.cache.size();
+    }
+
+    private static Map<String, Object> copy(final Map<String, Object> similarEntity) {
+        if (similarEntity == null) {
+            return null;
+        }
+        final Map<String, Object> copy = new LinkedHashMap<>();
+        copy.putAll(similarEntity);
+        return copy;
+    }
+
+    /**
+     * Key of an entry, the class is kept to evict its entries.
+     */
+    @EqualsAndHashCode
+    private static final class Key {
+
+        private final String node;
+
+        private final String tripleStore;
+
+        private final String className;
+
+        private final UUID content;
+
+        private Key(final String node, final String tripleStore, final String className, final String entityId,
+                final Map<String, Object> attrs) {
+            this.node = node;
+            this.tripleStore = tripleStore;
+            this.className = className;
+            this.content = ContentHash.uuid(Arrays.asList(node, tripleStore, className, entityId, attrs));
+        }
+    }
+
+    /**
+     * Cached answer of the discovery library.
+     */
+    private static final class Entry {
+
+        /** The similar entity, null if there is none. */
+        private final Map<String, Object> similarEntity;
+
+        /** Latency of the remote call, in nanoseconds. */
+        private final long latency;
+
+        /** Write time, in nanoseconds. */
+        private final long written = System.nanoTime();
+
+        private Entry(final Map<String, Object> similarEntity, final long latency) {
+            this.similarEntity = similarEntity;
+            this.latency = latency;
+        }
+
+        private boolean isExpired(final long negativeTtl) {
+            return this.similarEntity == null && System.nanoTime() - this.written > TimeUnit.SECONDS.toNanos(negativeTtl);
+        }
+    }
+}
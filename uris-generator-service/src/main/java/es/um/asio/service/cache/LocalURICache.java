@@ -0,0 +1,168 @@
+package es.um.asio.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import es.um.asio.service.model.LocalURI;
+import lombok.EqualsAndHashCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of the {@link LocalURI} of a canonical URI in a storage type and a language.
+ * Entries are evicted by size and by time since write, and by canonical URI when a local URI, a canonical URI in
+ * language or a canonical URI is written. Only non empty results are cached, so a local URI stored after a miss is
+ * visible on the next lookup.
+ */
+@Component
+public class LocalURICache {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(LocalURICache.class);
+
+    /**
+     * Maximum number of cached entries.
+     */
+    @Value("${app.cache.local-uri.maximum-size:10000}")
+    private long maximumSize;
+
+    /**
+     * Time to live of each entry, in seconds.
+     */
+    @Value("${app.cache.local-uri.ttl:3600}")
+    private long ttl;
+
+    /**
+     * The cache.
+     */
+    private Cache<Key, List<LocalURI>> cache;
+
+    /**
+     * Builds the cache once the configuration has been injected.
+     */
+    @PostConstruct
+    public void init() {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(this.maximumSize)
+                .expireAfterWrite(this.ttl, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        logger.info("Local URI cache: maximumSize={}, ttl={}s", this.maximumSize, this.ttl);
+    }
+
+    /**
+     * Returns the cached local URIs of a canonical URI, loading them with the given function on a miss.
+     *
+     * @param canonicalURI the full URI of the canonical URI
+     * @param storageType  the storage type name
+     * @param language     the language ISO code
+     * @param loader       the loader
+     * @return the local URIs, unmodifiable
+     */
+    public List<LocalURI> get(final String canonicalURI, final String storageType, final String language,
+            final Supplier<List<LocalURI>> loader) {
+        if (canonicalURI == null) {
+            return loader.get();
+        }
+        final Key key = new Key(canonicalURI, storageType, language);
+        List<LocalURI> cached = this.cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<LocalURI> loaded = Collections.unmodifiableList(loader.get());
+        if (!loaded.isEmpty()) {
+            this.cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the cached local URIs of a canonical URI, without loading them.
+     *
+     * @param canonicalURI the full URI of the canonical URI
+     * @param storageType  the storage type name
+     * @param language     the language ISO code
+     * @return the local URIs, null if they are not cached
+     */
+    public List<LocalURI> getIfPresent(final String canonicalURI, final String storageType, final String language) {
+        return canonicalURI == null ? null : this.cache.getIfPresent(new Key(canonicalURI, storageType, language));
+    }
+
+    /**
+     * Caches the local URIs of a canonical URI loaded by the caller, if there is any.
+     *
+     * @param canonicalURI the full URI of the canonical URI
+     * @param storageType  the storage type name
+     * @param language     the language ISO code
+     * @param localURIs    the local URIs
+     */
+    public void put(final String canonicalURI, final String storageType, final String language,
+            final List<LocalURI> localURIs) {
+        if (canonicalURI != null && !localURIs.isEmpty()) {
+            this.cache.put(new Key(canonicalURI, storageType, language), Collections.unmodifiableList(localURIs));
+        }
+    }
+
+    /**
+     * Evicts the entries of a canonical URI.
+     *
+     * @param canonicalURI the full URI of the canonical URI
+     */
+    public void invalidateByCanonicalURI(final String canonicalURI) {
+        if (canonicalURI != null) {
+            this.cache.asMap().keySet().removeIf(key -> canonicalURI.equals(key.canonicalURI));
+        }
+    }
+
+    /**
+     * Evicts all the entries.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Gets the approximate number of cached entries.
+     *
+     * @return the size
+     */
+    public long size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Gets a snapshot of the cache statistics.
+     *
+     * @return the statistics
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+    /**
+     * Key of an entry.
+     */
+    @EqualsAndHashCode
+    private static final class Key {
+
+        private final String canonicalURI;
+
+        private final String storageType;
+
+        private final String language;
+
+        private Key(final String canonicalURI, final String storageType, final String language) {
+            this.canonicalURI = canonicalURI;
+            this.storageType = storageType;
+            this.language = language;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package es.um.asio.service.cache;
+
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.StorageType;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.service.LanguageService;
+import es.um.asio.service.service.LanguageTypeService;
+import es.um.asio.service.service.StorageTypeService;
+import es.um.asio.service.service.TypeService;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory snapshot of the reference tables ({@link Type}, {@link Language}, {@link LanguageType} and
+ * {@link StorageType}). It is loaded at startup and swapped atomically each time a write goes through their proxies,
+ * so the URI creation and resolution paths read it without touching the database.
+ */
+@Component
+public class ReferenceDataSnapshot {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(ReferenceDataSnapshot.class);
+
+    /**
+     * Type service.
+     */
+    @Autowired
+    private TypeService typeService;
+
+    /**
+     * Language service.
+     */
+    @Autowired
+    private LanguageService languageService;
+
+    /**
+     * Language type service.
+     */
+    @Autowired
+    private LanguageTypeService languageTypeService;
+
+    /**
+     * Storage type service.
+     */
+    @Autowired
+    private StorageTypeService storageTypeService;
+
+    /**
+     * Transaction manager, the language types are loaded with their relations in a single transaction.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Current snapshot.
+     */
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    /**
+     * Loads the snapshot once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    /**
+     * Reloads the four reference tables and swaps the snapshot. On failure the previous snapshot is kept.
+     */
+    public void refresh() {
+        try {
+            TransactionTemplate template = new TransactionTemplate(this.transactionManager);
+            template.setReadOnly(true);
+            Snapshot snapshot = template.execute(status -> {
+                List<LanguageType> languageTypes = this.languageTypeService.findAll();
+                for (LanguageType lt : languageTypes) {
+                    Hibernate.initialize(lt.getLanguage());
+                    Hibernate.initialize(lt.getType());
+                }
+                return new Snapshot(this.typeService.findAll(), this.languageService.findAll(),
+                        languageTypes, this.storageTypeService.findAll());
+            });
+            this.current.set(snapshot);
+            logger.info("Reference data snapshot loaded: {} types, {} languages, {} language types, {} storage types",
+                    snapshot.types.size(), snapshot.languages.size(), snapshot.languageTypes.size(),
+                    snapshot.storageTypes.size());
+        } catch (Exception e) {
+            logger.error("Reference data snapshot could not be loaded: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets a type by code.
+     *
+     * @param code the type code
+     * @return the type if present in the snapshot
+     */
+    public Optional<Type> getType(final String code) {
+        return Optional.ofNullable(code == null ? null : this.current.get().types.get(code));
+    }
+
+    /**
+     * Gets a language by ISO code.
+     *
+     * @param iso the ISO code
+     * @return the language if present in the snapshot
+     */
+    public Optional<Language> getLanguage(final String iso) {
+        return Optional.ofNullable(iso == null ? null : this.current.get().languages.get(iso));
+    }
+
+    /**
+     * Gets the default languages.
+     *
+     * @return the default languages, empty if none in the snapshot
+     */
+    public List<Language> getDefaultLanguages() {
+        return this.current.get().defaultLanguages;
+    }
+
+    /**
+     * Gets the language types of a language and a type, with the same matching rules as
+     * {@link LanguageTypeService#getByLanguageAndType(String, String)}: a null argument matches any value and codes
+     * are compared trimmed.
+     *
+     * @param l the language ISO code
+     * @param t the type code
+     * @return the matching language types
+     */
+    public List<LanguageType> getLanguageTypes(final String l, final String t) {
+        List<LanguageType> languageTypes = new ArrayList<>();
+        for (LanguageType lt : this.current.get().languageTypes) {
+            if (
+                    ( l == null || (lt.getLanguage()!=null && lt.getLanguage().getIso()!=null && lt.getLanguage().getIso().trim().equals(l.trim()))) &&
+                    ( t == null || (lt.getType()!=null && lt.getType().getCode()!=null && lt.getType().getCode().trim().equals(t.trim())))
+            ) {
+                languageTypes.add(lt);
+            }
+        }
+        return languageTypes;
+    }
+
+    /**
+     * Gets a storage type by name.
+     *
+     * @param name the name
+     * @return the storage type if present in the snapshot
+     */
+    public Optional<StorageType> getStorageType(final String name) {
+        return Optional.ofNullable(name == null ? null : this.current.get().storageTypes.get(name));
+    }
+
+    /**
+     * Immutable content of the reference tables.
+     */
+    private static final class Snapshot {
+
+        /** Empty snapshot, used until the first load. */
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList());
+
+        /** Types by code. */
+        private final Map<String, Type> types;
+
+        /** Languages by ISO code. */
+        private final Map<String, Language> languages;
+
+        /** Default languages. */
+        private final List<Language> defaultLanguages;
+
+        /** Language types. */
+        private final List<LanguageType> languageTypes;
+
+        /** Storage types by name. */
+        private final Map<String, StorageType> storageTypes;
+
+        private Snapshot(final List<Type> types, final List<Language> languages, final List<LanguageType> languageTypes,
+                final List<StorageType> storageTypes) {
+            Map<String, Type> typeMap = new HashMap<>();
+            types.forEach(type -> typeMap.put(type.getCode(), type));
+            Map<String, Language> languageMap = new HashMap<>();
+            languages.forEach(language -> languageMap.put(language.getIso(), language));
+            Map<String, StorageType> storageTypeMap = new HashMap<>();
+            storageTypes.forEach(st -> storageTypeMap.put(st.getName(), st));
+            this.types = Collections.unmodifiableMap(typeMap);
+            this.languages = Collections.unmodifiableMap(languageMap);
+            this.defaultLanguages = Collections.unmodifiableList(languages.stream()
+                    .filter(language -> Boolean.TRUE.equals(language.getIsDefault())).collect(Collectors.toList()));
+            this.languageTypes = Collections.unmodifiableList(new ArrayList<>(languageTypes));
+            this.storageTypes = Collections.unmodifiableMap(storageTypeMap);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Package containing in-memory caches in front of the persistence layer.
+ */
+package es.um.asio.service.cache;
@@ -20,4 +20,60 @@ public class DiscoveryConfig {
     private String port;
 
     private String endPoint;
+
+    /**
+     * Requests in flight on the shared connection pool.
+     */
+    private int maxConnections = 8;
+
+    /**
+     * Connect timeout, and time to wait for a free connection, in milliseconds.
+     */
+    private int connectTimeout = 2000;
+
+    /**
+     * Read timeout, in milliseconds.
+     */
+    private int readTimeout = 5000;
+
+    /**
+     * Deadline of each call, in milliseconds, after which the locally generated reference is used.
+     */
+    private long deadline = 5000;
+
+    /**
+     * Threads of the discovery calls.
+     */
+    private int threads = 8;
+
+    /**
+     * Calls waiting for a thread, further calls are skipped.
+     */
+    private int queueSize = 100;
+
+    /**
+     * Consecutive failures that open the circuit.
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * Time the circuit stays open before a trial call, in milliseconds.
+     */
+    private long openDuration = 30000;
+
+    /**
+     * Time the similarity requests of a node, triple store and class are gathered before they are sent, in
+     * milliseconds. 0 sends each request on its own.
+     */
+    private long batchWindow = 2;
+
+    /**
+     * Requests that close a batch before the window ends.
+     */
+    private int batchSize = 32;
+
+    /**
+     * Batched requests waiting for an answer, further requests are skipped.
+     */
+    private int maxPending = 1000;
 }
@@ -3,6 +3,7 @@ package es.um.asio.service.config;
 import com.google.common.collect.Sets;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import es.um.asio.service.config.properties.CacheProperties;
 import es.um.asio.service.config.properties.DatasourceProperties;
 import es.um.asio.service.config.properties.JpaProperties;
 import es.um.asio.service.config.properties.PersistenceProperties;
@@ -34,12 +35,22 @@ import java.util.Set;
  * Persistence configuration.
  */
 @Configuration
-@EnableConfigurationProperties(PersistenceProperties.class)
+@EnableConfigurationProperties({ PersistenceProperties.class, CacheProperties.class })
 @EnableJpaRepositories(basePackageClasses = { UserRepository.class })
 @EnableTransactionManagement
 @EntityScan(basePackageClasses = { User.class })
 public class PersistenceConfig {
 
+    /**
+     * Hibernate property with the Infinispan configuration resource.
+     */
+    private static final String INFINISPAN_CONFIG_RESOURCE = "hibernate.cache.infinispan.cfg";
+
+    /**
+     * Infinispan configuration for a single node, without JGroups clustering.
+     */
+    private static final String INFINISPAN_LOCAL_CONFIG = "org/infinispan/hibernate/cache/commons/builder/infinispan-configs-local.xml";
+
     @Autowired
     private ApplicationContext applicationContext;
 
@@ -49,6 +60,12 @@ public class PersistenceConfig {
     @Autowired
     private PersistenceProperties properties;
 
+    /**
+     * Embedded cache properties.
+     */
+    @Autowired
+    private CacheProperties cacheProperties;
+
 
     /**
      * Configures de datasource for the application.<br>
@@ -115,8 +132,13 @@ public class PersistenceConfig {
 
         jpaProperties.put(AvailableSettings.SHOW_SQL, jpa.isShowSql());
         jpaProperties.put(AvailableSettings.FORMAT_SQL, jpa.isShowSql());
-        
-        jpaProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+
+        jpaProperties.put(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(jpa.getBatchSize()));
+        jpaProperties.put(AvailableSettings.ORDER_INSERTS, String.valueOf(jpa.isOrderInserts()));
+        jpaProperties.put(AvailableSettings.ORDER_UPDATES, String.valueOf(jpa.isOrderUpdates()));
+        jpaProperties.put(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+
+        this.putCacheProperties(jpaProperties);
         jpaProperties.putAll(jpa.getProperties());
 
         entityManagerFactoryBean.setJpaProperties(jpaProperties);
@@ -124,6 +146,33 @@ public class PersistenceConfig {
         return entityManagerFactoryBean;
     }
 
+    /**
+     * Configures the Hibernate second-level and query cache. When {@link CacheProperties#isEnabled()} is set, the
+     * entities annotated as cacheable are stored in an embedded Infinispan, with the eviction settings of each region.
+     *
+     * @param jpaProperties
+     *            the JPA properties to fill
+     */
+    private void putCacheProperties(final Properties jpaProperties) {
+        if (!this.cacheProperties.isEnabled()) {
+            jpaProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            return;
+        }
+
+        jpaProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        jpaProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+        jpaProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "infinispan");
+        jpaProperties.put(AvailableSettings.JPA_SHARED_CACHE_MODE, "ENABLE_SELECTIVE");
+        jpaProperties.put(INFINISPAN_CONFIG_RESOURCE, INFINISPAN_LOCAL_CONFIG);
+
+        for (final Map.Entry<String, CacheProperties.RegionProperties> region : this.cacheProperties.getRegions().entrySet()) {
+            final String prefix = "hibernate.cache.infinispan." + region.getKey();
+            jpaProperties.put(prefix + ".memory.size", String.valueOf(region.getValue().getMaxEntries()));
+            jpaProperties.put(prefix + ".expiration.lifespan", String.valueOf(region.getValue().getLifespan()));
+            jpaProperties.put(prefix + ".expiration.max_idle", String.valueOf(region.getValue().getMaxIdle()));
+        }
+    }
+
     /**
      * Creates and configures the TransactionManager instance for the platform.
      *
@@ -1,5 +1,6 @@
 package es.um.asio.service.config;
 
+import es.um.asio.service.config.properties.ReferenceProperties;
 import es.um.asio.service.config.properties.URISChemaProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -11,7 +12,7 @@ import org.springframework.context.annotation.Configuration;
  * Persistence configuration.
  */
 @Configuration
-@EnableConfigurationProperties(URISChemaProperties.class)
+@EnableConfigurationProperties({ URISChemaProperties.class, ReferenceProperties.class })
 public class SchemaConfig {
 
     @Autowired
@@ -0,0 +1,52 @@
+package es.um.asio.service.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Embedded cache related properties.
+ */
+@ConfigurationProperties("app.cache.embedded")
+@Validated
+@Getter
+@Setter
+public class CacheProperties {
+
+    /**
+     * Whether to enable the Hibernate second-level and query cache.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Eviction settings by cache region name.
+     */
+    private Map<String, RegionProperties> regions = new HashMap<>();
+
+    /**
+     * Eviction settings of a cache region.
+     */
+    @Getter
+    @Setter
+    public static class RegionProperties {
+
+        /**
+         * Maximum number of entries, -1 for unbounded.
+         */
+        private long maxEntries = -1;
+
+        /**
+         * Maximum time an entry lives in the cache, in milliseconds, -1 for no limit.
+         */
+        private long lifespan = -1;
+
+        /**
+         * Maximum time an entry stays in the cache without being read, in milliseconds, -1 for no limit.
+         */
+        private long maxIdle = -1;
+    }
+}
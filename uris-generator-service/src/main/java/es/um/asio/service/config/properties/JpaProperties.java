@@ -43,4 +43,19 @@ public class JpaProperties {
      * JPA dialect for the database.
      */
     private String dialect;
+
+    /**
+     * Number of statements sent to the database in a single JDBC batch, 0 to disable batching.
+     */
+    private int batchSize = 50;
+
+    /**
+     * Whether to order the inserts by entity so they can be batched.
+     */
+    private boolean orderInserts = true;
+
+    /**
+     * Whether to order the updates by entity and id so they can be batched.
+     */
+    private boolean orderUpdates = true;
 }
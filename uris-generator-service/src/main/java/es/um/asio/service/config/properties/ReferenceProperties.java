@@ -0,0 +1,59 @@
+package es.um.asio.service.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Instance reference related configuration properties.
+ */
+@ConfigurationProperties("app.reference")
+@Validated
+@Getter
+@Setter
+@ToString
+public class ReferenceProperties {
+
+    /**
+     * Default reference strategy (see {@link es.um.asio.service.service.ReferenceGenerator}): content or time-ordered.
+     */
+    private String strategy = "content";
+
+    /**
+     * Reference strategy by type code, overrides the one of the domain.
+     */
+    private Map<String, String> types = new HashMap<>();
+
+    /**
+     * Reference strategy by domain.
+     */
+    private Map<String, String> domains = new HashMap<>();
+
+    /**
+     * How the content strategy derives the reference from the content of the instance. Legacy by default, so the
+     * instances without identifier loaded before keep their reference (and URI) when they are imported again.
+     * <p>
+     * Switching to {@link HashMode#CONTENT} changes the reference of every instance without identifier: do it on an
+     * empty database, or once the instances loaded with the legacy hash are no longer imported again.
+     */
+    private HashMode hashMode = HashMode.LEGACY;
+
+    /**
+     * Content hashing modes.
+     */
+    public enum HashMode {
+        /**
+         * Canonical SHA-256 hash of the attributes, see {@link es.um.asio.service.util.ContentHash}.
+         */
+        CONTENT,
+        /**
+         * Former hash of the Java hash code, to reproduce the references minted before the content hash.
+         */
+        LEGACY
+    }
+}
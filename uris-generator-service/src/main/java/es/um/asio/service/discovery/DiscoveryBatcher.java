@@ -0,0 +1,249 @@
+package es.um.asio.service.discovery;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import es.um.asio.service.config.DiscoveryConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gathers the concurrent similarity requests of the same node, triple store and class during a short window (or until
+ * the batch is full) and sends them together. The entity link endpoint has no batch form, so a batch goes out as
+ * parallel requests on the pooled connections of the {@link DiscoveryClient}, identical requests of a batch are sent
+ * once, and each answer is handed back to the callers waiting for it.
+ */
+@Component
+public class DiscoveryBatcher {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(DiscoveryBatcher.class);
+
+    /**
+     * The client.
+     */
+    private final DiscoveryClient client;
+
+    /**
+     * Time a batch stays open, in milliseconds.
+     */
+    private final long window;
+
+    /**
+     * Requests that close a batch.
+     */
+    private final int batchSize;
+
+    /**
+     * Requests waiting for an answer, further requests are rejected.
+     */
+    private final int maxPending;
+
+    /**
+     * Thread that closes the batches and sends them.
+     */
+    private final ScheduledThreadPoolExecutor dispatcher;
+
+    /**
+     * Open batches, guarded by itself.
+     */
+    private final Map<List<String>, Batch> open = new HashMap<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param config the discovery configuration
+     * @param client the client
+     */
+    @Autowired
+    public DiscoveryBatcher(final DiscoveryConfig config, final DiscoveryClient client) {
+        this.client = client;
+        this.window = config.getBatchWindow();
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.maxPending = Math.max(1, config.getMaxPending());
+        this.dispatcher = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "discovery-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher.setRemoveOnCancelPolicy(true);
+        logger.info("Discovery batcher: window={}ms, batchSize={}, maxPending={}", this.window, this.batchSize,
+                this.maxPending);
+    }
+
+    /**
+     * Checks if the requests are batched.
+     *
+     * @return false if the window is 0
+     */
+    public boolean isEnabled() {
+        return this.window > 0;
+    }
+
+    /**
+     * Adds a request to the open batch of its node, triple store and class.
+     *
+     * @param node        the node
+     * @param tripleStore the triple store
+     * @param className   the class name
+     * @param entityId    the entity id
+     * @param attrs       the attributes of the instance, not changed until the answer
+     * @return the first result of the request, null if there is none
+     * @throws RejectedExecutionException if there are too many requests waiting
+     */
+    public CompletableFuture<ObjectNode> submit(final String node, final String tripleStore, final String className,
+            final String entityId, final Map<String, Object> attrs) {
+        if (this.pending.incrementAndGet() > this.maxPending) {
+            this.pending.decrementAndGet();
+            throw new RejectedExecutionException("Too many discovery requests waiting");
+        }
+        final List<String> key = Arrays.asList(node, tripleStore, className);
+        final CompletableFuture<ObjectNode> future = new CompletableFuture<>();
+        Batch full = null;
+        synchronized (this.open) {
+            Batch batch = this.open.get(key);
+            if (batch == null) {
+                batch = new Batch(key);
+                this.open.put(key, batch);
+                final Batch scheduled = batch;
+                this.dispatcher.schedule(() -> close(scheduled), this.window, TimeUnit.MILLISECONDS);
+            }
+            batch.add(entityId, attrs, future);
+            if (batch.size >= this.batchSize) {
+                this.open.remove(key);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            final Batch dispatched = full;
+            this.dispatcher.execute(() -> dispatch(dispatched));
+        }
+        return future;
+    }
+
+    private void close(final Batch batch) {
+        synchronized (this.open) {
+            if (!this.open.remove(batch.key, batch)) {
+                // already sent when it was full
+                return;
+            }
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(final Batch batch) {
+        this.batches.increment();
+        this.requests.add(batch.size);
+        this.shared.add(batch.size - batch.waiting.size());
+        final String node = batch.key.get(0);
+        final String tripleStore = batch.key.get(1);
+        final String className = batch.key.get(2);
+        for (Map.Entry<List<Object>, List<CompletableFuture<ObjectNode>>> request : batch.waiting.entrySet()) {
+            final List<CompletableFuture<ObjectNode>> futures = request.getValue();
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> attrs = (Map<String, Object>) request.getKey().get(1);
+            this.client.findFirstResultAsync(node, tripleStore, className, (String) request.getKey().get(0), attrs)
+                    .whenComplete((result, e) -> {
+                        this.pending.addAndGet(-futures.size());
+                        for (CompletableFuture<ObjectNode> future : futures) {
+                            if (e != null) {
+                                future.completeExceptionally(e);
+                            } else {
+                                // a copy for each caller of a shared request, the result is mutable
+                                future.complete(result != null && futures.size() > 1 ? result.deepCopy() : result);
+                            }
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Stops the dispatcher.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.dispatcher.shutdownNow();
+    }
+
+    /**
+     * Gets the number of batches sent.
+     *
+     * @return the count
+     */
+    public long getBatchCount() {
+        return this.batches.sum();
+    }
+
+    /**
+     * Gets the number of requests sent in batches.
+     *
+     * @return the count
+     */
+    public long getRequestCount() {
+        return this.requests.sum();
+    }
+
+    /**
+     * Gets the number of requests answered with the answer of an identical request of the same batch.
+     *
+     * @return the count
+     */
+    public long getSharedCount() {
+        return this.shared.sum();
+    }
+
+    /**
+     * Gets the number of requests waiting for an answer.
+     *
+     * @return the count
+     */
+    public int getPendingCount() {
+        return this.pending.get();
+    }
+
+    /**
+     * Requests of a node, triple store and class gathered in a window.
+     */
+    private static final class Batch {
+
+        private final List<String> key;
+
+        /**
+         * Callers by entity id and attributes.
+         */
+        private final Map<List<Object>, List<CompletableFuture<ObjectNode>>> waiting = new LinkedHashMap<>();
+
+        private int size;
+
+        private Batch(final List<String> key) {
+            this.key = key;
+        }
+
+        private void add(final String entityId, final Map<String, Object> attrs, final CompletableFuture<ObjectNode> future) {
+            this.waiting.computeIfAbsent(Arrays.asList(entityId, attrs), k -> new ArrayList<>(1)).add(future);
+            this.size++;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package es.um.asio.service.discovery;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import es.um.asio.service.config.DiscoveryConfig;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client of the entity link endpoint of the discovery library. A single {@link HttpClient} is shared by all the
+ * calls, so the connections are kept alive and reused instead of opened for each instance, and at most
+ * <code>discovery.maxConnections</code> requests are in flight. The asynchronous requests wait for a free connection
+ * in a queue, without holding the calling thread. A request that finds no free connection within
+ * <code>discovery.connectTimeout</code> fails with {@link RejectedExecutionException}: the client is saturated, the
+ * service has not been asked. The JSON codec is shared too, and the response is read as a stream up to the first
+ * result, without copying the body.
+ */
+@Component
+public class DiscoveryClient {
+
+    /**
+     * Shared JSON codec, thread safe. Null attributes are sent as null, as before. The body is closed by the client
+     * once drained, not by the parser.
+     */
+    public static final ObjectMapper MAPPER = new ObjectMapper().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(DiscoveryClient.class);
+
+    /**
+     * Base URI of the endpoint, without query.
+     */
+    private final String endpoint;
+
+    /**
+     * Time to wait for the answer of a request, in milliseconds.
+     */
+    private final Duration readTimeout;
+
+    /**
+     * Time to wait for a free connection, in milliseconds.
+     */
+    private final long connectTimeout;
+
+    /**
+     * Requests in flight.
+     */
+    private final Semaphore connections;
+
+    /**
+     * Asynchronous requests waiting for a free connection.
+     */
+    private final Queue<Queued> queued = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The client.
+     */
+    private final HttpClient client;
+
+    /**
+     * Constructor.
+     *
+     * @param config the discovery configuration
+     */
+    @Autowired
+    public DiscoveryClient(final DiscoveryConfig config) {
+        this.endpoint = String.format("%s:%s%s", config.getHost(), config.getPort(), config.getEndPoint());
+        this.readTimeout = Duration.ofMillis(config.getReadTimeout());
+        this.connectTimeout = config.getConnectTimeout();
+        this.connections = new Semaphore(Math.max(1, config.getMaxConnections()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeout()))
+                .build();
+        logger.info("Discovery client: endpoint={}, maxConnections={}, connectTimeout={}ms, readTimeout={}ms",
+                this.endpoint, config.getMaxConnections(), config.getConnectTimeout(), config.getReadTimeout());
+    }
+
+    /**
+     * Requests the entity link of an instance and returns the first result.
+     *
+     * @param node        the node
+     * @param tripleStore the triple store
+     * @param className   the class name
+     * @param entityId    the entity id
+     * @param attrs       the attributes of the instance
+     * @return the first result, null if there is none
+     * @throws IOException                if the request fails or the answer is not a success
+     * @throws InterruptedException       if the thread is interrupted while waiting
+     * @throws RejectedExecutionException if there is no free connection in time
+     */
+    public ObjectNode findFirstResult(final String node, final String tripleStore, final String className,
+            final String entityId, final Map<String, Object> attrs) throws IOException, InterruptedException {
+        final HttpRequest request = request(node, tripleStore, className, entityId, attrs);
+        if (!this.connections.tryAcquire(this.connectTimeout, TimeUnit.MILLISECONDS)) {
+            throw new RejectedExecutionException("No discovery connection available");
+        }
+        try {
+            return read(this.client.send(request, HttpResponse.BodyHandlers.ofInputStream()));
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Sends the entity link request of an instance without waiting, neither for a free connection nor for the answer.
+     *
+     * @param node        the node
+     * @param tripleStore the triple store
+     * @param className   the class name
+     * @param entityId    the entity id
+     * @param attrs       the attributes of the instance
+     * @return the first result, null if there is none, or completed with the failure of the request, with
+     *         {@link RejectedExecutionException} if there is no free connection in time
+     */
+    public CompletableFuture<ObjectNode> findFirstResultAsync(final String node, final String tripleStore,
+            final String className, final String entityId, final Map<String, Object> attrs) {
+        final Queued request;
+        try {
+            request = new Queued(request(node, tripleStore, className, entityId, attrs));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        this.queued.add(request);
+        CompletableFuture.delayedExecutor(this.connectTimeout, TimeUnit.MILLISECONDS).execute(() -> {
+            if (this.queued.remove(request)) {
+                request.result.completeExceptionally(new RejectedExecutionException("No discovery connection available"));
+            }
+        });
+        sendQueued();
+        return request.result;
+    }
+
+    /**
+     * Sends the queued requests while there are free connections. It is called after queueing a request and after
+     * freeing a connection, so a request is never left in the queue with a free connection.
+     */
+    private void sendQueued() {
+        while (!this.queued.isEmpty() && this.connections.tryAcquire()) {
+            final Queued request = this.queued.poll();
+            if (request == null) {
+                // taken by another thread or expired
+                this.connections.release();
+                continue;
+            }
+            this.client.sendAsync(request.request, HttpResponse.BodyHandlers.ofInputStream())
+                    .whenComplete((response, e) -> {
+                        ObjectNode result = null;
+                        Throwable failure = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        try {
+                            if (failure == null) {
+                                result = read(response);
+                            }
+                        } catch (IOException | RuntimeException readFailure) {
+                            failure = readFailure;
+                        } finally {
+                            release();
+                        }
+                        if (failure != null) {
+                            request.result.completeExceptionally(failure);
+                        } else {
+                            request.result.complete(result);
+                        }
+                    });
+        }
+    }
+
+    private void release() {
+        this.connections.release();
+        sendQueued();
+    }
+
+    private HttpRequest request(final String node, final String tripleStore, final String className,
+            final String entityId, final Map<String, Object> attrs) throws IOException {
+        return HttpRequest.newBuilder(uri(node, tripleStore, className, entityId))
+                .timeout(this.readTimeout)
+                .header("Content-Type", "application/json; utf-8")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(attrs)))
+                .build();
+    }
+
+    private static ObjectNode read(final HttpResponse<InputStream> response) throws IOException {
+        try (InputStream body = response.body()) {
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Discovery answered " + response.statusCode());
+            }
+            final ObjectNode result = readFirstResult(body);
+            // the rest of the body is drained, closing a stream not fully read closes the connection
+            body.transferTo(OutputStream.nullOutputStream());
+            return result;
+        }
+    }
+
+    private URI uri(final String node, final String tripleStore, final String className, final String entityId) {
+        final StringBuilder uri = new StringBuilder(this.endpoint.length() + 256).append(this.endpoint)
+                .append("?userId=uris_factory")
+                .append("&requestCode=").append(RandomStringUtils.randomAlphabetic(10));
+        param(uri, "node", node);
+        param(uri, "tripleStore", tripleStore);
+        param(uri, "className", className);
+        param(uri, "entityId", entityId + "-temp");
+        return URI.create(uri.append("&doSynchronous=true&propague_in_kafka=false&linkEntities=false").toString());
+    }
+
+    private static void param(final StringBuilder uri, final String name, final String value) {
+        uri.append('&').append(name).append('=').append(URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads <code>response.results[0]</code> from the body, skipping the rest.
+     */
+    private static ObjectNode readFirstResult(final InputStream body) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+            if (!enterObject(parser) || !moveTo(parser, "response") || !enterObject(parser)
+                    || !moveTo(parser, "results") || parser.nextToken() != JsonToken.START_ARRAY
+                    || parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            return MAPPER.readTree(parser);
+        }
+    }
+
+    private static boolean enterObject(final JsonParser parser) throws IOException {
+        return parser.nextToken() == JsonToken.START_OBJECT;
+    }
+
+    private static boolean moveTo(final JsonParser parser, final String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (name.equals(parser.getCurrentName())) {
+                return true;
+            }
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * Asynchronous request waiting for a free connection.
+     */
+    private static final class Queued {
+
+        private final HttpRequest request;
+
+        private final CompletableFuture<ObjectNode> result = new CompletableFuture<>();
+
+        private Queued(final HttpRequest request) {
+            this.request = request;
+        }
+    }
+}
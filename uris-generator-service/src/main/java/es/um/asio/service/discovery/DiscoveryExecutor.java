@@ -0,0 +1,277 @@
+package es.um.asio.service.discovery;
+
+import es.um.asio.service.config.DiscoveryConfig;
+import es.um.asio.service.util.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs the calls to the discovery library on a bounded pool of its own, so a slow discovery service does not hold the
+ * request threads. Each call has a deadline and goes through a {@link CircuitBreaker}: when the call times out, fails,
+ * finds the pool full or the circuit open, the fallback value is returned at once. Only the answers of the service
+ * count for the circuit: a call rejected for lack of local capacity, a full pool or no free connection, does not.
+ */
+@Component
+public class DiscoveryExecutor {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(DiscoveryExecutor.class);
+
+    /**
+     * Pool of the calls.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Circuit breaker of the calls.
+     */
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Deadline of each call, in milliseconds.
+     */
+    private final long deadline;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder successes = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    private final LongAdder saturated = new LongAdder();
+
+    private final LongAdder latencyNanos = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param config the discovery configuration
+     */
+    @Autowired
+    public DiscoveryExecutor(final DiscoveryConfig config) {
+        this.deadline = config.getDeadline();
+        this.circuitBreaker = new CircuitBreaker(config.getFailureThreshold(), config.getOpenDuration());
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(), 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueSize())), runnable -> {
+                    final Thread thread = new Thread(runnable, "discovery-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        logger.info("Discovery executor: threads={}, queueSize={}, deadline={}ms, failureThreshold={}, openDuration={}ms",
+                config.getThreads(), config.getQueueSize(), this.deadline, config.getFailureThreshold(),
+                config.getOpenDuration());
+    }
+
+    /**
+     * Runs a call on the pool within the deadline.
+     *
+     * @param <T>      the result type
+     * @param call     the call
+     * @param fallback the value returned if the call is not made or does not end well in time
+     * @return the result of the call or the fallback
+     */
+    public <T> T call(final Callable<T> call, final T fallback) {
+        return await(() -> this.executor.submit(call), fallback);
+    }
+
+    /**
+     * Starts a call that runs elsewhere, for example a batched request, and waits for it within the deadline.
+     *
+     * @param <T>      the result type
+     * @param call     starts the call, throwing {@link RejectedExecutionException} if it can not be taken
+     * @param fallback the value returned if the call is not made or does not end well in time
+     * @return the result of the call or the fallback
+     */
+    public <T> T await(final Supplier<? extends Future<T>> call, final T fallback) {
+        if (!this.circuitBreaker.tryAcquire()) {
+            return fallback;
+        }
+        final long start = System.nanoTime();
+        final Future<T> future;
+        try {
+            future = call.get();
+        } catch (RejectedExecutionException e) {
+            onSaturated();
+            return fallback;
+        }
+        this.calls.increment();
+        try {
+            final T result = future.get(this.deadline, TimeUnit.MILLISECONDS);
+            this.successes.increment();
+            this.circuitBreaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            this.timeouts.increment();
+            this.circuitBreaker.onFailure();
+            logger.warn("Discovery call exceeded the deadline of {}ms", this.deadline);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                onSaturated();
+                return fallback;
+            }
+            this.failures.increment();
+            this.circuitBreaker.onFailure();
+            logger.warn("Discovery call failed: {}", e.getCause() != null ? e.getCause().toString() : e.toString());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            this.circuitBreaker.onFailure();
+            Thread.currentThread().interrupt();
+        } finally {
+            this.latencyNanos.add(System.nanoTime() - start);
+        }
+        return fallback;
+    }
+
+    /**
+     * Starts a call that runs elsewhere without waiting for it, so several calls can be in flight together. The answer
+     * is handled as in {@link #await}, at the deadline of each call.
+     *
+     * @param <T>      the result type
+     * @param call     starts the call, throwing {@link RejectedExecutionException} if it can not be taken
+     * @param fallback the value returned if the call is not made or does not end well in time
+     * @return the result of the call or the fallback, never completed exceptionally
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<CompletableFuture<T>> call, final T fallback) {
+        if (!this.circuitBreaker.tryAcquire()) {
+            return CompletableFuture.completedFuture(fallback);
+        }
+        final long start = System.nanoTime();
+        final CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RejectedExecutionException e) {
+            onSaturated();
+            return CompletableFuture.completedFuture(fallback);
+        }
+        this.calls.increment();
+        return future.orTimeout(this.deadline, TimeUnit.MILLISECONDS).handle((result, e) -> {
+            this.latencyNanos.add(System.nanoTime() - start);
+            final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause == null) {
+                this.successes.increment();
+                this.circuitBreaker.onSuccess();
+                return result;
+            } else if (cause instanceof RejectedExecutionException) {
+                onSaturated();
+            } else if (cause instanceof TimeoutException) {
+                this.timeouts.increment();
+                this.circuitBreaker.onFailure();
+                logger.warn("Discovery call exceeded the deadline of {}ms", this.deadline);
+            } else {
+                this.failures.increment();
+                this.circuitBreaker.onFailure();
+                logger.warn("Discovery call failed: {}", cause.toString());
+            }
+            return fallback;
+        });
+    }
+
+    private void onSaturated() {
+        this.saturated.increment();
+        // not an answer of the service, only the trial slot is given back
+        this.circuitBreaker.onSkipped();
+        logger.warn("Discovery calls saturated, the call is skipped");
+    }
+
+    /**
+     * Stops the pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Gets the circuit breaker.
+     *
+     * @return the circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * Gets the number of calls made.
+     *
+     * @return the count
+     */
+    public long getCallCount() {
+        return this.calls.sum();
+    }
+
+    /**
+     * Gets the number of calls that answered in time.
+     *
+     * @return the count
+     */
+    public long getSuccessCount() {
+        return this.successes.sum();
+    }
+
+    /**
+     * Gets the number of calls that failed.
+     *
+     * @return the count
+     */
+    public long getFailureCount() {
+        return this.failures.sum();
+    }
+
+    /**
+     * Gets the number of calls that exceeded the deadline.
+     *
+     * @return the count
+     */
+    public long getTimeoutCount() {
+        return this.timeouts.sum();
+    }
+
+    /**
+     * Gets the number of calls skipped because the pool was full or there was no free connection.
+     *
+     * @return the count
+     */
+    public long getSaturatedCount() {
+        return this.saturated.sum();
+    }
+
+    /**
+     * Gets the time spent waiting for the calls made, in seconds.
+     *
+     * @return the total time
+     */
+    public double getTotalLatencySeconds() {
+        return this.latencyNanos.sum() / 1e9;
+    }
+
+    /**
+     * Gets the number of calls waiting for a thread.
+     *
+     * @return the queue size
+     */
+    public int getQueueSize() {
+        return this.executor.getQueue().size();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Package containing the client side of the discovery library integration.
+ */
+package es.um.asio.service.discovery;
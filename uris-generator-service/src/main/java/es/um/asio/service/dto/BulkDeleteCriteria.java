@@ -0,0 +1,77 @@
+package es.um.asio.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Selection of the canonical URIs or canonical URIs in language of a bulk delete. The null fields do not filter.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(includeFieldNames = true)
+public class BulkDeleteCriteria {
+
+    /**
+     * Entity name.
+     */
+    private String entityName;
+
+    /**
+     * Property name.
+     */
+    private String propertyName;
+
+    /**
+     * Reference.
+     */
+    private String reference;
+
+    /**
+     * Is entity.
+     */
+    private Boolean isEntity;
+
+    /**
+     * Is property.
+     */
+    private Boolean isProperty;
+
+    /**
+     * Selects the URIs of an entity.
+     *
+     * @param entityName the entity name
+     * @param onlyEntities true to select only the URIs of the entity itself, not those of its instances
+     * @return the criteria
+     */
+    public static BulkDeleteCriteria byEntityName(final String entityName, final boolean onlyEntities) {
+        return new BulkDeleteCriteria(entityName, null, null, onlyEntities ? Boolean.TRUE : null, null);
+    }
+
+    /**
+     * Selects the URIs of a property.
+     *
+     * @param propertyName the property name
+     * @param onlyProperties true to select only the URIs of the property itself
+     * @return the criteria
+     */
+    public static BulkDeleteCriteria byPropertyName(final String propertyName, final boolean onlyProperties) {
+        return new BulkDeleteCriteria(null, propertyName, null, null, onlyProperties ? Boolean.TRUE : null);
+    }
+
+    /**
+     * Selects the URIs of an instance.
+     *
+     * @param entityName the entity name
+     * @param reference the reference of the instance
+     * @return the criteria
+     */
+    public static BulkDeleteCriteria byReference(final String entityName, final String reference) {
+        return new BulkDeleteCriteria(entityName, null, reference, null, null);
+    }
+
+}
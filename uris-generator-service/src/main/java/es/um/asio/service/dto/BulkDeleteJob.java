@@ -0,0 +1,121 @@
+package es.um.asio.service.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Progress of a bulk delete. It is updated only by the thread running the delete, after each chunk is committed.
+ */
+@Getter
+@ToString(includeFieldNames = true)
+public class BulkDeleteJob {
+
+    /**
+     * Status of a bulk delete.
+     */
+    public enum Status {
+        RUNNING, DONE, FAILED
+    }
+
+    /**
+     * Identifier.
+     */
+    private final String id = UUID.randomUUID().toString();
+
+    /**
+     * Name of the table of the URIs selected, the rows that depend on them are deleted too.
+     */
+    private final String target;
+
+    /**
+     * Selection of the URIs.
+     */
+    private final BulkDeleteCriteria criteria;
+
+    /**
+     * Start time in milliseconds.
+     */
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * End time in milliseconds, null while running.
+     */
+    private volatile Long endTime;
+
+    /**
+     * Status.
+     */
+    private volatile Status status = Status.RUNNING;
+
+    /**
+     * Error message.
+     */
+    private volatile String error;
+
+    /**
+     * Chunks committed.
+     */
+    private volatile long chunks;
+
+    /**
+     * Canonical URIs deleted.
+     */
+    private volatile long canonicalURIs;
+
+    /**
+     * Canonical URIs in language deleted.
+     */
+    private volatile long canonicalURILanguages;
+
+    /**
+     * Local URIs deleted.
+     */
+    private volatile long localURIs;
+
+    /**
+     * Creates a running job.
+     *
+     * @param target the table of the URIs selected
+     * @param criteria the selection of the URIs
+     */
+    public BulkDeleteJob(final String target, final BulkDeleteCriteria criteria) {
+        this.target = target;
+        this.criteria = criteria;
+    }
+
+    /**
+     * Adds the rows deleted by a chunk.
+     *
+     * @param canonicalURIs canonical URIs deleted
+     * @param canonicalURILanguages canonical URIs in language deleted
+     * @param localURIs local URIs deleted
+     */
+    public void addChunk(final long canonicalURIs, final long canonicalURILanguages, final long localURIs) {
+        this.canonicalURIs += canonicalURIs;
+        this.canonicalURILanguages += canonicalURILanguages;
+        this.localURIs += localURIs;
+        this.chunks++;
+    }
+
+    /**
+     * Marks the job as done.
+     */
+    public void done() {
+        this.endTime = System.currentTimeMillis();
+        this.status = Status.DONE;
+    }
+
+    /**
+     * Marks the job as failed, the chunks already committed stay deleted.
+     *
+     * @param error the error message
+     */
+    public void failed(final String error) {
+        this.error = error;
+        this.endTime = System.currentTimeMillis();
+        this.status = Status.FAILED;
+    }
+
+}
@@ -0,0 +1,50 @@
+package es.um.asio.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Read model of a canonical URI in language with its parent canonical URI and the default flag of its language,
+ * projected by a single query without loading the entities.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString(includeFieldNames = true)
+public class CanonicalURILanguageView {
+
+    /**
+     * Full URI of the parent canonical URI.
+     */
+    private String canonicalURI;
+
+    /**
+     * ISO code of the language.
+     */
+    private String languageIso;
+
+    /**
+     * True if the language is the default one, null if the canonical URI in language has no language.
+     */
+    private Boolean isDefaultLanguage;
+
+    /**
+     * Full URI of the canonical URI in language.
+     */
+    private String canonicalURILanguage;
+
+    /**
+     * Checks if the language is the default one.
+     *
+     * @return true if the language is the default one
+     */
+    public boolean isDefault() {
+        return Boolean.TRUE.equals(this.isDefaultLanguage);
+    }
+}
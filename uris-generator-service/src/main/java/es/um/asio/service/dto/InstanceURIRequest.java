@@ -0,0 +1,39 @@
+package es.um.asio.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One instance of a bulk instance URI creation request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(includeFieldNames = true)
+public class InstanceURIRequest {
+
+    /**
+     * Entity name in language.
+     */
+    private String entity;
+
+    /**
+     * Canonical entity name.
+     */
+    private String parentEntity;
+
+    /**
+     * Reference of the instance.
+     */
+    private String reference;
+
+    /**
+     * Local id of the instance.
+     */
+    private String localId;
+
+}
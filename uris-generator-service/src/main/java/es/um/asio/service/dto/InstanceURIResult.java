@@ -0,0 +1,44 @@
+package es.um.asio.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Result of one instance of a bulk instance URI creation request. Either the URIs or the error are set.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(includeFieldNames = true)
+public class InstanceURIResult {
+
+    /**
+     * Canonical URI.
+     */
+    private String canonicalURI;
+
+    /**
+     * Canonical URI in language.
+     */
+    private String canonicalLanguageURI;
+
+    /**
+     * Error message.
+     */
+    private String error;
+
+    /**
+     * Builds a failed result.
+     *
+     * @param error the error message
+     * @return the result
+     */
+    public static InstanceURIResult error(final String error) {
+        return new InstanceURIResult(null, null, error);
+    }
+
+}
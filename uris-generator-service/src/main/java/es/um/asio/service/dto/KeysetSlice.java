@@ -0,0 +1,43 @@
+package es.um.asio.service.dto;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Slice of a listing ordered by id, read from the id after the previous slice instead of from an offset, with no count
+ * of the total. The continuation token gives the next slice and is null on the last one.
+ *
+ * @param <T> the entity type
+ */
+public class KeysetSlice<T> extends SliceImpl<T> {
+
+    private static final long serialVersionUID = -3520167390241385114L;
+
+    /**
+     * Token of the next slice.
+     */
+    private final String continuationToken;
+
+    /**
+     * Constructor.
+     *
+     * @param content           the content
+     * @param pageable          the size of the slice, the page number is always 0
+     * @param continuationToken the token of the next slice, null if there are no more rows
+     */
+    public KeysetSlice(final List<T> content, final Pageable pageable, final String continuationToken) {
+        super(content, pageable, continuationToken != null);
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * Gets the token of the next slice.
+     *
+     * @return the token, null on the last slice
+     */
+    public String getContinuationToken() {
+        return this.continuationToken;
+    }
+}
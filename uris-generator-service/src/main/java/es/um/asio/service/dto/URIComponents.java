@@ -0,0 +1,65 @@
+package es.um.asio.service.dto;
+
+import es.um.asio.service.util.UriTemplate.Placeholder;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Elements of a canonical URI, or of a canonical URI in language, parsed from the URI. The elements not in the URI
+ * are null.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString(includeFieldNames = true)
+public class URIComponents {
+
+    /**
+     * Domain.
+     */
+    private String domain;
+
+    /**
+     * Sub domain.
+     */
+    private String subDomain;
+
+    /**
+     * Language, only in canonical URIs in language.
+     */
+    private String language;
+
+    /**
+     * Type code, in language for canonical URIs in language.
+     */
+    private String type;
+
+    /**
+     * Concept: entity or property name.
+     */
+    private String concept;
+
+    /**
+     * Reference, only in instances.
+     */
+    private String reference;
+
+    /**
+     * Builds the elements from the values parsed by a template.
+     *
+     * @param values the values by {@link Placeholder#ordinal()}
+     * @return the elements
+     */
+    public static URIComponents of(final String[] values) {
+        return new URIComponents(values[Placeholder.DOMAIN.ordinal()], values[Placeholder.SUB_DOMAIN.ordinal()],
+                values[Placeholder.LANGUAGE.ordinal()], values[Placeholder.TYPE.ordinal()],
+                values[Placeholder.CONCEPT.ordinal()], values[Placeholder.REFERENCE.ordinal()]);
+    }
+
+}
@@ -1,21 +1,38 @@
 package es.um.asio.service.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import es.um.asio.service.cache.CacheRegions;
 import es.um.asio.service.filter.CanonicalURIFilter;
 import es.um.asio.service.filter.SearchCriteria;
 import es.um.asio.service.filter.SearchOperation;
+import es.um.asio.service.util.JpaConstants;
+import es.um.asio.service.util.UriHash;
+import es.um.asio.service.util.UriTemplate;
 import es.um.asio.service.util.Utils;
 import es.um.asio.service.util.ValidationConstants;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 import java.util.Set;
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CANONICAL_URI)
 @Entity
-@Table(name = CanonicalURI.TABLE)
+@Table(name = CanonicalURI.TABLE, indexes = {
+        @Index(name = "IDX_CANONICAL_URI_FULL_URI_HASH", columnList = CanonicalURI.Columns.FULL_URI_HASH),
+        @Index(name = "IDX_CANONICAL_URI_ENTITY_REFERENCE", columnList = CanonicalURI.Columns.ENTITY_NAME + ","
+                + CanonicalURI.Columns.REFERENCE),
+        @Index(name = "IDX_CANONICAL_URI_ENTITY_PROPERTY", columnList = CanonicalURI.Columns.ENTITY_NAME + ","
+                + CanonicalURI.Columns.PROPERTY_NAME),
+        @Index(name = "IDX_CANONICAL_URI_ENTITY_IS_ENTITY", columnList = CanonicalURI.Columns.ENTITY_NAME + ","
+                + CanonicalURI.Columns.IS_ENTITY),
+        @Index(name = "IDX_CANONICAL_URI_PROPERTY_IS_PROPERTY", columnList = CanonicalURI.Columns.PROPERTY_NAME + ","
+                + CanonicalURI.Columns.IS_PROPERTY) })
 @Getter
 @ToString(includeFieldNames = true)
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
@@ -32,7 +49,7 @@ public class CanonicalURI  {
      * The id.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = JpaConstants.POOLED_ID_GENERATOR_NAME)
     @Column(name = Columns.ID)
     @EqualsAndHashCode.Include
     @ApiModelProperty(hidden = true)
@@ -109,6 +126,14 @@ public class CanonicalURI  {
     @Column(name = Columns.FULL_URI, unique = true,nullable = true,columnDefinition = "VARCHAR(400)",length = 400)
     private String fullURI;
 
+    /**
+     * FULL_URI_HASH, lookup key of the full URI.
+     */
+    @JsonIgnore
+    @ApiModelProperty(hidden = true)
+    @Column(name = Columns.FULL_URI_HASH)
+    private Long fullURIHash;
+
     /**
      * Is Entity.
      */
@@ -149,6 +174,7 @@ public class CanonicalURI  {
      */
 
     @OneToMany(mappedBy = "canonicalURI" , cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CANONICAL_URI_LANGUAGES)
     private Set<CanonicalURILanguage> canonicalURILanguages;
 
     /**
@@ -253,11 +279,25 @@ public class CanonicalURI  {
         this.localId = localId;
     }
 
+    /**
+     * Updates the lookup key of the full URI, before each insert and update.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateHashes() {
+        this.fullURIHash = UriHash.of(this.fullURI);
+    }
+
     /**
      * Column name constants.
      */
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     static final class Columns {
+        /**
+         * FULL_URI_HASH column.
+         */
+        protected static final String FULL_URI_HASH = "FULL_URI_HASH";
+
         /**
          * ID column.
          */
@@ -393,64 +433,43 @@ public class CanonicalURI  {
         generateFullURL(CanonicalURI.schema);
     }
 
-    public String generateDomainURL(String uriSchema) {
-        if (Utils.isValidString(this.domain)) {
-            uriSchema = uriSchema.replaceFirst("\\$domain\\$", this.domain);
-        } else {
+    /**
+     * Builds the full URI with the compiled schema. The sub-domain is optional, and so is the reference of an entity
+     * or a property.
+     *
+     * @param uriSchema the schema
+     */
+    public void generateFullURL(String uriSchema) {
+        setSchema(schema);
+        if (!Utils.isValidString(this.domain)) {
             throw new IllegalArgumentException("Domain field in CanonicalURI can´t be empty");
         }
-        return uriSchema;
-    }
-
-    public String generateSubdomainURL(String uriSchema) {
-        if (Utils.isValidString(this.subDomain)) {
-            uriSchema = uriSchema.replaceFirst("\\$sub-domain\\$",this.subDomain);
-        } else {
-            uriSchema =  uriSchema.replaceFirst("/\\$sub-domain\\$","");
-        }
-        return uriSchema;
-    }
-
-
-    public String generateTypeURL(String uriSchema) {
-        if (Utils.isValidString(this.type.getCode())) {
-            uriSchema = uriSchema.replaceFirst("\\$type\\$",this.type.getCode());
-        } else {
+        if (this.type == null || !Utils.isValidString(this.type.getCode())) {
             throw new IllegalArgumentException("Type field in CanonicalURI can´t be empty");
         }
-        return uriSchema;
-    }
-
-    public void generateFullURL(String uriSchema) {
-        setSchema(schema);
-        uriSchema = generateDomainURL(uriSchema);
-        uriSchema = generateSubdomainURL(uriSchema);
-        uriSchema = generateTypeURL(uriSchema);
-
+        String conceptValue = null;
         if (isEntity || isInstance) {
-            if (Utils.isValidString(this.concept))
-                uriSchema = uriSchema.replaceFirst("\\$concept\\$",this.concept);
-            else
+            if (!Utils.isValidString(this.concept)) {
                 throw new IllegalArgumentException("Concept field in CanonicalURI can´t be empty if is a class or instance");
+            }
+            conceptValue = this.concept;
         }
-
         if (isProperty) {
-            if (Utils.isValidString(this.propertyName)) {
-                uriSchema = uriSchema.replaceFirst("\\$concept\\$",this.propertyName);
-            } else
+            if (!Utils.isValidString(this.propertyName)) {
                 throw new IllegalArgumentException("propertyName field in CanonicalURI can´t be empty if is a property");
+            }
+            conceptValue = this.propertyName;
         }
-
-        if (isInstance) {
-            if (Utils.isValidString(this.reference))
-                uriSchema = uriSchema.replaceFirst("\\$reference\\$",this.reference);
-            else
-                throw new IllegalArgumentException("Reference field in CanonicalURI can´t be empty if is a class or instance");
-        } else {
-            uriSchema = uriSchema.replaceFirst("/\\$reference\\$","").replaceFirst("\\$reference\\$","");
+        if (isInstance && !Utils.isValidString(this.reference)) {
+            throw new IllegalArgumentException("Reference field in CanonicalURI can´t be empty if is a class or instance");
         }
-        uriSchema = uriSchema.replaceFirst("///","//");
-        this.fullURI = uriSchema;
+        String[] values = new String[UriTemplate.Placeholder.values().length];
+        values[UriTemplate.Placeholder.DOMAIN.ordinal()] = this.domain;
+        values[UriTemplate.Placeholder.SUB_DOMAIN.ordinal()] = Utils.isValidString(this.subDomain) ? this.subDomain : "";
+        values[UriTemplate.Placeholder.TYPE.ordinal()] = this.type.getCode();
+        values[UriTemplate.Placeholder.CONCEPT.ordinal()] = conceptValue;
+        values[UriTemplate.Placeholder.REFERENCE.ordinal()] = isInstance ? this.reference : "";
+        this.fullURI = UriTemplate.compile(uriSchema).render(values);
     }
 
     public void updateState(){
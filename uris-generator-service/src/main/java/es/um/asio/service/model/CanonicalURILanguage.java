@@ -1,14 +1,20 @@
 package es.um.asio.service.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import es.um.asio.service.cache.CacheRegions;
 import es.um.asio.service.error.CustomNotFoundException;
 import es.um.asio.service.filter.CanonicalURILanguageFilter;
 import es.um.asio.service.filter.SearchCriteria;
 import es.um.asio.service.filter.SearchOperation;
+import es.um.asio.service.util.JpaConstants;
+import es.um.asio.service.util.UriHash;
+import es.um.asio.service.util.UriTemplate;
 import es.um.asio.service.util.Utils;
 import es.um.asio.service.util.ValidationConstants;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.annotation.PostConstruct;
 import javax.persistence.*;
@@ -16,8 +22,21 @@ import javax.validation.constraints.Size;
 import java.util.Set;
 
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CANONICAL_URI_LANGUAGE)
 @Entity
-@Table(name = CanonicalURILanguage.TABLE)
+@Table(name = CanonicalURILanguage.TABLE, indexes = {
+        @Index(name = "IDX_CANONICAL_URI_LANGUAGE_FULL_URI_HASH", columnList = CanonicalURILanguage.Columns.FULL_URI_HASH),
+        @Index(name = "IDX_CANONICAL_URI_LANGUAGE_FULL_PARENT_URI_HASH",
+                columnList = CanonicalURILanguage.Columns.FULL_PARENT_URI_HASH),
+        @Index(name = "IDX_CANONICAL_URI_LANGUAGE_ENTITY_REFERENCE", columnList = CanonicalURILanguage.Columns.ENTITY_NAME
+                + "," + CanonicalURILanguage.Columns.REFERENCE),
+        @Index(name = "IDX_CANONICAL_URI_LANGUAGE_ENTITY_PROPERTY", columnList = CanonicalURILanguage.Columns.ENTITY_NAME
+                + "," + CanonicalURILanguage.Columns.PROPERTY_NAME),
+        @Index(name = "IDX_CANONICAL_URI_LANGUAGE_ENTITY_IS_ENTITY", columnList = CanonicalURILanguage.Columns.ENTITY_NAME
+                + "," + CanonicalURILanguage.Columns.IS_ENTITY),
+        @Index(name = "IDX_CANONICAL_URI_LANGUAGE_PROPERTY_IS_PROPERTY",
+                columnList = CanonicalURILanguage.Columns.PROPERTY_NAME + "," + CanonicalURILanguage.Columns.IS_PROPERTY) })
 @Getter
 @ToString(includeFieldNames = true)
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
@@ -34,7 +53,7 @@ public class CanonicalURILanguage {
      * The id.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = JpaConstants.POOLED_ID_GENERATOR_NAME)
     @Column(name = Columns.ID)
     @EqualsAndHashCode.Include
     @ApiModelProperty(hidden = true)
@@ -143,6 +162,22 @@ public class CanonicalURILanguage {
     @Column(name = Columns.FULL_PARENT_URI, nullable = true,columnDefinition = "VARCHAR(400)",length = 400)
     private String fullParentURI;
 
+    /**
+     * FULL_URI_HASH, lookup key of the full URI.
+     */
+    @JsonIgnore
+    @ApiModelProperty(hidden = true)
+    @Column(name = Columns.FULL_URI_HASH)
+    private Long fullURIHash;
+
+    /**
+     * FULL_PARENT_URI_HASH, lookup key of the full parent URI.
+     */
+    @JsonIgnore
+    @ApiModelProperty(hidden = true)
+    @Column(name = Columns.FULL_PARENT_URI_HASH)
+    private Long fullParentURIHash;
+
     /**
      * Is Entity.
      */
@@ -198,6 +233,7 @@ public class CanonicalURILanguage {
      */
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "canonicalURILanguage", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CANONICAL_URI_LANGUAGE_LOCAL_URIS)
     private Set<LocalURI> localURIs;
 
     /**
@@ -322,11 +358,31 @@ public class CanonicalURILanguage {
         this.localId = localId;
     }
 
+    /**
+     * Updates the lookup keys of the full URI and the full parent URI, before each insert and update.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateHashes() {
+        this.fullURIHash = UriHash.of(this.fullURI);
+        this.fullParentURIHash = UriHash.of(this.fullParentURI);
+    }
+
     /**
      * Column name constants.
      */
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     static final class Columns {
+        /**
+         * FULL_URI_HASH column.
+         */
+        protected static final String FULL_URI_HASH = "FULL_URI_HASH";
+
+        /**
+         * FULL_PARENT_URI_HASH column.
+         */
+        protected static final String FULL_PARENT_URI_HASH = "FULL_PARENT_URI_HASH";
+
         /**
          * ID column.
          */
@@ -507,72 +563,46 @@ public class CanonicalURILanguage {
         generateFullURL(CanonicalURILanguage.schema);
     }
 
-    public String generateDomainURL(String uriSchema) {
-        if (Utils.isValidString(this.domain)) {
-            uriSchema = uriSchema.replaceFirst("\\$domain\\$",this.domain);
-        } else {
+    /**
+     * Builds the full URI with the compiled schema. The sub-domain is optional, and so is the reference of an entity
+     * or a property.
+     *
+     * @param uriSchema the schema
+     */
+    public void generateFullURL(String uriSchema) {
+        if (!Utils.isValidString(this.domain)) {
             throw new IllegalArgumentException("Domain field in CanonicalLanguageURI can´t be empty");
         }
-        return uriSchema;
-    }
-
-    public String generateSubdomainURL(String uriSchema) {
-        if (Utils.isValidString(this.subDomain)) {
-            uriSchema = uriSchema.replaceFirst("\\$sub-domain\\$",this.subDomain);
-        } else {
-            uriSchema = uriSchema.replaceFirst("/\\$sub-domain\\$","");
-        }
-        return uriSchema;
-    }
-
-    public String generateLanguageURL(String uriSchema) {
-        if (Utils.isValidString(this.languageID)) {
-            uriSchema = uriSchema.replaceFirst("\\$language\\$",this.languageID);
-        } else {
+        if (!Utils.isValidString(this.languageID)) {
             throw new IllegalArgumentException("languageID field in CanonicalLanguageURI can´t be empty");
         }
-        return uriSchema;
-    }
-
-    public String generateTypeURL(String uriSchema) {
-        if (Utils.isValidString(this.type.getCode())) {
-            uriSchema = uriSchema.replaceFirst("\\$type\\$",this.typeLangCode);
-        } else {
+        if (this.type == null || !Utils.isValidString(this.type.getCode())) {
             throw new IllegalArgumentException("Type field in CanonicalLanguageURI can´t be empty");
         }
-        return uriSchema;
-    }
-
-    public void generateFullURL(String uriSchema) {
-        uriSchema = generateDomainURL(uriSchema);
-        uriSchema = generateSubdomainURL(uriSchema);
-        uriSchema = generateLanguageURL(uriSchema);
-        uriSchema = generateTypeURL(uriSchema);
-
+        String conceptValue = null;
         if (isEntity || isInstance) {
-            if (Utils.isValidString(this.concept))
-                uriSchema = uriSchema.replaceFirst("\\$concept\\$",this.concept);
-            else
+            if (!Utils.isValidString(this.concept)) {
                 throw new IllegalArgumentException("Concept field in CanonicalLanguageURI can´t be empty if is a class or instance");
+            }
+            conceptValue = this.concept;
         }
-
         if (isProperty) {
-           if (Utils.isValidString(this.propertyName)) {
-                uriSchema = uriSchema.replaceFirst("\\$concept\\$",this.propertyName);
-            } else
+            if (!Utils.isValidString(this.propertyName)) {
                 throw new IllegalArgumentException("propertyName field in CanonicalLanguageURI can´t be empty if is a property");
+            }
+            conceptValue = this.propertyName;
         }
-
-        if (isInstance) {
-            if (Utils.isValidString(this.reference))
-                uriSchema = uriSchema.replaceFirst("\\$reference\\$",this.reference);
-            else
-                throw new IllegalArgumentException("Reference field in CanonicalLanguageURI can´t be empty if is a class or instance");
-        } else {
-            uriSchema = uriSchema.replaceFirst("/\\$reference\\$","").replaceFirst("\\$reference\\$","");
+        if (isInstance && !Utils.isValidString(this.reference)) {
+            throw new IllegalArgumentException("Reference field in CanonicalLanguageURI can´t be empty if is a class or instance");
         }
-        uriSchema = uriSchema.replaceFirst("///","//");
-        this.fullURI = uriSchema;
+        String[] values = new String[UriTemplate.Placeholder.values().length];
+        values[UriTemplate.Placeholder.DOMAIN.ordinal()] = this.domain;
+        values[UriTemplate.Placeholder.SUB_DOMAIN.ordinal()] = Utils.isValidString(this.subDomain) ? this.subDomain : "";
+        values[UriTemplate.Placeholder.LANGUAGE.ordinal()] = this.languageID;
+        values[UriTemplate.Placeholder.TYPE.ordinal()] = this.typeLangCode;
+        values[UriTemplate.Placeholder.CONCEPT.ordinal()] = conceptValue;
+        values[UriTemplate.Placeholder.REFERENCE.ordinal()] = isInstance ? this.reference : "";
+        this.fullURI = UriTemplate.compile(uriSchema).render(values);
     }
 
     public void updateState(){
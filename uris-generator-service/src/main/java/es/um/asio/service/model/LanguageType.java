@@ -2,18 +2,24 @@ package es.um.asio.service.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import es.um.asio.service.cache.CacheRegions;
 import es.um.asio.service.filter.LanguageTypeFilter;
 import es.um.asio.service.filter.SearchCriteria;
 import es.um.asio.service.filter.SearchOperation;
+import es.um.asio.service.util.JpaConstants;
 import es.um.asio.service.util.Utils;
 import es.um.asio.service.util.ValidationConstants;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.REFERENCE)
 @Entity(name="language_type")
 @Table(name = LanguageType.TABLE)
 @Getter
@@ -30,7 +36,7 @@ public class LanguageType {
      * The id.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = JpaConstants.POOLED_ID_GENERATOR_NAME)
     @Column(name = Columns.ID)
     @EqualsAndHashCode.Include
     @ApiModelProperty(hidden = true)
@@ -1,20 +1,32 @@
 package es.um.asio.service.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import es.um.asio.service.cache.CacheRegions;
 import es.um.asio.service.filter.LocalURIFilter;
 import es.um.asio.service.filter.SearchCriteria;
 import es.um.asio.service.filter.SearchOperation;
+import es.um.asio.service.util.JpaConstants;
+import es.um.asio.service.util.UriHash;
 import es.um.asio.service.util.Utils;
 import es.um.asio.service.util.ValidationConstants;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.LOCAL_URI)
 @Entity
-@Table(name = LocalURI.TABLE)
+@Table(name = LocalURI.TABLE, indexes = {
+        @Index(name = "IDX_LOCAL_URI_LOCAL_URI_HASH", columnList = LocalURI.Columns.LOCAL_URI_HASH),
+        @Index(name = "IDX_LOCAL_URI_CANONICAL_URI_LANGUAGE_HASH", columnList = LocalURI.Columns.CANONICAL_URI_LANGUAGE_HASH),
+        @Index(name = "IDX_LOCAL_URI_LOCAL_URI", columnList = LocalURI.Columns.LOCAL_URI),
+        @Index(name = "IDX_LOCAL_URI_STORAGETYPE_CANONICAL_URI_LANGUAGE", columnList = LocalURI.Columns.STORAGETYPE_NAME
+                + "," + LocalURI.Columns.CANONICAL_URI_LANGUAGE_ID) })
 @Getter
 @ToString(includeFieldNames = true)
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
@@ -29,7 +41,7 @@ public class LocalURI {
      * The id.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = JpaConstants.POOLED_ID_GENERATOR_NAME)
     @Column(name = Columns.ID)
     @EqualsAndHashCode.Include
     @ApiModelProperty(hidden = true)
@@ -70,6 +82,22 @@ public class LocalURI {
     @Column(name = Columns.LOCAL_URI, unique = false, nullable = true,columnDefinition = "VARCHAR(400)",length = 400)
     private String localUri;
 
+    /**
+     * LOCAL_URI_HASH, lookup key of the local URI.
+     */
+    @JsonIgnore
+    @ApiModelProperty(hidden = true)
+    @Column(name = Columns.LOCAL_URI_HASH)
+    private Long localUriHash;
+
+    /**
+     * CANONICAL_URI_LANGUAGE_HASH, lookup key of the canonical URI in language.
+     */
+    @JsonIgnore
+    @ApiModelProperty(hidden = true)
+    @Column(name = Columns.CANONICAL_URI_LANGUAGE_HASH)
+    private Long canonicalURILanguageHash;
+
 
     public LocalURI() {
     }
@@ -114,11 +142,31 @@ public class LocalURI {
      * Table name.
      */
     public static final String TABLE = "LOCAL_URI";
+    /**
+     * Updates the lookup keys of the local URI and the canonical URI in language, before each insert and update.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateHashes() {
+        this.localUriHash = UriHash.of(this.localUri);
+        this.canonicalURILanguageHash = UriHash.of(this.canonicalURILanguageStr);
+    }
+
     /**
      * Column name constants.
      */
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     static final class Columns {
+        /**
+         * LOCAL_URI_HASH column.
+         */
+        protected static final String LOCAL_URI_HASH = "LOCAL_URI_HASH";
+
+        /**
+         * CANONICAL_URI_LANGUAGE_HASH column.
+         */
+        protected static final String CANONICAL_URI_LANGUAGE_HASH = "CANONICAL_URI_LANGUAGE_HASH";
+
         /**
          * TYPE ID column.
          */
@@ -1,18 +1,24 @@
 package es.um.asio.service.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import es.um.asio.service.cache.CacheRegions;
 import es.um.asio.service.filter.SearchCriteria;
 import es.um.asio.service.filter.SearchOperation;
 import es.um.asio.service.filter.StorageTypeFilter;
+import es.um.asio.service.util.JpaConstants;
 import es.um.asio.service.util.Utils;
 import es.um.asio.service.util.ValidationConstants;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.util.Set;
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.REFERENCE)
 @Entity
 @Table(name = StorageType.TABLE)
 @Getter
@@ -28,7 +34,7 @@ public class StorageType {
      * The id.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = JpaConstants.POOLED_ID_GENERATOR_NAME)
     @Column(name = Columns.ID)
     @EqualsAndHashCode.Include
     @ApiModelProperty(hidden = true)
@@ -3,6 +3,7 @@ package es.um.asio.service.model;
 import es.um.asio.service.filter.SearchCriteria;
 import es.um.asio.service.filter.SearchOperation;
 import es.um.asio.service.filter.URIMapFilter;
+import es.um.asio.service.util.JpaConstants;
 import es.um.asio.service.util.Utils;
 import es.um.asio.service.util.ValidationConstants;
 import io.swagger.annotations.ApiModelProperty;
@@ -31,7 +32,7 @@ public class URIMap {
      * The id.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = JpaConstants.POOLED_ID_GENERATOR_NAME)
     @Column(name = URIMap.Columns.ID)
     @EqualsAndHashCode.Include
     @ApiModelProperty(hidden = true)
@@ -1,4 +1,20 @@
 /**
  * Package containing model classes.
+ * <p>
+ * The ids of the entities are generated by {@link es.um.asio.service.util.JpaConstants#POOLED_ID_GENERATOR_NAME}, which
+ * reserves blocks of ids from a single sequence so inserts need no round trip per row and can be sent in JDBC batches.
  */
+@GenericGenerator(
+        name = JpaConstants.POOLED_ID_GENERATOR_NAME,
+        strategy = JpaConstants.POOLED_ID_GENERATOR_STRATEGY,
+        parameters = {
+                @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = JpaConstants.POOLED_ID_SEQUENCE_NAME),
+                @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = JpaConstants.POOLED_ID_INCREMENT_SIZE),
+                @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = JpaConstants.POOLED_ID_OPTIMIZER)
+        })
 package es.um.asio.service.model;
+
+import es.um.asio.service.util.JpaConstants;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
@@ -5,6 +5,7 @@ import es.um.asio.audit.abstractions.service.QueryService;
 import es.um.asio.audit.abstractions.service.SaveService;
 import es.um.asio.service.filter.CanonicalURILanguageFilter;
 import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.service.KeysetQueryService;
 
 import java.util.List;
 
@@ -13,7 +14,8 @@ import java.util.List;
  * Proxy service for {@link CanonicalURILanguage}. Performs DTO conversion and permission checks.
  */
 public interface CanonicalURILanguageProxy
-        extends QueryService<CanonicalURILanguage, String, CanonicalURILanguageFilter>, SaveService<CanonicalURILanguage>, DeleteService<CanonicalURILanguage, String> {
+        extends QueryService<CanonicalURILanguage, String, CanonicalURILanguageFilter>, SaveService<CanonicalURILanguage>, DeleteService<CanonicalURILanguage, String>,
+        KeysetQueryService<CanonicalURILanguage, CanonicalURILanguageFilter> {
 
     CanonicalURILanguage getAllByFullURI(String fullURI);
 
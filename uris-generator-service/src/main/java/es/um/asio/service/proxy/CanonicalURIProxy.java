@@ -6,6 +6,7 @@ import es.um.asio.audit.abstractions.service.SaveService;
 import es.um.asio.service.filter.CanonicalURIFilter;
 import es.um.asio.service.model.CanonicalURI;
 import es.um.asio.service.model.User;
+import es.um.asio.service.service.KeysetQueryService;
 
 import java.util.List;
 
@@ -13,7 +14,8 @@ import java.util.List;
  * Proxy service for {@link User}. Performs DTO conversion and permission checks.
  */
 public interface CanonicalURIProxy
-        extends QueryService<CanonicalURI, String, CanonicalURIFilter>, SaveService<CanonicalURI>, DeleteService<CanonicalURI, String> {
+        extends QueryService<CanonicalURI, String, CanonicalURIFilter>, SaveService<CanonicalURI>, DeleteService<CanonicalURI, String>,
+        KeysetQueryService<CanonicalURI, CanonicalURIFilter> {
 
     List<CanonicalURI> getAllByFullURI(String fullURI);
 
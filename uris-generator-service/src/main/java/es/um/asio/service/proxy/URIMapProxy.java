@@ -13,11 +13,13 @@ import es.um.asio.service.dto.UserDto;
 import es.um.asio.service.filter.URIMapFilter;
 import es.um.asio.service.model.URIMap;
 import es.um.asio.service.model.User;
+import es.um.asio.service.service.KeysetQueryService;
 
 /**
  * Proxy service for {@link User}. Performs DTO conversion and permission checks.
  */
 public interface URIMapProxy
-        extends QueryService<URIMap, String, URIMapFilter>, SaveService<URIMap>, DeleteService<URIMap, String> {
+        extends QueryService<URIMap, String, URIMapFilter>, SaveService<URIMap>, DeleteService<URIMap, String>,
+        KeysetQueryService<URIMap, URIMapFilter> {
 
 }
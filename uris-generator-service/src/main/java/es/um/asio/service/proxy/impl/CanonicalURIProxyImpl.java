@@ -1,11 +1,13 @@
 package es.um.asio.service.proxy.impl;
 
 
+import com.google.common.util.concurrent.Striped;
 import es.um.asio.audit.abstractions.exception.NoSuchEntityException;
 import es.um.asio.service.config.properties.URISChemaProperties;
 
 // import com.izertis.abstractions.exception.NoSuchEntityException;
 
+import es.um.asio.service.dto.KeysetSlice;
 import es.um.asio.service.filter.CanonicalURIFilter;
 import es.um.asio.service.model.CanonicalURI;
 import es.um.asio.service.model.User;
@@ -15,12 +17,16 @@ import es.um.asio.service.service.SchemaService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Proxy service implementation for {@link User}. Performs DTO conversion and permission checks.
@@ -31,6 +37,16 @@ public class CanonicalURIProxyImpl implements CanonicalURIProxy {
     /** The logger. */
     private final Logger logger = LoggerFactory.getLogger(CanonicalURIProxyImpl.class);
 
+    /**
+     * Number of lock stripes used to serialize the creation of the same full URI.
+     */
+    private static final int LOCK_STRIPES = 256;
+
+    /**
+     * Locks by full URI, so concurrent saves of the same URI in this JVM cost a single insert.
+     */
+    private final Striped<Lock> locks = Striped.lazyWeakLock(LOCK_STRIPES);
+
     /**
      * Service layer.
      */
@@ -59,6 +75,14 @@ public class CanonicalURIProxyImpl implements CanonicalURIProxy {
         return this.service.findPaginated(filter,pageable);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KeysetSlice<CanonicalURI> findSlice(final CanonicalURIFilter filter, final String continuationToken, final int size) {
+        return this.service.findSlice(filter, continuationToken, size);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -73,20 +97,50 @@ public class CanonicalURIProxyImpl implements CanonicalURIProxy {
     @Override
     public CanonicalURI save(final CanonicalURI entity) {
         entity.generateFullURL(schemaService.getCanonicalSchema());
+        final Lock lock = this.locks.get(String.valueOf(entity.getFullURI()));
+        lock.lock();
+        try {
+            return this.createOrUpdate(entity);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the entity, or merges it into the stored one if it already exists. If another node inserts the same
+     * full URI between the lookup and the insert, the unique constraint fails and the stored entity is reloaded.
+     * <p>
+     * The insert must be its own transaction: inside an outer one the failed flush would mark it rollback-only, and
+     * both the reload and the commit of the caller would fail. So it is never called inside a transaction.
+     *
+     * @param entity
+     *            the entity
+     * @return the stored entity
+     */
+    private CanonicalURI createOrUpdate(final CanonicalURI entity) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "Create or update of a URI must not run inside a transaction");
         List<CanonicalURI> filtered = this.service.getAllByCanonicalURI(entity);
         if (filtered.isEmpty()) {
-            return this.service.save(entity);
-        } else {
-            for (CanonicalURI e :filtered) {
-                e.merge(entity);
-                try {
-                    return this.service.update(e);
-                } catch (NoSuchEntityException ex) {
-                    logger.error("NoSuchEntityException");
+            try {
+                return this.service.save(entity);
+            } catch (DataIntegrityViolationException ex) {
+                logger.warn("Concurrent insert of {}, reloading stored entity", entity.getFullURI());
+                filtered = this.service.getAllByFullURI(entity.getFullURI());
+                if (filtered.isEmpty()) {
+                    throw ex;
                 }
             }
-            return null;
         }
+        for (CanonicalURI e :filtered) {
+            e.merge(entity);
+            try {
+                return this.service.update(e);
+            } catch (NoSuchEntityException ex) {
+                logger.error("NoSuchEntityException");
+            }
+        }
+        return null;
     }
 
     /**
@@ -7,6 +7,7 @@ import es.um.asio.service.filter.CanonicalURIFilter;
 // import com.izertis.abstractions.exception.NoSuchEntityException;
 
 import es.um.asio.service.filter.LanguageFilter;
+import es.um.asio.service.cache.ReferenceDataSnapshot;
 import es.um.asio.service.model.Language;
 import es.um.asio.service.model.User;
 import es.um.asio.service.proxy.LanguageProxy;
@@ -36,12 +37,19 @@ public class LanguageProxyImpl implements LanguageProxy {
     @Autowired
     private LanguageService service;
 
+    /**
+     * In-memory snapshot of the reference tables.
+     */
+    @Autowired
+    private ReferenceDataSnapshot snapshot;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Optional<Language> find(final String identifier) {
-        return this.service.find(identifier);
+        Optional<Language> language = this.snapshot.getLanguage(identifier);
+        return language.isPresent() ? language : this.service.find(identifier);
     }
 
     /**
@@ -65,6 +73,12 @@ public class LanguageProxyImpl implements LanguageProxy {
      */
     @Override
     public Language save(final Language entity) {
+        Language saved = doSave(entity);
+        this.snapshot.refresh();
+        return saved;
+    }
+
+    private Language doSave(final Language entity) {
         if (entity.getIsDefault()) {
             this.service.setNotIsDefaultAllLanguages();
         } else {
@@ -93,7 +107,9 @@ public class LanguageProxyImpl implements LanguageProxy {
      */
     @Override
     public List<Language> save(final Iterable<Language> entities) {
-        return this.service.save(entities);
+        List<Language> saved = this.service.save(entities);
+        this.snapshot.refresh();
+        return saved;
     }
 
     /**
@@ -101,7 +117,9 @@ public class LanguageProxyImpl implements LanguageProxy {
      */
     @Override
     public Language update(final Language entity) throws NoSuchEntityException {
-        return this.service.update(entity);
+        Language updated = this.service.update(entity);
+        this.snapshot.refresh();
+        return updated;
     }
 
     /**
@@ -110,6 +128,7 @@ public class LanguageProxyImpl implements LanguageProxy {
     @Override
     public void delete(final Language entity) {
         this.service.delete(entity);
+        this.snapshot.refresh();
     }
 
     /**
@@ -118,6 +137,7 @@ public class LanguageProxyImpl implements LanguageProxy {
     @Override
     public void delete(final String identifier) {
         this.service.delete(identifier);
+        this.snapshot.refresh();
     }
 
     @Override
@@ -133,6 +153,7 @@ public class LanguageProxyImpl implements LanguageProxy {
 
     @Override
     public List<Language> getDefaultLanguages() {
-        return this.service.getDefaultLanguages();
+        List<Language> languages = this.snapshot.getDefaultLanguages();
+        return !languages.isEmpty() ? languages : this.service.getDefaultLanguages();
     }
 }
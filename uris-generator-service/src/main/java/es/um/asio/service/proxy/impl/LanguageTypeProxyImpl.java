@@ -7,6 +7,7 @@ import es.um.asio.service.filter.LanguageFilter;
 // import com.izertis.abstractions.exception.NoSuchEntityException;
 
 import es.um.asio.service.filter.LanguageTypeFilter;
+import es.um.asio.service.cache.ReferenceDataSnapshot;
 import es.um.asio.service.model.LanguageType;
 import es.um.asio.service.model.User;
 import es.um.asio.service.proxy.LanguageTypeProxy;
@@ -35,6 +36,12 @@ public class LanguageTypeProxyImpl implements LanguageTypeProxy {
     @Autowired
     private LanguageTypeService service;
 
+    /**
+     * In-memory snapshot of the reference tables.
+     */
+    @Autowired
+    private ReferenceDataSnapshot snapshot;
+
     /**
      * {@inheritDoc}
      */
@@ -64,6 +71,12 @@ public class LanguageTypeProxyImpl implements LanguageTypeProxy {
      */
     @Override
     public LanguageType save(final LanguageType entity) {
+        LanguageType saved = doSave(entity);
+        this.snapshot.refresh();
+        return saved;
+    }
+
+    private LanguageType doSave(final LanguageType entity) {
         List<LanguageType> filtered = this.service.getByLanguageAndType(entity.getLanguage().getIso(),entity.getType().getCode());
         if (filtered.isEmpty()) {
             return this.service.save(entity);
@@ -85,7 +98,9 @@ public class LanguageTypeProxyImpl implements LanguageTypeProxy {
      */
     @Override
     public List<LanguageType> save(final Iterable<LanguageType> entities) {
-        return this.service.save(entities);
+        List<LanguageType> saved = this.service.save(entities);
+        this.snapshot.refresh();
+        return saved;
     }
 
     /**
@@ -93,7 +108,9 @@ public class LanguageTypeProxyImpl implements LanguageTypeProxy {
      */
     @Override
     public LanguageType update(final LanguageType entity) throws NoSuchEntityException {
-        return this.service.update(entity);
+        LanguageType updated = this.service.update(entity);
+        this.snapshot.refresh();
+        return updated;
     }
 
     /**
@@ -102,6 +119,7 @@ public class LanguageTypeProxyImpl implements LanguageTypeProxy {
     @Override
     public void delete(final LanguageType entity) {
         this.service.delete(entity);
+        this.snapshot.refresh();
     }
 
     /**
@@ -110,10 +128,12 @@ public class LanguageTypeProxyImpl implements LanguageTypeProxy {
     @Override
     public void delete(final String identifier) {
         this.service.delete(identifier);
+        this.snapshot.refresh();
     }
 
     @Override
     public List<LanguageType> getByLanguageAndType(String l, String t) {
-        return this.service.getByLanguageAndType(l,t);
+        List<LanguageType> languageTypes = this.snapshot.getLanguageTypes(l,t);
+        return !languageTypes.isEmpty() ? languageTypes : this.service.getByLanguageAndType(l,t);
     }
 }
@@ -2,6 +2,7 @@ package es.um.asio.service.proxy.impl;
 
 
 import es.um.asio.audit.abstractions.exception.NoSuchEntityException;
+import es.um.asio.service.dto.KeysetSlice;
 import es.um.asio.service.filter.CanonicalURIFilter;
 
 // import com.izertis.abstractions.exception.NoSuchEntityException;
@@ -18,7 +19,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -51,6 +54,14 @@ public class LocalURIProxyImpl implements LocalURIProxy {
         return this.service.findPaginated(filter,pageable);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KeysetSlice<LocalURI> findSlice(final LocalURIFilter filter, final String continuationToken, final int size) {
+        return this.service.findSlice(filter, continuationToken, size);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -126,4 +137,19 @@ public class LocalURIProxyImpl implements LocalURIProxy {
     public List<LocalURI> getAllByCanonicalURILanguageStrAndStorageTypeStr(String canonicalURILanguage, String storageTypeStr) {
         return this.service.getAllByCanonicalURILanguageStrAndStorageTypeStr(canonicalURILanguage,storageTypeStr);
     }
+
+    @Override
+    public List<LocalURI> getAllByCanonicalURIAndStorageTypeStrAndLanguage(String canonicalURI, String storageTypeStr, String language) {
+        return this.service.getAllByCanonicalURIAndStorageTypeStrAndLanguage(canonicalURI, storageTypeStr, language);
+    }
+
+    @Override
+    public Map<String, List<String>> getCanonicalURILanguageStrsByLocalURIs(Collection<String> localURIs) {
+        return this.service.getCanonicalURILanguageStrsByLocalURIs(localURIs);
+    }
+
+    @Override
+    public Map<String, List<LocalURI>> getAllByURIsAndStorageTypeStr(Collection<String> uris, String storageTypeStr, String language) {
+        return this.service.getAllByURIsAndStorageTypeStr(uris, storageTypeStr, language);
+    }
 }
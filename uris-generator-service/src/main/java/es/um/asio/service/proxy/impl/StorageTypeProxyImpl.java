@@ -2,6 +2,7 @@ package es.um.asio.service.proxy.impl;
 
 import es.um.asio.audit.abstractions.exception.NoSuchEntityException;
 import es.um.asio.service.filter.StorageTypeFilter;
+import es.um.asio.service.cache.ReferenceDataSnapshot;
 import es.um.asio.service.model.StorageType;
 import es.um.asio.service.model.User;
 import es.um.asio.service.proxy.StorageTypeProxy;
@@ -30,6 +31,12 @@ public class StorageTypeProxyImpl implements StorageTypeProxy {
     @Autowired
     private StorageTypeService service;
 
+    /**
+     * In-memory snapshot of the reference tables.
+     */
+    @Autowired
+    private ReferenceDataSnapshot snapshot;
+
     /**
      * {@inheritDoc}
      */
@@ -61,6 +68,12 @@ public class StorageTypeProxyImpl implements StorageTypeProxy {
      */
     @Override
     public StorageType save(final StorageType entity) {
+        StorageType saved = doSave(entity);
+        this.snapshot.refresh();
+        return saved;
+    }
+
+    private StorageType doSave(final StorageType entity) {
         List<StorageType> filtered = this.service.getAllByStorageType(entity);
         if (filtered.isEmpty()) {
             return this.service.save(entity);
@@ -82,7 +95,9 @@ public class StorageTypeProxyImpl implements StorageTypeProxy {
      */
     @Override
     public List<StorageType> save(final Iterable<StorageType> entities) {
-        return this.service.save(entities);
+        List<StorageType> saved = this.service.save(entities);
+        this.snapshot.refresh();
+        return saved;
     }
 
     /**
@@ -90,7 +105,9 @@ public class StorageTypeProxyImpl implements StorageTypeProxy {
      */
     @Override
     public StorageType update(final StorageType entity) throws NoSuchEntityException {
-        return this.service.update(entity);
+        StorageType updated = this.service.update(entity);
+        this.snapshot.refresh();
+        return updated;
     }
 
     /**
@@ -99,11 +116,13 @@ public class StorageTypeProxyImpl implements StorageTypeProxy {
     @Override
     public void delete(final StorageType entity) {
         this.service.delete(entity);
+        this.snapshot.refresh();
     }
 
     @Override
     public void deleteByName(String name) {
         this.service.deleteByName(name);
+        this.snapshot.refresh();
     }
 
     /**
@@ -112,6 +131,7 @@ public class StorageTypeProxyImpl implements StorageTypeProxy {
     @Override
     public void delete(final String identifier) {
         this.service.delete(identifier);
+        this.snapshot.refresh();
     }
 
     @Override
@@ -126,6 +146,6 @@ public class StorageTypeProxyImpl implements StorageTypeProxy {
 
     @Override
     public StorageType findByName(String storageTypeName) {
-        return service.getAllByName(storageTypeName);
+        return this.snapshot.getStorageType(storageTypeName).orElseGet(() -> service.getAllByName(storageTypeName));
     }
 }
@@ -7,6 +7,7 @@ import es.um.asio.service.filter.LanguageFilter;
 // import com.izertis.abstractions.exception.NoSuchEntityException;
 
 import es.um.asio.service.filter.TypeFilter;
+import es.um.asio.service.cache.ReferenceDataSnapshot;
 import es.um.asio.service.model.Language;
 import es.um.asio.service.model.Type;
 import es.um.asio.service.model.User;
@@ -36,12 +37,19 @@ public class TypeProxyImpl implements TypeProxy {
     @Autowired
     private TypeService service;
 
+    /**
+     * In-memory snapshot of the reference tables.
+     */
+    @Autowired
+    private ReferenceDataSnapshot snapshot;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Optional<Type> find(final String identifier) {
-        return this.service.find(identifier);
+        Optional<Type> type = this.snapshot.getType(identifier);
+        return type.isPresent() ? type : this.service.find(identifier);
     }
 
     /**
@@ -65,6 +73,12 @@ public class TypeProxyImpl implements TypeProxy {
      */
     @Override
     public Type save(final Type entity) {
+        Type saved = doSave(entity);
+        this.snapshot.refresh();
+        return saved;
+    }
+
+    private Type doSave(final Type entity) {
         List<Type> filtered = this.service.getAllByType(entity);
         if (filtered.isEmpty()) {
             return this.service.save(entity);
@@ -86,7 +100,9 @@ public class TypeProxyImpl implements TypeProxy {
      */
     @Override
     public List<Type> save(final Iterable<Type> entities) {
-        return this.service.save(entities);
+        List<Type> saved = this.service.save(entities);
+        this.snapshot.refresh();
+        return saved;
     }
 
     /**
@@ -94,7 +110,9 @@ public class TypeProxyImpl implements TypeProxy {
      */
     @Override
     public Type update(final Type entity) throws NoSuchEntityException {
-        return this.service.update(entity);
+        Type updated = this.service.update(entity);
+        this.snapshot.refresh();
+        return updated;
     }
 
     /**
@@ -103,6 +121,7 @@ public class TypeProxyImpl implements TypeProxy {
     @Override
     public void delete(final Type entity) {
         this.service.delete(entity);
+        this.snapshot.refresh();
     }
 
     /**
@@ -111,6 +130,7 @@ public class TypeProxyImpl implements TypeProxy {
     @Override
     public void delete(final String identifier) {
         this.service.delete(identifier);
+        this.snapshot.refresh();
     }
 
     @Override
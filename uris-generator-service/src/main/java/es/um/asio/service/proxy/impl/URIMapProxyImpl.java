@@ -1,6 +1,7 @@
 package es.um.asio.service.proxy.impl;
 
 import es.um.asio.audit.abstractions.exception.NoSuchEntityException;
+import es.um.asio.service.dto.KeysetSlice;
 import es.um.asio.service.filter.URIMapFilter;
 import es.um.asio.service.model.URIMap;
 import es.um.asio.service.model.User;
@@ -47,6 +48,14 @@ public class URIMapProxyImpl implements URIMapProxy {
         return this.service.findPaginated(filter,pageable);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KeysetSlice<URIMap> findSlice(final URIMapFilter filter, final String continuationToken, final int size) {
+        return this.service.findSlice(filter, continuationToken, size);
+    }
+
     /**
      * {@inheritDoc}
      */
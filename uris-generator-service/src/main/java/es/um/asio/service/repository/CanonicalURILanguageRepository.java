@@ -1,9 +1,18 @@
 package es.um.asio.service.repository;
 
+import es.um.asio.service.dto.BulkDeleteCriteria;
+import es.um.asio.service.dto.CanonicalURILanguageView;
 import es.um.asio.service.model.CanonicalURILanguage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,8 +27,63 @@ public interface CanonicalURILanguageRepository extends JpaRepository<CanonicalU
      *            The fullURI to search for
      * @return an {@link CanonicalURILanguage} entity stored in the database or {@literal Optional#empty()} if none found
      */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<CanonicalURILanguage> findByFullURI(String fullURI);
 
+    /**
+     * Finds the CanonicalURILanguages with any of the full URIs.
+     *
+     * @param fullURIs
+     *            The full URIs to search for
+     * @return the {@link CanonicalURILanguage} entities stored in the database
+     */
+    List<CanonicalURILanguage> findByFullURIIn(Collection<String> fullURIs);
+
+    /**
+     * Finds the CanonicalURILanguages with a lookup key of the full URI. Different full URIs may share a key, so the
+     * full URI of the result must be checked.
+     *
+     * @param fullURIHash
+     *            The lookup key to search for
+     * @return the {@link CanonicalURILanguage} entities stored in the database
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<CanonicalURILanguage> findByFullURIHash(Long fullURIHash);
+
+    /**
+     * Finds the CanonicalURILanguages with any of the lookup keys of the full URI.
+     *
+     * @param fullURIHashes
+     *            The lookup keys to search for
+     * @return the {@link CanonicalURILanguage} entities stored in the database
+     */
+    List<CanonicalURILanguage> findByFullURIHashIn(Collection<Long> fullURIHashes);
+
+    /**
+     * Finds the CanonicalURILanguages of a CanonicalURI with the default flag of their language, in a single query.
+     *
+     * @param canonicalURI
+     *            The full URI of the CanonicalURI
+     * @return the {@link CanonicalURILanguageView} of each CanonicalURILanguage, in order of id
+     */
+    @Query("select new es.um.asio.service.dto.CanonicalURILanguageView(cu.fullURI, c.languageID, l.isDefault, c.fullURI)"
+            + " from CanonicalURI cu join cu.canonicalURILanguages c left join c.language l"
+            + " where cu.fullURI = :canonicalURI order by c.id")
+    List<CanonicalURILanguageView> findViewsByCanonicalURI(@Param("canonicalURI") String canonicalURI);
+
+    /**
+     * Finds the CanonicalURILanguages without the lookup key of the full URI or the full parent URI, in order of id.
+     *
+     * @param id
+     *            Only the entities with a greater id are returned
+     * @param pageable
+     *            The size of the result
+     * @return the {@link CanonicalURILanguage} entities stored in the database
+     */
+    @Query("select c from CanonicalURILanguage c where c.id > :id and ((c.fullURI is not null and c.fullURIHash is null)"
+            + " or (c.fullParentURI is not null and c.fullParentURIHash is null)) order by c.id")
+    List<CanonicalURILanguage> findHashPending(@Param("id") long id, Pageable pageable);
+
     /**
      * Finds a CanonicalURILanguage using the entityName field and propertyName field.
      *
@@ -83,5 +147,47 @@ public interface CanonicalURILanguageRepository extends JpaRepository<CanonicalU
      */
     Optional<List<CanonicalURILanguage>> findByPropertyName(String propertyName);
 
+    /**
+     * Finds the ids of the CanonicalURILanguages of a bulk delete, walking the table by id.
+     *
+     * @param id
+     *            The last id found, only greater ids are returned
+     * @param criteria
+     *            The selection of the CanonicalURILanguages, the null fields do not filter
+     * @param pageable
+     *            The page, only its size is used
+     * @return the ids, in order
+     */
+    @Query("select c.id from CanonicalURILanguage c where c.id > :id"
+            + " and (:#{#criteria.entityName} is null or c.entityName = :#{#criteria.entityName})"
+            + " and (:#{#criteria.propertyName} is null or c.propertyName = :#{#criteria.propertyName})"
+            + " and (:#{#criteria.reference} is null or c.reference = :#{#criteria.reference})"
+            + " and (:#{#criteria.isEntity} is null or c.isEntity = :#{#criteria.isEntity})"
+            + " and (:#{#criteria.isProperty} is null or c.isProperty = :#{#criteria.isProperty}) order by c.id")
+    List<Long> findIdsToDelete(@Param("id") long id, @Param("criteria") BulkDeleteCriteria criteria,
+            Pageable pageable);
+
+    /**
+     * Deletes the CanonicalURILanguages of CanonicalURIs in a single statement, their LocalURIs must be deleted
+     * before.
+     *
+     * @param canonicalURIIds
+     *            The ids of the CanonicalURIs
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("delete from CanonicalURILanguage c where c.canonicalURI.id in :ids")
+    int deleteByCanonicalURIIdIn(@Param("ids") Collection<Long> canonicalURIIds);
+
+    /**
+     * Deletes CanonicalURILanguages in a single statement, their LocalURIs must be deleted before.
+     *
+     * @param ids
+     *            The ids of the CanonicalURILanguages
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("delete from CanonicalURILanguage c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 
 }
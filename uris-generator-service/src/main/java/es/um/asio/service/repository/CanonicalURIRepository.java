@@ -1,10 +1,18 @@
 package es.um.asio.service.repository;
 
+import es.um.asio.service.dto.BulkDeleteCriteria;
 import es.um.asio.service.model.CanonicalURI;
 import es.um.asio.service.model.CanonicalURILanguage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,8 +27,50 @@ public interface CanonicalURIRepository extends JpaRepository<CanonicalURI, Stri
      *            The ontologyURI to search for
      * @return an {@link CanonicalURI} entity stored in the database or {@literal Optional#empty()} if none found
      */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<List<CanonicalURI>> findByFullURI(String fullURI);
 
+    /**
+     * Finds the CanonicalURIs with any of the full URIs.
+     *
+     * @param fullURIs
+     *            The full URIs to search for
+     * @return the {@link CanonicalURI} entities stored in the database
+     */
+    List<CanonicalURI> findByFullURIIn(Collection<String> fullURIs);
+
+    /**
+     * Finds the CanonicalURIs with a lookup key of the full URI. Different full URIs may share a key, so the full URI
+     * of the result must be checked.
+     *
+     * @param fullURIHash
+     *            The lookup key to search for
+     * @return the {@link CanonicalURI} entities stored in the database
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<CanonicalURI> findByFullURIHash(Long fullURIHash);
+
+    /**
+     * Finds the CanonicalURIs with any of the lookup keys of the full URI.
+     *
+     * @param fullURIHashes
+     *            The lookup keys to search for
+     * @return the {@link CanonicalURI} entities stored in the database
+     */
+    List<CanonicalURI> findByFullURIHashIn(Collection<Long> fullURIHashes);
+
+    /**
+     * Finds the CanonicalURIs without the lookup key of the full URI, in order of id.
+     *
+     * @param id
+     *            Only the entities with a greater id are returned
+     * @param pageable
+     *            The size of the result
+     * @return the {@link CanonicalURI} entities stored in the database
+     */
+    @Query("select c from CanonicalURI c where c.id > :id and c.fullURI is not null and c.fullURIHash is null order by c.id")
+    List<CanonicalURI> findHashPending(@Param("id") long id, Pageable pageable);
+
     /**
      * Finds a CanonicalURI using the entityName field and propertyName field.
      *
@@ -83,4 +133,35 @@ public interface CanonicalURIRepository extends JpaRepository<CanonicalURI, Stri
      */
     Optional<List<CanonicalURI>> findByPropertyNameAndIsProperty(String entityName,boolean isProperty);
 
+    /**
+     * Finds the ids of the CanonicalURIs of a bulk delete, walking the table by id.
+     *
+     * @param id
+     *            The last id found, only greater ids are returned
+     * @param criteria
+     *            The selection of the CanonicalURIs, the null fields do not filter
+     * @param pageable
+     *            The page, only its size is used
+     * @return the ids, in order
+     */
+    @Query("select c.id from CanonicalURI c where c.id > :id"
+            + " and (:#{#criteria.entityName} is null or c.entityName = :#{#criteria.entityName})"
+            + " and (:#{#criteria.propertyName} is null or c.propertyName = :#{#criteria.propertyName})"
+            + " and (:#{#criteria.reference} is null or c.reference = :#{#criteria.reference})"
+            + " and (:#{#criteria.isEntity} is null or c.isEntity = :#{#criteria.isEntity})"
+            + " and (:#{#criteria.isProperty} is null or c.isProperty = :#{#criteria.isProperty}) order by c.id")
+    List<Long> findIdsToDelete(@Param("id") long id, @Param("criteria") BulkDeleteCriteria criteria,
+            Pageable pageable);
+
+    /**
+     * Deletes CanonicalURIs in a single statement, their CanonicalURILanguages must be deleted before.
+     *
+     * @param ids
+     *            The ids of the CanonicalURIs
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("delete from CanonicalURI c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
 }
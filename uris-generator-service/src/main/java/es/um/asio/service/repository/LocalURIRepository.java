@@ -1,9 +1,16 @@
 package es.um.asio.service.repository;
 
 import es.um.asio.service.model.LocalURI;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +25,7 @@ public interface LocalURIRepository extends JpaRepository<LocalURI, String>, Jpa
      *            The fullURI to search for
      * @return an {@link LocalURI} entity stored in the database or {@literal Optional#empty()} if none found
      */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<List<LocalURI>> findByLocalUri(String localUri);
 
     /**
@@ -29,7 +37,143 @@ public interface LocalURIRepository extends JpaRepository<LocalURI, String>, Jpa
      *            The canonicalURILanguageStr to search for
      * @return an {@link LocalURI} entity stored in the database or {@literal Optional#empty()} if none found
      */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<List<LocalURI>> findByStorageTypeStrAndCanonicalURILanguageStr(String storageTypeStr, String canonicalURILanguageStr);
 
+    /**
+     * Finds the LocalURIs with a lookup key of the local URI. Different local URIs may share a key, so the local URI
+     * of the result must be checked.
+     *
+     * @param localUriHash
+     *            The lookup key to search for
+     * @return the {@link LocalURI} entities stored in the database
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<LocalURI> findByLocalUriHash(Long localUriHash);
+
+    /**
+     * Finds the LocalURIs of a storage type with a lookup key of the canonical URI in language. Different URIs may
+     * share a key, so the canonical URI in language of the result must be checked.
+     *
+     * @param storageTypeStr
+     *            The storageTypeStr to search for
+     * @param canonicalURILanguageHash
+     *            The lookup key to search for
+     * @return the {@link LocalURI} entities stored in the database
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<LocalURI> findByStorageTypeStrAndCanonicalURILanguageHash(String storageTypeStr, Long canonicalURILanguageHash);
+
+    /**
+     * Finds the canonical URIs in language of several local URIs by their lookup keys, without loading the LocalURIs.
+     * Different local URIs may share a key, so the local URI of each row must be checked.
+     *
+     * @param localUriHashes
+     *            The lookup keys to search for
+     * @return pairs of the local URI and the full URI of its CanonicalURILanguage, in order of id
+     */
+    @Query("select l.localUri, l.canonicalURILanguageStr from LocalURI l where l.localUriHash in :localUriHashes"
+            + " order by l.id")
+    List<Object[]> findCanonicalURILanguageStrByLocalUriHashIn(
+            @Param("localUriHashes") Collection<Long> localUriHashes);
+
+    /**
+     * Finds the canonical URIs in language of several local URIs, without loading the LocalURIs.
+     *
+     * @param localUris
+     *            The local URIs to search for
+     * @return pairs of the local URI and the full URI of its CanonicalURILanguage, in order of id
+     */
+    @Query("select l.localUri, l.canonicalURILanguageStr from LocalURI l where l.localUri in :localUris order by l.id")
+    List<Object[]> findCanonicalURILanguageStrByLocalUriIn(@Param("localUris") Collection<String> localUris);
+
+    /**
+     * Finds the LocalURIs of a storage type of the CanonicalURILanguages in a language of a CanonicalURI, in a single
+     * query that also fetches their CanonicalURILanguage.
+     *
+     * @param canonicalURI
+     *            The full URI of the CanonicalURI
+     * @param storageTypeStr
+     *            The storageTypeStr to search for
+     * @param language
+     *            The language ISO code of the CanonicalURILanguages
+     * @return the {@link LocalURI} entities stored in the database, in order of id
+     */
+    @Query("select l from CanonicalURI cu join cu.canonicalURILanguages c, LocalURI l left join fetch l.canonicalURILanguage"
+            + " where cu.fullURI = :canonicalURI and c.languageID = :language and l.canonicalURILanguageStr = c.fullURI"
+            + " and l.storageTypeStr = :storageType order by l.id")
+    List<LocalURI> findByCanonicalURIAndStorageTypeStrAndLanguage(@Param("canonicalURI") String canonicalURI,
+            @Param("storageType") String storageTypeStr, @Param("language") String language);
+
+    /**
+     * Finds the LocalURIs of a storage type of several CanonicalURIs, in a single query that also fetches their
+     * CanonicalURILanguage.
+     *
+     * @param canonicalURIs
+     *            The full URIs of the CanonicalURIs
+     * @param storageTypeStr
+     *            The storageTypeStr to search for
+     * @param language
+     *            The language ISO code of the CanonicalURILanguages, null for all of them
+     * @return pairs of the full URI of the CanonicalURI and the {@link LocalURI}, in order of id
+     */
+    @Query("select cu.fullURI, l from CanonicalURI cu join cu.canonicalURILanguages c, LocalURI l"
+            + " left join fetch l.canonicalURILanguage where cu.fullURI in :canonicalURIs"
+            + " and (:language is null or c.languageID = :language) and l.canonicalURILanguageStr = c.fullURI"
+            + " and l.storageTypeStr = :storageType order by l.id")
+    List<Object[]> findByCanonicalURIInAndStorageTypeStrAndLanguage(
+            @Param("canonicalURIs") Collection<String> canonicalURIs, @Param("storageType") String storageTypeStr,
+            @Param("language") String language);
+
+    /**
+     * Finds the LocalURIs of a storage type of several CanonicalURILanguages, in a single query that also fetches
+     * their CanonicalURILanguage.
+     *
+     * @param storageTypeStr
+     *            The storageTypeStr to search for
+     * @param canonicalURILanguageStrs
+     *            The full URIs of the CanonicalURILanguages
+     * @return the {@link LocalURI} entities stored in the database, in order of id
+     */
+    @Query("select l from LocalURI l left join fetch l.canonicalURILanguage where l.storageTypeStr = :storageType"
+            + " and l.canonicalURILanguageStr in :canonicalURILanguages order by l.id")
+    List<LocalURI> findByStorageTypeStrAndCanonicalURILanguageStrIn(@Param("storageType") String storageTypeStr,
+            @Param("canonicalURILanguages") Collection<String> canonicalURILanguageStrs);
+
+    /**
+     * Finds the LocalURIs without the lookup key of the local URI or the canonical URI in language, in order of id.
+     *
+     * @param id
+     *            Only the entities with a greater id are returned
+     * @param pageable
+     *            The size of the result
+     * @return the {@link LocalURI} entities stored in the database
+     */
+    @Query("select l from LocalURI l where l.id > :id and ((l.localUri is not null and l.localUriHash is null)"
+            + " or (l.canonicalURILanguageStr is not null and l.canonicalURILanguageHash is null)) order by l.id")
+    List<LocalURI> findHashPending(@Param("id") long id, Pageable pageable);
+
+    /**
+     * Deletes the LocalURIs of the CanonicalURILanguages of CanonicalURIs in a single statement.
+     *
+     * @param canonicalURIIds
+     *            The ids of the CanonicalURIs
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("delete from LocalURI l where l.canonicalURILanguage.id in"
+            + " (select c.id from CanonicalURILanguage c where c.canonicalURI.id in :ids)")
+    int deleteByCanonicalURIIdIn(@Param("ids") Collection<Long> canonicalURIIds);
+
+    /**
+     * Deletes the LocalURIs of CanonicalURILanguages in a single statement.
+     *
+     * @param canonicalURILanguageIds
+     *            The ids of the CanonicalURILanguages
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("delete from LocalURI l where l.canonicalURILanguage.id in :ids")
+    int deleteByCanonicalURILanguageIdIn(@Param("ids") Collection<Long> canonicalURILanguageIds);
 
 }
@@ -0,0 +1,39 @@
+package es.um.asio.service.service;
+
+import es.um.asio.service.dto.BulkDeleteCriteria;
+import es.um.asio.service.dto.BulkDeleteJob;
+
+import java.util.Optional;
+
+/**
+ * Deletes large sets of URIs with set based statements: the local URIs, then the canonical URIs in language, then the
+ * canonical URIs, in chunks of one transaction each. No entity is loaded, so the deletes are not cascaded one by one.
+ */
+public interface BulkDeleteService {
+
+    /**
+     * Deletes the canonical URIs of a selection, with their canonical URIs in language and local URIs.
+     *
+     * @param criteria the selection of the canonical URIs
+     * @param async true to run the delete in background and return the running job
+     * @return the job
+     */
+    BulkDeleteJob deleteCanonicalURIs(BulkDeleteCriteria criteria, boolean async);
+
+    /**
+     * Deletes the canonical URIs in language of a selection, with their local URIs.
+     *
+     * @param criteria the selection of the canonical URIs in language
+     * @param async true to run the delete in background and return the running job
+     * @return the job
+     */
+    BulkDeleteJob deleteCanonicalURILanguages(BulkDeleteCriteria criteria, boolean async);
+
+    /**
+     * Gets a job, the finished jobs are kept for a while.
+     *
+     * @param id the id of the job
+     * @return the job
+     */
+    Optional<BulkDeleteJob> getJob(String id);
+}
@@ -0,0 +1,28 @@
+package es.um.asio.service.service;
+
+import es.um.asio.service.dto.InstanceURIRequest;
+import es.um.asio.service.dto.InstanceURIResult;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.Type;
+
+import java.util.List;
+
+/**
+ * Bulk creation of canonical URIs and canonical URIs in language.
+ */
+public interface CanonicalURIBulkService {
+
+    /**
+     * Creates, or gets if they exist, the canonical URI and the canonical URI in language of each instance. Existing
+     * URIs are looked up with set based queries and the missing ones are inserted in a single transaction.
+     *
+     * @param domain       the domain
+     * @param subDomain    the sub domain
+     * @param type         the type, resolved once for the whole batch
+     * @param languageType the language type, resolved once for the whole batch
+     * @param requests     the instances
+     * @return a result for each instance, in the same order
+     */
+    List<InstanceURIResult> saveInstances(final String domain, final String subDomain, final Type type,
+            final LanguageType languageType, final List<InstanceURIRequest> requests);
+}
@@ -3,6 +3,7 @@ package es.um.asio.service.service;
 import es.um.asio.audit.abstractions.service.DeleteService;
 import es.um.asio.audit.abstractions.service.QueryService;
 import es.um.asio.audit.abstractions.service.SaveService;
+import es.um.asio.service.dto.CanonicalURILanguageView;
 import es.um.asio.service.filter.CanonicalURILanguageFilter;
 import es.um.asio.service.model.CanonicalURI;
 import es.um.asio.service.model.CanonicalURILanguage;
@@ -10,12 +11,31 @@ import es.um.asio.service.model.CanonicalURILanguage;
 import java.util.List;
 
 public interface CanonicalURILanguageService
-    extends QueryService<CanonicalURILanguage, String, CanonicalURILanguageFilter>, SaveService<CanonicalURILanguage>, DeleteService<CanonicalURILanguage, String> {
+    extends QueryService<CanonicalURILanguage, String, CanonicalURILanguageFilter>, SaveService<CanonicalURILanguage>, DeleteService<CanonicalURILanguage, String>,
+    KeysetQueryService<CanonicalURILanguage, CanonicalURILanguageFilter> {
 
     List<CanonicalURILanguage> getAllByCanonicalURILanguage(final CanonicalURILanguage canonicalURILanguage);
 
     CanonicalURILanguage getAllByFullURI(final String fullURI);
 
+    /**
+     * Finds a canonical URI in language by the lookup key of its full URI in the database, without the cache. If the
+     * key is not found and the backfill of the keys is not complete, it is found by the full URI.
+     *
+     * @param fullURI the full URI
+     * @return the canonical URI in language, null if not found
+     */
+    CanonicalURILanguage findByFullURI(final String fullURI);
+
+    /**
+     * Gets the canonical URIs in language of a canonical URI with the default flag of their language, in a single
+     * query.
+     *
+     * @param canonicalURI the full URI of the canonical URI
+     * @return the canonical URIs in language, in order of creation
+     */
+    List<CanonicalURILanguageView> getViewsByCanonicalURI(final String canonicalURI);
+
     List<CanonicalURILanguage> getAllByEntityNameAndPropertyName(final String entityName,final String propertyName);
 
     List<CanonicalURILanguage> getAllByEntityNameAndReference(final String entityName,final String reference);
@@ -9,7 +9,8 @@ import es.um.asio.service.model.CanonicalURI;
 import java.util.List;
 
 public interface CanonicalURIService
-    extends QueryService<CanonicalURI, String, CanonicalURIFilter>, SaveService<CanonicalURI>, DeleteService<CanonicalURI, String> {
+    extends QueryService<CanonicalURI, String, CanonicalURIFilter>, SaveService<CanonicalURI>, DeleteService<CanonicalURI, String>,
+    KeysetQueryService<CanonicalURI, CanonicalURIFilter> {
 
     List<CanonicalURI> getAllByCanonicalURI(final CanonicalURI canonicalURI);
 
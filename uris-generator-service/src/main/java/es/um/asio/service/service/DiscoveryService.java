@@ -1,13 +1,34 @@
 package es.um.asio.service.service;
 
-import io.cucumber.messages.internal.com.google.gson.internal.LinkedTreeMap;
-
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface DiscoveryService {
 
-    LinkedTreeMap<String, Object> findSimilarEntity(String node, String tripleStore, String className, String entityId, HashMap<String,Object> attrs);
+    Map<String, Object> findSimilarEntity(String node, String tripleStore, String className, String entityId, HashMap<String,Object> attrs);
+
+    /**
+     * Starts the search of the similar entity of an instance without waiting for it, so the instances of a bulk
+     * request are asked together and batched.
+     *
+     * @param node        the node
+     * @param tripleStore the triple store
+     * @param className   the class name
+     * @param entityId    the entity id
+     * @param attrs       the attributes of the instance, not changed until the answer
+     * @return the similar entity, null if there is none or the call failed, never completed exceptionally
+     */
+    CompletableFuture<Map<String, Object>> findSimilarEntityAsync(String node, String tripleStore, String className, String entityId, HashMap<String,Object> attrs);
+
+    /**
+     * Evicts the cached similar entities of a class. A null argument matches any value.
+     *
+     * @param node        the node
+     * @param tripleStore the triple store
+     * @param className   the class name
+     */
+    void invalidateSimilarEntities(String node, String tripleStore, String className);
 
 }
@@ -0,0 +1,23 @@
+package es.um.asio.service.service;
+
+import es.um.asio.service.dto.KeysetSlice;
+
+/**
+ * Keyset listing of an entity, ordered by id.
+ *
+ * @param <E> the entity type
+ * @param <F> the filter type
+ */
+public interface KeysetQueryService<E, F> {
+
+    /**
+     * Gets the slice after the one of the continuation token.
+     *
+     * @param filter            the filter, may be null
+     * @param continuationToken the token returned with the previous slice, null for the first one
+     * @param size              the number of rows
+     * @return the slice
+     * @throws IllegalArgumentException if the token is not valid
+     */
+    KeysetSlice<E> findSlice(F filter, String continuationToken, int size);
+}
@@ -6,14 +6,51 @@ import es.um.asio.audit.abstractions.service.SaveService;
 import es.um.asio.service.filter.LocalURIFilter;
 import es.um.asio.service.model.LocalURI;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface LocalURIService
-    extends QueryService<LocalURI, String, LocalURIFilter>, SaveService<LocalURI>, DeleteService<LocalURI, String> {
+    extends QueryService<LocalURI, String, LocalURIFilter>, SaveService<LocalURI>, DeleteService<LocalURI, String>,
+    KeysetQueryService<LocalURI, LocalURIFilter> {
 
     List<LocalURI> getAllByLocalURI(final LocalURI localURI);
 
     List<LocalURI> getAllByLocalURIStr(final String localURI);
 
+    /**
+     * Gets the canonical URIs in language of several local URIs, with set based queries of a bounded number of local
+     * URIs each that only read the URIs.
+     *
+     * @param localURIs the local URIs
+     * @return the full URIs of the canonical URIs in language of each local URI, in the order of the local URIs, null
+     *         for the local URIs not found
+     */
+    Map<String, List<String>> getCanonicalURILanguageStrsByLocalURIs(final Collection<String> localURIs);
+
     List<LocalURI> getAllByCanonicalURILanguageStrAndStorageTypeStr(final String canonicalURILanguage,final String storageTypeStr );
+
+    /**
+     * Gets the local URIs in a storage type of the canonical URIs in a language of a canonical URI, in a single query
+     * or from the cache.
+     *
+     * @param canonicalURI   the full URI of the canonical URI
+     * @param storageTypeStr the storage type name
+     * @param language       the language ISO code
+     * @return the local URIs
+     */
+    List<LocalURI> getAllByCanonicalURIAndStorageTypeStrAndLanguage(final String canonicalURI, final String storageTypeStr, final String language);
+
+    /**
+     * Gets the local URIs in a storage type of several canonical URIs or canonical URIs in language, with set based
+     * queries of a bounded number of URIs each. The local URIs of the canonical URIs cached by
+     * {@link #getAllByCanonicalURIAndStorageTypeStrAndLanguage} are taken from the cache.
+     *
+     * @param uris           the full URIs of canonical URIs or canonical URIs in language
+     * @param storageTypeStr the storage type name
+     * @param language       the language ISO code of the canonical URIs in language of the canonical URIs, null for
+     *                       all of them
+     * @return the local URIs of each URI, in the order of the URIs, empty for the URIs not found
+     */
+    Map<String, List<LocalURI>> getAllByURIsAndStorageTypeStr(final Collection<String> uris, final String storageTypeStr, final String language);
 }
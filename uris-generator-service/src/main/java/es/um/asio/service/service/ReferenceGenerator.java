@@ -0,0 +1,29 @@
+package es.um.asio.service.service;
+
+/**
+ * Strategy to generate the reference of an instance without identifier, selected by {@link ReferenceService}.
+ */
+public interface ReferenceGenerator {
+
+    /**
+     * Gets the name of the strategy, used in the configuration.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Checks if the same content gives always the same reference, so imports of the same data are idempotent.
+     *
+     * @return true if deterministic
+     */
+    boolean isDeterministic();
+
+    /**
+     * Generates the reference of an instance.
+     *
+     * @param instance the instance attributes
+     * @return the reference
+     */
+    String generate(final Object instance);
+}
@@ -0,0 +1,29 @@
+package es.um.asio.service.service;
+
+/**
+ * Generation of the references of instances.
+ */
+public interface ReferenceService {
+
+    /**
+     * Generates the reference of an instance with the {@link ReferenceGenerator} configured for the type, or else for
+     * the domain, or else the default one.
+     *
+     * @param domain   the domain
+     * @param type     the type code
+     * @param instance the instance attributes
+     * @return the reference
+     */
+    String generate(final String domain, final String type, final Object instance);
+
+    /**
+     * Checks if the {@link ReferenceGenerator} of a type and a domain, selected as in
+     * {@link #generate(String, String, Object)}, is deterministic. If not, the reference can not be used to recognise
+     * the same instance in two requests.
+     *
+     * @param domain the domain
+     * @param type   the type code
+     * @return true if the same content gets always the same reference
+     */
+    boolean isDeterministic(final String domain, final String type);
+}
@@ -1,8 +1,14 @@
 package es.um.asio.service.service;
 
+import es.um.asio.service.dto.URIComponents;
+
+import java.util.Optional;
+
 public interface SchemaService {
     String getCanonicalSchema();
     String getCanonicalLanguageSchema();
     String buildCanonical(String domain,String subDomain,String type, String entity, String reference);
     String buildCanonicalLanguage(String domain, String subDomain, String language, String type, String entity, String reference);
+    Optional<URIComponents> parseCanonical(String uri);
+    Optional<URIComponents> parseCanonicalLanguage(String uri);
 }
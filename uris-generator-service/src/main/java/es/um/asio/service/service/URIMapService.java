@@ -9,7 +9,8 @@ import es.um.asio.service.model.URIMap;
 import java.util.List;
 
 public interface URIMapService
-    extends QueryService<URIMap, String, URIMapFilter>, SaveService<URIMap>, DeleteService<URIMap, String> {
+    extends QueryService<URIMap, String, URIMapFilter>, SaveService<URIMap>, DeleteService<URIMap, String>,
+    KeysetQueryService<URIMap, URIMapFilter> {
 
     List<URIMap> getAllByURIMap(final URIMap uriMap);
 }
@@ -0,0 +1,58 @@
+package es.um.asio.service.service;
+
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.LocalURI;
+
+import java.io.IOException;
+
+/**
+ * Reads whole URI tables with a forward only cursor, handing each row to a sink as it is read. The persistence
+ * context is cleared as the rows go, so the memory used does not depend on the size of the table.
+ */
+public interface UriExportService {
+
+    /**
+     * Receives the rows of an export, the entities are detached after a while so only their own columns can be read.
+     *
+     * @param <T> the entity type
+     */
+    @FunctionalInterface
+    interface Sink<T> {
+
+        /**
+         * Receives a row.
+         *
+         * @param entity the entity
+         * @throws IOException if the row can not be written
+         */
+        void accept(T entity) throws IOException;
+    }
+
+    /**
+     * Exports the canonical URIs, in order of id.
+     *
+     * @param sink the sink of the rows
+     * @return the number of rows
+     * @throws IOException if a row can not be written
+     */
+    long exportCanonicalURIs(Sink<CanonicalURI> sink) throws IOException;
+
+    /**
+     * Exports the canonical URIs in language, in order of id.
+     *
+     * @param sink the sink of the rows
+     * @return the number of rows
+     * @throws IOException if a row can not be written
+     */
+    long exportCanonicalURILanguages(Sink<CanonicalURILanguage> sink) throws IOException;
+
+    /**
+     * Exports the local URIs, in order of id.
+     *
+     * @param sink the sink of the rows
+     * @return the number of rows
+     * @throws IOException if a row can not be written
+     */
+    long exportLocalURIs(Sink<LocalURI> sink) throws IOException;
+}
@@ -0,0 +1,23 @@
+package es.um.asio.service.service;
+
+/**
+ * Fills the lookup keys of the URIs (see {@link es.um.asio.service.util.UriHash}) of the rows stored before they
+ * existed.
+ */
+public interface UriHashBackfillService {
+
+    /**
+     * Fills the missing lookup keys, in batches of one transaction each.
+     *
+     * @return the number of rows updated
+     */
+    long backfill();
+
+    /**
+     * Checks if every row in the database has its lookup keys, whichever instance filled them. Until then, the lookups
+     * by key fall back to the URI when nothing is found.
+     *
+     * @return true if the backfill is complete
+     */
+    boolean isComplete();
+}
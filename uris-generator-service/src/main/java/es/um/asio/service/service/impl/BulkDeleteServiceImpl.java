@@ -0,0 +1,223 @@
+package es.um.asio.service.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import es.um.asio.service.cache.CanonicalURILanguageCache;
+import es.um.asio.service.cache.LocalURICache;
+import es.um.asio.service.dto.BulkDeleteCriteria;
+import es.um.asio.service.dto.BulkDeleteJob;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.service.BulkDeleteService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Implementation of {@link BulkDeleteService}. Each chunk selects the next ids of the selection, walking the table by
+ * id, and deletes the rows that depend on them before them in the same transaction. The background jobs run one at a
+ * time.
+ */
+@Service
+public class BulkDeleteServiceImpl implements BulkDeleteService {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(BulkDeleteServiceImpl.class);
+
+    /**
+     * Spring Data repository for {@link CanonicalURI}.
+     */
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    /**
+     * Spring Data repository for {@link CanonicalURILanguage}.
+     */
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    /**
+     * Spring Data repository for {@link es.um.asio.service.model.LocalURI}.
+     */
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    /**
+     * Cache of {@link CanonicalURILanguage} by full URI.
+     */
+    @Autowired
+    private CanonicalURILanguageCache canonicalURILanguageCache;
+
+    /**
+     * Cache of local URIs by canonical URI.
+     */
+    @Autowired
+    private LocalURICache localURICache;
+
+    /**
+     * Transaction manager, each chunk is committed on its own.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * URIs selected in each transaction.
+     */
+    @Value("${app.delete.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Maximum number of jobs kept.
+     */
+    @Value("${app.delete.jobs.maximum-size:100}")
+    private long maximumJobs;
+
+    /**
+     * Time the jobs are kept in seconds.
+     */
+    @Value("${app.delete.jobs.ttl:86400}")
+    private long jobsTtl;
+
+    /**
+     * Jobs by id.
+     */
+    private Cache<String, BulkDeleteJob> jobs;
+
+    /**
+     * Background jobs thread.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uri-bulk-delete");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Builds the jobs cache.
+     */
+    @PostConstruct
+    public void init() {
+        this.jobs = CacheBuilder.newBuilder().maximumSize(this.maximumJobs)
+                .expireAfterWrite(this.jobsTtl, TimeUnit.SECONDS).build();
+    }
+
+    /**
+     * Stops the background jobs thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Override
+    public BulkDeleteJob deleteCanonicalURIs(final BulkDeleteCriteria criteria, final boolean async) {
+        final BulkDeleteJob job = new BulkDeleteJob(CanonicalURI.TABLE, criteria);
+        return run(job, async, () -> delete(job,
+                from -> this.canonicalURIRepository.findIdsToDelete(from, criteria, PageRequest.of(0, this.chunkSize)),
+                this::deleteCanonicalURIs));
+    }
+
+    @Override
+    public BulkDeleteJob deleteCanonicalURILanguages(final BulkDeleteCriteria criteria, final boolean async) {
+        final BulkDeleteJob job = new BulkDeleteJob(CanonicalURILanguage.TABLE, criteria);
+        return run(job, async, () -> delete(job, from -> this.canonicalURILanguageRepository.findIdsToDelete(from,
+                criteria, PageRequest.of(0, this.chunkSize)), this::deleteCanonicalURILanguages));
+    }
+
+    @Override
+    public Optional<BulkDeleteJob> getJob(final String id) {
+        return Optional.ofNullable(this.jobs.getIfPresent(id));
+    }
+
+    /**
+     * Deletes canonical URIs, children first.
+     *
+     * @param ids the ids of the canonical URIs
+     * @return the canonical URIs, canonical URIs in language and local URIs deleted
+     */
+    private long[] deleteCanonicalURIs(final List<Long> ids) {
+        final int localURIs = this.localURIRepository.deleteByCanonicalURIIdIn(ids);
+        final int canonicalURILanguages = this.canonicalURILanguageRepository.deleteByCanonicalURIIdIn(ids);
+        final int canonicalURIs = this.canonicalURIRepository.deleteByIdIn(ids);
+        return new long[] { canonicalURIs, canonicalURILanguages, localURIs };
+    }
+
+    /**
+     * Deletes canonical URIs in language, children first.
+     *
+     * @param ids the ids of the canonical URIs in language
+     * @return no canonical URIs, the canonical URIs in language and local URIs deleted
+     */
+    private long[] deleteCanonicalURILanguages(final List<Long> ids) {
+        final int localURIs = this.localURIRepository.deleteByCanonicalURILanguageIdIn(ids);
+        final int canonicalURILanguages = this.canonicalURILanguageRepository.deleteByIdIn(ids);
+        return new long[] { 0, canonicalURILanguages, localURIs };
+    }
+
+    private BulkDeleteJob run(final BulkDeleteJob job, final boolean async, final Runnable delete) {
+        this.jobs.put(job.getId(), job);
+        if (async) {
+            this.executor.execute(delete);
+        } else {
+            delete.run();
+        }
+        return job;
+    }
+
+    /**
+     * Runs the chunks of a job until no id is left.
+     *
+     * @param job    the job
+     * @param next   the next ids of the selection after an id
+     * @param delete the delete of the rows of the ids, returns the canonical URIs, canonical URIs in language and
+     *               local URIs deleted
+     */
+    private void delete(final BulkDeleteJob job, final Function<Long, List<Long>> next,
+            final Function<List<Long>, long[]> delete) {
+        final TransactionTemplate template = new TransactionTemplate(this.transactionManager);
+        long last = Long.MIN_VALUE;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final long from = last;
+                final List<Long> ids = template.execute(status -> {
+                    final List<Long> chunk = next.apply(from);
+                    if (!chunk.isEmpty()) {
+                        final long[] deleted = delete.apply(chunk);
+                        job.addChunk(deleted[0], deleted[1], deleted[2]);
+                    }
+                    return chunk;
+                });
+                // the deleted rows may be cached, the URIs are not known without loading them
+                this.canonicalURILanguageCache.invalidateAll();
+                this.localURICache.invalidateAll();
+                if (ids == null || ids.isEmpty()) {
+                    job.done();
+                    logger.info("Bulk delete {} done", job);
+                    return;
+                }
+                last = ids.get(ids.size() - 1);
+            }
+            job.failed("Interrupted");
+        } catch (RuntimeException e) {
+            job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            logger.error("Bulk delete {} failed: {}", job, e.getMessage());
+        }
+    }
+}
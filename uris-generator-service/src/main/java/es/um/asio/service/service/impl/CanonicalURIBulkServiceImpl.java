@@ -0,0 +1,172 @@
+package es.um.asio.service.service.impl;
+
+import com.google.common.collect.Lists;
+import es.um.asio.service.dto.InstanceURIRequest;
+import es.um.asio.service.dto.InstanceURIResult;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.service.CanonicalURIBulkService;
+import es.um.asio.service.service.SchemaService;
+import es.um.asio.service.service.UriHashBackfillService;
+import es.um.asio.service.util.UriHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service implementation to create {@link CanonicalURI} and {@link CanonicalURILanguage} entities in bulk.
+ */
+@Service
+@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+public class CanonicalURIBulkServiceImpl implements CanonicalURIBulkService {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(CanonicalURIBulkServiceImpl.class);
+
+    /**
+     * Maximum number of full URIs in a single IN query.
+     */
+    private static final int IN_CHUNK_SIZE = 500;
+
+    /**
+     * Spring Data repository for {@link CanonicalURI}.
+     */
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    /**
+     * Spring Data repository for {@link CanonicalURILanguage}.
+     */
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    /**
+     * Schema service.
+     */
+    @Autowired
+    private SchemaService schemaService;
+
+    /**
+     * Backfill of the URI lookup keys, the IN queries use the keys once it is complete.
+     */
+    @Autowired
+    private UriHashBackfillService uriHashBackfillService;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
+    @Override
+    public List<InstanceURIResult> saveInstances(final String domain, final String subDomain, final Type type,
+            final LanguageType languageType, final List<InstanceURIRequest> requests) {
+        final String canonicalSchema = this.schemaService.getCanonicalSchema();
+        final String languageSchema = this.schemaService.getCanonicalLanguageSchema();
+
+        // Build the URIs of every instance, an instance that can not be built fails alone
+        final InstanceURIResult[] results = new InstanceURIResult[requests.size()];
+        final Map<String, CanonicalURI> canonicalURIs = new LinkedHashMap<>();
+        final Map<Integer, CanonicalURILanguage> canonicalURILanguages = new LinkedHashMap<>();
+        final Map<Integer, String> parentURIs = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            final InstanceURIRequest request = requests.get(i);
+            try {
+                final String parentEntity = request.getParentEntity() != null ? request.getParentEntity() : request.getEntity();
+                final CanonicalURI cu = new CanonicalURI(domain, subDomain, type, parentEntity, request.getReference(), null, canonicalSchema);
+                cu.setLocalId(request.getLocalId());
+                cu.setEntityName(cu.getConcept());
+                cu.updateState();
+                cu.generateFullURL(canonicalSchema);
+
+                final CanonicalURILanguage cul = new CanonicalURILanguage(domain, subDomain, languageType,
+                        request.getEntity(), request.getReference(), null, languageSchema);
+                if (request.getLocalId() != null) {
+                    cul.setLocalId(request.getLocalId());
+                }
+                cul.setParentEntityName(parentEntity);
+                cul.setParentPropertyName(null);
+                cul.generateFullURL(languageSchema);
+
+                canonicalURIs.putIfAbsent(cu.getFullURI(), cu);
+                parentURIs.put(i, cu.getFullURI());
+                canonicalURILanguages.put(i, cul);
+            } catch (RuntimeException e) {
+                logger.warn("Instance {} of the batch can not be created: {}", i, e.getMessage());
+                results[i] = InstanceURIResult.error(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        }
+
+        // Canonical URIs: one IN query per chunk, then a single batch of inserts for the missing ones. The rows are
+        // matched by full URI, so rows found by a shared lookup key are ignored
+        final boolean byHash = this.uriHashBackfillService.isComplete();
+        final Map<String, CanonicalURI> storedCanonicalURIs = new HashMap<>();
+        for (List<String> chunk : Lists.partition(new ArrayList<>(canonicalURIs.keySet()), IN_CHUNK_SIZE)) {
+            for (CanonicalURI stored : byHash ? this.canonicalURIRepository.findByFullURIHashIn(UriHash.of(chunk))
+                    : this.canonicalURIRepository.findByFullURIIn(chunk)) {
+                storedCanonicalURIs.put(stored.getFullURI(), stored);
+            }
+        }
+        final List<CanonicalURI> newCanonicalURIs = new ArrayList<>();
+        for (CanonicalURI cu : canonicalURIs.values()) {
+            if (!storedCanonicalURIs.containsKey(cu.getFullURI())) {
+                newCanonicalURIs.add(cu);
+                storedCanonicalURIs.put(cu.getFullURI(), cu);
+            }
+        }
+        this.canonicalURIRepository.saveAll(newCanonicalURIs);
+
+        // Canonical URIs in language, in the same way
+        final Map<String, CanonicalURILanguage> storedCanonicalURILanguages = new HashMap<>();
+        for (List<String> chunk : Lists.partition(fullURIs(canonicalURILanguages.values()), IN_CHUNK_SIZE)) {
+            for (CanonicalURILanguage stored : byHash
+                    ? this.canonicalURILanguageRepository.findByFullURIHashIn(UriHash.of(chunk))
+                    : this.canonicalURILanguageRepository.findByFullURIIn(chunk)) {
+                storedCanonicalURILanguages.put(stored.getFullURI(), stored);
+            }
+        }
+        final List<CanonicalURILanguage> newCanonicalURILanguages = new ArrayList<>();
+        for (Map.Entry<Integer, CanonicalURILanguage> entry : canonicalURILanguages.entrySet()) {
+            CanonicalURILanguage cul = entry.getValue();
+            CanonicalURILanguage stored = storedCanonicalURILanguages.get(cul.getFullURI());
+            if (stored == null) {
+                cul.setCanonicalURI(storedCanonicalURIs.get(parentURIs.get(entry.getKey())));
+                newCanonicalURILanguages.add(cul);
+                storedCanonicalURILanguages.put(cul.getFullURI(), cul);
+                stored = cul;
+            }
+            results[entry.getKey()] = new InstanceURIResult(stored.getFullParentURI(), stored.getFullURI(), null);
+        }
+        this.canonicalURILanguageRepository.saveAll(newCanonicalURILanguages);
+
+        // Flush here so a duplicate inserted concurrently surfaces as a DataIntegrityViolationException
+        this.canonicalURILanguageRepository.flush();
+        logger.info("Bulk instance URIs: {} requested, {} canonical URIs and {} canonical URIs in language created",
+                requests.size(), newCanonicalURIs.size(), newCanonicalURILanguages.size());
+
+        return Arrays.asList(results);
+    }
+
+    private static List<String> fullURIs(final Collection<CanonicalURILanguage> canonicalURILanguages) {
+        final Set<String> fullURIs = new LinkedHashSet<>();
+        for (CanonicalURILanguage cul : canonicalURILanguages) {
+            fullURIs.add(cul.getFullURI());
+        }
+        return new ArrayList<>(fullURIs);
+    }
+}
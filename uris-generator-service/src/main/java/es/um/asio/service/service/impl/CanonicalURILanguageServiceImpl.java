@@ -1,5 +1,9 @@
 package es.um.asio.service.service.impl;
 
+import es.um.asio.service.cache.CanonicalURILanguageCache;
+import es.um.asio.service.cache.LocalURICache;
+import es.um.asio.service.dto.CanonicalURILanguageView;
+import es.um.asio.service.dto.KeysetSlice;
 import es.um.asio.service.filter.CanonicalURIFilter;
 import es.um.asio.service.filter.CanonicalURILanguageFilter;
 import es.um.asio.service.filter.SearchCriteria;
@@ -9,6 +13,9 @@ import es.um.asio.service.model.CanonicalURILanguage;
 import es.um.asio.service.model.User;
 import es.um.asio.service.repository.CanonicalURILanguageRepository;
 import es.um.asio.service.service.CanonicalURILanguageService;
+import es.um.asio.service.service.UriHashBackfillService;
+import es.um.asio.service.util.AfterCommit;
+import es.um.asio.service.util.UriHash;
 import es.um.asio.service.util.Utils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,6 +25,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -35,12 +44,43 @@ public class CanonicalURILanguageServiceImpl implements CanonicalURILanguageServ
     @Autowired
     private CanonicalURILanguageRepository repository;
 
+    /**
+     * Entity manager, to find the cached entities by identifier through the second-level cache.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Keyset listing of the entities.
+     */
+    @Autowired
+    private KeysetSliceQuery keysetQuery;
+
     /**
      * Spring Data repository for {@link CanonicalURI}.
      */
     @Autowired
     private CanonicalURILanguageRepository canonicalRepository;
 
+    /**
+     * Cache of {@link CanonicalURILanguage} by full URI.
+     */
+    @Autowired
+    private CanonicalURILanguageCache cache;
+
+    /**
+     * Cache of {@link es.um.asio.service.model.LocalURI} by canonical URI, evicted when a child of the canonical URI
+     * changes.
+     */
+    @Autowired
+    private LocalURICache localURICache;
+
+    /**
+     * Backfill of the URI lookup keys, until it is complete the lookups by key fall back to the URI.
+     */
+    @Autowired
+    private UriHashBackfillService uriHashBackfillService;
+
     /**
      * Solr enabled
      */
@@ -53,7 +93,8 @@ public class CanonicalURILanguageServiceImpl implements CanonicalURILanguageServ
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public CanonicalURILanguage save(final CanonicalURILanguage entity) {
-        return this.repository.save(entity);
+        invalidate(entity);
+        return this.repository.saveAndFlush(entity);
     }
 
     /**
@@ -62,6 +103,7 @@ public class CanonicalURILanguageServiceImpl implements CanonicalURILanguageServ
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public List<CanonicalURILanguage> save(final Iterable<CanonicalURILanguage> entities) {
+        entities.forEach(this::invalidate);
         return this.repository.saveAll(entities);
     }
 
@@ -71,6 +113,7 @@ public class CanonicalURILanguageServiceImpl implements CanonicalURILanguageServ
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public CanonicalURILanguage update(final CanonicalURILanguage entity) {
+        invalidate(entity);
         return this.repository.save(entity);
     }
 
@@ -80,6 +123,7 @@ public class CanonicalURILanguageServiceImpl implements CanonicalURILanguageServ
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public void delete(final CanonicalURILanguage entity) {
+        invalidate(entity);
         this.repository.delete(entity);
     }
 
@@ -89,6 +133,10 @@ public class CanonicalURILanguageServiceImpl implements CanonicalURILanguageServ
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public void delete(final String identifier) {
+        AfterCommit.evict(() -> {
+            this.cache.invalidateById(identifier);
+            this.localURICache.invalidateAll();
+        });
         this.repository.deleteById(identifier);
     }
 
@@ -108,6 +156,14 @@ public class CanonicalURILanguageServiceImpl implements CanonicalURILanguageServ
         return this.repository.findAll(filter, pageable);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KeysetSlice<CanonicalURILanguage> findSlice(final CanonicalURILanguageFilter filter, final String continuationToken, final int size) {
+        return this.keysetQuery.findSlice(CanonicalURILanguage.class, filter, continuationToken, size, CanonicalURILanguage::getId);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -129,6 +185,52 @@ public class CanonicalURILanguageServiceImpl implements CanonicalURILanguageServ
 
     @Override
     public CanonicalURILanguage getAllByFullURI(String fullURI) {
+        return this.cache.get(fullURI, this::findByFullURI, id -> this.entityManager.find(CanonicalURILanguage.class, id));
+    }
+
+    @Override
+    public List<CanonicalURILanguageView> getViewsByCanonicalURI(String canonicalURI) {
+        return this.repository.findViewsByCanonicalURI(canonicalURI);
+    }
+
+    /**
+     * Evicts the cached entity and the cached local URIs of its canonical URI, now and after the commit.
+     *
+     * @param entity the entity
+     */
+    private void invalidate(final CanonicalURILanguage entity) {
+        final String fullURI = entity != null ? entity.getFullURI() : null;
+        final String fullParentURI = entity != null ? entity.getFullParentURI() : null;
+        final long id = entity != null ? entity.getId() : 0;
+        AfterCommit.evict(() -> {
+            if (fullURI != null) {
+                this.cache.invalidate(fullURI);
+            } else if (id > 0) {
+                this.cache.invalidateById(String.valueOf(id));
+            }
+            if (fullParentURI != null) {
+                this.localURICache.invalidateByCanonicalURI(fullParentURI);
+            } else {
+                this.localURICache.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CanonicalURILanguage findByFullURI(final String fullURI) {
+        if (fullURI != null) {
+            List<CanonicalURILanguage> canonicalURILanguages = UriHash.verify(
+                    this.repository.findByFullURIHash(UriHash.of(fullURI)), CanonicalURILanguage::getFullURI, fullURI);
+            if (!canonicalURILanguages.isEmpty()) {
+                return canonicalURILanguages.get(0);
+            }
+            if (this.uriHashBackfillService.isComplete()) {
+                return null;
+            }
+        }
         return this.repository.findByFullURI(fullURI).orElse(null);
     }
 
@@ -1,5 +1,8 @@
 package es.um.asio.service.service.impl;
 
+import es.um.asio.service.cache.CanonicalURILanguageCache;
+import es.um.asio.service.cache.LocalURICache;
+import es.um.asio.service.dto.KeysetSlice;
 import es.um.asio.service.filter.CanonicalURIFilter;
 import es.um.asio.service.filter.SearchCriteria;
 import es.um.asio.service.filter.SearchOperation;
@@ -9,6 +12,9 @@ import es.um.asio.service.model.User;
 import es.um.asio.service.repository.CanonicalURIRepository;
 import es.um.asio.service.repository.TypeRepository;
 import es.um.asio.service.service.CanonicalURIService;
+import es.um.asio.service.service.UriHashBackfillService;
+import es.um.asio.service.util.AfterCommit;
+import es.um.asio.service.util.UriHash;
 import es.um.asio.service.util.Utils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,12 +42,36 @@ public class CanonicalURIServiceImpl implements CanonicalURIService {
     @Autowired
     private CanonicalURIRepository repository;
 
+    /**
+     * Keyset listing of the entities.
+     */
+    @Autowired
+    private KeysetSliceQuery keysetQuery;
+
     /**
      * Spring Data repository for {@link CanonicalURI}.
      */
     @Autowired
     private TypeRepository typeRepository;
 
+    /**
+     * Cache of {@link es.um.asio.service.model.CanonicalURILanguage} by full URI, evicted when the parent is removed.
+     */
+    @Autowired
+    private CanonicalURILanguageCache canonicalURILanguageCache;
+
+    /**
+     * Cache of {@link es.um.asio.service.model.LocalURI} by canonical URI, evicted when the canonical URI is removed.
+     */
+    @Autowired
+    private LocalURICache localURICache;
+
+    /**
+     * Backfill of the URI lookup keys, until it is complete the lookups by key fall back to the URI.
+     */
+    @Autowired
+    private UriHashBackfillService uriHashBackfillService;
+
     /**
      * Solr enabled
      */
@@ -54,7 +84,7 @@ public class CanonicalURIServiceImpl implements CanonicalURIService {
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public CanonicalURI save(final CanonicalURI entity) {
-        return this.repository.save(entity);
+        return this.repository.saveAndFlush(entity);
     }
 
     /**
@@ -81,6 +111,7 @@ public class CanonicalURIServiceImpl implements CanonicalURIService {
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public void delete(final CanonicalURI entity) {
+        invalidate(entity.getFullURI());
         this.repository.delete(entity);
     }
 
@@ -90,6 +121,7 @@ public class CanonicalURIServiceImpl implements CanonicalURIService {
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public void delete(final String identifier) {
+        this.repository.findById(identifier).ifPresent(cu -> invalidate(cu.getFullURI()));
         this.repository.deleteById(identifier);
     }
 
@@ -109,6 +141,14 @@ public class CanonicalURIServiceImpl implements CanonicalURIService {
         return this.repository.findAll(filter, pageable);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KeysetSlice<CanonicalURI> findSlice(final CanonicalURIFilter filter, final String continuationToken, final int size) {
+        return this.keysetQuery.findSlice(CanonicalURI.class, filter, continuationToken, size, CanonicalURI::getId);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -130,7 +170,15 @@ public class CanonicalURIServiceImpl implements CanonicalURIService {
 
     @Override
     public List<CanonicalURI> getAllByFullURI(String fullURI) {
-        return this.repository.findByFullURI(fullURI).orElse(new ArrayList<>());
+        if (fullURI == null) {
+            return this.repository.findByFullURI(null).orElse(new ArrayList<>());
+        }
+        List<CanonicalURI> canonicalURIs = UriHash.verify(this.repository.findByFullURIHash(UriHash.of(fullURI)),
+                CanonicalURI::getFullURI, fullURI);
+        if (canonicalURIs.isEmpty() && !this.uriHashBackfillService.isComplete()) {
+            canonicalURIs = this.repository.findByFullURI(fullURI).orElse(new ArrayList<>());
+        }
+        return canonicalURIs;
     }
 
     @Override
@@ -197,4 +245,16 @@ public class CanonicalURIServiceImpl implements CanonicalURIService {
         canonicalURIs = this.repository.findAll(f);
         return canonicalURIs;
     }
+
+    /**
+     * Evicts the cached canonical language URIs and local URIs of a canonical URI, now and after the commit.
+     *
+     * @param fullURI the full URI of the canonical URI
+     */
+    private void invalidate(final String fullURI) {
+        AfterCommit.evict(() -> {
+            this.canonicalURILanguageCache.invalidateByParent(fullURI);
+            this.localURICache.invalidateByCanonicalURI(fullURI);
+        });
+    }
 }
@@ -0,0 +1,49 @@
+package es.um.asio.service.service.impl;
+
+import es.um.asio.service.config.properties.ReferenceProperties;
+import es.um.asio.service.config.properties.ReferenceProperties.HashMode;
+import es.um.asio.service.service.ReferenceGenerator;
+import es.um.asio.service.util.ContentHash;
+import es.um.asio.service.util.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Deterministic references, a hash of the content of the instance as set in
+ * {@link ReferenceProperties#getHashMode()}.
+ */
+@Component
+public class ContentReferenceGenerator implements ReferenceGenerator {
+
+    /**
+     * Name of the strategy.
+     */
+    public static final String NAME = "content";
+
+    @Autowired
+    private ReferenceProperties properties;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public String generate(final Object instance) {
+        if (this.properties.getHashMode() == HashMode.LEGACY) {
+            try {
+                return Utils.generateUUIDFromOject(instance);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return ContentHash.uuid(instance).toString();
+    }
+}
@@ -1,98 +1,104 @@
 package es.um.asio.service.service.impl;
 
-import es.um.asio.service.config.DiscoveryConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import es.um.asio.service.cache.DiscoveryCache;
+import es.um.asio.service.discovery.DiscoveryBatcher;
+import es.um.asio.service.discovery.DiscoveryClient;
+import es.um.asio.service.discovery.DiscoveryExecutor;
 import es.um.asio.service.service.DiscoveryService;
-import io.cucumber.messages.internal.com.google.gson.Gson;
-import io.cucumber.messages.internal.com.google.gson.JsonArray;
-import io.cucumber.messages.internal.com.google.gson.JsonObject;
-import io.cucumber.messages.internal.com.google.gson.internal.LinkedTreeMap;
-import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.configurationprocessor.json.JSONObject;
-import org.springframework.boot.json.JsonParser;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class DiscoveryServiceImpl implements DiscoveryService {
 
+    /**
+     * Type of the similar entity.
+     */
+    private static final TypeReference<LinkedHashMap<String, Object>> SIMILAR_ENTITY =
+            new TypeReference<LinkedHashMap<String, Object>>() {
+            };
+
+    /**
+     * Pooled client of the discovery library.
+     */
+    @Autowired
+    DiscoveryClient discoveryClient;
+
+    /**
+     * Bounded executor of the calls, with deadline and circuit breaker.
+     */
+    @Autowired
+    DiscoveryExecutor discoveryExecutor;
+
+    /**
+     * Micro-batcher of the calls.
+     */
+    @Autowired
+    DiscoveryBatcher discoveryBatcher;
+
+    /**
+     * Cache of the answers.
+     */
     @Autowired
-    DiscoveryConfig discoveryConfig;
+    DiscoveryCache discoveryCache;
 
+    /**
+     * Finds the similar entity in the discovery library. The answer is cached, also when there is no similar entity. On
+     * a miss the call is batched with the concurrent ones of the same class, or runs on the discovery executor if
+     * batching is off. When the service is slow, fails or the circuit is open the result is null, as for no similar
+     * entity, so the caller keeps its own reference, and nothing is cached.
+     */
     @Override
-    public LinkedTreeMap<String, Object> findSimilarEntity(String node, String tripleStore, String className, String entityId, HashMap<String, Object> attrs) {
-        try {
-            JsonObject jResult = doRequest(node,tripleStore,className,entityId,attrs);
-            if (jResult!=null && jResult.has("automatics")) {
-                JsonArray jAutomaticsArray = jResult.get("automatics").getAsJsonArray();
-                if (jAutomaticsArray != null && jAutomaticsArray.size() > 0) {
-                    JsonObject jAuto = jAutomaticsArray.get(0).getAsJsonObject();
-                    return new Gson().fromJson(jAuto.toString(),LinkedTreeMap.class);
-                }
+    public Map<String, Object> findSimilarEntity(String node, String tripleStore, String className, String entityId, HashMap<String, Object> attrs) {
+        return discoveryCache.get(node, tripleStore, className, entityId, attrs,
+                () -> requestSimilarEntity(node, tripleStore, className, entityId, attrs));
+    }
 
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return null;
+    /**
+     * Starts the search of the similar entity as {@link #findSimilarEntity}, but the call is not waited for: on a miss
+     * the request joins the open batch of its class, or is sent on the pooled client if batching is off.
+     */
+    @Override
+    public CompletableFuture<Map<String, Object>> findSimilarEntityAsync(String node, String tripleStore, String className, String entityId, HashMap<String, Object> attrs) {
+        return discoveryCache.getAsync(node, tripleStore, className, entityId, attrs,
+                () -> discoveryExecutor.submit(() -> (discoveryBatcher.isEnabled()
+                        ? discoveryBatcher.submit(node, tripleStore, className, entityId, attrs)
+                        : discoveryClient.findFirstResultAsync(node, tripleStore, className, entityId, attrs))
+                        .thenApply(this::toSimilarEntity), null));
     }
 
-    private JsonObject doRequest(String node, String tripleStore, String className, String entityId, HashMap<String, Object> attrs) throws IOException {
+    @Override
+    public void invalidateSimilarEntities(String node, String tripleStore, String className) {
+        discoveryCache.invalidate(node, tripleStore, className);
+    }
 
-        JSONObject jObject = new JSONObject(attrs);
-        StringBuffer queryParams = new StringBuffer();
-        queryParams.append(String.format("userId=%s", URLEncoder.encode("uris_factory", StandardCharsets.UTF_8.toString())));
-        queryParams.append(String.format("&requestCode=%s", URLEncoder.encode(RandomStringUtils.randomAlphabetic(10), StandardCharsets.UTF_8.toString())));
-        queryParams.append(String.format("&node=%s", URLEncoder.encode(node, StandardCharsets.UTF_8.toString())));
-        queryParams.append(String.format("&tripleStore=%s", URLEncoder.encode(tripleStore, StandardCharsets.UTF_8.toString())));
-        queryParams.append(String.format("&className=%s", URLEncoder.encode(className, StandardCharsets.UTF_8.toString())));
-        queryParams.append(String.format("&entityId=%s", URLEncoder.encode(entityId+"-temp", StandardCharsets.UTF_8.toString())));
-        queryParams.append(String.format("&doSynchronous=%s", "true"));
-        queryParams.append(String.format("&propague_in_kafka=%s", "false"));
-        queryParams.append(String.format("&linkEntities=%s", "false"));
-        URL url = new URL(String.format("%s:%s%s?%s",discoveryConfig.getHost(),discoveryConfig.getPort(),discoveryConfig.getEndPoint(),queryParams.toString()));
-        HttpURLConnection con = (HttpURLConnection)url.openConnection();
-        con.setRequestMethod("POST");
-        con.setRequestProperty("Content-Type", "application/json; utf-8");
-        con.setRequestProperty("Accept", "application/json");
-        con.setDoOutput(true);
-        try(OutputStream os = con.getOutputStream()) {
-            byte[] input = jObject.toString().getBytes("utf-8");
-            os.write(input, 0, input.length);
+    /**
+     * Asks the discovery library.
+     *
+     * @return the similar entity, empty if there is none, or null if the call failed
+     */
+    private Optional<Map<String, Object>> requestSimilarEntity(String node, String tripleStore, String className, String entityId, HashMap<String, Object> attrs) {
+        if (discoveryBatcher.isEnabled()) {
+            return discoveryExecutor.await(() -> discoveryBatcher.submit(node, tripleStore, className, entityId, attrs)
+                    .thenApply(this::toSimilarEntity), null);
         }
-        StringBuilder response = new StringBuilder();
-        try(BufferedReader br = new BufferedReader(
-                new InputStreamReader(con.getInputStream(), "utf-8"))) {
-            response = new StringBuilder();
-            String responseLine = null;
-            while ((responseLine = br.readLine()) != null) {
-                response.append(responseLine.trim());
-            }
-        }
-
-        JsonObject jResponse = new Gson().fromJson(response.toString(), JsonObject.class);
+        return discoveryExecutor.call(() -> toSimilarEntity(discoveryClient.findFirstResult(node, tripleStore, className, entityId, attrs)), null);
+    }
 
-        if (jResponse!=null && jResponse.has("response")) {
-            JsonObject jRes = jResponse.get("response").getAsJsonObject();
-            if (jRes!=null && jRes.has("results")) {
-                JsonArray jResults = jRes.get("results").getAsJsonArray();
-                if (jResults.size() > 0) {
-                    return jResults.get(0).getAsJsonObject();
-                }
-            }
+    private Optional<Map<String, Object>> toSimilarEntity(ObjectNode jResult) {
+        JsonNode jAutomatics = jResult != null ? jResult.get("automatics") : null;
+        if (jAutomatics != null && jAutomatics.isArray() && jAutomatics.size() > 0 && !jAutomatics.get(0).isNull()) {
+            return Optional.of(DiscoveryClient.MAPPER.convertValue(jAutomatics.get(0), SIMILAR_ENTITY));
         }
-        return null;
+        return Optional.empty();
     }
 }
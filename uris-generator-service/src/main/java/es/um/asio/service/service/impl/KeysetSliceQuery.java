@@ -0,0 +1,86 @@
+package es.um.asio.service.service.impl;
+
+import es.um.asio.service.dto.KeysetSlice;
+import es.um.asio.service.util.ContinuationToken;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keyset (seek) listing of the entities with a numeric <code>id</code>: each slice is read with
+ * <code>id &gt; :lastId order by id</code> on the primary key, one row more than the size to know if there is a next
+ * slice, so the cost of a slice does not depend on how deep it is and there is no count query.
+ */
+@Component
+public class KeysetSliceQuery {
+
+    /**
+     * Id attribute of the entities.
+     */
+    private static final String ID = "id";
+
+    /**
+     * Maximum number of rows in a slice.
+     */
+    public static final int MAX_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Reads a slice.
+     *
+     * @param <T>               the entity type
+     * @param type              the entity class
+     * @param filter            the filter, may be null
+     * @param continuationToken the token of the previous slice, null for the first one
+     * @param size              the number of rows, bounded to {@link #MAX_SIZE}
+     * @param id                the id of an entity
+     * @param fetches           the to one associations read in the same query
+     * @return the slice
+     * @throws IllegalArgumentException if the token is not valid
+     */
+    public <T> KeysetSlice<T> findSlice(final Class<T> type, final Specification<T> filter,
+            final String continuationToken, final int size, final ToLongFunction<T> id, final String... fetches) {
+        final Long lastId = ContinuationToken.decode(continuationToken);
+        final int limit = Math.max(1, Math.min(size, MAX_SIZE));
+
+        final CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> query = builder.createQuery(type);
+        final Root<T> root = query.from(type);
+        for (String fetch : fetches) {
+            root.fetch(fetch, JoinType.LEFT);
+        }
+        final List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            final Predicate predicate = filter.toPredicate(root, query, builder);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (lastId != null) {
+            predicates.add(builder.greaterThan(root.get(ID), lastId));
+        }
+        query.select(root).where(predicates.toArray(new Predicate[0])).orderBy(builder.asc(root.get(ID)));
+
+        final List<T> rows = this.entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        String next = null;
+        List<T> content = rows;
+        if (rows.size() > limit) {
+            content = new ArrayList<>(rows.subList(0, limit));
+            next = ContinuationToken.encode(id.applyAsLong(content.get(limit - 1)));
+        }
+        return new KeysetSlice<>(content, PageRequest.of(0, limit), next);
+    }
+}
@@ -1,11 +1,19 @@
 package es.um.asio.service.service.impl;
 
+import com.google.common.collect.Lists;
+import es.um.asio.service.cache.LocalURICache;
+import es.um.asio.service.dto.KeysetSlice;
 import es.um.asio.service.filter.LocalURIFilter;
 import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
 import es.um.asio.service.model.LocalURI;
 import es.um.asio.service.model.User;
 import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.service.CanonicalURILanguageService;
 import es.um.asio.service.service.LocalURIService;
+import es.um.asio.service.service.UriHashBackfillService;
+import es.um.asio.service.util.AfterCommit;
+import es.um.asio.service.util.UriHash;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
@@ -15,8 +23,13 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service implementation to handle {@link User} entity related operations
@@ -25,12 +38,40 @@ import java.util.Optional;
 @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 public class LocalURIServiceImpl implements LocalURIService {
 
+    /**
+     * Maximum number of URIs in each IN list.
+     */
+    private static final int IN_CHUNK_SIZE = 500;
+
     /**
      * Spring Data repository for {@link CanonicalURI}.
      */
     @Autowired
     private LocalURIRepository repository;
 
+    /**
+     * Keyset listing of the entities.
+     */
+    @Autowired
+    private KeysetSliceQuery keysetQuery;
+
+    /**
+     * Backfill of the URI lookup keys, until it is complete the lookups by key fall back to the URI.
+     */
+    @Autowired
+    private UriHashBackfillService uriHashBackfillService;
+
+    /**
+     * Cache of {@link LocalURI} by canonical URI, storage type and language.
+     */
+    @Autowired
+    private LocalURICache cache;
+
+    /**
+     * Canonical URI in language service, to find the canonical URI of a local URI.
+     */
+    @Autowired
+    private CanonicalURILanguageService canonicalURILanguageService;
 
     /**
      * Solr enabled
@@ -44,6 +85,7 @@ public class LocalURIServiceImpl implements LocalURIService {
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public LocalURI save(final LocalURI entity) {
+        invalidate(entity);
         return this.repository.save(entity);
     }
 
@@ -53,6 +95,7 @@ public class LocalURIServiceImpl implements LocalURIService {
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public List<LocalURI> save(final Iterable<LocalURI> entities) {
+        entities.forEach(this::invalidate);
         return this.repository.saveAll(entities);
     }
 
@@ -62,6 +105,7 @@ public class LocalURIServiceImpl implements LocalURIService {
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public LocalURI update(final LocalURI entity) {
+        invalidate(entity);
         return this.repository.save(entity);
     }
 
@@ -71,6 +115,7 @@ public class LocalURIServiceImpl implements LocalURIService {
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public void delete(final LocalURI entity) {
+        invalidate(entity);
         this.repository.delete(entity);
     }
 
@@ -80,6 +125,7 @@ public class LocalURIServiceImpl implements LocalURIService {
     @Transactional(propagation = Propagation.REQUIRED, readOnly = false)
     @Override
     public void delete(final String identifier) {
+        AfterCommit.evict(this.cache::invalidateAll);
         this.repository.deleteById(identifier);
     }
 
@@ -99,6 +145,14 @@ public class LocalURIServiceImpl implements LocalURIService {
         return this.repository.findAll(filter, pageable);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KeysetSlice<LocalURI> findSlice(final LocalURIFilter filter, final String continuationToken, final int size) {
+        return this.keysetQuery.findSlice(LocalURI.class, filter, continuationToken, size, LocalURI::getId, "canonicalURILanguage");
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -120,11 +174,126 @@ public class LocalURIServiceImpl implements LocalURIService {
 
     @Override
     public List<LocalURI> getAllByLocalURIStr(String localURIStr) {
+        if (localURIStr != null) {
+            List<LocalURI> localURIs = UriHash.verify(this.repository.findByLocalUriHash(UriHash.of(localURIStr)),
+                    LocalURI::getLocalUri, localURIStr);
+            if (!localURIs.isEmpty() || this.uriHashBackfillService.isComplete()) {
+                return localURIs;
+            }
+        }
         return this.repository.findByLocalUri(localURIStr).orElse(null);
     }
 
+    @Override
+    public Map<String, List<String>> getCanonicalURILanguageStrsByLocalURIs(Collection<String> localURIs) {
+        final Map<String, List<String>> result = new LinkedHashMap<>();
+        for (String localURI : localURIs) {
+            if (localURI != null) {
+                result.put(localURI, null);
+            }
+        }
+
+        // the rows are matched by local URI, so rows found by a shared lookup key are ignored
+        final boolean byHash = this.uriHashBackfillService.isComplete();
+        for (List<String> chunk : Lists.partition(new ArrayList<>(result.keySet()), IN_CHUNK_SIZE)) {
+            for (Object[] row : byHash
+                    ? this.repository.findCanonicalURILanguageStrByLocalUriHashIn(UriHash.of(chunk))
+                    : this.repository.findCanonicalURILanguageStrByLocalUriIn(chunk)) {
+                final String localURI = (String) row[0];
+                if (result.containsKey(localURI) && row[1] != null) {
+                    List<String> canonicalURILanguages = result.get(localURI);
+                    if (canonicalURILanguages == null) {
+                        canonicalURILanguages = new ArrayList<>();
+                        result.put(localURI, canonicalURILanguages);
+                    }
+                    if (!canonicalURILanguages.contains(row[1])) {
+                        canonicalURILanguages.add((String) row[1]);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     public List<LocalURI> getAllByCanonicalURILanguageStrAndStorageTypeStr(String canonicalURILanguage, String storageTypeStr) {
+        if (canonicalURILanguage != null) {
+            List<LocalURI> localURIs = UriHash.verify(this.repository.findByStorageTypeStrAndCanonicalURILanguageHash(
+                    storageTypeStr, UriHash.of(canonicalURILanguage)), LocalURI::getCanonicalURILanguageStr,
+                    canonicalURILanguage);
+            if (!localURIs.isEmpty() || this.uriHashBackfillService.isComplete()) {
+                return localURIs;
+            }
+        }
         return this.repository.findByStorageTypeStrAndCanonicalURILanguageStr(storageTypeStr,canonicalURILanguage).orElse(new ArrayList<>());
     }
+
+    @Override
+    public List<LocalURI> getAllByCanonicalURIAndStorageTypeStrAndLanguage(String canonicalURI, String storageTypeStr, String language) {
+        return this.cache.get(canonicalURI, storageTypeStr, language, () -> this.repository
+                .findByCanonicalURIAndStorageTypeStrAndLanguage(canonicalURI, storageTypeStr, language));
+    }
+
+    @Override
+    public Map<String, List<LocalURI>> getAllByURIsAndStorageTypeStr(Collection<String> uris, String storageTypeStr, String language) {
+        final Map<String, List<LocalURI>> result = new LinkedHashMap<>();
+        final Set<String> pending = new LinkedHashSet<>();
+        for (String uri : uris) {
+            if (uri != null && !result.containsKey(uri)) {
+                final List<LocalURI> cached = language != null ? this.cache.getIfPresent(uri, storageTypeStr, language) : null;
+                result.put(uri, cached);
+                if (cached == null) {
+                    pending.add(uri);
+                }
+            }
+        }
+
+        // canonical URIs in language first, the rest are taken as canonical URIs
+        for (List<String> chunk : Lists.partition(new ArrayList<>(pending), IN_CHUNK_SIZE)) {
+            for (LocalURI localURI : this.repository.findByStorageTypeStrAndCanonicalURILanguageStrIn(storageTypeStr, chunk)) {
+                if (pending.remove(localURI.getCanonicalURILanguageStr())) {
+                    result.put(localURI.getCanonicalURILanguageStr(), new ArrayList<>());
+                }
+                result.get(localURI.getCanonicalURILanguageStr()).add(localURI);
+            }
+        }
+        for (List<String> chunk : Lists.partition(new ArrayList<>(pending), IN_CHUNK_SIZE)) {
+            for (Object[] row : this.repository.findByCanonicalURIInAndStorageTypeStrAndLanguage(chunk, storageTypeStr, language)) {
+                final String canonicalURI = (String) row[0];
+                if (result.get(canonicalURI) == null) {
+                    result.put(canonicalURI, new ArrayList<>());
+                }
+                result.get(canonicalURI).add((LocalURI) row[1]);
+            }
+        }
+
+        for (String uri : pending) {
+            final List<LocalURI> localURIs = result.get(uri);
+            if (localURIs == null) {
+                result.put(uri, new ArrayList<>());
+            } else if (language != null) {
+                this.cache.put(uri, storageTypeStr, language, localURIs);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evicts the cached local URIs of the canonical URI of a local URI, or all of them if it is not known, now and
+     * again after the commit.
+     *
+     * @param entity the local URI
+     */
+    private void invalidate(final LocalURI entity) {
+        final CanonicalURILanguage canonicalURILanguage = entity.getCanonicalURILanguageStr() != null
+                ? this.canonicalURILanguageService.getAllByFullURI(entity.getCanonicalURILanguageStr()) : null;
+        final String canonicalURI = canonicalURILanguage != null ? canonicalURILanguage.getFullParentURI() : null;
+        AfterCommit.evict(() -> {
+            if (canonicalURI != null) {
+                this.cache.invalidateByCanonicalURI(canonicalURI);
+            } else {
+                this.cache.invalidateAll();
+            }
+        });
+    }
 }
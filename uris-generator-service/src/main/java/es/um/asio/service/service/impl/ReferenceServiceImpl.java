@@ -0,0 +1,70 @@
+package es.um.asio.service.service.impl;
+
+import es.um.asio.service.config.properties.ReferenceProperties;
+import es.um.asio.service.service.ReferenceGenerator;
+import es.um.asio.service.service.ReferenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link ReferenceService}.
+ */
+@Service
+public class ReferenceServiceImpl implements ReferenceService {
+
+    @Autowired
+    private ReferenceProperties properties;
+
+    @Autowired
+    private List<ReferenceGenerator> generators;
+
+    /**
+     * Generators by name.
+     */
+    private final Map<String, ReferenceGenerator> generatorsByName = new HashMap<>();
+
+    /**
+     * Indexes the generators and checks that the configured ones exist.
+     */
+    @PostConstruct
+    public void init() {
+        for (ReferenceGenerator generator : this.generators) {
+            this.generatorsByName.put(generator.getName(), generator);
+        }
+        generator(this.properties.getStrategy());
+        this.properties.getTypes().values().forEach(this::generator);
+        this.properties.getDomains().values().forEach(this::generator);
+    }
+
+    @Override
+    public String generate(final String domain, final String type, final Object instance) {
+        return generator(domain, type).generate(instance);
+    }
+
+    @Override
+    public boolean isDeterministic(final String domain, final String type) {
+        return generator(domain, type).isDeterministic();
+    }
+
+    private ReferenceGenerator generator(final String domain, final String type) {
+        String strategy = type != null ? this.properties.getTypes().get(type) : null;
+        if (strategy == null && domain != null) {
+            strategy = this.properties.getDomains().get(domain);
+        }
+        return generator(strategy != null ? strategy : this.properties.getStrategy());
+    }
+
+    private ReferenceGenerator generator(final String name) {
+        final ReferenceGenerator generator = this.generatorsByName.get(name);
+        if (generator == null) {
+            throw new IllegalStateException("Unknown reference strategy: " + name + ", available: "
+                    + this.generatorsByName.keySet());
+        }
+        return generator;
+    }
+}
@@ -1,20 +1,66 @@
 package es.um.asio.service.service.impl;
 
+import es.um.asio.service.cache.ReferenceDataSnapshot;
 import es.um.asio.service.config.properties.URISChemaProperties;
+import es.um.asio.service.dto.URIComponents;
 import es.um.asio.service.service.SchemaService;
+import es.um.asio.service.util.UriTemplate;
+import es.um.asio.service.util.UriTemplate.Placeholder;
 import es.um.asio.service.util.Utils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class SchemaServiceImpl implements SchemaService {
 
+    /**
+     * Protocol and rest of a schema.
+     */
+    private static final Pattern URL_PATTERN = Pattern.compile("(https?://)([^:^/]*)(:\\d*)?(.*)?");
+
     @Autowired
     private URISChemaProperties properties;
 
+    /**
+     * Reference data, to tell apart the URIs that match a schema in more than one way.
+     */
+    @Autowired
+    private ObjectProvider<ReferenceDataSnapshot> referenceData;
+
+    /**
+     * Compiled schemas, by schema.
+     */
+    private final Map<String, CompiledSchema> compiledSchemas = new ConcurrentHashMap<>();
+
+    /**
+     * Checks that both schemas can be compiled, the entities build their full URIs only with the compiled schema.
+     *
+     * @throws IllegalStateException if a schema can not be compiled, so the application does not start
+     */
+    @PostConstruct
+    public void init() {
+        validate("app.uri.canonicalURISchema", properties.getCanonicalURISchema());
+        validate("app.uri.canonicalURILanguageSchema", properties.getCanonicalURILanguageSchema());
+    }
+
+    private static void validate(String property, String schema) {
+        if (schema != null && !UriTemplate.compile(schema).isCompiled()) {
+            throw new IllegalStateException(String.format("URI schema %s=%s can not be compiled: each placeholder "
+                    + "must appear at most once, with literal text between two placeholders and no other '$'",
+                    property, schema));
+        }
+    }
 
     @Override
     public String getCanonicalSchema() {
@@ -29,8 +75,12 @@ public class SchemaServiceImpl implements SchemaService {
     @Override
     public String buildCanonical(String domain, String subDomain, String type, String entity, String reference) {
         String schema = properties.getCanonicalURISchema();
-        Pattern pattern = Pattern.compile("(https?://)([^:^/]*)(:\\d*)?(.*)?");
-        Matcher matcher = pattern.matcher(schema);
+        String[] values = values(domain, subDomain, null, false, type, entity, reference);
+        CompiledSchema compiled = compiled(schema);
+        if (compiled.template != null && UriTemplate.isRenderable(values)) {
+            return compiled.template.renderWithProtocol(compiled.protocol, values);
+        }
+        Matcher matcher = URL_PATTERN.matcher(schema);
         matcher.find();
         String protocol = matcher.group(1);
         String url = schema.replace(protocol,"");
@@ -46,8 +96,12 @@ public class SchemaServiceImpl implements SchemaService {
     @Override
     public String buildCanonicalLanguage(String domain, String subDomain, String language, String type, String entity, String reference) {
         String schema = properties.getCanonicalURILanguageSchema();
-        Pattern pattern = Pattern.compile("(https?://)([^:^/]*)(:\\d*)?(.*)?");
-        Matcher matcher = pattern.matcher(schema);
+        String[] values = values(domain, subDomain, language, true, type, entity, reference);
+        CompiledSchema compiled = compiled(schema);
+        if (compiled.template != null && UriTemplate.isRenderable(values)) {
+            return compiled.template.renderWithProtocol(compiled.protocol, values);
+        }
+        Matcher matcher = URL_PATTERN.matcher(schema);
         matcher.find();
         String protocol = matcher.group(1);
         String url = schema.replace(protocol,"");
@@ -61,7 +115,93 @@ public class SchemaServiceImpl implements SchemaService {
         return protocol + url;
     }
 
+    @Override
+    public Optional<URIComponents> parseCanonical(String uri) {
+        return parse(properties.getCanonicalURISchema(), uri, Placeholder.TYPE, ReferenceDataSnapshot::getType);
+    }
+
+    @Override
+    public Optional<URIComponents> parseCanonicalLanguage(String uri) {
+        return parse(properties.getCanonicalURILanguageSchema(), uri, Placeholder.LANGUAGE, ReferenceDataSnapshot::getLanguage);
+    }
+
+    /**
+     * Parses a URI with the template of the schema, as the entities render it. Empty if the URI does not match the
+     * schema or the schema can not be compiled.
+     * <p>
+     * A URI that matches the schema in more than one way (without sub-domain and with reference, or the opposite) is
+     * resolved with the reference data: the shape whose type or language is known is taken. Empty if there is no
+     * reference data or it does not tell them apart.
+     *
+     * @param schema the schema
+     * @param uri the URI
+     * @param known the placeholder checked in the reference data
+     * @param lookup the lookup of a value of the placeholder in the reference data
+     */
+    private Optional<URIComponents> parse(String schema, String uri, Placeholder known,
+            BiFunction<ReferenceDataSnapshot, String, Optional<?>> lookup) {
+        if (schema == null) {
+            return Optional.empty();
+        }
+        List<String[]> parsed = UriTemplate.compile(schema).parseAll(uri);
+        if (parsed.size() > 1) {
+            ReferenceDataSnapshot snapshot = referenceData.getIfAvailable();
+            if (snapshot == null) {
+                return Optional.empty();
+            }
+            parsed = parsed.stream().filter(values -> lookup.apply(snapshot, values[known.ordinal()]).isPresent())
+                    .collect(Collectors.toList());
+        }
+        return parsed.size() == 1 ? Optional.of(URIComponents.of(parsed.get(0))) : Optional.empty();
+    }
+
     private String replaceURIChunk(String url, String regex, String value) {
         return url.replace(regex,Utils.isValidString(value)?value:"");
     }
+
+    /**
+     * Builds the values of the placeholders: a missing value is rendered empty, the language is left as it is if it is
+     * not replaced, as in the canonical schema.
+     */
+    private static String[] values(String domain, String subDomain, String language, boolean replaceLanguage, String type, String entity, String reference) {
+        String[] values = new String[Placeholder.values().length];
+        values[Placeholder.DOMAIN.ordinal()] = valueOf(domain);
+        values[Placeholder.SUB_DOMAIN.ordinal()] = valueOf(subDomain);
+        values[Placeholder.LANGUAGE.ordinal()] = replaceLanguage ? valueOf(language) : null;
+        values[Placeholder.TYPE.ordinal()] = valueOf(type);
+        values[Placeholder.CONCEPT.ordinal()] = valueOf(entity);
+        values[Placeholder.REFERENCE.ordinal()] = valueOf(reference);
+        return values;
+    }
+
+    private static String valueOf(String value) {
+        return Utils.isValidString(value) ? value : "";
+    }
+
+    private CompiledSchema compiled(String schema) {
+        return compiledSchemas.computeIfAbsent(schema, CompiledSchema::new);
+    }
+
+    /**
+     * Schema split in protocol and compiled rest. The template is null if the schema has no protocol or can not be
+     * compiled, then the schema is built with the replacement chain.
+     */
+    private static final class CompiledSchema {
+
+        private final String protocol;
+
+        private final UriTemplate template;
+
+        private CompiledSchema(String schema) {
+            Matcher matcher = URL_PATTERN.matcher(schema);
+            if (matcher.find()) {
+                UriTemplate compiled = UriTemplate.compile(schema.replace(matcher.group(1), ""));
+                this.protocol = matcher.group(1);
+                this.template = compiled.isCompiled() ? compiled : null;
+            } else {
+                this.protocol = null;
+                this.template = null;
+            }
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package es.um.asio.service.service.impl;
+
+import es.um.asio.service.service.ReferenceGenerator;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time ordered references, version 7 UUIDs: 48 bits of milliseconds since the epoch, a 12 bit counter and 62 random
+ * bits. References minted later sort after the previous ones, so the URIs that end with them are inserted near the
+ * right edge of the indexes instead of at random places. Not deterministic: the same content gets a new reference
+ * each time.
+ */
+@Component
+public class TimeOrderedReferenceGenerator implements ReferenceGenerator {
+
+    /**
+     * Name of the strategy.
+     */
+    public static final String NAME = "time-ordered";
+
+    /**
+     * Bits of the counter within a millisecond.
+     */
+    private static final int COUNTER_BITS = 12;
+
+    /**
+     * Last timestamp and counter, as milliseconds shifted left by {@link #COUNTER_BITS} plus the counter. When the
+     * counter overflows the timestamp moves a millisecond ahead, so the references are strictly increasing in this
+     * process.
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return false;
+    }
+
+    @Override
+    public String generate(final Object instance) {
+        return next(System.currentTimeMillis()).toString();
+    }
+
+    /**
+     * Gets the next reference for a time.
+     *
+     * @param millis the milliseconds since the epoch
+     * @return the reference
+     */
+    UUID next(final long millis) {
+        final long now = millis << COUNTER_BITS;
+        final long state = this.last.updateAndGet(previous -> Math.max(previous + 1, now));
+        final long timestamp = state >>> COUNTER_BITS;
+        final long counter = state & ((1L << COUNTER_BITS) - 1);
+        final long msb = (timestamp << 16) | 0x7000L | counter;
+        final long lsb = (ThreadLocalRandom.current().nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
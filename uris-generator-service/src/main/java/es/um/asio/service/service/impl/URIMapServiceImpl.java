@@ -1,5 +1,6 @@
 package es.um.asio.service.service.impl;
 
+import es.um.asio.service.dto.KeysetSlice;
 import es.um.asio.service.filter.URIMapFilter;
 import es.um.asio.service.model.URIMap;
 import es.um.asio.service.model.User;
@@ -29,6 +30,12 @@ public class URIMapServiceImpl implements URIMapService {
     @Autowired
     private URIMapRepository uriMapRepository;
 
+    /**
+     * Keyset listing of the entities.
+     */
+    @Autowired
+    private KeysetSliceQuery keysetQuery;
+
     /**
      * Solr enabled
      */
@@ -96,6 +103,14 @@ public class URIMapServiceImpl implements URIMapService {
         return this.uriMapRepository.findAll(filter, pageable);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KeysetSlice<URIMap> findSlice(final URIMapFilter filter, final String continuationToken, final int size) {
+        return this.keysetQuery.findSlice(URIMap.class, filter, continuationToken, size, URIMap::getId);
+    }
+
     /**
      * {@inheritDoc}
      */
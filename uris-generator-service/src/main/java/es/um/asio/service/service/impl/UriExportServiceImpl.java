@@ -0,0 +1,82 @@
+package es.um.asio.service.service.impl;
+
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.service.UriExportService;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+
+/**
+ * Implementation of {@link UriExportService} with Hibernate scrollable results. The driver is asked to stream the
+ * rows in batches of the fetch size, the entities are read only and bypass the second level cache, and the session is
+ * cleared after each batch.
+ */
+@Service
+@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+public class UriExportServiceImpl implements UriExportService {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(UriExportServiceImpl.class);
+
+    /**
+     * Entity manager of the transaction.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rows fetched from the database at a time, and kept in the persistence context.
+     */
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public long exportCanonicalURIs(final Sink<CanonicalURI> sink) throws IOException {
+        return export("select c from CanonicalURI c order by c.id", CanonicalURI.class, sink);
+    }
+
+    @Override
+    public long exportCanonicalURILanguages(final Sink<CanonicalURILanguage> sink) throws IOException {
+        return export("select c from CanonicalURILanguage c order by c.id", CanonicalURILanguage.class, sink);
+    }
+
+    @Override
+    public long exportLocalURIs(final Sink<LocalURI> sink) throws IOException {
+        // the canonical URI in language is eager, fetched in the same row instead of a query each
+        return export("select l from LocalURI l left join fetch l.canonicalURILanguage order by l.id", LocalURI.class,
+                sink);
+    }
+
+    private <T> long export(final String query, final Class<T> type, final Sink<T> sink) throws IOException {
+        final Session session = this.entityManager.unwrap(Session.class);
+        long rows = 0;
+        try (ScrollableResults results = session.createQuery(query, type)
+                .setFetchSize(this.fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                sink.accept(type.cast(results.get(0)));
+                if (++rows % this.fetchSize == 0) {
+                    session.clear();
+                }
+            }
+        }
+        session.clear();
+        logger.info("Exported {} rows of {}", rows, type.getSimpleName());
+        return rows;
+    }
+}
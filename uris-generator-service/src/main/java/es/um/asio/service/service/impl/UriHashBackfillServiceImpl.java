@@ -0,0 +1,194 @@
+package es.um.asio.service.service.impl;
+
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.service.UriHashBackfillService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Implementation of {@link UriHashBackfillService}. The backfill runs once in background when the application is
+ * ready, walking each table by id so every batch is an index range scan. The entities fill their keys on every write,
+ * so the backfill is complete once no row is pending in the database, whichever instance filled them; the check is
+ * repeated at most once per interval.
+ */
+@Service
+public class UriHashBackfillServiceImpl implements UriHashBackfillService {
+
+    /** The logger. */
+    private final Logger logger = LoggerFactory.getLogger(UriHashBackfillServiceImpl.class);
+
+    /**
+     * Spring Data repository for {@link CanonicalURI}.
+     */
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    /**
+     * Spring Data repository for {@link CanonicalURILanguage}.
+     */
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    /**
+     * Spring Data repository for {@link LocalURI}.
+     */
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    /**
+     * Transaction manager, each batch is committed on its own.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Run the backfill at startup.
+     */
+    @Value("${app.uri-hash.backfill.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Rows updated in each transaction.
+     */
+    @Value("${app.uri-hash.backfill.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Seconds between the checks of the rows pending in the database.
+     */
+    @Value("${app.uri-hash.backfill.check-interval:60}")
+    private long checkInterval;
+
+    /**
+     * Backfill thread.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uri-hash-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Every row had its lookup keys in the last check.
+     */
+    private volatile boolean complete;
+
+    /**
+     * The database has been checked at least once.
+     */
+    private volatile boolean checked;
+
+    /**
+     * Time of the last check, in nanoseconds.
+     */
+    private volatile long checkedAt;
+
+    /**
+     * Starts the backfill once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (this.enabled) {
+            this.executor.execute(() -> {
+                try {
+                    backfill();
+                } catch (Exception e) {
+                    logger.error("URI hash backfill failed, the lookups keep falling back to the URI: {}",
+                            e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops the backfill thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Override
+    public synchronized long backfill() {
+        final long updated = backfill(CanonicalURI.TABLE, this.canonicalURIRepository::findHashPending,
+                CanonicalURI::getId, CanonicalURI::updateHashes)
+                + backfill(CanonicalURILanguage.TABLE, this.canonicalURILanguageRepository::findHashPending,
+                        CanonicalURILanguage::getId, CanonicalURILanguage::updateHashes)
+                + backfill(LocalURI.TABLE, this.localURIRepository::findHashPending, LocalURI::getId,
+                        LocalURI::updateHashes);
+        if (!Thread.currentThread().isInterrupted() && check()) {
+            logger.info("URI hash backfill complete: {} rows updated", updated);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean isComplete() {
+        if (!this.checked || System.nanoTime() - this.checkedAt >= TimeUnit.SECONDS.toNanos(this.checkInterval)) {
+            return check();
+        }
+        return this.complete;
+    }
+
+    /**
+     * Checks in the database that no row is pending.
+     *
+     * @return true if every row has its lookup keys
+     */
+    private boolean check() {
+        final Pageable first = PageRequest.of(0, 1);
+        final boolean result = this.canonicalURIRepository.findHashPending(Long.MIN_VALUE, first).isEmpty()
+                && this.canonicalURILanguageRepository.findHashPending(Long.MIN_VALUE, first).isEmpty()
+                && this.localURIRepository.findHashPending(Long.MIN_VALUE, first).isEmpty();
+        this.complete = result;
+        this.checkedAt = System.nanoTime();
+        this.checked = true;
+        return result;
+    }
+
+    private <T> long backfill(final String table, final BiFunction<Long, Pageable, List<T>> pending,
+            final ToLongFunction<T> id, final Consumer<T> update) {
+        final TransactionTemplate template = new TransactionTemplate(this.transactionManager);
+        final Pageable page = PageRequest.of(0, this.batchSize);
+        long updated = 0;
+        long last = Long.MIN_VALUE;
+        while (!Thread.currentThread().isInterrupted()) {
+            final long from = last;
+            final List<T> batch = template.execute(status -> {
+                List<T> rows = pending.apply(from, page);
+                rows.forEach(update);
+                return rows;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            updated += batch.size();
+            last = id.applyAsLong(batch.get(batch.size() - 1));
+        }
+        logger.debug("URI hash backfill of {}: {} rows updated", table, updated);
+        return updated;
+    }
+}
@@ -0,0 +1,35 @@
+package es.um.asio.service.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs cache evictions around the commit of the current transaction.
+ * <p>
+ * An eviction made only before the write leaves a window until the commit where a concurrent reader loads the old row
+ * and caches it again, so the eviction is run now and once more after the commit. Without a transaction it is only
+ * run now.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Runs an eviction now and again after the commit of the current transaction, if there is one.
+     *
+     * @param eviction the eviction
+     */
+    public static void evict(final Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package es.um.asio.service.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker over the consecutive failures of a remote call. After a number of failures in a row the circuit
+ * opens and the calls are not made until the open time has passed, then a single trial call is let through: if it
+ * succeeds the circuit closes, if it fails it opens again.
+ */
+public class CircuitBreaker {
+
+    /**
+     * State of the circuit.
+     */
+    public enum State {
+        /**
+         * Calls are made.
+         */
+        CLOSED,
+        /**
+         * A trial call is in flight.
+         */
+        HALF_OPEN,
+        /**
+         * Calls are not made.
+         */
+        OPEN
+    }
+
+    /**
+     * Consecutive failures that open the circuit.
+     */
+    private final int failureThreshold;
+
+    /**
+     * Time the circuit stays open, in milliseconds.
+     */
+    private final long openMillis;
+
+    /**
+     * Clock in milliseconds.
+     */
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+
+    private int consecutiveFailures;
+
+    private long openedAt;
+
+    /**
+     * Number of times the circuit has opened.
+     */
+    private final AtomicLong openCount = new AtomicLong();
+
+    /**
+     * Number of calls not made because the circuit was open.
+     */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param failureThreshold consecutive failures that open the circuit
+     * @param openMillis       time the circuit stays open, in milliseconds
+     */
+    public CircuitBreaker(final int failureThreshold, final long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param failureThreshold consecutive failures that open the circuit
+     * @param openMillis       time the circuit stays open, in milliseconds
+     * @param clock            clock in milliseconds
+     */
+    public CircuitBreaker(final int failureThreshold, final long openMillis, final LongSupplier clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks if a call can be made. Once the open time has passed the first caller gets the trial call.
+     *
+     * @return true if the call can be made, and then {@link #onSuccess()}, {@link #onFailure()} or
+     *         {@link #onSkipped()} must follow
+     */
+    public synchronized boolean tryAcquire() {
+        if (this.state == State.OPEN && this.clock.getAsLong() - this.openedAt >= this.openMillis) {
+            this.state = State.HALF_OPEN;
+            return true;
+        }
+        if (this.state == State.CLOSED) {
+            return true;
+        }
+        this.rejectedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Records a successful call.
+     */
+    public synchronized void onSuccess() {
+        this.consecutiveFailures = 0;
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public synchronized void onFailure() {
+        this.consecutiveFailures++;
+        if (this.state == State.HALF_OPEN || (this.state == State.CLOSED && this.consecutiveFailures >= this.failureThreshold)) {
+            this.state = State.OPEN;
+            this.openedAt = this.clock.getAsLong();
+            this.openCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a call that was not made for a local reason, such as a full pool. The failures are not counted, and a
+     * trial call is given back so the next caller gets it.
+     */
+    public synchronized void onSkipped() {
+        if (this.state == State.HALF_OPEN) {
+            this.state = State.OPEN;
+        }
+    }
+
+    /**
+     * Gets the state.
+     *
+     * @return the state
+     */
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * Gets the number of times the circuit has opened.
+     *
+     * @return the count
+     */
+    public long getOpenCount() {
+        return this.openCount.get();
+    }
+
+    /**
+     * Gets the number of calls not made because the circuit was open.
+     *
+     * @return the count
+     */
+    public long getRejectedCount() {
+        return this.rejectedCount.get();
+    }
+}
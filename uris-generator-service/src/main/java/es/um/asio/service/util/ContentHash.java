@@ -0,0 +1,221 @@
+package es.um.asio.service.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Deterministic 128 bit identifier of the content of an instance (maps, collections, arrays and scalars as parsed from
+ * JSON).
+ * <p>
+ * The content is streamed into a SHA-256 digest in a canonical encoding: each value is tagged with its kind, strings
+ * and containers carry their length, map entries are sorted by key and the order of collections is kept. Equal
+ * content gives the same identifier in any JVM, whatever the insertion order of the maps. The first 128 bits of the
+ * digest are returned as a version 8 (custom) UUID.
+ * <p>
+ * The digest and the encoding buffer are reused by thread, so no intermediate string of the content is built.
+ */
+public final class ContentHash {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private static final byte NULL = 'N';
+    private static final byte TRUE = 'T';
+    private static final byte FALSE = 'F';
+    private static final byte INTEGER = 'I';
+    private static final byte BIG_INTEGER = 'J';
+    private static final byte DECIMAL = 'B';
+    private static final byte DOUBLE = 'D';
+    private static final byte STRING = 'S';
+    private static final byte LIST = 'L';
+    private static final byte MAP = 'M';
+    private static final byte OTHER = 'O';
+
+    /**
+     * Size of the encoding buffer, flushed to the digest when full.
+     */
+    private static final int BUFFER_SIZE = 512;
+
+    /**
+     * Encoder of the thread.
+     */
+    private static final ThreadLocal<Encoder> ENCODER = ThreadLocal.withInitial(Encoder::new);
+
+    private ContentHash() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Gets the identifier of a content.
+     *
+     * @param content the content
+     * @return the identifier
+     */
+    public static UUID uuid(final Object content) {
+        return ENCODER.get().hash(content);
+    }
+
+    /**
+     * Canonical encoder over a digest.
+     */
+    private static final class Encoder {
+
+        private final MessageDigest digest;
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private int position;
+
+        private Encoder() {
+            try {
+                this.digest = MessageDigest.getInstance(ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(ALGORITHM + " not available", e);
+            }
+        }
+
+        private UUID hash(final Object content) {
+            this.digest.reset();
+            this.position = 0;
+            write(content);
+            flush();
+            final byte[] hash = this.digest.digest();
+            long msb = 0;
+            long lsb = 0;
+            for (int i = 0; i < 8; i++) {
+                msb = (msb << 8) | (hash[i] & 0xff);
+                lsb = (lsb << 8) | (hash[i + 8] & 0xff);
+            }
+            // version 8 and IETF variant
+            msb = (msb & 0xffffffffffff0fffL) | 0x0000000000008000L;
+            lsb = (lsb & 0x3fffffffffffffffL) | 0x8000000000000000L;
+            return new UUID(msb, lsb);
+        }
+
+        private void write(final Object value) {
+            if (value == null) {
+                writeByte(NULL);
+            } else if (value instanceof String) {
+                writeString((String) value);
+            } else if (value instanceof Boolean) {
+                writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                writeByte(INTEGER);
+                writeLong(((Number) value).longValue());
+            } else if (value instanceof BigInteger) {
+                writeBigInteger((BigInteger) value);
+            } else if (value instanceof BigDecimal) {
+                final BigDecimal decimal = ((BigDecimal) value).stripTrailingZeros();
+                writeByte(DECIMAL);
+                writeInt(decimal.scale());
+                writeBytes(decimal.unscaledValue().toByteArray());
+            } else if (value instanceof Double || value instanceof Float) {
+                writeByte(DOUBLE);
+                writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+            } else if (value instanceof Map) {
+                writeMap((Map<?, ?>) value);
+            } else if (value instanceof Collection) {
+                final Collection<?> collection = (Collection<?>) value;
+                writeByte(LIST);
+                writeInt(collection.size());
+                for (Object item : collection) {
+                    write(item);
+                }
+            } else if (value instanceof Object[]) {
+                final Object[] array = (Object[]) value;
+                writeByte(LIST);
+                writeInt(array.length);
+                for (Object item : array) {
+                    write(item);
+                }
+            } else {
+                writeByte(OTHER);
+                writeString(String.valueOf(value));
+            }
+        }
+
+        private void writeBigInteger(final BigInteger value) {
+            if (value.bitLength() < Long.SIZE) {
+                writeByte(INTEGER);
+                writeLong(value.longValue());
+            } else {
+                writeByte(BIG_INTEGER);
+                writeBytes(value.toByteArray());
+            }
+        }
+
+        private void writeMap(final Map<?, ?> map) {
+            final Object[] keys = map.keySet().toArray();
+            final String[] names = new String[keys.length];
+            final Integer[] order = new Integer[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                names[i] = String.valueOf(keys[i]);
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> names[a].compareTo(names[b]));
+            writeByte(MAP);
+            writeInt(keys.length);
+            for (Integer i : order) {
+                writeString(names[i]);
+                write(map.get(keys[i]));
+            }
+        }
+
+        /**
+         * Writes the number of chars and then each char in UTF-8 (surrogates one by one, as in CESU-8).
+         */
+        private void writeString(final String value) {
+            writeByte(STRING);
+            writeInt(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c < 0x80) {
+                    writeByte(c);
+                } else if (c < 0x800) {
+                    writeByte(0xc0 | (c >> 6));
+                    writeByte(0x80 | (c & 0x3f));
+                } else {
+                    writeByte(0xe0 | (c >> 12));
+                    writeByte(0x80 | ((c >> 6) & 0x3f));
+                    writeByte(0x80 | (c & 0x3f));
+                }
+            }
+        }
+
+        private void writeBytes(final byte[] bytes) {
+            writeInt(bytes.length);
+            for (byte b : bytes) {
+                writeByte(b);
+            }
+        }
+
+        private void writeInt(final int value) {
+            writeByte(value >>> 24);
+            writeByte(value >>> 16);
+            writeByte(value >>> 8);
+            writeByte(value);
+        }
+
+        private void writeLong(final long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        private void writeByte(final int value) {
+            if (this.position == this.buffer.length) {
+                flush();
+            }
+            this.buffer[this.position++] = (byte) value;
+        }
+
+        private void flush() {
+            this.digest.update(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+    }
+}
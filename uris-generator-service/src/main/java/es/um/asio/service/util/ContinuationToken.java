@@ -0,0 +1,58 @@
+package es.um.asio.service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque token of a keyset listing, carrying the id of the last row returned. Clients must send it back as it is, the
+ * encoding may change.
+ */
+public final class ContinuationToken {
+
+    /**
+     * Version of the encoding.
+     */
+    private static final String PREFIX = "k1:";
+
+    private ContinuationToken() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Encodes the id of the last row returned.
+     *
+     * @param lastId the id
+     * @return the token
+     */
+    public static String encode(final long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a token.
+     *
+     * @param token the token, null or empty for the first slice
+     * @return the id of the last row returned, null for the first slice
+     * @throws IllegalArgumentException if the token is not valid
+     */
+    public static Long decode(final String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        final String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+        if (!value.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Invalid continuation token");
+        }
+        try {
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+}
@@ -17,4 +17,30 @@ public class JpaConstants {
      * Hibernate UUID generator strategy.
      */
     public static final String HIBERNATE_UUID_GENERATOR_STRATEGY = "uuid2";
+
+    /**
+     * Pooled id generator name.
+     */
+    public static final String POOLED_ID_GENERATOR_NAME = "pooled_id";
+
+    /**
+     * Pooled id generator strategy.
+     */
+    public static final String POOLED_ID_GENERATOR_STRATEGY = "org.hibernate.id.enhanced.SequenceStyleGenerator";
+
+    /**
+     * Sequence (or table, if the database has no sequences) of the pooled id generator. It is the one used by the
+     * former AUTO generation, so the new ids follow the existing ones.
+     */
+    public static final String POOLED_ID_SEQUENCE_NAME = "hibernate_sequence";
+
+    /**
+     * Number of ids reserved by each round trip to the sequence.
+     */
+    public static final String POOLED_ID_INCREMENT_SIZE = "50";
+
+    /**
+     * Optimizer of the pooled id generator, the value read from the sequence is the first id of the block.
+     */
+    public static final String POOLED_ID_OPTIMIZER = "pooled-lo";
 }
@@ -0,0 +1,89 @@
+package es.um.asio.service.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller computes the value and the callers that arrive
+ * while it is in flight wait for it and share the result (or the exception). Nothing is kept once the computation
+ * ends, so a later call with the same key computes again.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * Computations in flight by key.
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Number of calls that shared the result of another call.
+     */
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Returns the value for the key, computing it with the supplier unless an identical call is already in flight.
+     *
+     * @param key      the key
+     * @param supplier the computation
+     * @return the value
+     */
+    public V execute(final K key, final Supplier<V> supplier) {
+        final CompletableFuture<V> own = new CompletableFuture<>();
+        final CompletableFuture<V> running = this.inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            this.coalesced.incrementAndGet();
+            return join(running);
+        }
+        try {
+            final V value = supplier.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Gets the number of calls that shared the result of another call.
+     *
+     * @return the coalesced count
+     */
+    public long getCoalescedCount() {
+        return this.coalesced.get();
+    }
+
+    /**
+     * Gets the number of computations in flight.
+     *
+     * @return the in flight count
+     */
+    public int getInFlightCount() {
+        return this.inFlight.size();
+    }
+
+    private V join(final CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            final Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
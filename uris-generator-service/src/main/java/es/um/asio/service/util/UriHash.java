@@ -0,0 +1,72 @@
+package es.um.asio.service.util;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fixed width lookup key of a URI: the 64 bit FarmHash fingerprint of its UTF-8 bytes. The fingerprint is stable
+ * across versions and machines, so it can be stored and indexed instead of the URI. Different URIs may share a key, the
+ * lookups by key verify the URI of the candidates.
+ */
+public final class UriHash {
+
+    /**
+     * Fingerprint function.
+     */
+    private static final HashFunction FINGERPRINT = Hashing.farmHashFingerprint64();
+
+    private UriHash() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Gets the lookup key of a URI.
+     *
+     * @param uri the URI
+     * @return the key, null if the URI is null
+     */
+    public static Long of(final String uri) {
+        return uri == null ? null : FINGERPRINT.hashString(uri, StandardCharsets.UTF_8).asLong();
+    }
+
+    /**
+     * Gets the lookup keys of several URIs.
+     *
+     * @param uris the URIs
+     * @return the keys, without the null URIs
+     */
+    public static List<Long> of(final Collection<String> uris) {
+        final List<Long> hashes = new ArrayList<>(uris.size());
+        for (String uri : uris) {
+            if (uri != null) {
+                hashes.add(of(uri));
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Keeps the candidates found by key whose URI is the expected one.
+     *
+     * @param candidates the candidates
+     * @param uri        the function to get the URI of a candidate
+     * @param expected   the expected URI
+     * @param <T>        the type of the candidates
+     * @return the matching candidates
+     */
+    public static <T> List<T> verify(final Collection<T> candidates, final Function<T, String> uri, final String expected) {
+        final List<T> matching = new ArrayList<>(candidates.size());
+        for (T candidate : candidates) {
+            if (expected.equals(uri.apply(candidate))) {
+                matching.add(candidate);
+            }
+        }
+        return matching;
+    }
+}
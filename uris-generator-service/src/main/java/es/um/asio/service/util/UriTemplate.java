@@ -0,0 +1,398 @@
+package es.um.asio.service.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * URI schema (for example <code>http://$domain$/$sub-domain$/$type$/$concept$/$reference$</code>) compiled once into a
+ * program of literal and placeholder segments, so building a URI is a single pre-sized append pass instead of a
+ * regular expression for each placeholder.
+ * <p>
+ * Only schemas with each placeholder at most once, separated by literal text and with no other <code>$</code> can be
+ * compiled. For the rest {@link #isCompiled()} is false and they cannot be rendered, the configured schemas are
+ * checked when the application starts.
+ * <p>
+ * A compiled template also parses a URI back into the values of its placeholders with {@link #parse(String)}.
+ */
+public final class UriTemplate {
+
+    /**
+     * Maximum number of compiled schemas kept, in practice there are only the canonical and the language one.
+     */
+    private static final int MAX_CACHED = 64;
+
+    /**
+     * Compiled schemas.
+     */
+    private static final Map<String, UriTemplate> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Placeholders of a schema.
+     */
+    public enum Placeholder {
+        DOMAIN("$domain$"),
+        SUB_DOMAIN("$sub-domain$"),
+        LANGUAGE("$language$"),
+        TYPE("$type$"),
+        CONCEPT("$concept$"),
+        REFERENCE("$reference$");
+
+        private final String token;
+
+        Placeholder(final String token) {
+            this.token = token;
+        }
+
+        /**
+         * Gets the token of the placeholder in the schema.
+         *
+         * @return the token
+         */
+        public String getToken() {
+            return this.token;
+        }
+    }
+
+    /**
+     * The schema.
+     */
+    private final String schema;
+
+    /**
+     * Literal text before each placeholder, and after the last one.
+     */
+    private final String[] literals;
+
+    /**
+     * Placeholders in order of appearance.
+     */
+    private final Placeholder[] placeholders;
+
+    /**
+     * Length of all the literal text.
+     */
+    private final int literalLength;
+
+    /**
+     * Shapes a rendered URI can have, as literals and placeholders, from all the optional segments present to none.
+     */
+    private final Shape[] shapes;
+
+    private UriTemplate(final String schema, final String[] literals, final Placeholder[] placeholders) {
+        this.schema = schema;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        if (literals != null) {
+            for (String literal : literals) {
+                length += literal.length();
+            }
+        }
+        this.literalLength = length;
+        this.shapes = literals != null ? shapes(literals, placeholders) : null;
+    }
+
+    /**
+     * Gets the compiled program of a schema.
+     *
+     * @param schema the schema
+     * @return the template, not compiled if the schema has a shape the program does not cover
+     */
+    public static UriTemplate compile(final String schema) {
+        UriTemplate template = CACHE.get(schema);
+        if (template == null) {
+            template = parseSchema(schema);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.putIfAbsent(schema, template);
+            }
+        }
+        return template;
+    }
+
+    private static UriTemplate parseSchema(final String schema) {
+        final List<String> literals = new ArrayList<>();
+        final List<Placeholder> placeholders = new ArrayList<>();
+        int start = 0;
+        int i = 0;
+        while (i < schema.length()) {
+            final Placeholder placeholder = schema.charAt(i) == '$' ? placeholderAt(schema, i) : null;
+            if (placeholder == null) {
+                i++;
+                continue;
+            }
+            final String literal = schema.substring(start, i);
+            if (placeholders.contains(placeholder) || (!placeholders.isEmpty() && literal.isEmpty())
+                    || literal.indexOf('$') >= 0) {
+                return new UriTemplate(schema, null, null);
+            }
+            literals.add(literal);
+            placeholders.add(placeholder);
+            i += placeholder.getToken().length();
+            start = i;
+        }
+        final String tail = schema.substring(start);
+        if (tail.indexOf('$') >= 0) {
+            return new UriTemplate(schema, null, null);
+        }
+        literals.add(tail);
+        return new UriTemplate(schema, literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+    }
+
+    private static Placeholder placeholderAt(final String schema, final int index) {
+        for (Placeholder placeholder : Placeholder.values()) {
+            if (schema.startsWith(placeholder.getToken(), index)) {
+                return placeholder;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the schema could be compiled.
+     *
+     * @return true if the render methods can be used
+     */
+    public boolean isCompiled() {
+        return this.literals != null;
+    }
+
+    /**
+     * Gets the schema.
+     *
+     * @return the schema
+     */
+    public String getSchema() {
+        return this.schema;
+    }
+
+    /**
+     * Checks that none of the values has a <code>$</code> or a <code>\</code>, which the former replacement chain
+     * would have read as a placeholder or as a regular expression group reference.
+     *
+     * @param values the values by {@link Placeholder#ordinal()}
+     * @return true if the values can be rendered
+     */
+    public static boolean isRenderable(final String... values) {
+        for (String value : values) {
+            if (value != null && (value.indexOf('$') >= 0 || value.indexOf('\\') >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renders the URI of an entity. A null value leaves the placeholder as it is. An empty value is an absent
+     * optional segment: the sub-domain is removed together with the slash before it (and left as it is if there is
+     * no slash), the reference is removed with the slash before it if there is one. Then the first
+     * <code>///</code> is reduced to <code>//</code>. The values are copied as they are, <code>$</code> and
+     * <code>\</code> included.
+     *
+     * @param values the values by {@link Placeholder#ordinal()}
+     * @return the URI
+     * @throws IllegalArgumentException if the schema is not compiled
+     */
+    public String render(final String[] values) {
+        if (!isCompiled()) {
+            throw new IllegalArgumentException("URI schema can´t be compiled: " + this.schema);
+        }
+        final StringBuilder uri = new StringBuilder(capacity(values, 0));
+        uri.append(this.literals[0]);
+        for (int i = 0; i < this.placeholders.length; i++) {
+            final Placeholder placeholder = this.placeholders[i];
+            final String value = values[placeholder.ordinal()];
+            if (value == null) {
+                uri.append(placeholder.getToken());
+            } else if (!value.isEmpty()) {
+                uri.append(value);
+            } else if (placeholder == Placeholder.SUB_DOMAIN) {
+                if (endsWithSlash(uri)) {
+                    uri.setLength(uri.length() - 1);
+                } else {
+                    uri.append(placeholder.getToken());
+                }
+            } else if (placeholder == Placeholder.REFERENCE && endsWithSlash(uri)) {
+                uri.setLength(uri.length() - 1);
+            }
+            uri.append(this.literals[i + 1]);
+        }
+        final int slashes = uri.indexOf("///");
+        if (slashes >= 0) {
+            uri.deleteCharAt(slashes);
+        }
+        return uri.toString();
+    }
+
+    /**
+     * Renders a URI as the schema service builds it: a null value leaves the placeholder as it is and any other value
+     * replaces it, then every <code>//</code> is reduced to <code>/</code> and the protocol is prepended.
+     *
+     * @param protocol the protocol, removed from the schema before compiling it
+     * @param values   the values by {@link Placeholder#ordinal()}
+     * @return the URI
+     */
+    public String renderWithProtocol(final String protocol, final String[] values) {
+        final StringBuilder uri = new StringBuilder(capacity(values, protocol.length()));
+        uri.append(protocol);
+        final int start = uri.length();
+        uri.append(this.literals[0]);
+        for (int i = 0; i < this.placeholders.length; i++) {
+            final Placeholder placeholder = this.placeholders[i];
+            final String value = values[placeholder.ordinal()];
+            uri.append(value == null ? placeholder.getToken() : value);
+            uri.append(this.literals[i + 1]);
+        }
+        // same as String.replace("//", "/") on the part after the protocol
+        int write = start;
+        for (int read = start; read < uri.length(); read++) {
+            final char c = uri.charAt(read);
+            uri.setCharAt(write++, c);
+            if (c == '/' && read + 1 < uri.length() && uri.charAt(read + 1) == '/') {
+                read++;
+            }
+        }
+        uri.setLength(write);
+        return uri.toString();
+    }
+
+    /**
+     * Parses a URI rendered by {@link #render(String[])} back into the values of the placeholders, in a single scan
+     * for each shape the URI can have (the sub-domain and the reference are optional). A value never has the last
+     * character of the literal before it, usually the <code>/</code> separator.
+     * <p>
+     * A URI that matches more than one shape is not parsed: with both separated by <code>/</code>, a URI without
+     * sub-domain and with reference has the same segments as one with sub-domain and without reference. Use
+     * {@link #parseAll(String)} to choose between them.
+     *
+     * @param uri the URI
+     * @return the values by {@link Placeholder#ordinal()}, null for placeholders not in the URI, or null if the URI
+     * does not match the schema, matches it in more than one way or the schema is not compiled
+     */
+    public String[] parse(final String uri) {
+        final List<String[]> parsed = parseAll(uri);
+        return parsed.size() == 1 ? parsed.get(0) : null;
+    }
+
+    /**
+     * Parses a URI as {@link #parse(String)} does, with the values of each shape the URI matches.
+     *
+     * @param uri the URI
+     * @return the values by {@link Placeholder#ordinal()} of each shape, from all the optional segments present to
+     * none, empty if the URI does not match the schema or the schema is not compiled
+     */
+    public List<String[]> parseAll(final String uri) {
+        if (uri == null || this.shapes == null) {
+            return Collections.emptyList();
+        }
+        final List<String[]> parsed = new ArrayList<>(2);
+        for (Shape shape : this.shapes) {
+            final String[] values = shape.match(uri);
+            if (values != null) {
+                parsed.add(values);
+            }
+        }
+        return parsed;
+    }
+
+    private static Shape[] shapes(final String[] literals, final Placeholder[] placeholders) {
+        // optional placeholders, the reference is dropped before the sub-domain
+        final List<Integer> optionals = new ArrayList<>();
+        for (Placeholder optional : new Placeholder[] { Placeholder.REFERENCE, Placeholder.SUB_DOMAIN }) {
+            for (int i = 0; i < placeholders.length; i++) {
+                if (placeholders[i] == optional && (optional == Placeholder.REFERENCE || literals[i].endsWith("/"))) {
+                    optionals.add(i);
+                }
+            }
+        }
+        final Shape[] shapes = new Shape[1 << optionals.size()];
+        for (int mask = 0; mask < shapes.length; mask++) {
+            final List<String> shapeLiterals = new ArrayList<>();
+            final List<Placeholder> shapePlaceholders = new ArrayList<>();
+            String literal = literals[0];
+            for (int i = 0; i < placeholders.length; i++) {
+                final int optional = optionals.indexOf(i);
+                if (optional >= 0 && (mask & (1 << optional)) != 0) {
+                    literal = (literal.endsWith("/") ? literal.substring(0, literal.length() - 1) : literal)
+                            + literals[i + 1];
+                } else {
+                    shapeLiterals.add(literal);
+                    shapePlaceholders.add(placeholders[i]);
+                    literal = literals[i + 1];
+                }
+            }
+            shapeLiterals.add(literal);
+            shapes[mask] = new Shape(shapeLiterals.toArray(new String[0]), shapePlaceholders.toArray(new Placeholder[0]));
+        }
+        return shapes;
+    }
+
+    private int capacity(final String[] values, final int extra) {
+        int capacity = this.literalLength + extra;
+        for (Placeholder placeholder : this.placeholders) {
+            final String value = values[placeholder.ordinal()];
+            capacity += value == null ? placeholder.getToken().length() : value.length();
+        }
+        return capacity;
+    }
+
+    private static boolean endsWithSlash(final StringBuilder uri) {
+        return uri.length() > 0 && uri.charAt(uri.length() - 1) == '/';
+    }
+
+    /**
+     * One shape of a rendered URI.
+     */
+    private static final class Shape {
+
+        private final String[] literals;
+
+        private final Placeholder[] placeholders;
+
+        private Shape(final String[] literals, final Placeholder[] placeholders) {
+            this.literals = literals;
+            this.placeholders = placeholders;
+        }
+
+        private String[] match(final String uri) {
+            if (!uri.startsWith(this.literals[0])) {
+                return null;
+            }
+            if (this.placeholders.length == 0) {
+                return uri.length() == this.literals[0].length() ? new String[Placeholder.values().length] : null;
+            }
+            final String[] values = new String[Placeholder.values().length];
+            int position = this.literals[0].length();
+            for (int i = 0; i < this.placeholders.length; i++) {
+                final String next = this.literals[i + 1];
+                final int end;
+                if (i == this.placeholders.length - 1) {
+                    end = uri.endsWith(next) ? uri.length() - next.length() : -1;
+                } else {
+                    end = uri.indexOf(next, position);
+                }
+                if (end <= position) {
+                    return null;
+                }
+                final String previous = this.literals[i];
+                if (!previous.isEmpty() && contains(uri, previous.charAt(previous.length() - 1), position, end)) {
+                    return null;
+                }
+                values[this.placeholders[i].ordinal()] = uri.substring(position, end);
+                position = end + next.length();
+            }
+            return values;
+        }
+
+        private static boolean contains(final String uri, final char c, final int from, final int to) {
+            for (int i = from; i < to; i++) {
+                if (uri.charAt(i) == c) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
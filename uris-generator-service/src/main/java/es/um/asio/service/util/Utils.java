@@ -38,6 +38,10 @@ public class Utils {
         return  !(s==null || s.equals("") || s.trim().toLowerCase().equals("null"));
     }
 
+    /**
+     * Legacy reference of an object: name based UUID of the SHA-1 of its hash code. Kept to reproduce the references
+     * minted with it, new references use {@link ContentHash}.
+     */
     public static String generateUUIDFromOject(Object o) throws NoSuchAlgorithmException {
         String hash = Integer.toString(o.hashCode());
         MessageDigest sha = null;
@@ -0,0 +1,120 @@
+package es.um.asio.service.benchmark;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import es.um.asio.service.config.DiscoveryConfig;
+import es.um.asio.service.discovery.DiscoveryBatcher;
+import es.um.asio.service.discovery.DiscoveryClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares one request for each instance with the batches of {@link DiscoveryBatcher}, with many threads asking for
+ * the similar entity of a small set of instances to a stub of the discovery library that takes 5 ms to answer.
+ * <p>
+ * It is not run with the tests, launch the main method with the test classpath of the module (for example from the
+ * IDE) after <code>mvn test-compile</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(1)
+public class DiscoveryBatcherBenchmark {
+
+    private static final String ENDPOINT = "/discovery/entity-link/instance";
+
+    private static final byte[] RESPONSE = "{\"response\":{\"results\":[{\"automatics\":[{\"entityId\":\"1\"}]}]}}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final Map<String, Object> ATTRS = Collections.singletonMap("name", "Universidad de Murcia");
+
+    /**
+     * Batch window in milliseconds, 0 sends each request on its own.
+     */
+    @Param({ "0", "2" })
+    public long batchWindow;
+
+    private HttpServer server;
+
+    private DiscoveryClient client;
+
+    private DiscoveryBatcher batcher;
+
+    @Setup
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext(ENDPOINT, DiscoveryBatcherBenchmark::handle);
+        this.server.setExecutor(Executors.newFixedThreadPool(8));
+        this.server.start();
+        final DiscoveryConfig config = new DiscoveryConfig();
+        config.setHost("http://localhost");
+        config.setPort(String.valueOf(this.server.getAddress().getPort()));
+        config.setEndPoint(ENDPOINT);
+        config.setBatchWindow(this.batchWindow);
+        this.client = new DiscoveryClient(config);
+        this.batcher = new DiscoveryBatcher(config, this.client);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.batcher.shutdown();
+        this.server.stop(0);
+    }
+
+    private static void handle(final HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(200, RESPONSE.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(RESPONSE);
+        }
+    }
+
+    @Benchmark
+    public ObjectNode findSimilarEntity() throws IOException, InterruptedException, ExecutionException {
+        final String entityId = String.valueOf(ThreadLocalRandom.current().nextInt(8));
+        if (this.batcher.isEnabled()) {
+            return this.batcher.submit("um", "trellis", "Universidad", entityId, ATTRS).get();
+        }
+        return this.client.findFirstResult("um", "trellis", "Universidad", entityId, ATTRS);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder().include(DiscoveryBatcherBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
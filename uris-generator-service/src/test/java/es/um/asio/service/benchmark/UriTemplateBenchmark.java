@@ -0,0 +1,108 @@
+package es.um.asio.service.benchmark;
+
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.util.UriTemplate;
+import es.um.asio.service.util.UriTemplate.Placeholder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the replacement chain used to build the URIs with the compiled {@link UriTemplate}.
+ * <p>
+ * It is not run with the tests, launch the main method with the test classpath of the module (for example from the
+ * IDE) after <code>mvn test-compile</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UriTemplateBenchmark {
+
+    private static final String CANONICAL_SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String DOMAIN = "hercules.org";
+
+    private static final String SUB_DOMAIN = "um";
+
+    private static final String TYPE = "res";
+
+    private static final String CONCEPT = "UniversidadDeMurcia";
+
+    private static final String REFERENCE = "0f8fad5b-d9cb-469f-a165-70867728950e";
+
+    private CanonicalURI canonicalURI;
+
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        this.canonicalURI = new CanonicalURI(DOMAIN, SUB_DOMAIN, new Type(TYPE, "recurso"), CONCEPT, REFERENCE, null,
+                CANONICAL_SCHEMA);
+        this.values = new String[Placeholder.values().length];
+        this.values[Placeholder.DOMAIN.ordinal()] = DOMAIN;
+        this.values[Placeholder.SUB_DOMAIN.ordinal()] = SUB_DOMAIN;
+        this.values[Placeholder.TYPE.ordinal()] = TYPE;
+        this.values[Placeholder.CONCEPT.ordinal()] = CONCEPT;
+        this.values[Placeholder.REFERENCE.ordinal()] = REFERENCE;
+    }
+
+    @Benchmark
+    public String entityReplacementChain() {
+        String uri = CANONICAL_SCHEMA.replaceFirst("\\$domain\\$", DOMAIN);
+        uri = uri.replaceFirst("\\$sub-domain\\$", SUB_DOMAIN);
+        uri = uri.replaceFirst("\\$type\\$", TYPE);
+        uri = uri.replaceFirst("\\$concept\\$", CONCEPT);
+        uri = uri.replaceFirst("\\$reference\\$", REFERENCE);
+        return uri.replaceFirst("///", "//");
+    }
+
+    @Benchmark
+    public String entityCompiled() {
+        this.canonicalURI.generateFullURL(CANONICAL_SCHEMA);
+        return this.canonicalURI.getFullURI();
+    }
+
+    @Benchmark
+    public String schemaReplacementChain() {
+        Matcher matcher = Pattern.compile("(https?://)([^:^/]*)(:\\d*)?(.*)?").matcher(CANONICAL_SCHEMA);
+        matcher.find();
+        String protocol = matcher.group(1);
+        String url = CANONICAL_SCHEMA.replace(protocol, "");
+        url = url.replace("$domain$", DOMAIN);
+        url = url.replace("$sub-domain$", SUB_DOMAIN);
+        url = url.replace("$type$", TYPE);
+        url = url.replace("$concept$", CONCEPT);
+        url = url.replace("$reference$", REFERENCE);
+        return protocol + url.replace("//", "/");
+    }
+
+    @Benchmark
+    public String schemaCompiled() {
+        return UriTemplate.compile("$domain$/$sub-domain$/$type$/$concept$/$reference$")
+                .renderWithProtocol("http://", this.values);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(UriTemplateBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
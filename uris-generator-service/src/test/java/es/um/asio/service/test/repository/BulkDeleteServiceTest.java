@@ -0,0 +1,157 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.cache.CanonicalURILanguageCache;
+import es.um.asio.service.cache.LocalURICache;
+import es.um.asio.service.dto.BulkDeleteCriteria;
+import es.um.asio.service.dto.BulkDeleteJob;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LanguageRepository;
+import es.um.asio.service.repository.LanguageTypeRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.repository.TypeRepository;
+import es.um.asio.service.service.BulkDeleteService;
+import es.um.asio.service.service.impl.BulkDeleteServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link BulkDeleteService} on an embedded H2 database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { RepositoryTestApplication.class, BulkDeleteServiceImpl.class, LocalURICache.class,
+        CanonicalURILanguageCache.class }, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:bulkdelete;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.cache.embedded.enabled=false",
+        "app.delete.chunk-size=2" })
+public class BulkDeleteServiceTest {
+
+    private static final String SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String LANGUAGE_SCHEMA = "http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$";
+
+    private static final String[] LANGUAGES = { "es-ES", "en-EN" };
+
+    @Autowired
+    private BulkDeleteService service;
+
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private LanguageRepository languageRepository;
+
+    @Autowired
+    private LanguageTypeRepository languageTypeRepository;
+
+    @Before
+    public void setUp() {
+        this.localURIRepository.deleteAll();
+        this.canonicalURILanguageRepository.deleteAll();
+        this.canonicalURIRepository.deleteAll();
+        final Type type = this.typeRepository.save(new Type("res", "resource"));
+        final LanguageType[] languageTypes = new LanguageType[LANGUAGES.length];
+        for (int i = 0; i < LANGUAGES.length; i++) {
+            final Language language = this.languageRepository.save(
+                    new Language(LANGUAGES[i], LANGUAGES[i], "hercules.org", "um", "res", "Persona", "1", i == 0));
+            languageTypes[i] = this.languageTypeRepository.save(new LanguageType(language, type, "re" + i, "recurso"));
+        }
+        for (String entity : new String[] { "Persona", "Proyecto" }) {
+            for (String reference : new String[] { null, "1", "2", "3", "4" }) {
+                final CanonicalURI cu = new CanonicalURI("hercules.org", "um", type, entity, reference, null, SCHEMA);
+                if (reference == null) {
+                    cu.setIsEntity(true);
+                } else {
+                    cu.setIsInstance(true);
+                }
+                cu.generateFullURL(SCHEMA);
+                this.canonicalURIRepository.save(cu);
+                for (LanguageType languageType : languageTypes) {
+                    final CanonicalURILanguage cul = new CanonicalURILanguage("hercules.org", "um", languageType,
+                            entity, reference, null, LANGUAGE_SCHEMA);
+                    cul.setCanonicalURI(cu);
+                    cul.generateFullURL(LANGUAGE_SCHEMA);
+                    this.canonicalURILanguageRepository.save(cul);
+                    final LocalURI localURI = new LocalURI("http://trellis/" + cul.getFullURI(), cul, null);
+                    localURI.setStorageTypeStr("trellis");
+                    this.localURIRepository.save(localURI);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void deleteCanonicalURIsDeletesTheirChildrenInChunks() {
+        final BulkDeleteJob job = this.service.deleteCanonicalURIs(BulkDeleteCriteria.byEntityName("Persona", false),
+                false);
+
+        assertThat(job.getStatus()).isEqualTo(BulkDeleteJob.Status.DONE);
+        assertThat(job.getCanonicalURIs()).isEqualTo(5);
+        assertThat(job.getCanonicalURILanguages()).isEqualTo(10);
+        assertThat(job.getLocalURIs()).isEqualTo(10);
+        assertThat(job.getChunks()).isEqualTo(3);
+        assertThat(this.canonicalURIRepository.findAll()).extracting(CanonicalURI::getEntityName)
+                .containsOnly("Proyecto");
+        assertThat(this.canonicalURILanguageRepository.count()).isEqualTo(10);
+        assertThat(this.localURIRepository.count()).isEqualTo(10);
+        assertThat(this.service.getJob(job.getId())).contains(job);
+    }
+
+    @Test
+    public void deleteCanonicalURILanguagesOfAnInstance() {
+        final BulkDeleteJob job = this.service.deleteCanonicalURILanguages(
+                BulkDeleteCriteria.byReference("Proyecto", "2"), false);
+
+        assertThat(job.getStatus()).isEqualTo(BulkDeleteJob.Status.DONE);
+        assertThat(job.getCanonicalURIs()).isZero();
+        assertThat(job.getCanonicalURILanguages()).isEqualTo(2);
+        assertThat(job.getLocalURIs()).isEqualTo(2);
+        assertThat(this.canonicalURIRepository.count()).isEqualTo(10);
+        assertThat(this.canonicalURILanguageRepository.count()).isEqualTo(18);
+        assertThat(this.localURIRepository.count()).isEqualTo(18);
+    }
+
+    @Test
+    public void deleteInBackground() throws InterruptedException {
+        final BulkDeleteJob job = this.service.deleteCanonicalURIs(BulkDeleteCriteria.byEntityName("Persona", true),
+                true);
+
+        for (int i = 0; i < 100 && job.getStatus() == BulkDeleteJob.Status.RUNNING; i++) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertThat(job.getStatus()).isEqualTo(BulkDeleteJob.Status.DONE);
+        assertThat(job.getCanonicalURIs()).isEqualTo(1);
+        assertThat(job.getLocalURIs()).isEqualTo(2);
+        assertThat(this.canonicalURIRepository.count()).isEqualTo(9);
+    }
+}
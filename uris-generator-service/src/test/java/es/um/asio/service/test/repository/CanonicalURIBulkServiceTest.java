@@ -0,0 +1,128 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.config.SchemaConfig;
+import es.um.asio.service.dto.InstanceURIRequest;
+import es.um.asio.service.dto.InstanceURIResult;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LanguageRepository;
+import es.um.asio.service.repository.LanguageTypeRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.repository.TypeRepository;
+import es.um.asio.service.service.CanonicalURIBulkService;
+import es.um.asio.service.service.impl.CanonicalURIBulkServiceImpl;
+import es.um.asio.service.service.impl.SchemaServiceImpl;
+import es.um.asio.service.service.impl.UriHashBackfillServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link CanonicalURIBulkService} on an embedded H2 database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { RepositoryTestApplication.class, SchemaConfig.class, SchemaServiceImpl.class,
+        CanonicalURIBulkServiceImpl.class, UriHashBackfillServiceImpl.class }, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:canonicalbulk;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.cache.embedded.enabled=false",
+        "app.uri.canonicalURISchema=http://$domain$/$sub-domain$/$type$/$concept$/$reference$",
+        "app.uri.canonicalURILanguageSchema=http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$" })
+public class CanonicalURIBulkServiceTest {
+
+    @Autowired
+    private CanonicalURIBulkService service;
+
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private LanguageRepository languageRepository;
+
+    @Autowired
+    private LanguageTypeRepository languageTypeRepository;
+
+    private Type type;
+
+    private LanguageType languageType;
+
+    @Before
+    public void setUp() {
+        this.localURIRepository.deleteAll();
+        this.canonicalURILanguageRepository.deleteAll();
+        this.canonicalURIRepository.deleteAll();
+        this.languageTypeRepository.deleteAll();
+        this.type = this.typeRepository.save(new Type("res", "recurso"));
+        final Language language = this.languageRepository.save(
+                new Language("es-ES", "Español", "hercules.org", "um", "res", "Persona", "1", true));
+        this.languageType = this.languageTypeRepository.save(new LanguageType(language, this.type, "rec", "recurso"));
+    }
+
+    private List<InstanceURIResult> save(final List<InstanceURIRequest> requests) {
+        return this.service.saveInstances("hercules.org", "um", this.type, this.languageType, requests);
+    }
+
+    @Test
+    public void resultsKeepTheOrderOfTheInputAndReportErrorsByInstance() {
+        final List<InstanceURIResult> results = save(Arrays.asList(
+                new InstanceURIRequest("Persona", "Person", "1", "local-1"),
+                new InstanceURIRequest(null, null, "2", null),
+                new InstanceURIRequest("Proyecto", null, "3", null),
+                new InstanceURIRequest("Persona", "Person", "1", "local-1")));
+
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).getCanonicalURI()).isEqualTo("http://hercules.org/um/res/Person/1");
+        assertThat(results.get(0).getCanonicalLanguageURI()).isEqualTo("http://hercules.org/um/es-ES/rec/Persona/1");
+        assertThat(results.get(1).getError()).isNotNull();
+        assertThat(results.get(1).getCanonicalURI()).isNull();
+        assertThat(results.get(2).getCanonicalURI()).isEqualTo("http://hercules.org/um/res/Proyecto/3");
+        assertThat(results.get(2).getCanonicalLanguageURI()).isEqualTo("http://hercules.org/um/es-ES/rec/Proyecto/3");
+        assertThat(results.get(3).getCanonicalLanguageURI()).isEqualTo(results.get(0).getCanonicalLanguageURI());
+        assertThat(this.canonicalURIRepository.count()).isEqualTo(2);
+        assertThat(this.canonicalURILanguageRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void existingURIsAreFoundAndNotInsertedAgain() {
+        // more instances than an IN query takes
+        final List<InstanceURIRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            requests.add(new InstanceURIRequest("Persona", null, String.valueOf(i), null));
+        }
+        final List<InstanceURIResult> first = save(requests);
+        requests.add(new InstanceURIRequest("Persona", null, "600", null));
+        final List<InstanceURIResult> second = save(requests);
+
+        assertThat(second.subList(0, 600)).usingFieldByFieldElementComparator().containsExactlyElementsOf(first);
+        assertThat(second.get(600).getCanonicalLanguageURI()).isEqualTo("http://hercules.org/um/es-ES/rec/Persona/600");
+        assertThat(this.canonicalURIRepository.count()).isEqualTo(601);
+        assertThat(this.canonicalURILanguageRepository.count()).isEqualTo(601);
+    }
+}
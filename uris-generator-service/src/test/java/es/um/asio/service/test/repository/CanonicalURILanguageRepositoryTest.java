@@ -0,0 +1,112 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.dto.CanonicalURILanguageView;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LanguageRepository;
+import es.um.asio.service.repository.LanguageTypeRepository;
+import es.um.asio.service.repository.TypeRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the queries of {@link CanonicalURILanguageRepository} on an embedded H2 database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = RepositoryTestApplication.class, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:canonicalurilanguage;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.persistence.jpa.properties.hibernate.generate_statistics=true",
+        "app.cache.embedded.enabled=false" })
+public class CanonicalURILanguageRepositoryTest {
+
+    private static final String SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String LANGUAGE_SCHEMA = "http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$";
+
+    private static final String[] LANGUAGES = { "es-ES", "en-EN", "fr-FR", "de-DE", "it-IT" };
+
+    @Autowired
+    private CanonicalURILanguageRepository repository;
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private LanguageRepository languageRepository;
+
+    @Autowired
+    private LanguageTypeRepository languageTypeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String canonicalURI;
+
+    @Before
+    public void setUp() {
+        this.repository.deleteAll();
+        this.canonicalURIRepository.deleteAll();
+        final Type type = this.typeRepository.save(new Type("res", "resource"));
+        final CanonicalURI cu = new CanonicalURI("hercules.org", "um", type, "Persona", "1", null, SCHEMA);
+        cu.generateFullURL(SCHEMA);
+        this.canonicalURI = this.canonicalURIRepository.save(cu).getFullURI();
+        for (int i = 0; i < LANGUAGES.length; i++) {
+            final Language language = this.languageRepository.save(
+                    new Language(LANGUAGES[i], LANGUAGES[i], "hercules.org", "um", "res", "Persona", "1", i == 0));
+            final LanguageType languageType = this.languageTypeRepository.save(
+                    new LanguageType(language, type, "re" + i, "recurso"));
+            final CanonicalURILanguage cul = new CanonicalURILanguage("hercules.org", "um", languageType, "Persona", "1",
+                    null, LANGUAGE_SCHEMA);
+            cul.setCanonicalURI(cu);
+            cul.generateFullURL(LANGUAGE_SCHEMA);
+            this.repository.save(cul);
+        }
+    }
+
+    @Test
+    public void findViewsByCanonicalURIRunsOneStatement() {
+        final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final List<CanonicalURILanguageView> views = this.repository.findViewsByCanonicalURI(this.canonicalURI);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(views).hasSize(LANGUAGES.length);
+        assertThat(views).extracting(CanonicalURILanguageView::getCanonicalURI).containsOnly(this.canonicalURI);
+        assertThat(views).extracting(CanonicalURILanguageView::getLanguageIso).containsExactly(LANGUAGES);
+        assertThat(views).filteredOn(CanonicalURILanguageView::isDefault).extracting(
+                CanonicalURILanguageView::getLanguageIso).containsExactly(LANGUAGES[0]);
+        assertThat(views.get(1).getCanonicalURILanguage()).contains("/en-EN/");
+    }
+
+    @Test
+    public void findViewsByCanonicalURIWithoutMatch() {
+        assertThat(this.repository.findViewsByCanonicalURI(this.canonicalURI + "-missing")).isEmpty();
+    }
+}
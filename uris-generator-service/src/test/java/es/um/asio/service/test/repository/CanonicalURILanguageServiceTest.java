@@ -0,0 +1,136 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.cache.CanonicalURILanguageCache;
+import es.um.asio.service.cache.LocalURICache;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LanguageRepository;
+import es.um.asio.service.repository.LanguageTypeRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.repository.TypeRepository;
+import es.um.asio.service.service.CanonicalURILanguageService;
+import es.um.asio.service.service.impl.CanonicalURILanguageServiceImpl;
+import es.um.asio.service.service.impl.KeysetSliceQuery;
+import es.um.asio.service.service.impl.UriHashBackfillServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the lookups by full URI of {@link CanonicalURILanguageService} through the
+ * {@link CanonicalURILanguageCache}, on an embedded H2 database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { RepositoryTestApplication.class, CanonicalURILanguageServiceImpl.class,
+        KeysetSliceQuery.class, CanonicalURILanguageCache.class, LocalURICache.class,
+        UriHashBackfillServiceImpl.class }, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:canonicalurilanguageservice;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.cache.embedded.enabled=false",
+        "app.uri-hash.backfill.enabled=false" })
+public class CanonicalURILanguageServiceTest {
+
+    private static final String SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String LANGUAGE_SCHEMA = "http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$";
+
+    @Autowired
+    private CanonicalURILanguageService service;
+
+    @Autowired
+    private CanonicalURILanguageCache cache;
+
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    @Autowired
+    private CanonicalURILanguageRepository repository;
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private LanguageRepository languageRepository;
+
+    @Autowired
+    private LanguageTypeRepository languageTypeRepository;
+
+    private String fullURI;
+
+    @Before
+    public void setUp() {
+        this.localURIRepository.deleteAll();
+        this.repository.deleteAll();
+        this.canonicalURIRepository.deleteAll();
+        this.languageTypeRepository.deleteAll();
+        this.cache.invalidateAll();
+        final Type type = this.typeRepository.save(new Type("res", "recurso"));
+        final Language language = this.languageRepository.save(
+                new Language("es-ES", "Espa\u00f1ol", "hercules.org", "um", "res", "Persona", "1", true));
+        final LanguageType languageType = this.languageTypeRepository.save(new LanguageType(language, type, "rec", "recurso"));
+        final CanonicalURI cu = new CanonicalURI("hercules.org", "um", type, "Persona", "1", null, SCHEMA);
+        cu.generateFullURL(SCHEMA);
+        this.canonicalURIRepository.save(cu);
+        final CanonicalURILanguage cul = new CanonicalURILanguage("hercules.org", "um", languageType, "Persona", "1",
+                null, LANGUAGE_SCHEMA);
+        cul.setCanonicalURI(cu);
+        cul.generateFullURL(LANGUAGE_SCHEMA);
+        this.fullURI = this.repository.save(cul).getFullURI();
+    }
+
+    @Test
+    public void everyLookupGetsItsOwnInstance() {
+        final CanonicalURILanguage first = this.service.getAllByFullURI(this.fullURI);
+        ReflectionTestUtils.setField(first, "entityName", "Changed");
+
+        final CanonicalURILanguage second = this.service.getAllByFullURI(this.fullURI);
+
+        assertThat(this.cache.getHitCount()).isEqualTo(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(second.getEntityName()).isEqualTo("Persona");
+    }
+
+    @Test
+    public void findByFullURIGoesToTheDatabase() {
+        final CanonicalURILanguage cached = this.service.getAllByFullURI(this.fullURI);
+        final long hits = this.cache.getHitCount();
+        final long misses = this.cache.getMissCount();
+
+        final CanonicalURILanguage found = this.service.findByFullURI(this.fullURI);
+
+        assertThat(found).isNotSameAs(cached);
+        assertThat(found.getId()).isEqualTo(cached.getId());
+        assertThat(this.cache.getHitCount()).isEqualTo(hits);
+        assertThat(this.cache.getMissCount()).isEqualTo(misses);
+    }
+
+    @Test
+    public void deletedEntitiesAreNotFoundThroughTheCache() {
+        this.service.getAllByFullURI(this.fullURI);
+        // deleted without the service, as another node would
+        this.repository.deleteAll();
+
+        assertThat(this.service.getAllByFullURI(this.fullURI)).isNull();
+    }
+}
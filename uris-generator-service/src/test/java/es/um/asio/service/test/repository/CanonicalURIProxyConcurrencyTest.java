@@ -0,0 +1,166 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.cache.CanonicalURILanguageCache;
+import es.um.asio.service.cache.LocalURICache;
+import es.um.asio.service.config.SchemaConfig;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.proxy.CanonicalURIProxy;
+import es.um.asio.service.proxy.impl.CanonicalURIProxyImpl;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.repository.TypeRepository;
+import es.um.asio.service.service.CanonicalURIService;
+import es.um.asio.service.service.SchemaService;
+import es.um.asio.service.service.impl.CanonicalURIServiceImpl;
+import es.um.asio.service.service.impl.KeysetSliceQuery;
+import es.um.asio.service.service.impl.SchemaServiceImpl;
+import es.um.asio.service.service.impl.UriHashBackfillServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Tests of the concurrent creation of the same canonical URI through {@link CanonicalURIProxy}, on an embedded H2
+ * database. A second proxy instance, with its own locks, stands for another node.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { RepositoryTestApplication.class, SchemaConfig.class, SchemaServiceImpl.class,
+        CanonicalURIProxyImpl.class, CanonicalURIServiceImpl.class, KeysetSliceQuery.class,
+        CanonicalURILanguageCache.class, LocalURICache.class, UriHashBackfillServiceImpl.class }, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:canonicalproxy;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.cache.embedded.enabled=false",
+        "app.uri.canonicalURISchema=http://$domain$/$sub-domain$/$type$/$concept$/$reference$",
+        "app.uri.canonicalURILanguageSchema=http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$" })
+public class CanonicalURIProxyConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private CanonicalURIProxy proxy;
+
+    @Autowired
+    private CanonicalURIService service;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    private Type type;
+
+    @Before
+    public void setUp() {
+        this.localURIRepository.deleteAll();
+        this.canonicalURILanguageRepository.deleteAll();
+        this.canonicalURIRepository.deleteAll();
+        this.type = this.typeRepository.save(new Type("res", "recurso"));
+    }
+
+    private CanonicalURI payload() {
+        return new CanonicalURI("hercules.org", "um", this.type, "Persona", "1");
+    }
+
+    private CanonicalURIProxyImpl otherNode(final CanonicalURIService service) {
+        final CanonicalURIProxyImpl other = new CanonicalURIProxyImpl();
+        ReflectionTestUtils.setField(other, "service", service);
+        ReflectionTestUtils.setField(other, "schemaService", this.schemaService);
+        return other;
+    }
+
+    @Test
+    public void concurrentIdenticalSavesStoreOneRow() throws Exception {
+        final CanonicalURIProxy[] nodes = { this.proxy, otherNode(this.service) };
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<CanonicalURI>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final CanonicalURIProxy node = nodes[i % nodes.length];
+                futures.add(pool.submit((Callable<CanonicalURI>) () -> {
+                    start.await();
+                    return node.save(payload());
+                }));
+            }
+            start.countDown();
+            final Set<String> fullURIs = ConcurrentHashMap.newKeySet();
+            for (Future<CanonicalURI> future : futures) {
+                fullURIs.add(future.get(30, TimeUnit.SECONDS).getFullURI());
+            }
+
+            assertThat(fullURIs).containsExactly("http://hercules.org/um/res/Persona/1");
+            assertThat(this.canonicalURIRepository.count()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void conflictingInsertReloadsTheStoredRow() {
+        final CanonicalURI stored = this.proxy.save(payload());
+        // the other node does not see the row in its lookup, as if it had been inserted just after it
+        final CanonicalURIService late = Mockito.mock(CanonicalURIService.class,
+                AdditionalAnswers.delegatesTo(this.service));
+        Mockito.doReturn(Collections.emptyList()).when(late).getAllByCanonicalURI(any());
+
+        final CanonicalURI saved = otherNode(late).save(payload());
+
+        assertThat(saved.getId()).isEqualTo(stored.getId());
+        assertThat(saved.getFullURI()).isEqualTo(stored.getFullURI());
+        assertThat(this.canonicalURIRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void saveInsideAnOuterTransactionIsRefused() {
+        final TransactionTemplate template = new TransactionTemplate(this.transactionManager);
+
+        assertThatThrownBy(() -> template.execute(status -> this.proxy.save(payload())))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(this.canonicalURIRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,116 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.dto.KeysetSlice;
+import es.um.asio.service.filter.CanonicalURIFilter;
+import es.um.asio.service.filter.SearchCriteria;
+import es.um.asio.service.filter.SearchOperation;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.repository.TypeRepository;
+import es.um.asio.service.service.impl.KeysetSliceQuery;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests of {@link KeysetSliceQuery} on an embedded H2 database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { RepositoryTestApplication.class, KeysetSliceQuery.class }, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.cache.embedded.enabled=false" })
+public class KeysetSliceQueryTest {
+
+    private static final String SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    @Autowired
+    private KeysetSliceQuery keysetSliceQuery;
+
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Before
+    public void setUp() {
+        this.localURIRepository.deleteAll();
+        this.canonicalURILanguageRepository.deleteAll();
+        this.canonicalURIRepository.deleteAll();
+        final Type type = this.typeRepository.save(new Type("res", "resource"));
+        for (String entity : new String[] { "Persona", "Proyecto" }) {
+            for (int i = 0; i < 5; i++) {
+                final CanonicalURI cu = new CanonicalURI("hercules.org", "um", type, entity, String.valueOf(i), null,
+                        SCHEMA);
+                cu.setIsInstance(true);
+                cu.setEntityName(entity);
+                cu.generateFullURL(SCHEMA);
+                this.canonicalURIRepository.save(cu);
+            }
+        }
+    }
+
+    @Test
+    public void slicesCoverEveryRowOnceInOrder() {
+        final List<Long> ids = new ArrayList<>();
+        String token = null;
+        int slices = 0;
+        do {
+            final KeysetSlice<CanonicalURI> slice = this.keysetSliceQuery.findSlice(CanonicalURI.class, null,
+                    token, 3, CanonicalURI::getId);
+            slice.forEach(cu -> ids.add(cu.getId()));
+            token = slice.getContinuationToken();
+            assertThat(slice.hasNext()).isEqualTo(token != null);
+            slices++;
+        } while (token != null);
+
+        assertThat(slices).isEqualTo(4);
+        assertThat(ids).hasSize(10).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    public void slicesApplyTheFilter() {
+        final CanonicalURIFilter filter = new CanonicalURIFilter();
+        filter.add(new SearchCriteria("entityName", "Proyecto", SearchOperation.EQUAL));
+
+        final KeysetSlice<CanonicalURI> first = this.keysetSliceQuery.findSlice(CanonicalURI.class, filter, null,
+                4, CanonicalURI::getId);
+        final KeysetSlice<CanonicalURI> second = this.keysetSliceQuery.findSlice(CanonicalURI.class, filter,
+                first.getContinuationToken(), 4, CanonicalURI::getId);
+
+        assertThat(first.getContent()).hasSize(4).extracting(CanonicalURI::getEntityName).containsOnly("Proyecto");
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(second.getContinuationToken()).isNull();
+    }
+
+    @Test
+    public void wrongTokenIsRejected() {
+        assertThatThrownBy(() -> this.keysetSliceQuery.findSlice(CanonicalURI.class, null, "wrong", 3,
+                CanonicalURI::getId)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
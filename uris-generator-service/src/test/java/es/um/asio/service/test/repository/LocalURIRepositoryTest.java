@@ -0,0 +1,186 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LanguageRepository;
+import es.um.asio.service.repository.LanguageTypeRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.repository.TypeRepository;
+import es.um.asio.service.util.UriHash;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the queries of {@link LocalURIRepository} on an embedded H2 database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = RepositoryTestApplication.class, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:localuri;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.persistence.jpa.properties.hibernate.generate_statistics=true",
+        "app.cache.embedded.enabled=false" })
+public class LocalURIRepositoryTest {
+
+    private static final String SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String LANGUAGE_SCHEMA = "http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$";
+
+    private static final String[] LANGUAGES = { "es-ES", "en-EN", "fr-FR" };
+
+    private static final String[] STORAGE_TYPES = { "trellis", "wikibase" };
+
+    @Autowired
+    private LocalURIRepository repository;
+
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private LanguageRepository languageRepository;
+
+    @Autowired
+    private LanguageTypeRepository languageTypeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String canonicalURI;
+
+    private final List<String> canonicalURIs = new ArrayList<>();
+
+    private final List<String> canonicalURILanguages = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        this.repository.deleteAll();
+        this.canonicalURILanguageRepository.deleteAll();
+        this.canonicalURIRepository.deleteAll();
+        final Type type = this.typeRepository.save(new Type("res", "resource"));
+        for (String reference : new String[] { "1", "2" }) {
+            final CanonicalURI cu = new CanonicalURI("hercules.org", "um", type, "Persona", reference, null, SCHEMA);
+            cu.generateFullURL(SCHEMA);
+            this.canonicalURIRepository.save(cu);
+            this.canonicalURIs.add(cu.getFullURI());
+            if (this.canonicalURI == null) {
+                this.canonicalURI = cu.getFullURI();
+            }
+            for (int i = 0; i < LANGUAGES.length; i++) {
+                final Language language = this.languageRepository.save(
+                        new Language(LANGUAGES[i], LANGUAGES[i], "hercules.org", "um", "res", "Persona", "1", i == 0));
+                final LanguageType languageType = this.languageTypeRepository.save(
+                        new LanguageType(language, type, "re" + i, "recurso"));
+                final CanonicalURILanguage cul = new CanonicalURILanguage("hercules.org", "um", languageType, "Persona",
+                        reference, null, LANGUAGE_SCHEMA);
+                cul.setCanonicalURI(cu);
+                cul.generateFullURL(LANGUAGE_SCHEMA);
+                this.canonicalURILanguageRepository.save(cul);
+                this.canonicalURILanguages.add(cul.getFullURI());
+                for (String storageType : STORAGE_TYPES) {
+                    final LocalURI localURI = new LocalURI(
+                            "http://" + storageType + "/" + reference + "/" + LANGUAGES[i], cul, null);
+                    localURI.setStorageTypeStr(storageType);
+                    this.repository.save(localURI);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void findByCanonicalURIAndStorageTypeStrAndLanguageRunsOneStatement() {
+        final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final List<LocalURI> localURIs = this.repository.findByCanonicalURIAndStorageTypeStrAndLanguage(
+                this.canonicalURI, "wikibase", "en-EN");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(localURIs).extracting(LocalURI::getLocalUri).containsExactly("http://wikibase/1/en-EN");
+    }
+
+    @Test
+    public void findByCanonicalURIAndStorageTypeStrAndLanguageWithoutMatch() {
+        assertThat(this.repository.findByCanonicalURIAndStorageTypeStrAndLanguage(this.canonicalURI, "wikibase", null))
+                .isEmpty();
+        assertThat(this.repository.findByCanonicalURIAndStorageTypeStrAndLanguage(this.canonicalURI, "other", "es-ES"))
+                .isEmpty();
+    }
+
+    @Test
+    public void findByCanonicalURIInAndStorageTypeStrAndLanguageRunsOneStatement() {
+        final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final List<Object[]> rows = this.repository.findByCanonicalURIInAndStorageTypeStrAndLanguage(
+                this.canonicalURIs, "trellis", "fr-FR");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(rows).extracting(row -> row[0]).containsExactlyElementsOf(this.canonicalURIs);
+        assertThat(rows).extracting(row -> ((LocalURI) row[1]).getLocalUri())
+                .containsExactly("http://trellis/1/fr-FR", "http://trellis/2/fr-FR");
+        assertThat(this.repository.findByCanonicalURIInAndStorageTypeStrAndLanguage(this.canonicalURIs, "trellis", null))
+                .hasSize(this.canonicalURIs.size() * LANGUAGES.length);
+    }
+
+    @Test
+    public void findByStorageTypeStrAndCanonicalURILanguageStrInRunsOneStatement() {
+        final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final List<LocalURI> localURIs = this.repository.findByStorageTypeStrAndCanonicalURILanguageStrIn("wikibase",
+                this.canonicalURILanguages);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(localURIs).extracting(LocalURI::getCanonicalURILanguageStr)
+                .containsExactlyElementsOf(this.canonicalURILanguages);
+    }
+
+    @Test
+    public void findCanonicalURILanguageStrByLocalUriInRunsOneStatement() {
+        final List<String> localURIs = Arrays.asList("http://trellis/1/es-ES", "http://wikibase/2/fr-FR",
+                "http://trellis/3/es-ES");
+        final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final List<Object[]> byUri = this.repository.findCanonicalURILanguageStrByLocalUriIn(localURIs);
+        final List<Object[]> byHash = this.repository.findCanonicalURILanguageStrByLocalUriHashIn(UriHash.of(localURIs));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        for (List<Object[]> rows : Arrays.asList(byUri, byHash)) {
+            assertThat(rows).extracting(row -> row[0]).containsExactly(localURIs.get(0), localURIs.get(1));
+            assertThat(rows).extracting(row -> row[1]).containsExactly(this.canonicalURILanguages.get(0),
+                    this.canonicalURILanguages.get(LANGUAGES.length + 2));
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.dto.BulkDeleteCriteria;
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LanguageRepository;
+import es.um.asio.service.repository.LanguageTypeRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.repository.TypeRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the queries of the URI repositories are resolved with an index. Each repository method is run on an
+ * embedded H2 database with the schema generated from the entities, the statements Hibernate sends are captured with
+ * a {@link StatementInspector}, and EXPLAIN is run on each of them: the test fails if H2 scans a table. The tables
+ * hold some analyzed rows, so H2 orders the joins by the selectivity of the columns as it would in use.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = RepositoryTestApplication.class, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:queryplan;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.persistence.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "es.um.asio.service.test.repository.QueryPlanTest$CapturingStatementInspector",
+        "app.cache.embedded.enabled=false" })
+public class QueryPlanTest {
+
+    private static final List<String> URIS = Arrays.asList("http://hercules.org/um/res/Persona/1",
+            "http://hercules.org/um/res/Persona/2");
+
+    private static final List<Long> KEYS = Arrays.asList(1L, 2L);
+
+    private static final String SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String LANGUAGE_SCHEMA = "http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$";
+
+    private static final String[] LANGUAGES = { "es-ES", "en-EN" };
+
+    private static final String[] STORAGE_TYPES = { "trellis", "wikibase" };
+
+    private static final int ROWS = 50;
+
+    /**
+     * An index read whole, without condition, as H2 does to return the rows in the order of the index.
+     */
+    private static final Pattern INDEX_SCAN = Pattern.compile("/\\* PUBLIC\\.\\w+ \\*/");
+
+    /**
+     * A join that starts from the canonical URIs.
+     */
+    private static final Pattern FROM_CANONICAL_URI = Pattern.compile("FROM \"PUBLIC\"\\.\"CANONICAL_URI\"\\s");
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private LanguageRepository languageRepository;
+
+    @Autowired
+    private LanguageTypeRepository languageTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Records the statements Hibernate prepares, unchanged.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(final String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        if (this.canonicalURIRepository.count() > 0) {
+            return;
+        }
+        final Type type = this.typeRepository.save(new Type("res", "recurso"));
+        final List<CanonicalURI> canonicalURIs = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            final CanonicalURI cu = new CanonicalURI("hercules.org", "um", type, "Persona", String.valueOf(i), null,
+                    SCHEMA);
+            cu.generateFullURL(SCHEMA);
+            canonicalURIs.add(this.canonicalURIRepository.save(cu));
+        }
+        for (int l = 0; l < LANGUAGES.length; l++) {
+            final Language language = this.languageRepository.save(
+                    new Language(LANGUAGES[l], LANGUAGES[l], "hercules.org", "um", "res", "Persona", "1", l == 0));
+            final LanguageType languageType = this.languageTypeRepository.save(
+                    new LanguageType(language, type, "re" + l, "recurso"));
+            for (int i = 0; i < ROWS; i++) {
+                final CanonicalURILanguage cul = new CanonicalURILanguage("hercules.org", "um", languageType,
+                        "Persona", String.valueOf(i), null, LANGUAGE_SCHEMA);
+                cul.setCanonicalURI(canonicalURIs.get(i));
+                cul.generateFullURL(LANGUAGE_SCHEMA);
+                this.canonicalURILanguageRepository.save(cul);
+                for (String storageType : STORAGE_TYPES) {
+                    final LocalURI localURI = new LocalURI("http://" + storageType + "/" + l + "/" + i, cul, null);
+                    localURI.setStorageTypeStr(storageType);
+                    this.localURIRepository.save(localURI);
+                }
+            }
+        }
+        this.jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    public void canonicalURILookups() {
+        assertIndexed(() -> this.canonicalURIRepository.findByFullURI(URIS.get(0)));
+        assertIndexed(() -> this.canonicalURIRepository.findByFullURIIn(URIS));
+        assertIndexed(() -> this.canonicalURIRepository.findByFullURIHash(KEYS.get(0)));
+        assertIndexed(() -> this.canonicalURIRepository.findByFullURIHashIn(KEYS));
+        assertIndexed(() -> this.canonicalURIRepository.findHashPending(0, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void canonicalURIsByName() {
+        assertIndexed(() -> this.canonicalURIRepository.findByEntityNameAndReference("Persona", "1"));
+        assertIndexed(() -> this.canonicalURIRepository.findByEntityNameAndPropertyName("Persona", "name"));
+        assertIndexed(() -> this.canonicalURIRepository.findByEntityNameAndIsEntity("Persona", true));
+        assertIndexed(() -> this.canonicalURIRepository.findByPropertyNameAndIsProperty("name", true));
+        assertIndexed(() -> this.canonicalURIRepository.findByEntityName("Persona"));
+        assertIndexed(() -> this.canonicalURIRepository.findByPropertyName("name"));
+    }
+
+    @Test
+    public void canonicalURILanguageLookups() {
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByFullURI(URIS.get(0)));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByFullURIIn(URIS));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByFullURIHash(KEYS.get(0)));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByFullURIHashIn(KEYS));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findHashPending(0, PageRequest.of(0, 10)));
+        assertThat(assertIndexed(() -> this.canonicalURILanguageRepository.findViewsByCanonicalURI(URIS.get(0))))
+                .allSatisfy(plan -> assertThat(plan).containsPattern(FROM_CANONICAL_URI));
+    }
+
+    @Test
+    public void canonicalURILanguagesByName() {
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByEntityNameAndReference("Persona", "1"));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByEntityNameAndPropertyName("Persona", "name"));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByEntityNameAndIsEntity("Persona", true));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByPropertyNameAndIsProperty("name", true));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByEntityName("Persona"));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findByPropertyName("name"));
+    }
+
+    @Test
+    public void localURILookups() {
+        assertIndexed(() -> this.localURIRepository.findByLocalUri(URIS.get(0)));
+        assertIndexed(() -> this.localURIRepository.findByLocalUriHash(KEYS.get(0)));
+        assertIndexed(() -> this.localURIRepository.findByStorageTypeStrAndCanonicalURILanguageStr("trellis",
+                URIS.get(0)));
+        assertIndexed(() -> this.localURIRepository.findByStorageTypeStrAndCanonicalURILanguageHash("trellis",
+                KEYS.get(0)));
+        assertIndexed(() -> this.localURIRepository.findCanonicalURILanguageStrByLocalUriIn(URIS));
+        assertIndexed(() -> this.localURIRepository.findCanonicalURILanguageStrByLocalUriHashIn(KEYS));
+        assertIndexed(() -> this.localURIRepository.findHashPending(0, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void localURIsOfCanonicalURIs() {
+        // joined from the canonical URIs, not from all the local URIs of the storage type
+        assertThat(assertIndexed(() -> this.localURIRepository.findByCanonicalURIAndStorageTypeStrAndLanguage(
+                URIS.get(0), "trellis", "es-ES"))).allSatisfy(plan -> assertThat(plan).containsPattern(FROM_CANONICAL_URI));
+        assertThat(assertIndexed(() -> this.localURIRepository.findByCanonicalURIInAndStorageTypeStrAndLanguage(URIS,
+                "trellis", "es-ES"))).allSatisfy(plan -> assertThat(plan).containsPattern(FROM_CANONICAL_URI));
+        assertThat(assertIndexed(() -> this.localURIRepository.findByCanonicalURIInAndStorageTypeStrAndLanguage(URIS,
+                "trellis", null))).allSatisfy(plan -> assertThat(plan).containsPattern(FROM_CANONICAL_URI));
+        assertIndexed(() -> this.localURIRepository.findByStorageTypeStrAndCanonicalURILanguageStrIn("trellis",
+                URIS));
+    }
+
+    @Test
+    public void bulkDeletes() {
+        final PageRequest page = PageRequest.of(0, 10);
+        assertIndexed(() -> this.canonicalURIRepository.findIdsToDelete(0,
+                BulkDeleteCriteria.byEntityName("Persona", true), page));
+        assertIndexed(() -> this.canonicalURILanguageRepository.findIdsToDelete(0,
+                BulkDeleteCriteria.byReference("Persona", "1"), page));
+        final TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+        assertIndexed(() -> transaction.execute(status -> this.localURIRepository.deleteByCanonicalURIIdIn(KEYS)));
+        assertIndexed(() -> transaction.execute(status -> this.localURIRepository.deleteByCanonicalURILanguageIdIn(KEYS)));
+        assertIndexed(() -> transaction.execute(status -> this.canonicalURILanguageRepository.deleteByCanonicalURIIdIn(KEYS)));
+        assertIndexed(() -> transaction.execute(status -> this.canonicalURILanguageRepository.deleteByIdIn(KEYS)));
+        assertIndexed(() -> transaction.execute(status -> this.canonicalURIRepository.deleteByIdIn(KEYS)));
+    }
+
+    /**
+     * Runs a repository method and checks the plan of every query and delete it sends.
+     *
+     * @return the plans
+     */
+    private List<String> assertIndexed(final Runnable method) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        method.run();
+        final List<String> statements = CapturingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).matches("^(select|delete)\\b[\\s\\S]*"))
+                .collect(Collectors.toList());
+        assertThat(statements).isNotEmpty();
+        return statements.stream().map(this::assertNoTableScan).collect(Collectors.toList());
+    }
+
+    /**
+     * Runs EXPLAIN on a statement, with a value of the type of each parameter, and checks that H2 reads every table
+     * through an index with a condition, instead of scanning the table or reading a whole index.
+     *
+     * @return the plan
+     */
+    private String assertNoTableScan(final String sql) {
+        final String plan = this.jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            final int[] types;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                final ParameterMetaData parameters = statement.getParameterMetaData();
+                types = new int[parameters.getParameterCount()];
+                for (int i = 0; i < types.length; i++) {
+                    types[i] = parameters.getParameterType(i + 1);
+                }
+            }
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= types.length; i++) {
+                    switch (types[i - 1]) {
+                    case Types.VARCHAR:
+                    case Types.CHAR:
+                        explain.setString(i, "a");
+                        break;
+                    case Types.BOOLEAN:
+                    case Types.BIT:
+                        explain.setBoolean(i, true);
+                        break;
+                    default:
+                        explain.setLong(i, 1L);
+                    }
+                }
+                try (ResultSet result = explain.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            }
+        });
+        assertThat(plan).as(sql).doesNotContain("tableScan").doesNotContainPattern(INDEX_SCAN);
+        return plan;
+    }
+}
@@ -0,0 +1,122 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.cache.ReferenceDataSnapshot;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.StorageType;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.proxy.LanguageProxy;
+import es.um.asio.service.proxy.LanguageTypeProxy;
+import es.um.asio.service.proxy.StorageTypeProxy;
+import es.um.asio.service.proxy.TypeProxy;
+import es.um.asio.service.proxy.impl.LanguageProxyImpl;
+import es.um.asio.service.proxy.impl.LanguageTypeProxyImpl;
+import es.um.asio.service.proxy.impl.StorageTypeProxyImpl;
+import es.um.asio.service.proxy.impl.TypeProxyImpl;
+import es.um.asio.service.repository.LanguageRepository;
+import es.um.asio.service.repository.LanguageTypeRepository;
+import es.um.asio.service.repository.StorageTypeRepository;
+import es.um.asio.service.repository.TypeRepository;
+import es.um.asio.service.service.impl.LanguageServiceImpl;
+import es.um.asio.service.service.impl.LanguageTypeServiceImpl;
+import es.um.asio.service.service.impl.StorageTypeServiceImpl;
+import es.um.asio.service.service.impl.TypeServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link ReferenceDataSnapshot} through the proxies of the reference tables, on an embedded H2 database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { RepositoryTestApplication.class, ReferenceDataSnapshot.class, TypeServiceImpl.class,
+        LanguageServiceImpl.class, LanguageTypeServiceImpl.class, StorageTypeServiceImpl.class, TypeProxyImpl.class,
+        LanguageProxyImpl.class, LanguageTypeProxyImpl.class, StorageTypeProxyImpl.class }, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:referencesnapshot;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.cache.embedded.enabled=false" })
+public class ReferenceDataSnapshotTest {
+
+    @Autowired
+    private ReferenceDataSnapshot snapshot;
+
+    @Autowired
+    private TypeProxy typeProxy;
+
+    @Autowired
+    private LanguageProxy languageProxy;
+
+    @Autowired
+    private LanguageTypeProxy languageTypeProxy;
+
+    @Autowired
+    private StorageTypeProxy storageTypeProxy;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private LanguageRepository languageRepository;
+
+    @Autowired
+    private LanguageTypeRepository languageTypeRepository;
+
+    @Autowired
+    private StorageTypeRepository storageTypeRepository;
+
+    @Before
+    public void setUp() {
+        this.languageTypeRepository.deleteAll();
+        this.languageRepository.deleteAll();
+        this.typeRepository.deleteAll();
+        this.storageTypeRepository.deleteAll();
+        this.snapshot.refresh();
+    }
+
+    @Test
+    public void writesThroughTheProxiesRefreshTheSnapshot() {
+        final Type type = this.typeProxy.save(new Type("res", "recurso"));
+        final Language language = this.languageProxy.save(new Language("es-ES", "Español", "hercules.org", "um",
+                "res", "Persona", "1", true));
+        this.languageTypeProxy.save(new LanguageType(language, type, "rec", "recurso"));
+        this.storageTypeProxy.save(new StorageType("trellis"));
+
+        assertThat(this.snapshot.getType("res")).isPresent();
+        assertThat(this.snapshot.getLanguage("es-ES")).isPresent();
+        assertThat(this.snapshot.getDefaultLanguages()).extracting(Language::getIso).containsExactly("es-ES");
+        assertThat(this.snapshot.getLanguageTypes("es-ES", "res")).hasSize(1);
+        assertThat(this.snapshot.getStorageType("trellis")).isPresent();
+
+        this.storageTypeProxy.delete(this.snapshot.getStorageType("trellis").get());
+        this.typeProxy.save(new Type("kos", "sistema de organización"));
+
+        assertThat(this.snapshot.getStorageType("trellis")).isNotPresent();
+        assertThat(this.snapshot.getType("kos")).isPresent();
+    }
+
+    @Test
+    public void rowsWrittenAroundTheProxiesAreReadFromTheDatabase() {
+        final Type type = this.typeRepository.save(new Type("def", "definición"));
+        final Language language = this.languageRepository.save(new Language("en-EN", "English", "hercules.org",
+                "um", "res", "Person", "1", false));
+        this.languageTypeRepository.save(new LanguageType(language, type, "def", "definition"));
+        this.storageTypeRepository.save(new StorageType("wikibase"));
+
+        assertThat(this.snapshot.getType("def")).isNotPresent();
+        assertThat(this.typeProxy.find("def")).isPresent();
+        assertThat(this.languageProxy.find("en-EN")).isPresent();
+        assertThat(this.languageTypeProxy.getByLanguageAndType("en-EN", "def")).hasSize(1);
+        assertThat(this.storageTypeProxy.findByName("wikibase")).isNotNull();
+    }
+}
@@ -0,0 +1,119 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LanguageRepository;
+import es.um.asio.service.repository.LanguageTypeRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.repository.TypeRepository;
+import es.um.asio.service.service.UriExportService;
+import es.um.asio.service.service.impl.UriExportServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link UriExportService} on an embedded H2 database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { RepositoryTestApplication.class, UriExportServiceImpl.class }, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:export;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.cache.embedded.enabled=false",
+        "app.export.fetch-size=3" })
+public class UriExportServiceTest {
+
+    private static final String SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String LANGUAGE_SCHEMA = "http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$";
+
+    private static final int INSTANCES = 10;
+
+    @Autowired
+    private UriExportService service;
+
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private LanguageRepository languageRepository;
+
+    @Autowired
+    private LanguageTypeRepository languageTypeRepository;
+
+    @Before
+    public void setUp() {
+        this.localURIRepository.deleteAll();
+        this.canonicalURILanguageRepository.deleteAll();
+        this.canonicalURIRepository.deleteAll();
+        final Type type = this.typeRepository.save(new Type("res", "resource"));
+        final Language language = this.languageRepository.save(
+                new Language("es-ES", "es-ES", "hercules.org", "um", "res", "Persona", "1", true));
+        final LanguageType languageType = this.languageTypeRepository.save(
+                new LanguageType(language, type, "rec", "recurso"));
+        for (int i = 0; i < INSTANCES; i++) {
+            final CanonicalURI cu = new CanonicalURI("hercules.org", "um", type, "Persona", String.valueOf(i), null,
+                    SCHEMA);
+            cu.setIsInstance(true);
+            cu.generateFullURL(SCHEMA);
+            this.canonicalURIRepository.save(cu);
+            final CanonicalURILanguage cul = new CanonicalURILanguage("hercules.org", "um", languageType, "Persona",
+                    String.valueOf(i), null, LANGUAGE_SCHEMA);
+            cul.setCanonicalURI(cu);
+            cul.generateFullURL(LANGUAGE_SCHEMA);
+            this.canonicalURILanguageRepository.save(cul);
+            final LocalURI localURI = new LocalURI("http://trellis/" + i, cul, null);
+            localURI.setStorageTypeStr("trellis");
+            this.localURIRepository.save(localURI);
+        }
+    }
+
+    @Test
+    public void exportCanonicalURIsReadsEveryRowInOrder() throws IOException {
+        final List<Long> ids = new ArrayList<>();
+        final long rows = this.service.exportCanonicalURIs(cu -> ids.add(cu.getId()));
+
+        assertThat(rows).isEqualTo(INSTANCES);
+        assertThat(ids).hasSize(INSTANCES).isSorted();
+    }
+
+    @Test
+    public void exportLocalURIsKeepsTheCanonicalURILanguage() throws IOException {
+        final List<String> links = new ArrayList<>();
+        final long rows = this.service.exportLocalURIs(
+                lu -> links.add(lu.getLocalUri() + " " + lu.getCanonicalURILanguage().getFullURI()));
+
+        assertThat(rows).isEqualTo(INSTANCES);
+        assertThat(links).contains("http://trellis/0 http://hercules.org/um/es-ES/rec/Persona/0");
+    }
+}
@@ -0,0 +1,160 @@
+package es.um.asio.service.test.repository;
+
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.repository.CanonicalURILanguageRepository;
+import es.um.asio.service.repository.CanonicalURIRepository;
+import es.um.asio.service.repository.LanguageRepository;
+import es.um.asio.service.repository.LanguageTypeRepository;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.repository.TypeRepository;
+import es.um.asio.service.service.UriHashBackfillService;
+import es.um.asio.service.service.impl.UriHashBackfillServiceImpl;
+import es.um.asio.service.util.UriHash;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the lookup keys of the URIs and of {@link UriHashBackfillService} on an embedded H2 database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { RepositoryTestApplication.class, UriHashBackfillServiceImpl.class }, properties = {
+        "app.persistence.datasource.driver-class-name=org.h2.Driver",
+        "app.persistence.datasource.url=jdbc:h2:mem:urihash;DB_CLOSE_DELAY=-1",
+        "app.persistence.datasource.username=sa",
+        "app.persistence.datasource.password=",
+        "app.persistence.datasource.rootUsername=sa",
+        "app.persistence.datasource.rootPassword=",
+        "app.persistence.jpa.dialect=org.hibernate.dialect.H2Dialect",
+        "app.persistence.jpa.generate-ddl=true",
+        "app.cache.embedded.enabled=false",
+        "app.uri-hash.backfill.enabled=false",
+        "app.uri-hash.backfill.batch-size=2",
+        "app.uri-hash.backfill.check-interval=0" })
+public class UriHashBackfillServiceTest {
+
+    private static final String SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String LANGUAGE_SCHEMA = "http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$";
+
+    private static final int ROWS = 5;
+
+    @Autowired
+    private UriHashBackfillService service;
+
+    @Autowired
+    private LocalURIRepository localURIRepository;
+
+    @Autowired
+    private CanonicalURILanguageRepository canonicalURILanguageRepository;
+
+    @Autowired
+    private CanonicalURIRepository canonicalURIRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private LanguageRepository languageRepository;
+
+    @Autowired
+    private LanguageTypeRepository languageTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        this.localURIRepository.deleteAll();
+        this.canonicalURILanguageRepository.deleteAll();
+        this.canonicalURIRepository.deleteAll();
+        this.languageTypeRepository.deleteAll();
+        final Type type = this.typeRepository.save(new Type("res", "recurso"));
+        final Language language = this.languageRepository.save(
+                new Language("es-ES", "Español", "hercules.org", "um", "res", "Persona", "1", true));
+        final LanguageType languageType = this.languageTypeRepository.save(new LanguageType(language, type, "rec", "recurso"));
+        for (int i = 0; i < ROWS; i++) {
+            final CanonicalURI cu = new CanonicalURI("hercules.org", "um", type, "Persona", String.valueOf(i), null, SCHEMA);
+            cu.generateFullURL(SCHEMA);
+            this.canonicalURIRepository.save(cu);
+            final CanonicalURILanguage cul = new CanonicalURILanguage("hercules.org", "um", languageType, "Persona",
+                    String.valueOf(i), null, LANGUAGE_SCHEMA);
+            cul.setCanonicalURI(cu);
+            cul.generateFullURL(LANGUAGE_SCHEMA);
+            this.canonicalURILanguageRepository.save(cul);
+            final LocalURI localURI = new LocalURI("http://trellis/" + i, cul, null);
+            localURI.setStorageTypeStr("trellis");
+            this.localURIRepository.save(localURI);
+        }
+    }
+
+    private void assertKeys() {
+        assertThat(this.canonicalURIRepository.findAll()).hasSize(ROWS)
+                .allSatisfy(cu -> assertThat(cu.getFullURIHash()).isEqualTo(UriHash.of(cu.getFullURI())));
+        assertThat(this.canonicalURILanguageRepository.findAll()).hasSize(ROWS).allSatisfy(cul -> {
+            assertThat(cul.getFullURIHash()).isEqualTo(UriHash.of(cul.getFullURI()));
+            assertThat(cul.getFullParentURIHash()).isEqualTo(UriHash.of(cul.getFullParentURI())).isNotNull();
+        });
+        assertThat(this.localURIRepository.findAll()).hasSize(ROWS).allSatisfy(localURI -> {
+            assertThat(localURI.getLocalUriHash()).isEqualTo(UriHash.of(localURI.getLocalUri()));
+            assertThat(localURI.getCanonicalURILanguageHash())
+                    .isEqualTo(UriHash.of(localURI.getCanonicalURILanguageStr())).isNotNull();
+        });
+    }
+
+    @Test
+    public void everyWriteFillsTheLookupKeys() {
+        assertKeys();
+        assertThat(this.service.isComplete()).isTrue();
+        assertThat(this.service.backfill()).isZero();
+    }
+
+    @Test
+    public void rowsWithoutKeysAreFilledInBatches() {
+        // rows stored before the keys existed, or by an instance that does not fill them
+        this.jdbcTemplate.update("update " + CanonicalURI.TABLE + " set FULL_URI_HASH = null");
+        this.jdbcTemplate.update("update " + CanonicalURILanguage.TABLE
+                + " set FULL_URI_HASH = null, FULL_PARENT_URI_HASH = null");
+        this.jdbcTemplate.update("update " + LocalURI.TABLE + " set LOCAL_URI_HASH = null");
+        assertThat(this.service.isComplete()).isFalse();
+
+        assertThat(this.service.backfill()).isEqualTo(3L * ROWS);
+
+        assertKeys();
+        assertThat(this.service.isComplete()).isTrue();
+    }
+
+    @Test
+    public void theCompletionIsCheckedInTheDatabase() {
+        assertThat(this.service.isComplete()).isTrue();
+
+        this.jdbcTemplate.update("update " + LocalURI.TABLE + " set CANONICAL_URI_LANGUAGE_HASH = null");
+        assertThat(this.service.isComplete()).isFalse();
+    }
+
+    @Test
+    public void rowsSharingALookupKeyAreToldApartByTheURI() {
+        final CanonicalURI first = this.canonicalURIRepository.findAll().get(0);
+        final CanonicalURI second = this.canonicalURIRepository.findAll().get(1);
+        this.jdbcTemplate.update("update " + CanonicalURI.TABLE + " set FULL_URI_HASH = ? where ID = ?",
+                first.getFullURIHash(), second.getId());
+
+        assertThat(this.canonicalURIRepository.findByFullURIHash(UriHash.of(first.getFullURI()))).hasSize(2);
+        assertThat(UriHash.verify(this.canonicalURIRepository.findByFullURIHash(UriHash.of(first.getFullURI())),
+                CanonicalURI::getFullURI, first.getFullURI())).extracting(CanonicalURI::getId)
+                        .containsExactly(first.getId());
+        assertThat(UriHash.verify(this.canonicalURIRepository.findByFullURIHash(UriHash.of(second.getFullURI())),
+                CanonicalURI::getFullURI, second.getFullURI())).isEmpty();
+    }
+}
@@ -0,0 +1,154 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.cache.CanonicalURILanguageCache;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.util.AfterCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link CanonicalURILanguageCache} and of the eviction after commit.
+ */
+public class CanonicalURILanguageCacheTest {
+
+    private static final String PARENT = "http://hercules.org/um/res/Persona/1";
+
+    private CanonicalURILanguageCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        this.cache = cache(100, 60);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static CanonicalURILanguageCache cache(final long maximumSize, final long ttl) {
+        final CanonicalURILanguageCache cache = new CanonicalURILanguageCache();
+        ReflectionTestUtils.setField(cache, "maximumSize", maximumSize);
+        ReflectionTestUtils.setField(cache, "ttl", ttl);
+        cache.init();
+        return cache;
+    }
+
+    private static CanonicalURILanguage entity(final long id, final String language) {
+        final CanonicalURILanguage entity = new CanonicalURILanguage();
+        ReflectionTestUtils.setField(entity, "id", id);
+        ReflectionTestUtils.setField(entity, "fullURI", "http://hercules.org/um/" + language + "/rec/Persona/1");
+        ReflectionTestUtils.setField(entity, "fullParentURI", PARENT);
+        return entity;
+    }
+
+    private CanonicalURILanguage get(final CanonicalURILanguageCache cache, final CanonicalURILanguage entity) {
+        return cache.get(entity.getFullURI(), uri -> {
+            this.loads.incrementAndGet();
+            return entity;
+        }, id -> entity(id, "es-ES"));
+    }
+
+    @Test
+    public void lookupsAreCountedAndMissesAreNotCached() {
+        final CanonicalURILanguage entity = entity(1, "es-ES");
+
+        assertThat(get(this.cache, entity)).isSameAs(entity);
+        assertThat(get(this.cache, entity)).isEqualTo(entity);
+        assertThat(this.cache.get("http://hercules.org/none", uri -> null, id -> null)).isNull();
+        assertThat(this.cache.get("http://hercules.org/none", uri -> null, id -> null)).isNull();
+
+        assertThat(this.loads).hasValue(1);
+        assertThat(this.cache.getHitCount()).isEqualTo(1);
+        assertThat(this.cache.getMissCount()).isEqualTo(3);
+        assertThat(this.cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void everyLookupGetsItsOwnInstance() {
+        final CanonicalURILanguage entity = entity(1, "es-ES");
+        get(this.cache, entity);
+
+        final CanonicalURILanguage first = get(this.cache, entity);
+        ReflectionTestUtils.setField(first, "entityName", "changed");
+        final CanonicalURILanguage second = get(this.cache, entity);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getEntityName()).isNull();
+        assertThat(this.loads).hasValue(1);
+    }
+
+    @Test
+    public void entriesOfMissingEntitiesAreLoadedAgain() {
+        final CanonicalURILanguage entity = entity(1, "es-ES");
+        get(this.cache, entity);
+
+        // deleted by another node, without eviction here
+        assertThat(this.cache.get(entity.getFullURI(), uri -> null, id -> null)).isNull();
+
+        assertThat(this.cache.size()).isZero();
+    }
+
+    @Test
+    public void entriesAreEvictedBySize() {
+        final CanonicalURILanguageCache cache = cache(1, 60);
+        get(cache, entity(1, "es-ES"));
+        get(cache, entity(2, "en-EN"));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void entriesExpire() throws InterruptedException {
+        final CanonicalURILanguageCache cache = cache(100, 1);
+        final CanonicalURILanguage entity = entity(1, "es-ES");
+        get(cache, entity);
+        Thread.sleep(1100);
+        get(cache, entity);
+
+        assertThat(this.loads).hasValue(2);
+    }
+
+    @Test
+    public void entriesAreEvictedByIdAndByParent() {
+        final CanonicalURILanguage spanish = entity(1, "es-ES");
+        final CanonicalURILanguage english = entity(2, "en-EN");
+        get(this.cache, spanish);
+        get(this.cache, english);
+
+        this.cache.invalidateById("1");
+        assertThat(this.cache.size()).isEqualTo(1);
+
+        get(this.cache, spanish);
+        this.cache.invalidateByParent(PARENT);
+        assertThat(this.cache.size()).isZero();
+    }
+
+    @Test
+    public void evictionIsRepeatedAfterCommit() {
+        final CanonicalURILanguage entity = entity(1, "es-ES");
+        get(this.cache, entity);
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.evict(() -> this.cache.invalidate(entity.getFullURI()));
+        assertThat(this.cache.size()).isZero();
+        // a concurrent reader loads the row before the commit
+        get(this.cache, entity);
+        assertThat(this.cache.size()).isEqualTo(1);
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(this.cache.size()).isZero();
+    }
+}
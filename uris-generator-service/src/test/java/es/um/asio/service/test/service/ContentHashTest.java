@@ -0,0 +1,105 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.config.properties.ReferenceProperties;
+import es.um.asio.service.config.properties.ReferenceProperties.HashMode;
+import es.um.asio.service.service.impl.ContentReferenceGenerator;
+import es.um.asio.service.util.ContentHash;
+import es.um.asio.service.util.Utils;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link ContentHash} and of the hash modes of {@link ContentReferenceGenerator}.
+ */
+public class ContentHashTest {
+
+    private static Map<String, Object> instance() {
+        final Map<String, Object> instance = new LinkedHashMap<>();
+        instance.put("@class", "es.um.asio.Persona");
+        instance.put("name", "María");
+        instance.put("age", 42);
+        instance.put("tags", Arrays.asList("a", "b"));
+        instance.put("ratio", 0.5);
+        instance.put("active", true);
+        instance.put("other", null);
+        return instance;
+    }
+
+    private static ContentReferenceGenerator generator(final ReferenceProperties properties) {
+        final ContentReferenceGenerator generator = new ContentReferenceGenerator();
+        ReflectionTestUtils.setField(generator, "properties", properties);
+        return generator;
+    }
+
+    @Test
+    public void theOrderOfTheKeysDoesNotChangeTheHash() {
+        final Map<String, Object> reversed = new LinkedHashMap<>();
+        final Object[] keys = instance().keySet().toArray();
+        for (int i = keys.length - 1; i >= 0; i--) {
+            reversed.put((String) keys[i], instance().get(keys[i]));
+        }
+        final Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("b", Collections.singletonMap("x", 1));
+        nested.put("a", new HashMap<>(instance()));
+        final Map<String, Object> nestedReversed = new LinkedHashMap<>();
+        nestedReversed.put("a", reversed);
+        nestedReversed.put("b", Collections.singletonMap("x", 1L));
+
+        assertThat(ContentHash.uuid(reversed)).isEqualTo(ContentHash.uuid(instance()));
+        assertThat(ContentHash.uuid(nestedReversed)).isEqualTo(ContentHash.uuid(nested));
+    }
+
+    @Test
+    public void theHashIsTheSameInEveryRun() {
+        // fixed value, a change in the encoding would change the references of the instances already stored
+        assertThat(ContentHash.uuid(instance())).isEqualTo(UUID.fromString("896ec708-caa4-8f6c-a0e8-49031427d767"));
+    }
+
+    @Test
+    public void differentContentGivesDifferentHashes() {
+        final Map<String, Object> other = instance();
+        other.put("age", "42");
+        final Map<String, Object> list = instance();
+        list.put("tags", Arrays.asList("b", "a"));
+
+        assertThat(ContentHash.uuid(other)).isNotEqualTo(ContentHash.uuid(instance()));
+        assertThat(ContentHash.uuid(list)).isNotEqualTo(ContentHash.uuid(instance()));
+        assertThat(ContentHash.uuid(new BigDecimal("1.50"))).isEqualTo(ContentHash.uuid(new BigDecimal("1.5")));
+        assertThat(ContentHash.uuid(instance()).version()).isEqualTo(8);
+    }
+
+    @Test
+    public void legacyIsTheDefaultHashMode() {
+        assertThat(new ReferenceProperties().getHashMode()).isEqualTo(HashMode.LEGACY);
+    }
+
+    @Test
+    public void legacyModeReproducesTheFormerReferences() throws Exception {
+        final HashMap<String, Object> instance = new HashMap<>(instance());
+
+        final String reference = generator(new ReferenceProperties()).generate(instance);
+
+        assertThat(reference).isEqualTo(Utils.generateUUIDFromOject(instance));
+        // value minted by the former implementation for the same instance
+        assertThat(reference).isEqualTo("56c330b3-4125-3cb3-aff8-f7b846acb4e9");
+    }
+
+    @Test
+    public void contentModeUsesTheContentHash() {
+        final ReferenceProperties properties = new ReferenceProperties();
+        properties.setHashMode(HashMode.CONTENT);
+
+        assertThat(generator(properties).generate(new HashMap<>(instance())))
+                .isEqualTo("896ec708-caa4-8f6c-a0e8-49031427d767");
+    }
+}
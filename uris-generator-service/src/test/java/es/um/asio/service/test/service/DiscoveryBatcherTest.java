@@ -0,0 +1,188 @@
+package es.um.asio.service.test.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import es.um.asio.service.config.DiscoveryConfig;
+import es.um.asio.service.discovery.DiscoveryBatcher;
+import es.um.asio.service.discovery.DiscoveryClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests of {@link DiscoveryBatcher} against a stub of the discovery library that answers with the requested entity id.
+ */
+public class DiscoveryBatcherTest {
+
+    private static final String ENDPOINT = "/discovery/entity-link/instance";
+
+    private static final Pattern ENTITY_ID = Pattern.compile("entityId=([^&]*)-temp");
+
+    private HttpServer server;
+
+    private final List<String> entityIds = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private volatile long delay;
+
+    private DiscoveryConfig config;
+
+    private DiscoveryBatcher batcher;
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext(ENDPOINT, this::handle);
+        this.server.setExecutor(Executors.newFixedThreadPool(8));
+        this.server.start();
+        this.config = new DiscoveryConfig();
+        this.config.setHost("http://localhost");
+        this.config.setPort(String.valueOf(this.server.getAddress().getPort()));
+        this.config.setEndPoint(ENDPOINT);
+    }
+
+    @After
+    public void tearDown() {
+        if (this.batcher != null) {
+            this.batcher.shutdown();
+        }
+        this.server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final Matcher matcher = ENTITY_ID.matcher(exchange.getRequestURI().getRawQuery());
+        final String entityId = matcher.find() ? matcher.group(1) : "";
+        this.entityIds.add(entityId);
+        exchange.getRequestBody().readAllBytes();
+        this.maxInFlight.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+        try {
+            TimeUnit.MILLISECONDS.sleep(this.delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.inFlight.decrementAndGet();
+        }
+        final byte[] response = ("{\"response\":{\"results\":[{\"automatics\":[{\"entityId\":\"" + entityId
+                + "\"}]}]}}").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private DiscoveryBatcher batcher(final long window, final int batchSize, final int maxPending) {
+        this.config.setBatchWindow(window);
+        this.config.setBatchSize(batchSize);
+        this.config.setMaxPending(maxPending);
+        this.batcher = new DiscoveryBatcher(this.config, new DiscoveryClient(this.config));
+        return this.batcher;
+    }
+
+    private static String entityId(final CompletableFuture<ObjectNode> future) throws Exception {
+        return future.get(5, TimeUnit.SECONDS).get("automatics").get(0).get("entityId").asText();
+    }
+
+    @Test
+    public void requestsOfTheWindowAreSentTogetherAndAnsweredToEachCaller() throws Exception {
+        final DiscoveryBatcher batcher = batcher(200, 100, 100);
+        final Map<String, Object> attrs = Collections.singletonMap("name", "Ana");
+        final List<CompletableFuture<ObjectNode>> futures = new ArrayList<>();
+        for (String id : new String[] { "1", "2", "1", "3", "2" }) {
+            futures.add(batcher.submit("um", "trellis", "Persona", id, attrs));
+        }
+
+        assertThat(entityId(futures.get(0))).isEqualTo("1");
+        assertThat(entityId(futures.get(1))).isEqualTo("2");
+        assertThat(entityId(futures.get(2))).isEqualTo("1");
+        assertThat(entityId(futures.get(3))).isEqualTo("3");
+        assertThat(entityId(futures.get(4))).isEqualTo("2");
+        assertThat(this.entityIds).containsExactlyInAnyOrder("1", "2", "3");
+        assertThat(batcher.getBatchCount()).isEqualTo(1);
+        assertThat(batcher.getRequestCount()).isEqualTo(5);
+        assertThat(batcher.getSharedCount()).isEqualTo(2);
+        assertThat(batcher.getPendingCount()).isZero();
+    }
+
+    @Test
+    public void fullBatchIsSentBeforeTheWindowEnds() throws Exception {
+        final DiscoveryBatcher batcher = batcher(60000, 2, 100);
+        final CompletableFuture<ObjectNode> first = batcher.submit("um", "trellis", "Persona", "1", Collections.emptyMap());
+        final CompletableFuture<ObjectNode> other = batcher.submit("um", "trellis", "Proyecto", "2", Collections.emptyMap());
+        final CompletableFuture<ObjectNode> second = batcher.submit("um", "trellis", "Persona", "3", Collections.emptyMap());
+
+        assertThat(entityId(first)).isEqualTo("1");
+        assertThat(entityId(second)).isEqualTo("3");
+        assertThat(other).isNotDone();
+        assertThat(batcher.getBatchCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void requestsOverTheLimitAreRejected() {
+        final DiscoveryBatcher batcher = batcher(60000, 100, 1);
+        batcher.submit("um", "trellis", "Persona", "1", Collections.emptyMap());
+
+        assertThatThrownBy(() -> batcher.submit("um", "trellis", "Persona", "2", Collections.emptyMap()))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void batchesLargerThanTheConnectionsAreSentAsConnectionsFreeUp() throws Exception {
+        this.delay = 20;
+        this.config.setMaxConnections(2);
+        final DiscoveryBatcher batcher = batcher(60000, 32, 100);
+        final List<CompletableFuture<ObjectNode>> futures = new ArrayList<>();
+        final long start = System.nanoTime();
+        for (int i = 0; i < 32; i++) {
+            futures.add(batcher.submit("um", "trellis", "Persona", String.valueOf(i), Collections.emptyMap()));
+        }
+        // the full batch is dispatched without waiting for the connections
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(200);
+
+        for (int i = 0; i < 32; i++) {
+            assertThat(entityId(futures.get(i))).isEqualTo(String.valueOf(i));
+        }
+        assertThat(this.entityIds).hasSize(32);
+        assertThat(this.maxInFlight.get()).isLessThanOrEqualTo(2);
+        assertThat(batcher.getPendingCount()).isZero();
+    }
+
+    @Test
+    public void requestsWithoutAFreeConnectionInTimeAreRejected() throws Exception {
+        this.delay = 1000;
+        this.config.setMaxConnections(1);
+        this.config.setConnectTimeout(100);
+        final DiscoveryBatcher batcher = batcher(60000, 2, 100);
+        final CompletableFuture<ObjectNode> first = batcher.submit("um", "trellis", "Persona", "1", Collections.emptyMap());
+        final CompletableFuture<ObjectNode> second = batcher.submit("um", "trellis", "Persona", "2", Collections.emptyMap());
+
+        assertThatThrownBy(() -> second.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(entityId(first)).isEqualTo("1");
+        assertThat(this.entityIds).containsExactly("1");
+    }
+}
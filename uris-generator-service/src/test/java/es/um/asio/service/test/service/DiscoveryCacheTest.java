@@ -0,0 +1,82 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.cache.DiscoveryCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link DiscoveryCache}.
+ */
+public class DiscoveryCacheTest {
+
+    private DiscoveryCache cache;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        this.cache = new DiscoveryCache();
+        ReflectionTestUtils.setField(this.cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(this.cache, "ttl", 60L);
+        ReflectionTestUtils.setField(this.cache, "negativeTtl", 60L);
+        this.cache.init();
+    }
+
+    private static Map<String, Object> attrs(final String first, final String second) {
+        final Map<String, Object> attrs = new LinkedHashMap<>();
+        attrs.put(first, first + "-value");
+        attrs.put(second, second + "-value");
+        return attrs;
+    }
+
+    private Map<String, Object> get(final Map<String, Object> attrs,
+            final Optional<Map<String, Object>> answer) {
+        return this.cache.get("um", "trellis", "Persona", "1", attrs, () -> {
+            this.calls.incrementAndGet();
+            return answer;
+        });
+    }
+
+    @Test
+    public void sameAttributesInAnyOrderAreServedFromTheCache() {
+        final Map<String, Object> similar = new LinkedHashMap<>();
+        similar.put("entityId", "similar-1");
+
+        assertThat(get(attrs("name", "surname"), Optional.of(similar))).containsEntry("entityId", "similar-1");
+        assertThat(get(attrs("surname", "name"), Optional.empty())).containsEntry("entityId", "similar-1");
+        assertThat(this.calls).hasValue(1);
+        assertThat(this.cache.getHitRatio()).isEqualTo(0.5);
+        assertThat(this.cache.getSavedSeconds()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    public void noSimilarEntityIsCachedButAFailureIsNot() {
+        assertThat(get(attrs("name", "surname"), Optional.empty())).isNull();
+        assertThat(get(attrs("name", "surname"), null)).isNull();
+        assertThat(this.calls).hasValue(1);
+
+        assertThat(get(attrs("name", "city"), null)).isNull();
+        assertThat(get(attrs("name", "city"), Optional.empty())).isNull();
+        assertThat(this.calls).hasValue(3);
+    }
+
+    @Test
+    public void invalidatedEntriesAreLoadedAgain() {
+        get(attrs("name", "surname"), Optional.empty());
+        this.cache.invalidate("um", "trellis", "Persona", "1", attrs("surname", "name"));
+        get(attrs("name", "surname"), Optional.empty());
+        this.cache.invalidate("um", null, null);
+        get(attrs("name", "surname"), Optional.empty());
+
+        assertThat(this.calls).hasValue(3);
+        assertThat(this.cache.getHitCount()).isZero();
+    }
+}
@@ -0,0 +1,184 @@
+package es.um.asio.service.test.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import es.um.asio.service.cache.DiscoveryCache;
+import es.um.asio.service.config.DiscoveryConfig;
+import es.um.asio.service.discovery.DiscoveryBatcher;
+import es.um.asio.service.discovery.DiscoveryClient;
+import es.um.asio.service.discovery.DiscoveryExecutor;
+import es.um.asio.service.service.impl.DiscoveryServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests of {@link DiscoveryClient} against a stub of the discovery library.
+ */
+public class DiscoveryClientTest {
+
+    private static final String ENDPOINT = "/discovery/entity-link/instance";
+
+    private static final String RESPONSE = "{\"status\":\"COMPLETED\",\"response\":{\"stats\":{\"total\":1},"
+            + "\"results\":[{\"node\":\"um\",\"automatics\":[{\"entityId\":\"similar-1\",\"similarity\":0.98}],"
+            + "\"manuals\":[]},{\"node\":\"other\"}]}}";
+
+    private HttpServer server;
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+
+    private volatile int status = 200;
+
+    private DiscoveryConfig config;
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext(ENDPOINT, this::handle);
+        this.server.start();
+        this.config = new DiscoveryConfig();
+        this.config.setHost("http://localhost");
+        this.config.setPort(String.valueOf(this.server.getAddress().getPort()));
+        this.config.setEndPoint(ENDPOINT);
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        this.clientPorts.add(exchange.getRemoteAddress().getPort());
+        this.queries.add(exchange.getRequestURI().getRawQuery());
+        this.bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        final byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(this.status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    @Test
+    public void readsTheFirstResultOnKeptAliveConnections() throws Exception {
+        final DiscoveryClient client = new DiscoveryClient(this.config);
+        final HashMap<String, Object> attrs = new HashMap<>();
+        attrs.put("name", "Ana & <Eva>");
+        attrs.put("age", null);
+
+        ObjectNode result = null;
+        for (int i = 0; i < 5; i++) {
+            result = client.findFirstResult("um", "trellis", "Persona", "1", attrs);
+        }
+
+        assertThat(result.get("node").asText()).isEqualTo("um");
+        assertThat(this.clientPorts).hasSize(1);
+        assertThat(this.queries.get(0)).contains("node=um", "tripleStore=trellis", "className=Persona",
+                "entityId=1-temp", "doSynchronous=true");
+        assertThat(this.bodies.get(0)).contains("\"name\":\"Ana & <Eva>\"", "\"age\":null");
+    }
+
+    @Test
+    public void errorStatusFails() {
+        this.status = 500;
+        final DiscoveryClient client = new DiscoveryClient(this.config);
+
+        assertThatThrownBy(() -> client.findFirstResult("um", "trellis", "Persona", "1", new HashMap<>()))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void serviceReturnsTheFirstAutomaticMatchAndCachesIt() {
+        final DiscoveryCache cache = cache();
+        final DiscoveryExecutor executor = new DiscoveryExecutor(this.config);
+        final DiscoveryBatcher batcher = new DiscoveryBatcher(this.config, new DiscoveryClient(this.config));
+        final DiscoveryServiceImpl service = service(cache, executor, batcher);
+        try {
+            final Map<String, Object> similar = service.findSimilarEntity("um", "trellis", "Persona", "1",
+                    new HashMap<>());
+            final Map<String, Object> cached = service.findSimilarEntity("um", "trellis", "Persona", "1",
+                    new HashMap<>());
+
+            assertThat(similar).containsEntry("entityId", "similar-1");
+            assertThat(cached).isEqualTo(similar);
+            assertThat(this.queries).hasSize(1);
+            assertThat(cache.getHitCount()).isEqualTo(1);
+
+            service.invalidateSimilarEntities("um", null, "Persona");
+            service.findSimilarEntity("um", "trellis", "Persona", "1", new HashMap<>());
+
+            assertThat(this.queries).hasSize(2);
+        } finally {
+            executor.shutdown();
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void theLookupsOfAChunkGoOutInASingleBatch() {
+        this.config.setBatchWindow(200);
+        final DiscoveryCache cache = cache();
+        final DiscoveryExecutor executor = new DiscoveryExecutor(this.config);
+        final DiscoveryBatcher batcher = new DiscoveryBatcher(this.config, new DiscoveryClient(this.config));
+        final DiscoveryServiceImpl service = service(cache, executor, batcher);
+        try {
+            // as the bulk creation does: every lookup of the chunk is started, then they are waited for
+            final List<CompletableFuture<Map<String, Object>>> similar = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                final HashMap<String, Object> attrs = new HashMap<>();
+                attrs.put("name", "instance-" + i);
+                similar.add(service.findSimilarEntityAsync("um", "trellis", "Persona", String.valueOf(i), attrs));
+            }
+
+            assertThat(similar).allSatisfy(future -> assertThat(future.join()).containsEntry("entityId", "similar-1"));
+            assertThat(batcher.getBatchCount()).isEqualTo(1);
+            assertThat(batcher.getRequestCount()).isEqualTo(10);
+            assertThat(this.queries).hasSize(10);
+            assertThat(executor.getSuccessCount()).isEqualTo(10);
+            assertThat(cache.getMissCount()).isEqualTo(10);
+        } finally {
+            executor.shutdown();
+            batcher.shutdown();
+        }
+    }
+
+    private static DiscoveryCache cache() {
+        final DiscoveryCache cache = new DiscoveryCache();
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", 60L);
+        cache.init();
+        return cache;
+    }
+
+    private DiscoveryServiceImpl service(final DiscoveryCache cache, final DiscoveryExecutor executor,
+            final DiscoveryBatcher batcher) {
+        final DiscoveryServiceImpl service = new DiscoveryServiceImpl();
+        ReflectionTestUtils.setField(service, "discoveryClient", new DiscoveryClient(this.config));
+        ReflectionTestUtils.setField(service, "discoveryExecutor", executor);
+        ReflectionTestUtils.setField(service, "discoveryBatcher", batcher);
+        ReflectionTestUtils.setField(service, "discoveryCache", cache);
+        return service;
+    }
+}
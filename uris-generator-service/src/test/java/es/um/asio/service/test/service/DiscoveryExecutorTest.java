@@ -0,0 +1,118 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.config.DiscoveryConfig;
+import es.um.asio.service.discovery.DiscoveryExecutor;
+import es.um.asio.service.util.CircuitBreaker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the deadline and the circuit breaker of {@link DiscoveryExecutor}.
+ */
+public class DiscoveryExecutorTest {
+
+    private DiscoveryExecutor executor;
+
+    @Before
+    public void setUp() {
+        final DiscoveryConfig config = new DiscoveryConfig();
+        config.setDeadline(100);
+        config.setThreads(2);
+        config.setQueueSize(2);
+        config.setFailureThreshold(2);
+        config.setOpenDuration(60000);
+        this.executor = new DiscoveryExecutor(config);
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    @Test
+    public void slowCallReturnsTheFallbackAtTheDeadline() {
+        final long start = System.nanoTime();
+        final String result = this.executor.call(() -> {
+            TimeUnit.SECONDS.sleep(5);
+            return "late";
+        }, "fallback");
+
+        assertThat(result).isEqualTo("fallback");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(this.executor.getTimeoutCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void circuitOpensAfterConsecutiveFailures() {
+        final AtomicInteger made = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            this.executor.call(() -> {
+                made.incrementAndGet();
+                throw new IOException("down");
+            }, null);
+        }
+
+        assertThat(made.get()).isEqualTo(2);
+        assertThat(this.executor.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(this.executor.getCircuitBreaker().getRejectedCount()).isEqualTo(3);
+        assertThat(this.executor.call(() -> "up", "fallback")).isEqualTo("fallback");
+    }
+
+    @Test
+    public void circuitClosesAfterASuccessfulTrial() {
+        final AtomicLong now = new AtomicLong();
+        final CircuitBreaker breaker = new CircuitBreaker(1, 1000, now::get);
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        now.set(1000);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void saturationDoesNotOpenTheCircuit() {
+        for (int i = 0; i < 5; i++) {
+            final String result = this.executor.await(
+                    () -> CompletableFuture.failedFuture(new RejectedExecutionException("No discovery connection available")),
+                    "fallback");
+            assertThat(result).isEqualTo("fallback");
+        }
+
+        assertThat(this.executor.getSaturatedCount()).isEqualTo(5);
+        assertThat(this.executor.getFailureCount()).isZero();
+        assertThat(this.executor.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(this.executor.call(() -> "up", "fallback")).isEqualTo("up");
+    }
+
+    @Test
+    public void aSkippedTrialIsGivenBack() {
+        final AtomicLong now = new AtomicLong();
+        final CircuitBreaker breaker = new CircuitBreaker(1, 1000, now::get);
+        breaker.onFailure();
+
+        now.set(1000);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSkipped();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getOpenCount()).isEqualTo(1);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+}
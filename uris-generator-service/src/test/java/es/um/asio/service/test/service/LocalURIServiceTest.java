@@ -0,0 +1,98 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.cache.LocalURICache;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.LocalURI;
+import es.um.asio.service.repository.LocalURIRepository;
+import es.um.asio.service.service.CanonicalURILanguageService;
+import es.um.asio.service.service.impl.LocalURIServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the eviction of the {@link LocalURICache} by {@link LocalURIServiceImpl} around the commit of the writes.
+ */
+public class LocalURIServiceTest {
+
+    private static final String CANONICAL_URI = "http://hercules.org/um/res/Persona/1";
+
+    private static final String CANONICAL_URI_LANGUAGE = "http://hercules.org/um/es-ES/rec/Persona/1";
+
+    private final LocalURICache cache = new LocalURICache();
+
+    private final LocalURIServiceImpl service = new LocalURIServiceImpl();
+
+    private final LocalURI entity = new LocalURI();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(this.cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(this.cache, "ttl", 60L);
+        this.cache.init();
+
+        final CanonicalURILanguage canonicalURILanguage = new CanonicalURILanguage();
+        ReflectionTestUtils.setField(canonicalURILanguage, "fullParentURI", CANONICAL_URI);
+        final CanonicalURILanguageService canonicalURILanguageService = Mockito.mock(CanonicalURILanguageService.class);
+        Mockito.when(canonicalURILanguageService.getAllByFullURI(CANONICAL_URI_LANGUAGE)).thenReturn(canonicalURILanguage);
+
+        ReflectionTestUtils.setField(this.service, "repository", Mockito.mock(LocalURIRepository.class));
+        ReflectionTestUtils.setField(this.service, "cache", this.cache);
+        ReflectionTestUtils.setField(this.service, "canonicalURILanguageService", canonicalURILanguageService);
+        this.entity.setCanonicalURILanguageStr(CANONICAL_URI_LANGUAGE);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void load() {
+        this.cache.get(CANONICAL_URI, "triple-store", "es-ES", () -> Collections.singletonList(this.entity));
+    }
+
+    @Test
+    public void writesEvictTheCanonicalURIAgainAfterCommit() {
+        load();
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.service.update(this.entity);
+        assertThat(this.cache.size()).isZero();
+        // a concurrent reader loads the old rows before the commit
+        load();
+        assertThat(this.cache.size()).isEqualTo(1);
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(this.cache.size()).isZero();
+    }
+
+    @Test
+    public void deletesByIdEvictEverythingAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.service.delete("1");
+        load();
+        assertThat(this.cache.size()).isEqualTo(1);
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(this.cache.size()).isZero();
+    }
+
+    @Test
+    public void withoutTransactionTheEvictionIsOnlyRunNow() {
+        load();
+
+        this.service.save(this.entity);
+        assertThat(this.cache.size()).isZero();
+    }
+}
@@ -0,0 +1,115 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.config.properties.ReferenceProperties;
+import es.um.asio.service.service.ReferenceGenerator;
+import es.um.asio.service.service.impl.ContentReferenceGenerator;
+import es.um.asio.service.service.impl.ReferenceServiceImpl;
+import es.um.asio.service.service.impl.TimeOrderedReferenceGenerator;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests of the reference strategies and of their selection by {@link ReferenceServiceImpl}.
+ */
+public class ReferenceServiceTest {
+
+    private final ReferenceProperties properties = new ReferenceProperties();
+
+    private final TimeOrderedReferenceGenerator timeOrdered = new TimeOrderedReferenceGenerator();
+
+    private ReferenceServiceImpl service;
+
+    @Before
+    public void setUp() {
+        ContentReferenceGenerator content = new ContentReferenceGenerator();
+        ReflectionTestUtils.setField(content, "properties", this.properties);
+        this.service = new ReferenceServiceImpl();
+        ReflectionTestUtils.setField(this.service, "properties", this.properties);
+        ReflectionTestUtils.setField(this.service, "generators", Arrays.<ReferenceGenerator>asList(content, this.timeOrdered));
+    }
+
+    private static boolean isTimeOrdered(final String reference) {
+        return UUID.fromString(reference).version() == 7;
+    }
+
+    @Test
+    public void timeOrderedReferencesAreVersion7WithTheCurrentTime() {
+        final long before = System.currentTimeMillis();
+        final UUID reference = UUID.fromString(this.timeOrdered.generate(null));
+        final long after = System.currentTimeMillis();
+
+        assertThat(reference.version()).isEqualTo(7);
+        assertThat(reference.variant()).isEqualTo(2);
+        assertThat(reference.getMostSignificantBits() >>> 16).isBetween(before, after);
+    }
+
+    @Test
+    public void timeOrderedReferencesAreStrictlyIncreasing() {
+        String previous = this.timeOrdered.generate(null);
+        for (int i = 0; i < 10000; i++) {
+            final String next = this.timeOrdered.generate(null);
+            // as text too, the order of the URIs in the indexes
+            assertThat(next).isGreaterThan(previous);
+            assertThat(UUID.fromString(next)).isGreaterThan(UUID.fromString(previous));
+            previous = next;
+        }
+    }
+
+    @Test
+    public void timeOrderedReferencesKeepIncreasingIfTheClockGoesBackOrTheCounterOverflows() {
+        UUID previous = ReflectionTestUtils.invokeMethod(this.timeOrdered, "next", 1_000_000L);
+        for (int i = 0; i < 5000; i++) {
+            final UUID next = ReflectionTestUtils.invokeMethod(this.timeOrdered, "next", 1_000_000L);
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+        // 4096 references per millisecond, the rest are moved to the next one
+        assertThat(previous.getMostSignificantBits() >>> 16).isEqualTo(1_000_001L);
+
+        final UUID back = ReflectionTestUtils.invokeMethod(this.timeOrdered, "next", 999_000L);
+        assertThat(back).isGreaterThan(previous);
+    }
+
+    @Test
+    public void theStrategyIsSelectedByTypeThenByDomain() {
+        this.properties.setTypes(Collections.singletonMap("res", TimeOrderedReferenceGenerator.NAME));
+        this.properties.setDomains(Collections.singletonMap("hercules.org", TimeOrderedReferenceGenerator.NAME));
+        this.service.init();
+
+        assertThat(isTimeOrdered(this.service.generate("other.org", "res", "content"))).isTrue();
+        assertThat(isTimeOrdered(this.service.generate("hercules.org", "cat", "content"))).isTrue();
+        assertThat(isTimeOrdered(this.service.generate("other.org", "cat", "content"))).isFalse();
+        assertThat(this.service.isDeterministic("other.org", "res")).isFalse();
+        assertThat(this.service.isDeterministic("hercules.org", "cat")).isFalse();
+        assertThat(this.service.isDeterministic("other.org", "cat")).isTrue();
+    }
+
+    @Test
+    public void theTypeOverridesTheDomain() {
+        this.properties.setStrategy(TimeOrderedReferenceGenerator.NAME);
+        this.properties.setTypes(Collections.singletonMap("kos", ContentReferenceGenerator.NAME));
+        this.properties.setDomains(Collections.singletonMap("hercules.org", TimeOrderedReferenceGenerator.NAME));
+        this.service.init();
+
+        assertThat(this.service.generate("hercules.org", "kos", "content"))
+                .isEqualTo(this.service.generate("hercules.org", "kos", "content"));
+        assertThat(this.service.isDeterministic("hercules.org", "kos")).isTrue();
+        assertThat(isTimeOrdered(this.service.generate(null, null, "content"))).isTrue();
+    }
+
+    @Test
+    public void unknownStrategiesAreRejectedAtStartup() {
+        this.properties.setDomains(Collections.singletonMap("hercules.org", "random"));
+
+        assertThatThrownBy(() -> this.service.init()).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("random");
+    }
+}
@@ -0,0 +1,96 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.cache.ReferenceDataSnapshot;
+import es.um.asio.service.config.properties.URISChemaProperties;
+import es.um.asio.service.dto.URIComponents;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.service.impl.SchemaServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Tests of {@link SchemaServiceImpl}: the schemas are checked at startup, and in the parsing the URIs with only one
+ * of the optional segments are told apart with the reference data.
+ */
+public class SchemaServiceTest {
+
+    private final SchemaServiceImpl service = new SchemaServiceImpl();
+
+    private final ReferenceDataSnapshot snapshot = Mockito.mock(ReferenceDataSnapshot.class);
+
+    private ReferenceDataSnapshot available;
+
+    private final URISChemaProperties properties = new URISChemaProperties();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        this.properties.setCanonicalURISchema("http://$domain$/$sub-domain$/$type$/$concept$/$reference$");
+        this.properties.setCanonicalURILanguageSchema("http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$");
+        ObjectProvider<ReferenceDataSnapshot> referenceData = Mockito.mock(ObjectProvider.class);
+        Mockito.when(referenceData.getIfAvailable()).thenAnswer(invocation -> this.available);
+        ReflectionTestUtils.setField(this.service, "properties", this.properties);
+        ReflectionTestUtils.setField(this.service, "referenceData", referenceData);
+
+        Mockito.when(this.snapshot.getType(anyString())).thenReturn(Optional.empty());
+        Mockito.when(this.snapshot.getType("res")).thenReturn(Optional.of(new Type("res", "recurso")));
+        Mockito.when(this.snapshot.getLanguage(anyString())).thenReturn(Optional.empty());
+        Mockito.when(this.snapshot.getLanguage("es-ES")).thenReturn(Optional.of(new Language()));
+        this.available = this.snapshot;
+    }
+
+    @Test
+    public void canonicalURIsAreToldApartByTheType() {
+        assertThat(this.service.parseCanonical("http://hercules.org/res/Persona/1234"))
+                .contains(new URIComponents("hercules.org", null, null, "res", "Persona", "1234"));
+        assertThat(this.service.parseCanonical("http://hercules.org/um/res/Persona"))
+                .contains(new URIComponents("hercules.org", "um", null, "res", "Persona", null));
+    }
+
+    @Test
+    public void languageURIsAreToldApartByTheLanguage() {
+        assertThat(this.service.parseCanonicalLanguage("http://hercules.org/es-ES/rec/Persona/1234"))
+                .contains(new URIComponents("hercules.org", null, "es-ES", "rec", "Persona", "1234"));
+        assertThat(this.service.parseCanonicalLanguage("http://hercules.org/um/es-ES/rec/Persona"))
+                .contains(new URIComponents("hercules.org", "um", "es-ES", "rec", "Persona", null));
+    }
+
+    @Test
+    public void urisWithAllTheOptionalSegmentsDoNotNeedTheReferenceData() {
+        this.available = null;
+
+        assertThat(this.service.parseCanonicalLanguage("http://hercules.org/um/es-ES/rec/Persona/1234"))
+                .contains(new URIComponents("hercules.org", "um", "es-ES", "rec", "Persona", "1234"));
+        assertThat(this.service.parseCanonical("http://hercules.org/res/Persona/1234")).isEmpty();
+    }
+
+    @Test
+    public void urisTheReferenceDataDoesNotTellApartAreNotParsed() {
+        assertThat(this.service.parseCanonicalLanguage("http://hercules.org/en-EN/rec/Persona/1234")).isEmpty();
+        assertThat(this.service.parseCanonical("http://hercules.org/other/Persona/1234")).isEmpty();
+    }
+
+    @Test
+    public void theConfiguredSchemasAreCheckedAtStartup() {
+        this.service.init();
+
+        this.properties.setCanonicalURISchema("http://$domain$/$type$/$concept$/$concept$");
+        assertThatThrownBy(this.service::init).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.uri.canonicalURISchema");
+
+        this.properties.setCanonicalURISchema("http://$domain$/$sub-domain$/$type$/$concept$/$reference$");
+        this.properties.setCanonicalURILanguageSchema("http://$domain$/$language$$type$/$concept$/$reference$");
+        assertThatThrownBy(this.service::init).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.uri.canonicalURILanguageSchema");
+    }
+}
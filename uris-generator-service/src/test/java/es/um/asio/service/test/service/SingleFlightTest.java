@@ -0,0 +1,131 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.util.SingleFlight;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests of {@link SingleFlight}.
+ */
+public class SingleFlightTest {
+
+    private static final int CALLERS = 6;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS + 1);
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        this.pool.shutdownNow();
+    }
+
+    /**
+     * Starts the callers of a key, the first one computes until the release latch is opened, and waits until all the
+     * others are waiting for it.
+     */
+    private List<Future<String>> callers(final String key, final CountDownLatch release, final RuntimeException failure)
+            throws InterruptedException {
+        final CountDownLatch computing = new CountDownLatch(1);
+        final List<Future<String>> futures = new ArrayList<>();
+        futures.add(this.pool.submit(() -> this.singleFlight.execute(key, () -> compute(key, computing, release, failure))));
+        assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+        final long coalesced = this.singleFlight.getCoalescedCount();
+        for (int i = 1; i < CALLERS; i++) {
+            futures.add(this.pool.submit(() -> this.singleFlight.execute(key, () -> compute(key, null, null, null))));
+        }
+        while (this.singleFlight.getCoalescedCount() < coalesced + CALLERS - 1) {
+            Thread.sleep(1);
+        }
+        return futures;
+    }
+
+    private String compute(final String key, final CountDownLatch computing, final CountDownLatch release,
+            final RuntimeException failure) {
+        this.computations.incrementAndGet();
+        if (computing != null) {
+            computing.countDown();
+        }
+        try {
+            if (release != null && !release.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return key + "-value";
+    }
+
+    @Test
+    public void concurrentCallersShareOneComputation() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Future<String>> futures = callers("a", release, null);
+        release.countDown();
+
+        for (Future<String> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("a-value");
+        }
+        assertThat(this.computations).hasValue(1);
+        assertThat(this.singleFlight.getCoalescedCount()).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    public void theExceptionReachesEveryCaller() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final IllegalArgumentException failure = new IllegalArgumentException("boom");
+        final List<Future<String>> futures = callers("a", release, failure);
+        release.countDown();
+
+        for (Future<String> future : futures) {
+            assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                    .hasCause(failure);
+        }
+        assertThat(this.computations).hasValue(1);
+    }
+
+    @Test
+    public void theKeyIsRemovedOnceTheComputationEnds() {
+        assertThat(this.singleFlight.execute("a", () -> compute("a", null, null, null))).isEqualTo("a-value");
+        assertThatThrownBy(() -> this.singleFlight.execute("a", () -> compute("a", null, null,
+                new IllegalStateException("boom")))).isInstanceOf(IllegalStateException.class);
+
+        assertThat(this.singleFlight.getInFlightCount()).isZero();
+        assertThat(this.singleFlight.execute("a", () -> compute("a", null, null, null))).isEqualTo("a-value");
+        assertThat(this.computations).hasValue(3);
+    }
+
+    @Test
+    public void differentKeysDoNotWaitForEachOther() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch computing = new CountDownLatch(1);
+        final Future<String> blocked = this.pool.submit(() -> this.singleFlight.execute("a",
+                () -> compute("a", computing, release, null)));
+        assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final Future<String> other = this.pool.submit(() -> this.singleFlight.execute("b",
+                () -> compute("b", null, null, null)));
+
+        assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo("b-value");
+        assertThat(blocked).isNotDone();
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo("a-value");
+    }
+}
@@ -0,0 +1,46 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.util.UriHash;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of {@link UriHash}.
+ */
+public class UriHashTest {
+
+    private static final String URI = "http://hercules.org/um/res/Persona/1";
+
+    private static final Long KEY = 8179209386636824722L;
+
+    @Test
+    public void theKeyIsTheSameInEveryRun() {
+        // fixed value, a change of the function would leave the keys already stored behind
+        assertThat(UriHash.of(URI)).isEqualTo(KEY);
+        assertThat(UriHash.of((String) null)).isNull();
+    }
+
+    @Test
+    public void differentURIsGetDifferentKeys() {
+        assertThat(UriHash.of(URI + "0")).isNotEqualTo(UriHash.of(URI));
+        assertThat(UriHash.of("http://hercules.org/um/res/Persona/\u00ed")).isNotEqualTo(UriHash.of("http://hercules.org/um/res/Persona/i"));
+    }
+
+    @Test
+    public void nullURIsAreLeftOutOfTheKeys() {
+        assertThat(UriHash.of(Arrays.asList(URI, null, URI + "0")))
+                .containsExactly(UriHash.of(URI), UriHash.of(URI + "0"));
+    }
+
+    @Test
+    public void onlyTheCandidatesWithTheExpectedURIAreKept() {
+        // candidates found by a shared key
+        assertThat(UriHash.verify(Arrays.asList(URI, URI + "0", URI), Function.identity(), URI))
+                .containsExactly(URI, URI);
+        assertThat(UriHash.verify(Arrays.asList(URI + "0", null), Function.identity(), URI)).isEmpty();
+    }
+}
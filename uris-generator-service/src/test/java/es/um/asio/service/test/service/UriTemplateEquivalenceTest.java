@@ -0,0 +1,122 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.model.CanonicalURI;
+import es.um.asio.service.model.CanonicalURILanguage;
+import es.um.asio.service.model.Language;
+import es.um.asio.service.model.LanguageType;
+import es.um.asio.service.model.Type;
+import es.um.asio.service.util.UriTemplate;
+import es.um.asio.service.util.Utils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the full URIs built with {@link UriTemplate} are the ones the former chain of regular expression
+ * replacements built, for both schemas and with the optional segments present and absent.
+ */
+@RunWith(Parameterized.class)
+public class UriTemplateEquivalenceTest {
+
+    private static final String CANONICAL_SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String LANGUAGE_SCHEMA = "http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$";
+
+    private enum Kind {
+        ENTITY, PROPERTY, INSTANCE
+    }
+
+    @Parameterized.Parameter(0)
+    public String subDomain;
+
+    @Parameterized.Parameter(1)
+    public Kind kind;
+
+    @Parameterized.Parameters(name = "subDomain={0}, {1}")
+    public static Collection<Object[]> parameters() {
+        final List<Object[]> parameters = new ArrayList<>();
+        for (String subDomain : new String[] { "um", null, "" }) {
+            for (Kind kind : Kind.values()) {
+                parameters.add(new Object[] { subDomain, kind });
+            }
+        }
+        return parameters;
+    }
+
+    private String concept() {
+        return this.kind == Kind.PROPERTY ? null : "Persona";
+    }
+
+    private String property() {
+        return this.kind == Kind.PROPERTY ? "nombre" : null;
+    }
+
+    private String reference() {
+        return this.kind == Kind.INSTANCE ? "5f0b6e6c-1f0c-4c9b-9c3e-3b1f2a7d8e11" : null;
+    }
+
+    @Test
+    public void canonicalURIIsTheSameAsWithTheReplacementChain() {
+        final CanonicalURI entity = new CanonicalURI("hercules.org", this.subDomain, new Type("res", "recurso"),
+                concept(), reference(), property(), CANONICAL_SCHEMA);
+
+        final String expected = replacementChain(CANONICAL_SCHEMA, entity.getDomain(), entity.getSubDomain(), null,
+                entity.getType().getCode(), entity.getIsEntity(), entity.getIsProperty(), entity.getIsInstance(),
+                entity.getConcept(), entity.getPropertyName(), entity.getReference());
+
+        assertThat(entity.getFullURI()).isEqualTo(expected);
+        assertThat(entity.getFullURI()).doesNotContain("$");
+    }
+
+    @Test
+    public void canonicalURILanguageIsTheSameAsWithTheReplacementChain() {
+        final Type type = new Type("res", "recurso");
+        final Language language = new Language("es-ES", "Español", "hercules.org", "um", "res", "Persona", "1", true);
+        final CanonicalURILanguage entity = new CanonicalURILanguage("hercules.org", this.subDomain,
+                new LanguageType(language, type, "rec", "recurso"), concept(), reference(), property(), LANGUAGE_SCHEMA);
+
+        final String expected = replacementChain(LANGUAGE_SCHEMA, entity.getDomain(), entity.getSubDomain(),
+                entity.getLanguageID(), entity.getTypeLangCode(), entity.getIsEntity(), entity.getIsProperty(),
+                entity.getIsInstance(), entity.getConcept(), entity.getPropertyName(), entity.getReference());
+
+        assertThat(entity.getFullURI()).isEqualTo(expected);
+        assertThat(entity.getFullURI()).doesNotContain("$");
+    }
+
+    /**
+     * The chain of replacements the models used before {@link UriTemplate}, kept as the reference of the expected
+     * output.
+     */
+    private static String replacementChain(String uriSchema, final String domain, final String subDomain,
+            final String language, final String type, final boolean isEntity, final boolean isProperty,
+            final boolean isInstance, final String concept, final String propertyName, final String reference) {
+        uriSchema = uriSchema.replaceFirst("\\$domain\\$", domain);
+        if (Utils.isValidString(subDomain)) {
+            uriSchema = uriSchema.replaceFirst("\\$sub-domain\\$", subDomain);
+        } else {
+            uriSchema = uriSchema.replaceFirst("/\\$sub-domain\\$", "");
+        }
+        if (language != null) {
+            uriSchema = uriSchema.replaceFirst("\\$language\\$", language);
+        }
+        uriSchema = uriSchema.replaceFirst("\\$type\\$", type);
+        if (isEntity || isInstance) {
+            uriSchema = uriSchema.replaceFirst("\\$concept\\$", concept);
+        }
+        if (isProperty) {
+            uriSchema = uriSchema.replaceFirst("\\$concept\\$", propertyName);
+        }
+        if (isInstance) {
+            uriSchema = uriSchema.replaceFirst("\\$reference\\$", reference);
+        } else {
+            uriSchema = uriSchema.replaceFirst("/\\$reference\\$", "").replaceFirst("\\$reference\\$", "");
+        }
+        return uriSchema.replaceFirst("///", "//");
+    }
+}
@@ -0,0 +1,120 @@
+package es.um.asio.service.test.service;
+
+import es.um.asio.service.util.UriTemplate;
+import es.um.asio.service.util.UriTemplate.Placeholder;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests of {@link UriTemplate}: a rendered URI is parsed back into the same values, with the optional segments
+ * present or absent.
+ */
+public class UriTemplateTest {
+
+    private static final String CANONICAL_SCHEMA = "http://$domain$/$sub-domain$/$type$/$concept$/$reference$";
+
+    private static final String LANGUAGE_SCHEMA = "http://$domain$/$sub-domain$/$language$/$type$/$concept$/$reference$";
+
+    private static String[] values(final String subDomain, final String language, final String reference) {
+        final String[] values = new String[Placeholder.values().length];
+        values[Placeholder.DOMAIN.ordinal()] = "hercules.org";
+        values[Placeholder.SUB_DOMAIN.ordinal()] = subDomain;
+        values[Placeholder.LANGUAGE.ordinal()] = language;
+        values[Placeholder.TYPE.ordinal()] = "res";
+        values[Placeholder.CONCEPT.ordinal()] = "Persona";
+        values[Placeholder.REFERENCE.ordinal()] = reference;
+        return values;
+    }
+
+    /**
+     * Renders the values and parses the URI back, an empty value is expected back as null. The values are among the
+     * shapes the URI matches, the only one unless the URI has just one of the optional segments.
+     */
+    private static String roundTrip(final String schema, final String[] values) {
+        final UriTemplate template = UriTemplate.compile(schema);
+        final String uri = template.render(values);
+        final String[] expected = values.clone();
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != null && expected[i].isEmpty()) {
+                expected[i] = null;
+            }
+        }
+        assertThat(template.parseAll(uri)).anySatisfy(parsed -> assertThat(parsed).containsExactly(expected));
+        return uri;
+    }
+
+    @Test
+    public void canonicalURIsAreParsedBackWithAndWithoutTheOptionalSegments() {
+        assertThat(roundTrip(CANONICAL_SCHEMA, values("um", null, "1234")))
+                .isEqualTo("http://hercules.org/um/res/Persona/1234");
+        assertThat(roundTrip(CANONICAL_SCHEMA, values("um", null, "")))
+                .isEqualTo("http://hercules.org/um/res/Persona");
+        assertThat(roundTrip(CANONICAL_SCHEMA, values("", null, "1234")))
+                .isEqualTo("http://hercules.org/res/Persona/1234");
+        assertThat(roundTrip(CANONICAL_SCHEMA, values("", null, "")))
+                .isEqualTo("http://hercules.org/res/Persona");
+    }
+
+    @Test
+    public void languageURIsAreParsedBackWithAndWithoutTheOptionalSegments() {
+        assertThat(roundTrip(LANGUAGE_SCHEMA, values("um", "es-ES", "1234")))
+                .isEqualTo("http://hercules.org/um/es-ES/res/Persona/1234");
+        assertThat(roundTrip(LANGUAGE_SCHEMA, values("um", "es-ES", "")))
+                .isEqualTo("http://hercules.org/um/es-ES/res/Persona");
+        assertThat(roundTrip(LANGUAGE_SCHEMA, values("", "es-ES", "1234")))
+                .isEqualTo("http://hercules.org/es-ES/res/Persona/1234");
+        assertThat(roundTrip(LANGUAGE_SCHEMA, values("", "es-ES", "")))
+                .isEqualTo("http://hercules.org/es-ES/res/Persona");
+    }
+
+    @Test
+    public void uriWithOneOptionalSegmentIsNotParsedAlone() {
+        // same segments as an entity with sub-domain and without reference
+        final String[] withoutSubDomain = values("", "es-ES", "1234");
+        final String[] withoutReference = values("es-ES", "res", "");
+        withoutReference[Placeholder.TYPE.ordinal()] = "Persona";
+        withoutReference[Placeholder.CONCEPT.ordinal()] = "1234";
+
+        for (String schema : new String[] { CANONICAL_SCHEMA, LANGUAGE_SCHEMA }) {
+            final UriTemplate template = UriTemplate.compile(schema);
+            final String uri = template.render(withoutSubDomain);
+            if (schema.equals(LANGUAGE_SCHEMA)) {
+                assertThat(template.render(withoutReference)).isEqualTo(uri);
+            }
+            assertThat(template.parse(uri)).isNull();
+            assertThat(template.parseAll(uri)).hasSize(2);
+        }
+    }
+
+    @Test
+    public void urisWithAllOrNoneOfTheOptionalSegmentsAreParsedAlone() {
+        final UriTemplate template = UriTemplate.compile(LANGUAGE_SCHEMA);
+
+        assertThat(template.parse("http://hercules.org/um/es-ES/res/Persona/1234"))
+                .containsExactly(values("um", "es-ES", "1234"));
+        assertThat(template.parse("http://hercules.org/es-ES/res/Persona"))
+                .containsExactly(values(null, "es-ES", null));
+    }
+
+    @Test
+    public void urisThatDoNotFollowTheSchemaAreNotParsed() {
+        final UriTemplate template = UriTemplate.compile(CANONICAL_SCHEMA);
+
+        assertThat(template.parse("https://hercules.org/um/res/Persona/1234")).isNull();
+        assertThat(template.parse("http://hercules.org/um/res/Persona/1234/extra/segments")).isNull();
+        assertThat(template.parse("http://hercules.org")).isNull();
+        assertThat(template.parse(null)).isNull();
+    }
+
+    @Test
+    public void schemasThatCanNotBeCompiledAreNotRendered() {
+        final UriTemplate template = UriTemplate.compile("http://$domain$$type$/$concept$");
+
+        assertThat(template.isCompiled()).isFalse();
+        assertThat(template.parse("http://hercules.orgres/Persona")).isNull();
+        assertThatThrownBy(() -> template.render(values("um", null, "1234")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}